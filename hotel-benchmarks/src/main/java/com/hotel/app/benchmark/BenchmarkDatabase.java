@@ -0,0 +1,200 @@
+package com.hotel.app.benchmark;
+
+import com.hotel.app.model.RoomType;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import jakarta.persistence.Persistence;
+import org.hibernate.Session;
+
+import java.sql.Connection;
+import java.sql.Date;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.LocalDate;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Base de dados H2 em memória (modo PostgreSQL) com o esquema das entidades e dados gerados.
+ * Cada instância usa uma base de dados própria, para que os benchmarks com tamanhos diferentes não se misturem.
+ */
+public class BenchmarkDatabase implements AutoCloseable {
+
+    public static final int ROOM_COUNT = 500;
+    public static final String PASSWORD = "Senha@123";
+    public static final LocalDate FIRST_NIGHT = LocalDate.of(2020, 1, 1);
+
+    private static final AtomicInteger DATABASE_SEQUENCE = new AtomicInteger();
+    private static final int JDBC_BATCH = 1_000;
+
+    private final EntityManagerFactory entityManagerFactory;
+    private final int userCount;
+    private final int bookingCount;
+
+    private BenchmarkDatabase(EntityManagerFactory entityManagerFactory, int userCount, int bookingCount) {
+        this.entityManagerFactory = entityManagerFactory;
+        this.userCount = userCount;
+        this.bookingCount = bookingCount;
+    }
+
+    /**
+     * Cria a base de dados e insere {@link #ROOM_COUNT} quartos, um utilizador por cada dez reservas
+     * (mínimo 100) e o número de reservas pedido, sem sobreposições no mesmo quarto.
+     *
+     * @param bookingCount O número de reservas a gerar.
+     */
+    public static BenchmarkDatabase create(int bookingCount) {
+        EntityManagerFactory factory = Persistence.createEntityManagerFactory("hotel_management_unit",
+                settings("bench" + DATABASE_SEQUENCE.incrementAndGet(), "create"));
+        int userCount = Math.max(100, bookingCount / 10);
+        BenchmarkDatabase database = new BenchmarkDatabase(factory, userCount, bookingCount);
+        database.populate();
+        return database;
+    }
+
+    /**
+     * Propriedades que substituem as do persistence.xml para apontar o EntityManagerFactory para o H2.
+     *
+     * @param databaseName O nome da base de dados em memória.
+     * @param schemaAction A ação hbm2ddl (por exemplo "create").
+     */
+    public static Map<String, Object> settings(String databaseName, String schemaAction) {
+        Map<String, Object> settings = new HashMap<>();
+        settings.put("jakarta.persistence.jdbc.driver", "org.h2.Driver");
+        settings.put("jakarta.persistence.jdbc.url",
+                "jdbc:h2:mem:" + databaseName + ";MODE=PostgreSQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1");
+        settings.put("jakarta.persistence.jdbc.user", "sa");
+        settings.put("jakarta.persistence.jdbc.password", "");
+        settings.put("hibernate.dialect", "org.hibernate.dialect.H2Dialect");
+        settings.put("hibernate.hbm2ddl.auto", schemaAction);
+        settings.put("hibernate.show_sql", "false");
+        settings.put("hibernate.format_sql", "false");
+        return settings;
+    }
+
+    public EntityManager createEntityManager() {
+        return entityManagerFactory.createEntityManager();
+    }
+
+    public EntityManagerFactory getEntityManagerFactory() {
+        return entityManagerFactory;
+    }
+
+    public int getUserCount() {
+        return userCount;
+    }
+
+    public int getBookingCount() {
+        return bookingCount;
+    }
+
+    public static String emailOf(int userId) {
+        return "hospede" + userId + "@hotel.ao";
+    }
+
+    @Override
+    public void close() {
+        if (entityManagerFactory.isOpen()) {
+            entityManagerFactory.close();
+        }
+    }
+
+    // Insere os dados por JDBC em lotes: gerar 1M de reservas pelo JPA dominaria o tempo de preparação
+    private void populate() {
+        EntityManager entityManager = entityManagerFactory.createEntityManager();
+        try {
+            entityManager.getTransaction().begin();
+            entityManager.unwrap(Session.class).doWork(connection -> {
+                insertUsers(connection);
+                insertRooms(connection);
+                insertBookings(connection);
+                restartSequences(connection);
+            });
+            entityManager.getTransaction().commit();
+        } finally {
+            entityManager.close();
+        }
+    }
+
+    private void insertUsers(Connection connection) throws SQLException {
+        try (PreparedStatement insert = connection.prepareStatement(
+                "INSERT INTO users (user_id, fullname, email, phone, birthday, role, password, version) VALUES (?, ?, ?, ?, ?, ?, ?, 0)")) {
+            for (int id = 1; id <= userCount; id++) {
+                insert.setInt(1, id);
+                insert.setString(2, "Hospede Numero " + id);
+                insert.setString(3, emailOf(id));
+                insert.setString(4, String.valueOf(900_000_000 + id));
+                insert.setDate(5, Date.valueOf(LocalDate.of(1990, 1, 1).plusDays(id % 5_000)));
+                insert.setString(6, "GUEST");
+                insert.setString(7, PASSWORD);
+                addToBatch(insert, id);
+            }
+            insert.executeBatch();
+        }
+    }
+
+    private void insertRooms(Connection connection) throws SQLException {
+        RoomType[] types = RoomType.values();
+        try (PreparedStatement insert = connection.prepareStatement(
+                "INSERT INTO rooms (room_id, room_number, room_type, price_per_night, capacity, floor, is_available, version) VALUES (?, ?, ?, ?, ?, ?, ?, 0)")) {
+            for (int id = 1; id <= ROOM_COUNT; id++) {
+                insert.setInt(1, id);
+                insert.setString(2, String.valueOf(100 * (1 + id / 50) + id % 50));
+                insert.setString(3, types[id % types.length].name());
+                insert.setDouble(4, 15_000 + (id % 10) * 2_500);
+                insert.setInt(5, 1 + id % 4);
+                insert.setInt(6, 1 + id / 50);
+                insert.setBoolean(7, true);
+                addToBatch(insert, id);
+            }
+            insert.executeBatch();
+        }
+    }
+
+    private void insertBookings(Connection connection) throws SQLException {
+        Random random = new Random(42);
+        String[] statuses = {"CONFIRMED", "CONFIRMED", "PENDING", "COMPLETED", "CANCELLED"};
+        LocalDate[] nextFreeNight = new LocalDate[ROOM_COUNT + 1];
+        try (PreparedStatement insert = connection.prepareStatement(
+                "INSERT INTO bookings (booking_id, user_id, room_id, check_in_date, check_out_date, booking_date, status, total_price, version) " +
+                        "VALUES (?, ?, ?, ?, ?, ?, ?, ?, 0)")) {
+            for (int id = 1; id <= bookingCount; id++) {
+                int roomId = 1 + (id % ROOM_COUNT);
+                LocalDate checkIn = nextFreeNight[roomId] != null ? nextFreeNight[roomId] : FIRST_NIGHT;
+                int nights = 1 + random.nextInt(5);
+                LocalDate checkOut = checkIn.plusDays(nights);
+                nextFreeNight[roomId] = checkOut.plusDays(random.nextInt(3));
+
+                insert.setLong(1, id);
+                insert.setInt(2, 1 + random.nextInt(userCount));
+                insert.setInt(3, roomId);
+                insert.setDate(4, Date.valueOf(checkIn));
+                insert.setDate(5, Date.valueOf(checkOut));
+                insert.setDate(6, Date.valueOf(checkIn.minusDays(10)));
+                insert.setString(7, statuses[random.nextInt(statuses.length)]);
+                insert.setDouble(8, nights * 20_000.0);
+                addToBatch(insert, id);
+            }
+            insert.executeBatch();
+        }
+    }
+
+    // Os IDs foram inseridos explicitamente: as sequências têm de continuar depois deles
+    private void restartSequences(Connection connection) throws SQLException {
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("ALTER SEQUENCE users_seq RESTART WITH " + (userCount + 1));
+            statement.execute("ALTER SEQUENCE rooms_seq RESTART WITH " + (ROOM_COUNT + 1));
+            statement.execute("ALTER SEQUENCE bookings_seq RESTART WITH " + (bookingCount + 1));
+        }
+    }
+
+    private static void addToBatch(PreparedStatement insert, int row) throws SQLException {
+        insert.addBatch();
+        if (row % JDBC_BATCH == 0) {
+            insert.executeBatch();
+        }
+    }
+}
@@ -0,0 +1,99 @@
+package com.hotel.app.benchmark;
+
+import com.hotel.app.concurrency.RoomLockStripes;
+import com.hotel.app.index.BookingIntervalIndex;
+import com.hotel.app.index.OccupancyIndex;
+import com.hotel.app.model.Booking;
+import com.hotel.app.model.User;
+import com.hotel.app.service.BookingService;
+import com.hotel.app.util.UnitOfWork;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Caminhos quentes do BookingService: verificação de disponibilidade (pela base de dados e pelo
+ * índice em memória) e histórico de reservas de um cliente.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class BookingServiceBenchmark {
+
+    @Param({"1000", "100000", "1000000"})
+    public int bookings;
+
+    private BenchmarkDatabase database;
+    private BookingService databaseBookingService;
+    private BookingService indexedBookingService;
+    private SplittableRandom random;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        database = BenchmarkDatabase.create(bookings);
+        // Cada operação dos serviços abre a sua unidade de trabalho sobre a base de dados H2
+        UnitOfWork.setEntityManagerSupplier(database::createEntityManager);
+        // Sem índice carregado: todas as verificações vão à base de dados
+        databaseBookingService = new BookingService();
+        // O índice começa na primeira noite dos dados gerados; com a origem por omissão (perto de hoje)
+        // as datas sorteadas ficariam fora dele e a verificação iria também à base de dados
+        indexedBookingService = new BookingService(new OccupancyIndex(BenchmarkDatabase.FIRST_NIGHT),
+                new BookingIntervalIndex(), new RoomLockStripes());
+        indexedBookingService.rebuildOccupancyIndex();
+        random = new SplittableRandom(7);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        UnitOfWork.setEntityManagerSupplier(null);
+        database.close();
+    }
+
+    @Benchmark
+    public boolean isRoomAvailableDatabase() {
+        LocalDate checkIn = randomCheckIn();
+        return databaseBookingService.isRoomAvailable(randomRoomId(), checkIn, checkIn.plusDays(3));
+    }
+
+    @Benchmark
+    public boolean isRoomAvailableIndexed() {
+        LocalDate checkIn = randomCheckIn();
+        return indexedBookingService.isRoomAvailable(randomRoomId(), checkIn, checkIn.plusDays(3));
+    }
+
+    @Benchmark
+    public List<Booking> listClientBookings() {
+        // Utilizador desligado, como o que o menu guarda depois do login: a consulta usa apenas o ID
+        User user = new User();
+        user.setUserId(1 + random.nextInt(database.getUserCount()));
+        return databaseBookingService.listClientBookings(user);
+    }
+
+    private Integer randomRoomId() {
+        return 1 + random.nextInt(BenchmarkDatabase.ROOM_COUNT);
+    }
+
+    // Datas dentro do período coberto pelos dados gerados
+    private LocalDate randomCheckIn() {
+        int spanDays = Math.max(30, bookings / BenchmarkDatabase.ROOM_COUNT * 4);
+        return BenchmarkDatabase.FIRST_NIGHT.plusDays(random.nextInt(spanDays));
+    }
+}
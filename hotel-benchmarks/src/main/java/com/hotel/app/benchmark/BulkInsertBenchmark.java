@@ -0,0 +1,106 @@
+package com.hotel.app.benchmark;
+
+import com.hotel.app.dao.BookingDAO;
+import com.hotel.app.dao.RoomDAO;
+import com.hotel.app.model.Booking;
+import com.hotel.app.model.BookingStatus;
+import com.hotel.app.model.Role;
+import com.hotel.app.model.Room;
+import com.hotel.app.model.RoomType;
+import com.hotel.app.model.User;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import jakarta.persistence.Persistence;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Inserção em massa de quartos e reservas pelos DAOs.
+ * Com {@code jdbcBatchSize=1} cada INSERT é uma ida à base de dados (o comportamento que as colunas
+ * IDENTITY impunham); com 50 os INSERTs seguem em lotes, graças às sequências pooled.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, batchSize = 1)
+@Measurement(iterations = 10, batchSize = 1)
+@Fork(1)
+public class BulkInsertBenchmark {
+
+    private static final AtomicInteger DATABASE_SEQUENCE = new AtomicInteger();
+
+    @Param({"1", "50"})
+    public int jdbcBatchSize;
+
+    @Param({"5000"})
+    public int rows;
+
+    private EntityManagerFactory entityManagerFactory;
+    private EntityManager entityManager;
+    private User guest;
+
+    // Base de dados nova a cada iteração, para que todas as medições partam de tabelas vazias
+    @Setup(Level.Iteration)
+    public void setUp() {
+        Map<String, Object> settings = BenchmarkDatabase.settings("bulk" + DATABASE_SEQUENCE.incrementAndGet(), "create");
+        settings.put("hibernate.jdbc.batch_size", String.valueOf(jdbcBatchSize));
+        entityManagerFactory = Persistence.createEntityManagerFactory("hotel_management_unit", settings);
+        entityManager = entityManagerFactory.createEntityManager();
+
+        entityManager.getTransaction().begin();
+        guest = new User("Hospede Lote", "lote@hotel.ao", "923000000", LocalDate.of(1990, 1, 1),
+                Role.GUEST, BenchmarkDatabase.PASSWORD);
+        entityManager.persist(guest);
+        entityManager.getTransaction().commit();
+    }
+
+    @TearDown(Level.Iteration)
+    public void tearDown() {
+        entityManager.close();
+        entityManagerFactory.close();
+    }
+
+    @Benchmark
+    public int insertRoomsAndBookings() {
+        RoomType[] types = RoomType.values();
+        List<Room> rooms = new ArrayList<>(rows);
+        for (int i = 0; i < rows; i++) {
+            rooms.add(new Room("B" + i, types[i % types.length], 20_000, 2, 1 + i / 100, true));
+        }
+        entityManager.getTransaction().begin();
+        new RoomDAO(entityManager).addRooms(rooms);
+        entityManager.getTransaction().commit();
+        entityManager.clear();
+
+        LocalDate checkIn = LocalDate.now().plusDays(30);
+        List<Booking> bookings = new ArrayList<>(rows);
+        for (Room room : rooms) {
+            bookings.add(new Booking(entityManager.getReference(User.class, guest.getUserId()),
+                    entityManager.getReference(Room.class, room.getRoomId()),
+                    checkIn, checkIn.plusDays(2), LocalDate.now(), BookingStatus.CONFIRMED, 40_000.0));
+        }
+        entityManager.getTransaction().begin();
+        new BookingDAO(entityManager).saveAll(bookings);
+        entityManager.getTransaction().commit();
+        entityManager.clear();
+        return rooms.size() + bookings.size();
+    }
+}
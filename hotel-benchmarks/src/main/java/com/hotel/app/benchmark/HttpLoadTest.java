@@ -0,0 +1,199 @@
+package com.hotel.app.benchmark;
+
+import com.hotel.app.metrics.LatencyRecorder;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Teste de carga da API HTTP (HotelSystemApp --http PORTA): N clientes em threads virtuais fazem pedidos
+ * seguidos, sem pausa, durante o tempo indicado, e no fim é mostrada a latência por endpoint (HdrHistogram).
+ *
+ * Não é um benchmark JMH: mede o servidor de fora, com a base de dados real por trás.
+ *   java -cp target/benchmarks.jar com.hotel.app.benchmark.HttpLoadTest \
+ *     --url http://localhost:8080 --concurrency 500 --duration 30 [--email cliente@hotel.ao --token TOKEN]
+ *
+ * Com --email e --token (o token de acesso do servidor), um em cada dez pedidos é uma reserva seguida
+ * do seu cancelamento, em nome desse cliente.
+ */
+public class HttpLoadTest {
+
+    private static final Pattern ROOM_NUMBER = Pattern.compile("\"roomNumber\":\"([^\"]+)\"");
+    private static final Pattern BOOKING_ID = Pattern.compile("\"bookingId\":(\\d+)");
+
+    private final HttpClient client;
+    private final String baseUrl;
+    private final String email;
+    private final String token;
+    private final List<String> roomNumbers;
+    private final LatencyRecorder latencies = new LatencyRecorder();
+    private final ConcurrentMap<String, LongAdder> errors = new ConcurrentHashMap<>();
+
+    private HttpLoadTest(HttpClient client, String baseUrl, String email, String token, List<String> roomNumbers) {
+        this.client = client;
+        this.baseUrl = baseUrl;
+        this.email = email;
+        this.token = token;
+        this.roomNumbers = roomNumbers;
+    }
+
+    public static void main(String[] args) throws Exception {
+        String baseUrl = option(args, "--url", "http://localhost:8080");
+        int concurrency = Integer.parseInt(option(args, "--concurrency", "200"));
+        Duration duration = Duration.ofSeconds(Long.parseLong(option(args, "--duration", "30")));
+        Duration warmup = Duration.ofSeconds(Long.parseLong(option(args, "--warmup", "5")));
+        String token = option(args, "--token", null);
+        // Os pedidos de reserva e de usuários exigem o token
+        String email = token != null ? option(args, "--email", null) : null;
+        if (token == null && option(args, "--email", null) != null) {
+            System.err.println("--email ignorado: indique também --token.");
+        }
+
+        try (ExecutorService clients = Executors.newVirtualThreadPerTaskExecutor()) {
+            HttpClient client = HttpClient.newBuilder()
+                    .executor(clients)
+                    .connectTimeout(Duration.ofSeconds(10))
+                    .build();
+
+            // Os números dos quartos vêm da própria API
+            LocalDate checkIn = LocalDate.now().plusDays(30);
+            String rooms = client.send(HttpRequest.newBuilder(URI.create(baseUrl + "/api/rooms?checkIn=" + checkIn
+                    + "&checkOut=" + checkIn.plusDays(1))).build(), HttpResponse.BodyHandlers.ofString()).body();
+            List<String> roomNumbers = new ArrayList<>();
+            for (Matcher matcher = ROOM_NUMBER.matcher(rooms); matcher.find(); ) {
+                roomNumbers.add(matcher.group(1));
+            }
+            if (roomNumbers.isEmpty()) {
+                System.err.println("Nenhum quarto disponível devolvido por " + baseUrl + "/api/rooms: " + rooms);
+                return;
+            }
+
+            HttpLoadTest test = new HttpLoadTest(client, baseUrl, email, token, roomNumbers);
+            System.out.printf("%d clientes contra %s (%d quartos); aquecimento %d s, medição %d s.%n",
+                    concurrency, baseUrl, roomNumbers.size(), warmup.toSeconds(), duration.toSeconds());
+
+            test.runFor(clients, concurrency, warmup);
+            test.latencies.reset();
+            test.errors.clear();
+            long start = System.nanoTime();
+            test.runFor(clients, concurrency, duration);
+            test.print(Duration.ofNanos(System.nanoTime() - start), concurrency);
+        }
+    }
+
+    // Cada cliente faz pedidos seguidos até ao fim do período
+    private void runFor(ExecutorService clients, int concurrency, Duration period) throws InterruptedException {
+        long deadline = System.nanoTime() + period.toNanos();
+        List<Future<?>> running = new ArrayList<>();
+        for (int i = 0; i < concurrency; i++) {
+            running.add(clients.submit(() -> {
+                while (System.nanoTime() < deadline) {
+                    nextRequest();
+                }
+            }));
+        }
+        for (Future<?> future : running) {
+            try {
+                future.get();
+            } catch (ExecutionException e) {
+                System.err.println("Cliente terminou com erro: " + e.getCause());
+            }
+        }
+    }
+
+    private void nextRequest() {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        LocalDate checkIn = LocalDate.now().plusDays(random.nextInt(1, 365));
+        LocalDate checkOut = checkIn.plusDays(random.nextInt(1, 8));
+        String roomNumber = roomNumbers.get(random.nextInt(roomNumbers.size()));
+        int choice = random.nextInt(10);
+
+        if (choice == 0 && email != null) {
+            String body = "{\"email\":\"" + email + "\",\"roomNumber\":\"" + roomNumber
+                    + "\",\"checkIn\":\"" + checkIn + "\",\"checkOut\":\"" + checkOut + "\"}";
+            String created = send("POST /api/bookings", authorized("/api/bookings")
+                    .header("Content-Type", "application/json")
+                    .POST(HttpRequest.BodyPublishers.ofString(body)).build(), 201, 409);
+            Matcher id = created != null ? BOOKING_ID.matcher(created) : null;
+            if (id != null && id.find()) {
+                send("POST /api/bookings/{id}/cancel", authorized("/api/bookings/" + id.group(1) + "/cancel")
+                        .POST(HttpRequest.BodyPublishers.noBody()).build(), 200);
+            }
+        } else if (choice < 5) {
+            send("GET /api/rooms", HttpRequest.newBuilder(uri("/api/rooms?checkIn=" + checkIn + "&checkOut=" + checkOut
+                    + "&minCapacity=" + random.nextInt(1, 4))).build(), 200);
+        } else if (choice < 9 || email == null) {
+            send("GET /api/rooms/{n}/availability", HttpRequest.newBuilder(uri("/api/rooms/" + roomNumber
+                    + "/availability?checkIn=" + checkIn + "&checkOut=" + checkOut)).build(), 200);
+        } else {
+            send("GET /api/users", authorized("/api/users?email=" + email).build(), 200);
+        }
+    }
+
+    // Envia o pedido e regista a latência; devolve o corpo, ou null se o código não for um dos esperados
+    private String send(String endpoint, HttpRequest request, int... expectedStatus) {
+        long start = System.nanoTime();
+        try {
+            HttpResponse<String> response = client.send(request, HttpResponse.BodyHandlers.ofString());
+            latencies.record(endpoint, System.nanoTime() - start);
+            for (int status : expectedStatus) {
+                if (response.statusCode() == status) {
+                    return response.body();
+                }
+            }
+            errors.computeIfAbsent(endpoint, name -> new LongAdder()).increment();
+        } catch (Exception e) {
+            latencies.record(endpoint, System.nanoTime() - start);
+            errors.computeIfAbsent(endpoint, name -> new LongAdder()).increment();
+        }
+        return null;
+    }
+
+    private URI uri(String path) {
+        return URI.create(baseUrl + path);
+    }
+
+    private HttpRequest.Builder authorized(String path) {
+        return HttpRequest.newBuilder(uri(path)).header("Authorization", "Bearer " + token);
+    }
+
+    private void print(Duration elapsed, int concurrency) {
+        Map<String, LatencyRecorder.Snapshot> snapshot = latencies.snapshot();
+        long total = snapshot.values().stream().mapToLong(LatencyRecorder.Snapshot::count).sum();
+        System.out.printf("%n%d pedidos em %d ms com %d clientes (%.0f pedidos/s).%n",
+                total, elapsed.toMillis(), concurrency, total * 1000.0 / Math.max(1, elapsed.toMillis()));
+        System.out.println("--------------------------------------------------------------------------------------------------");
+        System.out.printf("%-32s %9s %7s %10s %10s %10s %10s%n", "Endpoint", "Total", "Erros", "p50 (ms)", "p99 (ms)", "p99.9 (ms)", "Máx (ms)");
+        System.out.println("--------------------------------------------------------------------------------------------------");
+        snapshot.forEach((endpoint, latency) -> System.out.printf("%-32s %9d %7d %10.1f %10.1f %10.1f %10.1f%n",
+                endpoint, latency.count(), errors.getOrDefault(endpoint, new LongAdder()).sum(),
+                latency.p50() / 1000.0, latency.p99() / 1000.0, latency.p999() / 1000.0, latency.max() / 1000.0));
+        System.out.println("--------------------------------------------------------------------------------------------------");
+    }
+
+    private static String option(String[] args, String name, String defaultValue) {
+        for (int i = 0; i < args.length - 1; i++) {
+            if (args[i].equals(name)) {
+                return args[i + 1];
+            }
+        }
+        return defaultValue;
+    }
+}
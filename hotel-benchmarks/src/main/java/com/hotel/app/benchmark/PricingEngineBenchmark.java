@@ -0,0 +1,74 @@
+package com.hotel.app.benchmark;
+
+import com.hotel.app.model.RoomType;
+import com.hotel.app.pricing.PricingEngine;
+import com.hotel.app.pricing.Quote;
+import com.hotel.app.pricing.RateCalendar;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.Properties;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cotação de estadias com um calendário completo (fim de semana, duas épocas e descontos por duração):
+ * períodos aleatórios num ano, de 1 a 14 noites, para todos os tipos de quarto.
+ * quoteCached usa o cache do PricingEngine (o conjunto de chaves cabe nele); quoteUncached calcula sempre.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class PricingEngineBenchmark {
+
+    private static final LocalDate FIRST_NIGHT = LocalDate.of(2025, 1, 1);
+    private static final BigDecimal ROOM_RATE = new BigDecimal("100.00");
+
+    private final Random random = new Random(42);
+    private final RoomType[] roomTypes = RoomType.values();
+    private PricingEngine cached;
+    private PricingEngine uncached;
+
+    @Setup
+    public void setUp() {
+        Properties properties = new Properties();
+        properties.setProperty("weekend.multiplier", "1.20");
+        properties.setProperty("season.verao", "07-01..08-31:1.25");
+        properties.setProperty("season.festas", "12-20..01-05:1.40");
+        properties.setProperty("los.7", "5");
+        properties.setProperty("los.14", "10");
+        properties.setProperty(roomTypes[0].name() + ".weekday", "250.00");
+        RateCalendar calendar = RateCalendar.fromProperties(properties);
+        cached = new PricingEngine(calendar, 100_000, Duration.ofHours(1));
+        uncached = new PricingEngine(calendar, 0, Duration.ofHours(1));
+    }
+
+    @Benchmark
+    public Quote quoteCached() {
+        return quote(cached);
+    }
+
+    @Benchmark
+    public Quote quoteUncached() {
+        return quote(uncached);
+    }
+
+    private Quote quote(PricingEngine engine) {
+        LocalDate checkIn = FIRST_NIGHT.plusDays(random.nextInt(365));
+        return engine.quote(roomTypes[random.nextInt(roomTypes.length)], ROOM_RATE, checkIn, checkIn.plusDays(1 + random.nextInt(14)));
+    }
+}
@@ -0,0 +1,60 @@
+package com.hotel.app.benchmark;
+
+import com.hotel.app.dao.RoomDAO;
+import com.hotel.app.model.Room;
+import jakarta.persistence.EntityManager;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Listagem completa de quartos, feita a cada apresentação dos menus de quartos.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class RoomDAOBenchmark {
+
+    @Param({"1000", "100000", "1000000"})
+    public int bookings;
+
+    private BenchmarkDatabase database;
+    private EntityManager entityManager;
+    private RoomDAO roomDAO;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        database = BenchmarkDatabase.create(bookings);
+        entityManager = database.createEntityManager();
+        roomDAO = new RoomDAO(entityManager);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        entityManager.close();
+        database.close();
+    }
+
+    @Benchmark
+    public List<Room> getAllRooms() {
+        List<Room> rooms = roomDAO.getAllRooms();
+        entityManager.clear();
+        return rooms;
+    }
+}
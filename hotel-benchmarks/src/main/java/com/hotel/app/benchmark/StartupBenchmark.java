@@ -0,0 +1,78 @@
+package com.hotel.app.benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.BufferedReader;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Tempo até ao primeiro menu: cada invocação arranca o HotelSystemApp num JVM novo e mede até o
+ * menu principal aparecer na saída. O JPA arranca em segundo plano, por isso a base de dados não é
+ * necessária para esta medida.
+ *
+ * Para comparar com o perfil fast-startup (AppCDS):
+ *   java -jar target/benchmarks.jar StartupBenchmark \
+ *     -p classpath=../hotel-system/target/hotel-system-1.0-SNAPSHOT.jar \
+ *     -p jvmArgs=-XX:SharedArchiveFile=../hotel-system/target/hotel-system.jsa
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2)
+@Measurement(iterations = 10)
+@Fork(1)
+public class StartupBenchmark {
+
+    private static final String MAIN_CLASS = "com.hotel.app.HotelSystemApp";
+    private static final String MAIN_MENU_MARKER = "BEM-VINDO";
+
+    // Opções extra do JVM da aplicação, separadas por espaços
+    @Param({""})
+    public String jvmArgs;
+
+    // Classpath da aplicação; vazio para usar o do próprio benchmark
+    @Param({""})
+    public String classpath;
+
+    @Benchmark
+    public int timeToFirstMenu() throws Exception {
+        List<String> command = new ArrayList<>();
+        command.add(Path.of(System.getProperty("java.home"), "bin", "java").toString());
+        if (!jvmArgs.isBlank()) {
+            command.addAll(Arrays.asList(jvmArgs.trim().split("\\s+")));
+        }
+        command.add("-cp");
+        command.add(classpath.isBlank() ? System.getProperty("java.class.path") : classpath);
+        command.add(MAIN_CLASS);
+
+        Process process = new ProcessBuilder(command).redirectErrorStream(true).start();
+        try (BufferedReader output = new BufferedReader(new InputStreamReader(process.getInputStream(), StandardCharsets.UTF_8))) {
+            int lines = 0;
+            String line;
+            while ((line = output.readLine()) != null) {
+                lines++;
+                if (line.contains(MAIN_MENU_MARKER)) {
+                    return lines;
+                }
+            }
+            throw new IllegalStateException("A aplicação terminou sem mostrar o menu principal.");
+        } finally {
+            process.destroyForcibly().waitFor();
+        }
+    }
+}
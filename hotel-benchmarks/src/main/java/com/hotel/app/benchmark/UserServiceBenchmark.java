@@ -0,0 +1,60 @@
+package com.hotel.app.benchmark;
+
+import com.hotel.app.model.User;
+import com.hotel.app.service.UserService;
+import com.hotel.app.util.UnitOfWork;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Autenticação de utilizadores (consulta por email + comparação da senha).
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class UserServiceBenchmark {
+
+    @Param({"1000", "100000", "1000000"})
+    public int bookings;
+
+    private BenchmarkDatabase database;
+    private UserService userService;
+    private SplittableRandom random;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        database = BenchmarkDatabase.create(bookings);
+        UnitOfWork.setEntityManagerSupplier(database::createEntityManager);
+        userService = new UserService();
+        random = new SplittableRandom(11);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        UnitOfWork.setEntityManagerSupplier(null);
+        database.close();
+    }
+
+    @Benchmark
+    public User authenticateUser() {
+        String email = BenchmarkDatabase.emailOf(1 + random.nextInt(database.getUserCount()));
+        return userService.authenticateUser(email, BenchmarkDatabase.PASSWORD);
+    }
+}
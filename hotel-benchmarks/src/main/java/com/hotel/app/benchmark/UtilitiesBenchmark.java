@@ -0,0 +1,62 @@
+package com.hotel.app.benchmark;
+
+import com.hotel.app.util.Utilities;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Validadores Utilities.isValid*, usados em todos os formulários de cadastro e atualização.
+ * Cada benchmark alterna entre um valor válido e um inválido.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class UtilitiesBenchmark {
+
+    private final String[] emails = {"maria.silva@hotel.ao", "maria.silva@@hotel"};
+    private final String[] passwords = {"Senha@123", "senhafraca"};
+    private final String[] names = {"Ana Maria d'Almeida", "Ana 123"};
+    private final String[] phones = {"923456789", "823456789"};
+    private int next;
+
+    private int nextIndex() {
+        return (next++) & 1;
+    }
+
+    @Benchmark
+    public boolean isValidEmailFormat() {
+        return Utilities.isValidEmailFormat(emails[nextIndex()]);
+    }
+
+    @Benchmark
+    public boolean isValidStrongPasswordFormat() {
+        return Utilities.isValidStrongPasswordFormat(passwords[nextIndex()]);
+    }
+
+    @Benchmark
+    public boolean isValidPersonNameFormat() {
+        return Utilities.isValidPersonNameFormat(names[nextIndex()]);
+    }
+
+    @Benchmark
+    public boolean isValidPhoneNumberFormat() {
+        return Utilities.isValidPhoneNumberFormat(phones[nextIndex()]);
+    }
+
+    @Benchmark
+    public boolean isValidPaymentAmountFormat() {
+        return Utilities.isValidPaymentAmountFormat((nextIndex() == 0) ? 150.0 : -1.0);
+    }
+}
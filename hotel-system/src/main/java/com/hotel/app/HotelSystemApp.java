@@ -1,46 +1,138 @@
 package com.hotel.app;
 
+import com.hotel.app.api.HotelHttpServer;
+import com.hotel.app.script.ScriptReport;
+import com.hotel.app.script.ScriptRunner;
 import com.hotel.app.service.BookingService;
 import com.hotel.app.service.RoomService;
 import com.hotel.app.service.UserService;
+import com.hotel.app.util.JpaUtil;
 import com.hotel.app.view.MainMenu;
-import jakarta.persistence.EntityManager;
-import jakarta.persistence.EntityManagerFactory;
-import jakarta.persistence.Persistence;
+
+import java.net.InetSocketAddress;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.concurrent.CompletableFuture;
 
 public class HotelSystemApp {
     public static void main(String[] args) {
-        EntityManagerFactory entityManagerFactory = null;
-        EntityManager entityManager = null;
-
         try {
-            entityManagerFactory = Persistence.createEntityManagerFactory("hotel_management_unit");
-            entityManager = entityManagerFactory.createEntityManager();
+            // Modo sem menus: HotelSystemApp --script ops.jsonl [--workers N]
+            String script = option(args, "--script");
+            if (script != null) {
+                String workers = option(args, "--workers");
+                runScript(Path.of(script), workers != null ? Integer.parseInt(workers) : Runtime.getRuntime().availableProcessors());
+                return;
+            }
+
+            // API HTTP sem menus: HotelSystemApp --http 8080 [-Dhotel.http.bind=0.0.0.0] [-Dhotel.http.token=...]
+            String http = option(args, "--http");
+            if (http != null) {
+                runHttpServer(Integer.parseInt(http));
+                return;
+            }
+
+            // O pool de conexões, as migrações e o EntityManagerFactory arrancam em segundo plano;
+            // o menu aparece logo e a primeira operação na base de dados espera pelo fim do arranque
+            CompletableFuture<Void> jpaReady = JpaUtil.initAsync();
 
-            System.out.println("EntityManagerFactory inicializado com sucesso.");
+            // Os serviços não guardam EntityManager: cada operação usa a sua própria unidade de trabalho
+            UserService userService = new UserService();
+            RoomService roomService = new RoomService();
+            BookingService bookingService = new BookingService();
 
-            UserService userService = new UserService(entityManager);
-            RoomService roomService = new RoomService(entityManager);
-            BookingService bookingService = new BookingService(entityManager);
+            // Carrega as reservas ativas para o índice de ocupação em memória assim que o JPA estiver pronto;
+            // até lá as verificações de disponibilidade, vagas e conflitos vão à base de dados, e as reservas feitas
+            // entretanto são aplicadas aos índices no fim da carga
+            CompletableFuture<Void> startup = jpaReady.thenRun(() -> {
+                bookingService.rebuildOccupancyIndex();
+                reportStartup("Índice de ocupação carregado: " + bookingService.getOccupancyIndex().size() + " reservas ativas (~"
+                        + bookingService.getOccupancyIndex().memoryFootprintBytes() / 1024 + " KB)");
+            });
+            startup.exceptionally(e -> {
+                System.out.println("Erro na inicialização da base de dados: " + e.getMessage());
+                return null;
+            });
 
+            if (Boolean.getBoolean("hotel.startup.trainingRun")) {
+                // Execução de treino do perfil fast-startup: carrega as classes do arranque completo e sai,
+                // para que o JVM as grave no arquivo AppCDS (-XX:ArchiveClassesAtExit)
+                startup.exceptionally(e -> null).join();
+                return;
+            }
 
             System.out.println("Aplicação HotelSystemApp iniciada.");
+            reportStartup("Menu principal disponível");
 
-            MainMenu.start(userService, roomService, bookingService, entityManager);
+            MainMenu.start(userService, roomService, bookingService);
 
         } catch (Exception e) {
             System.out.println("Erro fatal na inicialização da aplicação: " + e.getMessage());
             e.printStackTrace();
         } finally {
-            if (entityManager != null && entityManager.isOpen()) {
-                entityManager.close();
-                System.out.println("EntityManager fechado.");
-            }
-            if (entityManagerFactory != null && entityManagerFactory.isOpen()) {
-                entityManagerFactory.close();
-                System.out.println("EntityManagerFactory fechado.");
-            }
+            JpaUtil.close();
             System.out.println("Aplicação HotelSystemApp encerrada e recursos JPA liberados.");
         }
     }
-}
\ No newline at end of file
+
+    // Executa um script de operações com o JPA já iniciado e mostra o relatório de latências
+    private static void runScript(Path script, int workers) throws Exception {
+        JpaUtil.init();
+        UserService userService = new UserService();
+        RoomService roomService = new RoomService();
+        BookingService bookingService = new BookingService();
+        bookingService.rebuildOccupancyIndex();
+
+        System.out.println("A executar " + script + " com " + workers + " threads...");
+        ScriptReport report = new ScriptRunner(userService, roomService, bookingService, workers).run(script);
+        report.print(System.out);
+    }
+
+    // Serve a API HTTP até o processo ser terminado (Ctrl+C / SIGTERM)
+    private static void runHttpServer(int port) throws Exception {
+        JpaUtil.init();
+        UserService userService = new UserService();
+        RoomService roomService = new RoomService();
+        BookingService bookingService = new BookingService();
+        bookingService.rebuildOccupancyIndex();
+
+        // Só na interface local, a menos que seja pedido outro endereço; sem token configurado é gerado um para esta execução
+        String bind = System.getProperty("hotel.http.bind", "127.0.0.1");
+        String token = System.getProperty("hotel.http.token");
+        boolean generatedToken = token == null || token.isBlank();
+        if (generatedToken) {
+            token = HotelHttpServer.newToken();
+        }
+        HotelHttpServer server = new HotelHttpServer(new InetSocketAddress(bind, port), token, userService, roomService, bookingService);
+        // O main fica bloqueado até ao fim do processo: é o hook que termina os pedidos em curso e fecha o JPA
+        Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+            server.stop(2);
+            JpaUtil.close();
+        }, "http-shutdown"));
+        server.start();
+        System.out.println("API HTTP disponível em http://" + server.getHost() + ":" + server.getPort() + "/api (Ctrl+C para terminar).");
+        if (generatedToken) {
+            System.out.println("Token de acesso desta execução (fixe-o com -Dhotel.http.token): " + token);
+        }
+        Thread.currentThread().join();
+    }
+
+    // Valor da opção indicada na linha de comandos (ex.: --script ops.jsonl), ou null se não foi indicada
+    private static String option(String[] args, String name) {
+        for (int i = 0; i < args.length - 1; i++) {
+            if (args[i].equals(name)) {
+                return args[i + 1];
+            }
+        }
+        return null;
+    }
+
+    // Tempo desde o arranque do JVM, mostrado com -Dhotel.startup.report=true
+    private static void reportStartup(String stage) {
+        if (Boolean.getBoolean("hotel.startup.report")) {
+            ProcessHandle.current().info().startInstant().ifPresent(start ->
+                    System.out.println("[arranque] " + stage + " após " + Duration.between(start, Instant.now()).toMillis() + " ms."));
+        }
+    }
+}
@@ -0,0 +1,22 @@
+package com.hotel.app.analytics;
+
+/**
+ * Agrupamento dos indicadores de ocupação.
+ */
+public enum AnalyticsDimension {
+    ROOM_TYPE("Tipo", "r.room_type"),
+    FLOOR("Andar", "r.floor");
+
+    private final String label;
+    private final String column;
+
+    AnalyticsDimension(String label, String column) {
+        this.label = label;
+        this.column = column;
+    }
+
+    public String getLabel() {return label;}
+
+    // Coluna SQL do agrupamento (valor fixo, nunca vindo do utilizador)
+    String getColumn() {return column;}
+}
@@ -0,0 +1,167 @@
+package com.hotel.app.analytics;
+
+import com.hotel.app.dao.DailyRoomStatsDAO;
+import com.hotel.app.util.UnitOfWork;
+import jakarta.persistence.Query;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+
+/**
+ * Indicadores de ocupação e receita (taxa de ocupação, ADR e RevPAR) por dia, por tipo de quarto ou por andar.
+ *
+ * A agregação é feita inteiramente no PostgreSQL: uma série de dias (generate_series) é cruzada com o inventário
+ * de cada grupo. Por tipo de quarto, as vendas vêm do resumo diário (daily_room_stats), mantido a cada alteração
+ * de reserva, e a consulta lê uma linha por dia e tipo. Por andar, cada reserva vendida é expandida nas noites
+ * que caem no período (uma linha por noite, com a sua parte do preço total). Só as linhas agregadas
+ * (dias × grupos) chegam à aplicação; nenhuma reserva é carregada como entidade.
+ *
+ * Uma noite conta como vendida se a reserva estiver CONFIRMED ou COMPLETED. O inventário é o número atual de
+ * quartos de cada grupo (não há histórico de quartos que entraram ou saíram de serviço).
+ */
+public class OccupancyAnalyticsService {
+
+    private static final List<String> SOLD_STATUSES = DailyRoomStatsDAO.SOLD_STATUSES.stream().map(Enum::name).toList();
+
+    // Limite de segurança para o período de um relatório (10 anos)
+    private static final long MAX_DAYS = 3660;
+
+    // {group} é substituído pela coluna da dimensão (valor fixo do enum, nunca vindo do utilizador)
+    private static final String DAILY_STATS_SQL = """
+            SELECT d.day_offset, g.grp, g.rooms, COALESCE(s.sold, 0), COALESCE(s.revenue, 0)
+            FROM generate_series(0, :days - 1) AS d(day_offset)
+            CROSS JOIN (SELECT {group} AS grp, COUNT(*) AS rooms FROM rooms r GROUP BY {group}) g
+            LEFT JOIN (
+                SELECT n.day_offset, {group} AS grp, COUNT(*) AS sold,
+                       SUM(CAST(b.total_price AS numeric) / (b.check_out_date - b.check_in_date)) AS revenue
+                FROM bookings b
+                JOIN rooms r ON r.room_id = b.room_id
+                CROSS JOIN LATERAL generate_series(
+                        GREATEST(b.check_in_date, CAST(:startDate AS date)) - CAST(:startDate AS date),
+                        LEAST(b.check_out_date, CAST(:endDate AS date)) - CAST(:startDate AS date) - 1) AS n(day_offset)
+                WHERE b.status IN (:soldStatuses)
+                  AND b.check_in_date < CAST(:endDate AS date)
+                  AND b.check_out_date > CAST(:startDate AS date)
+                GROUP BY n.day_offset, {group}
+            ) s ON s.day_offset = d.day_offset AND s.grp = g.grp
+            ORDER BY d.day_offset, g.grp
+            """;
+
+    private static final String DAILY_SUMMARY_SQL = """
+            SELECT d.day_offset, g.grp, g.rooms, COALESCE(s.rooms_sold, 0), COALESCE(s.revenue, 0)
+            FROM generate_series(0, :days - 1) AS d(day_offset)
+            CROSS JOIN (SELECT r.room_type AS grp, COUNT(*) AS rooms FROM rooms r GROUP BY r.room_type) g
+            LEFT JOIN daily_room_stats s
+                   ON s.stat_date = CAST(:startDate AS date) + d.day_offset AND s.room_type = g.grp
+            ORDER BY d.day_offset, g.grp
+            """;
+
+    /**
+     * Calcula os indicadores de cada dia do período, para cada grupo da dimensão.
+     *
+     * @param from O primeiro dia do período.
+     * @param to O dia seguinte ao último (não inclusivo, como o check-out).
+     * @param dimension O agrupamento (tipo de quarto ou andar).
+     * @return Uma linha por dia e por grupo, ordenadas por dia e grupo (os grupos sem vendas aparecem com zero).
+     */
+    public List<OccupancyStats> dailyStats(LocalDate from, LocalDate to, AnalyticsDimension dimension) {
+        long days = ChronoUnit.DAYS.between(from, to);
+        if (days <= 0) {
+            throw new IllegalArgumentException("A data final deve ser posterior à data inicial.");
+        }
+        if (days > MAX_DAYS) {
+            throw new IllegalArgumentException("O período não pode exceder " + MAX_DAYS + " dias.");
+        }
+
+        boolean fromSummary = dimension == AnalyticsDimension.ROOM_TYPE;
+        String sql = fromSummary ? DAILY_SUMMARY_SQL : DAILY_STATS_SQL.replace("{group}", dimension.getColumn());
+        List<?> rows = UnitOfWork.read(entityManager -> {
+            Query query = entityManager.createNativeQuery(sql);
+            query.setParameter("days", (int) days);
+            query.setParameter("startDate", from);
+            if (!fromSummary) {
+                query.setParameter("endDate", to);
+                query.setParameter("soldStatuses", SOLD_STATUSES);
+            }
+            return query.getResultList();
+        });
+
+        List<OccupancyStats> stats = new ArrayList<>(rows.size());
+        for (Object row : rows) {
+            Object[] columns = (Object[]) row;
+            stats.add(new OccupancyStats(
+                    from.plusDays(((Number) columns[0]).longValue()),
+                    String.valueOf(columns[1]),
+                    ((Number) columns[2]).longValue(),
+                    ((Number) columns[3]).longValue(),
+                    toBigDecimal(columns[4])));
+        }
+        return stats;
+    }
+
+    /**
+     * Recalcula de raiz o resumo diário a partir das reservas (por exemplo, depois de uma carga feita sem passar
+     * pelo BookingService). As reservas alteradas durante a reconstrução esperam pelo fim e não se perdem.
+     *
+     * @return O número de linhas (dia, tipo de quarto) do resumo.
+     */
+    public int rebuildDailySummary() {
+        return UnitOfWork.inTransaction(entityManager -> new DailyRoomStatsDAO(entityManager).rebuild());
+    }
+
+    /**
+     * Resume as linhas diárias por grupo, para todo o período.
+     *
+     * @param daily As linhas devolvidas por {@link #dailyStats}.
+     * @return Uma linha por grupo (pela ordem em que aparecem) e, no fim, o total de todos os quartos (grupo null).
+     */
+    public List<OccupancyStats> summarizeByGroup(List<OccupancyStats> daily) {
+        List<OccupancyStats> summary = summarize(daily, OccupancyStats::group, null);
+        summary.add(total(daily));
+        return summary;
+    }
+
+    /**
+     * Resume as linhas diárias por dia, somando todos os grupos.
+     *
+     * @param daily As linhas devolvidas por {@link #dailyStats}.
+     * @return Uma linha por dia (grupo null), por ordem cronológica.
+     */
+    public List<OccupancyStats> summarizeByDay(List<OccupancyStats> daily) {
+        return summarize(daily, null, OccupancyStats::day);
+    }
+
+    private static List<OccupancyStats> summarize(List<OccupancyStats> daily, Function<OccupancyStats, String> group,
+                                                  Function<OccupancyStats, LocalDate> day) {
+        Map<Object, OccupancyStats> totals = new LinkedHashMap<>();
+        for (OccupancyStats stats : daily) {
+            String groupKey = group != null ? group.apply(stats) : null;
+            LocalDate dayKey = day != null ? day.apply(stats) : null;
+            totals.merge(group != null ? groupKey : dayKey,
+                    new OccupancyStats(dayKey, groupKey, stats.roomNights(), stats.soldNights(), stats.revenue()),
+                    OccupancyAnalyticsService::add);
+        }
+        return new ArrayList<>(totals.values());
+    }
+
+    private static OccupancyStats total(List<OccupancyStats> daily) {
+        return daily.stream()
+                .map(stats -> new OccupancyStats(null, null, stats.roomNights(), stats.soldNights(), stats.revenue()))
+                .reduce(new OccupancyStats(null, null, 0, 0, BigDecimal.ZERO), OccupancyAnalyticsService::add);
+    }
+
+    private static OccupancyStats add(OccupancyStats a, OccupancyStats b) {
+        return new OccupancyStats(a.day(), a.group(), a.roomNights() + b.roomNights(), a.soldNights() + b.soldNights(),
+                a.revenue().add(b.revenue()));
+    }
+
+    private static BigDecimal toBigDecimal(Object value) {
+        return value instanceof BigDecimal decimal ? decimal : new BigDecimal(value.toString());
+    }
+}
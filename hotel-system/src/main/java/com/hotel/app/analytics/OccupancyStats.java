@@ -0,0 +1,38 @@
+package com.hotel.app.analytics;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.LocalDate;
+
+/**
+ * Indicadores de ocupação e receita de um grupo de quartos (um tipo ou um andar), num dia ou num período.
+ *
+ * @param day O dia, ou null se a linha resume um período.
+ * @param group O valor do agrupamento (ex.: "SUITE" ou "3"), ou null para todos os quartos.
+ * @param roomNights As noites-quarto disponíveis (quartos × dias).
+ * @param soldNights As noites-quarto vendidas (reservas confirmadas ou concluídas).
+ * @param revenue A receita das noites vendidas (o preço total de cada reserva repartido pelas suas noites).
+ */
+public record OccupancyStats(LocalDate day, String group, long roomNights, long soldNights, BigDecimal revenue) {
+
+    /**
+     * @return A taxa de ocupação, entre 0 e 1 (noites vendidas / noites disponíveis).
+     */
+    public double occupancyRate() {
+        return roomNights == 0 ? 0 : (double) soldNights / roomNights;
+    }
+
+    /**
+     * @return A tarifa média diária (ADR): receita / noites vendidas.
+     */
+    public BigDecimal adr() {
+        return soldNights == 0 ? BigDecimal.ZERO : revenue.divide(BigDecimal.valueOf(soldNights), 2, RoundingMode.HALF_UP);
+    }
+
+    /**
+     * @return A receita por quarto disponível (RevPAR): receita / noites disponíveis.
+     */
+    public BigDecimal revPar() {
+        return roomNights == 0 ? BigDecimal.ZERO : revenue.divide(BigDecimal.valueOf(roomNights), 2, RoundingMode.HALF_UP);
+    }
+}
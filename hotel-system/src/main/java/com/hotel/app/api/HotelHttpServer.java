@@ -0,0 +1,422 @@
+package com.hotel.app.api;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.hotel.app.metrics.LatencyRecorder;
+import com.hotel.app.metrics.MetricsTextFormat;
+import com.hotel.app.model.Booking;
+import com.hotel.app.model.BookingStatus;
+import com.hotel.app.model.Role;
+import com.hotel.app.model.Room;
+import com.hotel.app.model.RoomType;
+import com.hotel.app.model.User;
+import com.hotel.app.pricing.PricingEngine;
+import com.hotel.app.service.BookingRejectedException;
+import com.hotel.app.service.BookingService;
+import com.hotel.app.service.RoomSearchCriteria;
+import com.hotel.app.service.RoomService;
+import com.hotel.app.service.UserService;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.math.BigDecimal;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.SecureRandom;
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * API HTTP/JSON embutida (JDK HttpServer) para pesquisa de quartos, disponibilidade, reservas e consulta de usuários,
+ * sobre os mesmos serviços da aplicação de consola.
+ *
+ * Cada pedido é tratado numa thread virtual: um pedido à espera da base de dados não ocupa uma thread do sistema,
+ * pelo que milhares de pedidos em simultâneo custam apenas memória. O número de pedidos que usam a base de dados
+ * ao mesmo tempo continua limitado pelo pool de conexões (pool.maximumPoolSize); os restantes esperam por uma conexão.
+ *
+ * <pre>
+ * GET  /api/rooms?checkIn=AAAA-MM-DD&amp;checkOut=AAAA-MM-DD[&amp;minCapacity=N][&amp;floor=N][&amp;maxPrice=X]
+ * GET  /api/rooms/{número}/availability?checkIn=AAAA-MM-DD&amp;checkOut=AAAA-MM-DD
+ * POST /api/bookings                 {"email":..., "roomNumber":..., "checkIn":..., "checkOut":...}
+ * POST /api/bookings/{id}/cancel
+ * GET  /api/users?email=...
+ * GET  /metrics                      métricas dos DAOs e serviços (formato de texto do Prometheus)
+ * </pre>
+ * A pesquisa de quartos é pública; as reservas, os usuários (com dados pessoais) e as métricas exigem o token de acesso
+ * no cabeçalho {@code Authorization: Bearer <token>}. O servidor escuta, por omissão, apenas em 127.0.0.1.
+ *
+ * Os erros são devolvidos como {@code {"error": "..."}} com o código 400 (pedido inválido), 401 (token em falta ou errado),
+ * 404 (não encontrado), 405 (método não suportado), 409 (quarto indisponível / reserva não cancelável)
+ * ou 500 (qualquer outra falha).
+ */
+public class HotelHttpServer {
+
+    private static final int BACKLOG = 1024;
+
+    private final UserService userService;
+    private final RoomService roomService;
+    private final BookingService bookingService;
+    private final ObjectMapper json = new ObjectMapper()
+            .registerModule(new JavaTimeModule())
+            .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS); // Datas como "2025-08-01"
+
+    private final byte[] token;
+    private final HttpServer server;
+    private final ExecutorService executor;
+
+    /**
+     * Cria o servidor (ainda parado).
+     *
+     * @param address O endereço e a porta; porta 0 para uma porta livre escolhida pelo sistema.
+     * @param token O token de acesso exigido nas reservas, nos usuários e nas métricas.
+     */
+    public HotelHttpServer(InetSocketAddress address, String token, UserService userService, RoomService roomService,
+                           BookingService bookingService) throws IOException {
+        if (token == null || token.isBlank()) {
+            throw new IllegalArgumentException("O token de acesso da API não pode estar vazio.");
+        }
+        this.userService = userService;
+        this.roomService = roomService;
+        this.bookingService = bookingService;
+        this.token = token.getBytes(StandardCharsets.UTF_8);
+        this.server = HttpServer.create(address, BACKLOG);
+        this.executor = Executors.newVirtualThreadPerTaskExecutor();
+        server.setExecutor(executor);
+        server.createContext("/api/rooms", exchange -> handle(exchange, false, this::rooms));
+        server.createContext("/api/bookings", exchange -> handle(exchange, true, this::bookings));
+        server.createContext("/api/users", exchange -> handle(exchange, true, this::users));
+        server.createContext("/metrics", this::metrics);
+    }
+
+    /**
+     * Gera um token de acesso aleatório, para quando não é configurado nenhum (hotel.http.token).
+     *
+     * @return 32 bytes aleatórios em Base64 (URL).
+     */
+    public static String newToken() {
+        byte[] bytes = new byte[32];
+        new SecureRandom().nextBytes(bytes);
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(bytes);
+    }
+
+    public void start() {
+        server.start();
+    }
+
+    /**
+     * Para de aceitar pedidos e espera pelos pedidos em curso durante, no máximo, o tempo indicado.
+     *
+     * @param delaySeconds O tempo máximo de espera, em segundos.
+     */
+    public void stop(int delaySeconds) {
+        server.stop(delaySeconds);
+        executor.shutdown();
+    }
+
+    /**
+     * @return O endereço em que o servidor está a escutar.
+     */
+    public String getHost() {
+        return server.getAddress().getHostString();
+    }
+
+    /**
+     * @return A porta em que o servidor está a escutar.
+     */
+    public int getPort() {
+        return server.getAddress().getPort();
+    }
+
+    // --- Recursos ---
+
+    private Response rooms(HttpExchange exchange, String[] path, Map<String, String> query) {
+        requireMethod(exchange, "GET");
+        LocalDate checkIn = date(query, "checkIn");
+        LocalDate checkOut = date(query, "checkOut");
+        if (!checkOut.isAfter(checkIn)) {
+            throw new ApiException(400, "O check-out deve ser posterior ao check-in.");
+        }
+
+        if (path.length == 0) {
+            RoomSearchCriteria criteria = RoomSearchCriteria.any();
+            if (query.containsKey("minCapacity")) {
+                criteria.setMinCapacity(integer(query, "minCapacity"));
+            }
+            if (query.containsKey("floor")) {
+                criteria.setFloor(integer(query, "floor"));
+            }
+            if (query.containsKey("maxPrice")) {
+                criteria.setMaxPricePerNight(decimal(query, "maxPrice"));
+            }
+            List<RoomResponse> rooms = bookingService.findAvailableRooms(checkIn, checkOut, criteria).stream()
+                    .map(room -> RoomResponse.of(room, PricingEngine.getDefault().quote(room, checkIn, checkOut).total()))
+                    .toList();
+            return new Response(200, rooms);
+        }
+        if (path.length == 2 && path[1].equals("availability")) {
+            Room room = room(path[0]);
+            boolean available = bookingService.isRoomAvailable(room.getRoomId(), checkIn, checkOut);
+            return new Response(200, new AvailabilityResponse(room.getRoomNumber(), checkIn, checkOut, available));
+        }
+        throw new ApiException(404, "Recurso não encontrado.");
+    }
+
+    private Response bookings(HttpExchange exchange, String[] path, Map<String, String> query) throws IOException {
+        requireMethod(exchange, "POST");
+        if (path.length == 0) {
+            BookingRequest request = body(exchange, BookingRequest.class);
+            if (request.email() == null || request.roomNumber() == null || request.checkIn() == null || request.checkOut() == null) {
+                throw new ApiException(400, "Os campos email, roomNumber, checkIn e checkOut são obrigatórios.");
+            }
+            if (!request.checkOut().isAfter(request.checkIn())) {
+                throw new ApiException(400, "O check-out deve ser posterior ao check-in.");
+            }
+            User user = user(request.email());
+            Room room = room(request.roomNumber());
+            // Mesmas tarifas do menu do cliente
+            BigDecimal totalPrice = PricingEngine.getDefault().quote(room, request.checkIn(), request.checkOut()).total();
+            Booking booking;
+            try {
+                booking = bookingService.createBooking(new Booking(user, room, request.checkIn(), request.checkOut(),
+                        LocalDate.now(), BookingStatus.PENDING, totalPrice.doubleValue()));
+            } catch (BookingRejectedException e) {
+                throw new ApiException(409, e.getMessage());
+            } catch (IllegalArgumentException e) {
+                // O quarto foi removido depois de ser lido
+                throw new ApiException(404, e.getMessage());
+            }
+            return new Response(201, BookingResponse.of(booking, user, room));
+        }
+        if (path.length == 2 && path[1].equals("cancel")) {
+            long bookingId = parseLong(path[0]);
+            Booking cancelled;
+            try {
+                cancelled = bookingService.cancelBooking(bookingId);
+            } catch (BookingRejectedException e) {
+                throw new ApiException(409, e.getMessage());
+            } catch (IllegalArgumentException e) {
+                throw new ApiException(404, e.getMessage());
+            }
+            return new Response(200, new CancelResponse(cancelled.getBookingId(), cancelled.getStatus()));
+        }
+        throw new ApiException(404, "Recurso não encontrado.");
+    }
+
+    private Response users(HttpExchange exchange, String[] path, Map<String, String> query) {
+        requireMethod(exchange, "GET");
+        if (path.length != 0) {
+            throw new ApiException(404, "Recurso não encontrado.");
+        }
+        User user = user(required(query, "email"));
+        return new Response(200, new UserResponse(user.getUserId(), user.getFullName(), user.getEmail(), user.getPhone(), user.getRole()));
+    }
+
+    // Texto simples em vez de JSON, para ser lido diretamente por um coletor (Prometheus) ou com curl
+    private void metrics(HttpExchange exchange) {
+        try (exchange) {
+            if (!authorized(exchange)) {
+                exchange.getResponseHeaders().set("WWW-Authenticate", "Bearer");
+                exchange.sendResponseHeaders(401, -1);
+                return;
+            }
+            byte[] body = MetricsTextFormat.format(LatencyRecorder.getDefault().snapshot()).getBytes(StandardCharsets.UTF_8);
+            exchange.getResponseHeaders().set("Content-Type", MetricsTextFormat.CONTENT_TYPE);
+            exchange.sendResponseHeaders(200, body.length);
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write(body);
+            }
+        } catch (IOException e) {
+            System.err.println("Erro ao responder a " + exchange.getRequestURI() + ": " + e.getMessage());
+        }
+    }
+
+    // --- Modelos JSON (sem expor as entidades nem a palavra-passe) ---
+
+    record RoomResponse(Integer roomId, String roomNumber, RoomType roomType, double pricePerNight, int capacity, int floor,
+                        BigDecimal stayPrice) {
+        static RoomResponse of(Room room, BigDecimal stayPrice) {
+            return new RoomResponse(room.getRoomId(), room.getRoomNumber(), room.getRoomType(), room.getPricePerNight(),
+                    room.getCapacity(), room.getFloor(), stayPrice);
+        }
+    }
+
+    record AvailabilityResponse(String roomNumber, LocalDate checkIn, LocalDate checkOut, boolean available) {}
+
+    record BookingRequest(String email, String roomNumber, LocalDate checkIn, LocalDate checkOut) {}
+
+    record BookingResponse(Long bookingId, Integer userId, String roomNumber, LocalDate checkIn, LocalDate checkOut,
+                           BookingStatus status, Double totalPrice) {
+        static BookingResponse of(Booking booking, User user, Room room) {
+            return new BookingResponse(booking.getBookingId(), user.getUserId(), room.getRoomNumber(), booking.getCheckInDate(),
+                    booking.getCheckOutDate(), booking.getStatus(), booking.getTotalPrice());
+        }
+    }
+
+    record CancelResponse(Long bookingId, BookingStatus status) {}
+
+    record UserResponse(Integer userId, String fullName, String email, String phone, Role role) {}
+
+    record ErrorResponse(String error) {}
+
+    // --- Infraestrutura ---
+
+    private record Response(int status, Object body) {}
+
+    // Erro com o código HTTP a devolver
+    private static class ApiException extends RuntimeException {
+        private final int status;
+
+        ApiException(int status, String message) {
+            super(message);
+            this.status = status;
+        }
+    }
+
+    @FunctionalInterface
+    private interface Handler {
+        Response handle(HttpExchange exchange, String[] path, Map<String, String> query) throws IOException;
+    }
+
+    private void handle(HttpExchange exchange, boolean requiresToken, Handler handler) {
+        try (exchange) {
+            Response response;
+            try {
+                if (requiresToken && !authorized(exchange)) {
+                    exchange.getResponseHeaders().set("WWW-Authenticate", "Bearer");
+                    throw new ApiException(401, "Token de acesso em falta ou inválido.");
+                }
+                response = handler.handle(exchange, subPath(exchange), query(exchange.getRequestURI()));
+            } catch (ApiException e) {
+                response = new Response(e.status, new ErrorResponse(e.getMessage()));
+            } catch (RuntimeException e) {
+                System.err.println("Erro no pedido " + exchange.getRequestMethod() + " " + exchange.getRequestURI() + ": " + e.getMessage());
+                response = new Response(500, new ErrorResponse("Erro interno do servidor."));
+            }
+            byte[] body = json.writeValueAsBytes(response.body());
+            exchange.getResponseHeaders().set("Content-Type", "application/json; charset=utf-8");
+            exchange.sendResponseHeaders(response.status(), body.length);
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write(body);
+            }
+        } catch (IOException e) {
+            // O cliente fechou a conexão antes da resposta
+            System.err.println("Erro ao responder a " + exchange.getRequestURI() + ": " + e.getMessage());
+        }
+    }
+
+    // Compara o token em tempo constante, para não revelar pelo tempo de resposta quantos caracteres estão certos
+    private boolean authorized(HttpExchange exchange) {
+        String header = exchange.getRequestHeaders().getFirst("Authorization");
+        if (header == null || !header.regionMatches(true, 0, "Bearer ", 0, 7)) {
+            return false;
+        }
+        return MessageDigest.isEqual(token, header.substring(7).trim().getBytes(StandardCharsets.UTF_8));
+    }
+
+    // Segmentos do caminho depois do contexto (ex.: /api/rooms/101/availability -> ["101", "availability"])
+    private static String[] subPath(HttpExchange exchange) {
+        String context = exchange.getHttpContext().getPath();
+        String rest = exchange.getRequestURI().getPath().substring(context.length());
+        rest = rest.replaceAll("^/+|/+$", "");
+        return rest.isEmpty() ? new String[0] : rest.split("/");
+    }
+
+    private static Map<String, String> query(URI uri) {
+        Map<String, String> parameters = new HashMap<>();
+        String query = uri.getRawQuery();
+        if (query == null || query.isEmpty()) {
+            return parameters;
+        }
+        for (String pair : query.split("&")) {
+            int separator = pair.indexOf('=');
+            String name = separator < 0 ? pair : pair.substring(0, separator);
+            String value = separator < 0 ? "" : pair.substring(separator + 1);
+            parameters.put(URLDecoder.decode(name, StandardCharsets.UTF_8), URLDecoder.decode(value, StandardCharsets.UTF_8));
+        }
+        return parameters;
+    }
+
+    private <T> T body(HttpExchange exchange, Class<T> type) throws IOException {
+        try (InputStream in = exchange.getRequestBody()) {
+            return json.readValue(in, type);
+        } catch (JsonProcessingException e) {
+            throw new ApiException(400, "JSON inválido: " + e.getOriginalMessage());
+        }
+    }
+
+    private static void requireMethod(HttpExchange exchange, String method) {
+        if (!exchange.getRequestMethod().equalsIgnoreCase(method)) {
+            throw new ApiException(405, "Método " + exchange.getRequestMethod() + " não suportado; use " + method + ".");
+        }
+    }
+
+    private Room room(String roomNumber) {
+        Room room = roomService.getRoomByNumber(roomNumber);
+        if (room == null) {
+            throw new ApiException(404, "Quarto '" + roomNumber + "' não encontrado.");
+        }
+        return room;
+    }
+
+    private User user(String email) {
+        User user = userService.getUserByEmail(email);
+        if (user == null) {
+            throw new ApiException(404, "Usuário '" + email + "' não encontrado.");
+        }
+        return user;
+    }
+
+    private static String required(Map<String, String> query, String name) {
+        String value = query.get(name);
+        if (value == null || value.isBlank()) {
+            throw new ApiException(400, "Parâmetro '" + name + "' em falta.");
+        }
+        return value;
+    }
+
+    private static LocalDate date(Map<String, String> query, String name) {
+        try {
+            return LocalDate.parse(required(query, name));
+        } catch (DateTimeParseException e) {
+            throw new ApiException(400, "Parâmetro '" + name + "' inválido: use AAAA-MM-DD.");
+        }
+    }
+
+    private static int integer(Map<String, String> query, String name) {
+        try {
+            return Integer.parseInt(required(query, name));
+        } catch (NumberFormatException e) {
+            throw new ApiException(400, "Parâmetro '" + name + "' deve ser um número inteiro.");
+        }
+    }
+
+    private static double decimal(Map<String, String> query, String name) {
+        try {
+            return Double.parseDouble(required(query, name));
+        } catch (NumberFormatException e) {
+            throw new ApiException(400, "Parâmetro '" + name + "' deve ser um número.");
+        }
+    }
+
+    private static long parseLong(String value) {
+        try {
+            return Long.parseLong(value);
+        } catch (NumberFormatException e) {
+            throw new ApiException(400, "ID de reserva inválido: " + value);
+        }
+    }
+}
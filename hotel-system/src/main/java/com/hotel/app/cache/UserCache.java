@@ -0,0 +1,159 @@
+package com.hotel.app.cache;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import com.hotel.app.model.User;
+
+import java.time.Duration;
+import java.util.function.Function;
+
+/**
+ * Cache em memória dos usuários por email e por telefone, usado no login (authenticateUser)
+ * e nas pesquisas do painel de administração.
+ *
+ * O tamanho é limitado e a política de remoção é a W-TinyLFU do Caffeine, que mantém os usuários
+ * consultados com mais frequência. As entradas expiram ao fim de um tempo fixo, o que limita quanto
+ * tempo uma alteração feita por outro processo pode ficar invisível; as alterações feitas por esta
+ * aplicação invalidam a entrada de imediato ({@link #invalidate(User)}).
+ *
+ * Só são guardados usuários encontrados: uma pesquisa sem resultado vai sempre à base de dados,
+ * para que um usuário acabado de registar seja visto logo. O cache guarda e devolve cópias,
+ * pelo que alterar o objeto recebido não altera a entrada em cache.
+ */
+public class UserCache {
+
+    private static final UserCache DEFAULT = new UserCache(
+            Long.getLong("hotel.userCache.maxEntries", 10_000),
+            Duration.ofMinutes(Long.getLong("hotel.userCache.ttlMinutes", 10)));
+
+    private final Cache<String, User> byEmail;
+    private final Cache<String, User> byPhone;
+
+    /**
+     * @param maxEntries O número máximo de usuários guardados em cada índice (email e telefone).
+     * @param timeToLive O tempo máximo que um usuário fica em cache depois de ser lido.
+     */
+    public UserCache(long maxEntries, Duration timeToLive) {
+        this.byEmail = newCache(maxEntries, timeToLive);
+        this.byPhone = newCache(maxEntries, timeToLive);
+    }
+
+    /**
+     * Instância partilhada pelos serviços, configurável pelas propriedades de sistema
+     * {@code hotel.userCache.maxEntries} e {@code hotel.userCache.ttlMinutes}.
+     */
+    public static UserCache getDefault() {
+        return DEFAULT;
+    }
+
+    /**
+     * Devolve o usuário com o email indicado, carregando-o com {@code loader} se não estiver em cache.
+     *
+     * @param email O email do usuário.
+     * @param loader A consulta à base de dados (pode devolver null).
+     * @return Uma cópia do usuário, ou null se não existir.
+     */
+    public User getByEmail(String email, Function<String, User> loader) {
+        return lookup(byEmail, email, loader);
+    }
+
+    /**
+     * Devolve o usuário com o telefone indicado, carregando-o com {@code loader} se não estiver em cache.
+     *
+     * @param phone O telefone do usuário.
+     * @param loader A consulta à base de dados (pode devolver null).
+     * @return Uma cópia do usuário, ou null se não existir.
+     */
+    public User getByPhone(String phone, Function<String, User> loader) {
+        return lookup(byPhone, phone, loader);
+    }
+
+    /**
+     * Remove as entradas do email e do telefone do usuário. Deve ser chamado depois do commit sempre que um usuário
+     * é alterado ou apagado, mesmo que a alteração tenha falhado, e com os valores antigos e os novos, já que o email
+     * e o telefone podem ter mudado.
+     *
+     * Uma leitura da base de dados ainda em curso para uma dessas chaves termina antes de a entrada ser removida,
+     * pelo que não pode voltar a guardar o usuário anterior à alteração.
+     *
+     * @param user O usuário (só o email e o telefone são usados).
+     */
+    public void invalidate(User user) {
+        if (user == null) {
+            return;
+        }
+        if (user.getEmail() != null) {
+            byEmail.invalidate(user.getEmail());
+        }
+        if (user.getPhone() != null) {
+            byPhone.invalidate(user.getPhone());
+        }
+    }
+
+    /**
+     * Esvazia o cache.
+     */
+    public void invalidateAll() {
+        byEmail.invalidateAll();
+        byPhone.invalidateAll();
+    }
+
+    /**
+     * Métricas de um índice do cache.
+     *
+     * @param hits Pesquisas respondidas pelo cache.
+     * @param misses Pesquisas que foram à base de dados.
+     * @param evictions Entradas removidas por falta de espaço ou por expirarem.
+     * @param size Número aproximado de entradas.
+     */
+    public record Stats(long hits, long misses, long evictions, long size) {
+
+        /**
+         * @return A fração de pesquisas respondidas pelo cache (0 a 1), ou 0 se ainda não houve pesquisas.
+         */
+        public double hitRate() {
+            long lookups = hits + misses;
+            return lookups == 0 ? 0.0 : (double) hits / lookups;
+        }
+    }
+
+    /**
+     * @return As métricas do índice por email (usado no login).
+     */
+    public Stats emailStats() {
+        return stats(byEmail);
+    }
+
+    /**
+     * @return As métricas do índice por telefone.
+     */
+    public Stats phoneStats() {
+        return stats(byPhone);
+    }
+
+    private static User lookup(Cache<String, User> cache, String key, Function<String, User> loader) {
+        if (key == null) {
+            return null;
+        }
+        // Um loader que devolve null não cria entrada, por isso usuários inexistentes não ficam em cache
+        User cached = cache.get(key, k -> {
+            User loaded = loader.apply(k);
+            return loaded != null ? new User(loaded) : null;
+        });
+        return cached != null ? new User(cached) : null;
+    }
+
+    private static Cache<String, User> newCache(long maxEntries, Duration timeToLive) {
+        return Caffeine.newBuilder()
+                .maximumSize(maxEntries)
+                .expireAfterWrite(timeToLive)
+                .recordStats()
+                .build();
+    }
+
+    private static Stats stats(Cache<String, User> cache) {
+        CacheStats stats = cache.stats();
+        return new Stats(stats.hitCount(), stats.missCount(), stats.evictionCount(), cache.estimatedSize());
+    }
+}
@@ -0,0 +1,168 @@
+package com.hotel.app.concurrency;
+
+import jakarta.persistence.OptimisticLockException;
+import org.hibernate.StaleStateException;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+/**
+ * Executa uma alteração sob controlo de concorrência otimista, repetindo-a quando outra transação
+ * alterou a mesma entidade entretanto (coluna de versão diferente).
+ * A cada tentativa a ação deve reler a entidade e voltar a aplicar a alteração; entre tentativas
+ * espera um tempo crescente (backoff exponencial com jitter).
+ *
+ * Regista, por entidade, quantos conflitos ocorreram, quantas repetições foram feitas e quantas
+ * alterações falharam por esgotar as tentativas.
+ */
+public class OptimisticRetryExecutor {
+
+    private static final OptimisticRetryExecutor DEFAULT = new OptimisticRetryExecutor(
+            Integer.getInteger("hotel.retry.maxAttempts", 5),
+            Duration.ofMillis(Long.getLong("hotel.retry.initialBackoffMs", 10)),
+            Double.parseDouble(System.getProperty("hotel.retry.multiplier", "2.0")),
+            Duration.ofMillis(Long.getLong("hotel.retry.maxBackoffMs", 500)));
+
+    private final int maxAttempts;
+    private final Duration initialBackoff;
+    private final double multiplier;
+    private final Duration maxBackoff;
+
+    private final Map<String, LongAdder> conflicts = new ConcurrentHashMap<>();
+    private final Map<String, LongAdder> retries = new ConcurrentHashMap<>();
+    private final Map<String, LongAdder> exhausted = new ConcurrentHashMap<>();
+
+    /**
+     * @param maxAttempts O número máximo de tentativas (incluindo a primeira).
+     * @param initialBackoff A espera antes da primeira repetição.
+     * @param multiplier O fator de crescimento da espera entre repetições.
+     * @param maxBackoff A espera máxima entre repetições.
+     */
+    public OptimisticRetryExecutor(int maxAttempts, Duration initialBackoff, double multiplier, Duration maxBackoff) {
+        if (maxAttempts < 1) {
+            throw new IllegalArgumentException("É necessária pelo menos uma tentativa.");
+        }
+        this.maxAttempts = maxAttempts;
+        this.initialBackoff = initialBackoff;
+        this.multiplier = multiplier;
+        this.maxBackoff = maxBackoff;
+    }
+
+    /**
+     * Instância partilhada pelos serviços, configurável pelas propriedades de sistema
+     * {@code hotel.retry.maxAttempts}, {@code hotel.retry.initialBackoffMs},
+     * {@code hotel.retry.multiplier} e {@code hotel.retry.maxBackoffMs}.
+     */
+    public static OptimisticRetryExecutor getDefault() {
+        return DEFAULT;
+    }
+
+    /**
+     * Executa a ação, repetindo-a enquanto falhar por conflito de versão e houver tentativas disponíveis.
+     *
+     * @param entityName O nome da entidade alterada (usado nas métricas).
+     * @param attempt A ação que relê a entidade, aplica a alteração e faz commit.
+     * @return O resultado da tentativa bem-sucedida.
+     * @throws OptimisticLockException Se todas as tentativas falharem por conflito.
+     */
+    public <T> T execute(String entityName, Supplier<T> attempt) {
+        long backoffMillis = initialBackoff.toMillis();
+        for (int attemptNumber = 1; ; attemptNumber++) {
+            try {
+                return attempt.get();
+            } catch (RuntimeException e) {
+                if (!isOptimisticLockFailure(e)) {
+                    throw e;
+                }
+                recordConflict(entityName);
+                if (attemptNumber >= maxAttempts) {
+                    counter(exhausted, entityName).increment();
+                    throw new OptimisticLockException("A entidade " + entityName + " continua a ser alterada por outro utilizador após "
+                            + maxAttempts + " tentativas.", e);
+                }
+                counter(retries, entityName).increment();
+                sleep(backoffMillis);
+                backoffMillis = Math.min((long) (backoffMillis * multiplier), maxBackoff.toMillis());
+            }
+        }
+    }
+
+    /**
+     * Regista um conflito de versão detetado fora de {@link #execute} (por exemplo, numa gravação sem repetição).
+     */
+    public void recordConflict(String entityName) {
+        counter(conflicts, entityName).increment();
+    }
+
+    /**
+     * Indica se a exceção (ou alguma das suas causas) resulta de um conflito de versão.
+     */
+    public static boolean isOptimisticLockFailure(Throwable error) {
+        for (Throwable cause = error; cause != null; cause = cause.getCause()) {
+            if (cause instanceof OptimisticLockException || cause instanceof StaleStateException) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    public long getConflictCount(String entityName) {
+        return count(conflicts, entityName);
+    }
+
+    public long getRetryCount(String entityName) {
+        return count(retries, entityName);
+    }
+
+    public long getExhaustedCount(String entityName) {
+        return count(exhausted, entityName);
+    }
+
+    /**
+     * Métricas de uma entidade.
+     *
+     * @param conflicts Conflitos de versão detetados.
+     * @param retries Repetições efetuadas.
+     * @param exhausted Alterações que falharam por esgotar as tentativas.
+     */
+    public record EntityRetryStats(long conflicts, long retries, long exhausted) {}
+
+    /**
+     * @return As métricas de cada entidade com pelo menos um conflito, por nome da entidade.
+     */
+    public Map<String, EntityRetryStats> snapshot() {
+        Map<String, EntityRetryStats> result = new TreeMap<>();
+        for (String entity : conflicts.keySet()) {
+            result.put(entity, new EntityRetryStats(getConflictCount(entity), getRetryCount(entity), getExhaustedCount(entity)));
+        }
+        return result;
+    }
+
+    private static LongAdder counter(Map<String, LongAdder> counters, String entityName) {
+        return counters.computeIfAbsent(entityName, name -> new LongAdder());
+    }
+
+    private static long count(Map<String, LongAdder> counters, String entityName) {
+        LongAdder counter = counters.get(entityName);
+        return counter == null ? 0 : counter.sum();
+    }
+
+    private static void sleep(long backoffMillis) {
+        if (backoffMillis <= 0) {
+            return;
+        }
+        // Jitter para que as transações em conflito não voltem a colidir ao mesmo tempo
+        long jittered = backoffMillis / 2 + ThreadLocalRandom.current().nextLong(backoffMillis / 2 + 1);
+        try {
+            Thread.sleep(jittered);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Repetição interrompida.", e);
+        }
+    }
+}
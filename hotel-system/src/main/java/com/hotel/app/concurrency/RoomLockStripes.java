@@ -0,0 +1,71 @@
+package com.hotel.app.concurrency;
+
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Supplier;
+
+/**
+ * Conjunto fixo de locks (lock striping) indexado pelo ID do quarto.
+ * Reservas para o mesmo quarto são serializadas dentro da JVM, enquanto quartos diferentes
+ * (em faixas diferentes) podem ser reservados em paralelo, sem um lock por quarto nem um lock global.
+ */
+public class RoomLockStripes {
+
+    private static final int DEFAULT_STRIPES = 64;
+
+    private final ReentrantLock[] stripes;
+    private final int mask;
+
+    public RoomLockStripes() {
+        this(DEFAULT_STRIPES);
+    }
+
+    /**
+     * @param stripeCount O número de faixas; é arredondado para a potência de 2 seguinte.
+     */
+    public RoomLockStripes(int stripeCount) {
+        if (stripeCount <= 0) {
+            throw new IllegalArgumentException("O número de faixas deve ser maior que zero.");
+        }
+        int size = Integer.highestOneBit(stripeCount);
+        if (size < stripeCount) {
+            size <<= 1;
+        }
+        this.stripes = new ReentrantLock[size];
+        for (int i = 0; i < size; i++) {
+            stripes[i] = new ReentrantLock();
+        }
+        this.mask = size - 1;
+    }
+
+    /**
+     * @param roomId O ID do quarto.
+     * @return O lock da faixa a que o quarto pertence.
+     */
+    public Lock lockFor(Integer roomId) {
+        int hash = roomId.hashCode();
+        hash ^= (hash >>> 16); // Espalha os bits altos, como o HashMap
+        return stripes[hash & mask];
+    }
+
+    /**
+     * Executa uma ação com o lock do quarto adquirido.
+     *
+     * @param roomId O ID do quarto.
+     * @param action A ação a executar (tipicamente verificar a disponibilidade e gravar a reserva).
+     * @return O resultado da ação.
+     */
+    public <T> T withRoomLock(Integer roomId, Supplier<T> action) {
+        Lock lock = lockFor(roomId);
+        lock.lock();
+        try {
+            return action.get();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public int stripeCount() {
+        return stripes.length;
+    }
+}
@@ -0,0 +1,163 @@
+package com.hotel.app.config;
+
+import com.zaxxer.hikari.HikariConfig;
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.HikariPoolMXBean;
+
+import javax.sql.DataSource;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Properties;
+
+/**
+ * Pool de conexões (HikariCP) partilhado pelo JPA (JpaUtil) e pelo acesso JDBC direto (DatabaseConnection).
+ * As conexões físicas são abertas uma única vez e reutilizadas, pelo que nenhuma operação paga o custo
+ * de estabelecer uma conexão ao PostgreSQL.
+ *
+ * A configuração é lida de database.properties e cada chave pode ser substituída por uma propriedade
+ * de sistema com o mesmo nome (ex.: -Dpool.maximumPoolSize=20).
+ */
+public final class ConnectionPool {
+
+    private static final String CONFIG_FILE = "database.properties";
+    private static final String POOL_NAME = "hotel-pool";
+    private static final String[] SUPPORTED_KEYS = {
+            "db.url", "db.user", "db.password",
+            "pool.minimumIdle", "pool.maximumPoolSize", "pool.connectionTimeoutMs",
+            "pool.idleTimeoutMs", "pool.maxLifetimeMs", "pool.leakDetectionThresholdMs"
+    };
+
+    private static volatile HikariDataSource dataSource;
+
+    private ConnectionPool() {}
+
+    /**
+     * Estado instantâneo do pool.
+     *
+     * @param active  Conexões emprestadas neste momento.
+     * @param idle    Conexões abertas à espera de uso.
+     * @param total   Total de conexões abertas (ativas + livres).
+     * @param waiting Threads bloqueadas à espera de uma conexão.
+     * @param minimumIdle     Mínimo de conexões livres configurado.
+     * @param maximumPoolSize Máximo de conexões configurado.
+     */
+    public record PoolStats(int active, int idle, int total, int waiting, int minimumIdle, int maximumPoolSize) {}
+
+    /**
+     * Retorna o DataSource do pool, criando-o na primeira chamada.
+     *
+     * @return O DataSource partilhado.
+     */
+    public static DataSource getDataSource() {
+        HikariDataSource ds = dataSource;
+        if (ds == null) {
+            synchronized (ConnectionPool.class) {
+                ds = dataSource;
+                if (ds == null) {
+                    ds = new HikariDataSource(buildConfig(loadProperties()));
+                    dataSource = ds;
+                    System.out.println("Pool de conexões '" + POOL_NAME + "' iniciado (mín. " + ds.getMinimumIdle()
+                            + ", máx. " + ds.getMaximumPoolSize() + " conexões).");
+                }
+            }
+        }
+        return ds;
+    }
+
+    /**
+     * Indica se o pool já foi criado (útil para não o iniciar apenas para consultar métricas).
+     */
+    public static boolean isInitialized() {
+        return dataSource != null;
+    }
+
+    /**
+     * Lê as métricas atuais do pool.
+     *
+     * @return O estado do pool, ou null se ainda não foi iniciado.
+     */
+    public static PoolStats getStats() {
+        HikariDataSource ds = dataSource;
+        if (ds == null) {
+            return null;
+        }
+        HikariPoolMXBean pool = ds.getHikariPoolMXBean();
+        if (pool == null) {
+            return new PoolStats(0, 0, 0, 0, ds.getMinimumIdle(), ds.getMaximumPoolSize());
+        }
+        return new PoolStats(pool.getActiveConnections(), pool.getIdleConnections(), pool.getTotalConnections(),
+                pool.getThreadsAwaitingConnection(), ds.getMinimumIdle(), ds.getMaximumPoolSize());
+    }
+
+    /**
+     * Fecha todas as conexões do pool. Deve ser chamado no encerramento da aplicação, depois do JpaUtil.close().
+     */
+    public static void close() {
+        synchronized (ConnectionPool.class) {
+            if (dataSource != null) {
+                dataSource.close();
+                dataSource = null;
+                System.out.println("Pool de conexões fechado.");
+            }
+        }
+    }
+
+    private static Properties loadProperties() {
+        Properties properties = new Properties();
+        try (InputStream in = ConnectionPool.class.getClassLoader().getResourceAsStream(CONFIG_FILE)) {
+            if (in != null) {
+                properties.load(in);
+            } else {
+                System.err.println("Aviso: " + CONFIG_FILE + " não encontrado no classpath. A usar apenas propriedades de sistema.");
+            }
+        } catch (IOException e) {
+            throw new IllegalStateException("Não foi possível ler " + CONFIG_FILE + ".", e);
+        }
+        // Propriedades de sistema têm prioridade sobre o ficheiro
+        for (String key : SUPPORTED_KEYS) {
+            String override = System.getProperty(key);
+            if (override != null) {
+                properties.setProperty(key, override);
+            }
+        }
+        return properties;
+    }
+
+    private static HikariConfig buildConfig(Properties properties) {
+        String url = properties.getProperty("db.url");
+        if (url == null || url.isBlank()) {
+            throw new IllegalStateException("A propriedade 'db.url' não está definida.");
+        }
+
+        HikariConfig config = new HikariConfig();
+        config.setPoolName(POOL_NAME);
+        config.setJdbcUrl(url);
+        config.setUsername(properties.getProperty("db.user"));
+        config.setPassword(properties.getProperty("db.password"));
+        config.setMinimumIdle(intProperty(properties, "pool.minimumIdle", 2));
+        config.setMaximumPoolSize(intProperty(properties, "pool.maximumPoolSize", 10));
+        config.setConnectionTimeout(longProperty(properties, "pool.connectionTimeoutMs", 30_000L));
+        config.setIdleTimeout(longProperty(properties, "pool.idleTimeoutMs", 600_000L));
+        config.setMaxLifetime(longProperty(properties, "pool.maxLifetimeMs", 1_800_000L));
+        config.setLeakDetectionThreshold(longProperty(properties, "pool.leakDetectionThresholdMs", 0L));
+        // Expõe as métricas do pool também via JMX (jconsole/VisualVM)
+        config.setRegisterMbeans(true);
+        return config;
+    }
+
+    private static int intProperty(Properties properties, String key, int defaultValue) {
+        return (int) longProperty(properties, key, defaultValue);
+    }
+
+    private static long longProperty(Properties properties, String key, long defaultValue) {
+        String value = properties.getProperty(key);
+        if (value == null || value.isBlank()) {
+            return defaultValue;
+        }
+        try {
+            return Long.parseLong(value.trim());
+        } catch (NumberFormatException e) {
+            throw new IllegalStateException("Valor inválido para '" + key + "': " + value, e);
+        }
+    }
+}
@@ -1,22 +1,18 @@
 package com.hotel.app.config;
 
 import java.sql.Connection;
-import java.sql.DriverManager;
 import java.sql.SQLException;
 import java.sql.Statement;
 import java.sql.ResultSet;
 
 public class DatabaseConnection {
 
-    // Detalhes da conexão com o banco de dados PostgreSQL no Docker
-    private static final String DB_URL = "jdbc:postgresql://localhost:5432/hoteldb";
-    private static final String DB_USER = "caleb"; // Seu usuário do PostgreSQL
-    private static final String DB_PASSWORD = "caleb28"; // Sua senha do PostgreSQL (ajuste se mudou)
+    // Os detalhes da conexão (URL, usuário, senha) estão em database.properties e são geridos pelo ConnectionPool
 
     public static void main(String[] args) {
         System.out.println("Conectando ao banco de dados");
 
-        try (Connection connection = DriverManager.getConnection(DB_URL, DB_USER, DB_PASSWORD)) {
+        try (Connection connection = getConnection()) {
             System.out.println("Conexão ao Postgres feita com sucesso!");
 
             // Exemplo: Consultar as tabelas para confirmar que existem
@@ -32,11 +28,19 @@ public class DatabaseConnection {
             System.out.println("Error connecting to the database or executing query:");
             e.printStackTrace();
 
+        } finally {
+            ConnectionPool.close();
         }
     }
 
-    // Método para obter uma conexão (vamos usar isso mais tarde)
+    /**
+     * Empresta uma conexão do pool. O chamador deve fechá-la (try-with-resources),
+     * o que a devolve ao pool em vez de encerrar a conexão física.
+     *
+     * @return Uma conexão pronta a usar.
+     * @throws SQLException Se não houver conexão livre dentro do tempo limite configurado.
+     */
     public static Connection getConnection() throws SQLException {
-        return DriverManager.getConnection(DB_URL, DB_USER, DB_PASSWORD);
+        return ConnectionPool.getDataSource().getConnection();
     }
 }
\ No newline at end of file
@@ -0,0 +1,47 @@
+package com.hotel.app.config;
+
+import org.flywaydb.core.Flyway;
+import org.flywaydb.core.api.output.MigrateResult;
+
+import javax.sql.DataSource;
+
+/**
+ * Aplica as migrações versionadas do esquema (src/main/resources/db/migration) antes de o JPA arrancar.
+ * O Hibernate corre com hbm2ddl.auto=validate, pelo que as alterações ao esquema passam sempre por
+ * um novo ficheiro V&lt;n&gt;__descricao.sql e nunca por comparação do esquema em tempo de execução.
+ *
+ * Numa base criada antes das migrações (sem a tabela flyway_schema_history) todas as migrações são
+ * aplicadas a partir da versão 0; por isso são escritas de forma a poderem correr sobre tabelas já existentes.
+ * As migrações podem ser desligadas com -Dhotel.migrations.enabled=false (ex.: quando são aplicadas
+ * por outro processo antes do deploy).
+ */
+public final class SchemaMigrator {
+
+    private static final String LOCATION = "classpath:db/migration";
+
+    private SchemaMigrator() {}
+
+    /**
+     * Aplica as migrações pendentes.
+     *
+     * @param dataSource O DataSource da base de dados a migrar.
+     * @return O número de migrações aplicadas (0 se o esquema já estava atualizado ou as migrações estão desligadas).
+     */
+    public static int migrate(DataSource dataSource) {
+        if (!Boolean.parseBoolean(System.getProperty("hotel.migrations.enabled", "true"))) {
+            return 0;
+        }
+        MigrateResult result = Flyway.configure()
+                .dataSource(dataSource)
+                .locations(LOCATION)
+                .baselineOnMigrate(true)
+                .baselineVersion("0")
+                .load()
+                .migrate();
+        if (result.migrationsExecuted > 0) {
+            System.out.println("Esquema da base de dados atualizado para a versão " + result.targetSchemaVersion
+                    + " (" + result.migrationsExecuted + " migração(ões) aplicada(s)).");
+        }
+        return result.migrationsExecuted;
+    }
+}
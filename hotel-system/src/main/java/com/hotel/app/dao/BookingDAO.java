@@ -1,12 +1,25 @@
 package com.hotel.app.dao;
 
+import com.hotel.app.dto.BookingHistoryRow;
+import com.hotel.app.metrics.LatencyRecorder;
 import com.hotel.app.model.Booking;
 import jakarta.persistence.EntityManager;
 import jakarta.persistence.NoResultException;
 import jakarta.persistence.TypedQuery;
+import org.hibernate.jpa.SpecHints;
 import java.util.List;
 
+/**
+ * Acesso às reservas. A transação é gerenciada externamente, pela unidade de trabalho (UnitOfWork)
+ * que fornece o EntityManager.
+ */
 public class BookingDAO {
+
+    private static final LatencyRecorder LATENCIES = LatencyRecorder.getDefault();
+
+    // Deve acompanhar hibernate.jdbc.batch_size no persistence.xml
+    private static final int BATCH_SIZE = 50;
+
     private EntityManager entityManager;
 
     public BookingDAO(EntityManager entityManager) {
@@ -14,30 +27,95 @@ public class BookingDAO {
     }
 
     public void save(Booking booking) {
-        entityManager.persist(booking);
+        LATENCIES.time("BookingDAO.save", () -> entityManager.persist(booking));
+    }
+
+    /**
+     * Grava várias reservas em lotes JDBC, esvaziando o contexto de persistência a cada lote.
+     * A transação é gerenciada externamente.
+     */
+    public void saveAll(List<Booking> bookings) {
+        LATENCIES.time("BookingDAO.saveAll", () -> {
+            for (int i = 0; i < bookings.size(); i++) {
+                entityManager.persist(bookings.get(i));
+                if ((i + 1) % BATCH_SIZE == 0) {
+                    entityManager.flush();
+                    entityManager.clear();
+                }
+            }
+            entityManager.flush();
+        });
     }
 
     public Booking findById(Long id) {
-        return entityManager.find(Booking.class, id);
+        return LATENCIES.time("BookingDAO.findById", () -> entityManager.find(Booking.class, id));
     }
 
     public void update(Booking booking) {
-        entityManager.merge(booking);
+        LATENCIES.time("BookingDAO.update", () -> entityManager.merge(booking));
     }
 
     public void delete(Booking booking) {
-        entityManager.remove(booking);
+        LATENCIES.time("BookingDAO.delete", () -> entityManager.remove(booking));
     }
 
     public List<Booking> findAll() {
-        return entityManager.createQuery("SELECT b FROM Booking b", Booking.class).getResultList();
+        return LATENCIES.time("BookingDAO.findAll", () -> entityManager.createQuery("SELECT b FROM Booking b", Booking.class).getResultList());
     }
 
+    /**
+     * Lista uma página de reservas ordenada pelo ID, a partir de um cursor (paginação keyset).
+     * O usuário e o quarto de cada reserva vêm na mesma consulta (JOIN FETCH), sem uma consulta extra por reserva.
+     *
+     * @param afterId O ID da última reserva da página anterior, ou null para a primeira página.
+     * @param limit O número máximo de reservas da página.
+     * @param direction O sentido da ordenação pelo ID.
+     * @return A página de reservas.
+     */
+    public Page<Booking> findPage(Long afterId, int limit, SortDirection direction) {
+        return LATENCIES.time("BookingDAO.findPage", () -> {
+            Page.checkLimit(limit);
+            TypedQuery<Booking> query = entityManager.createQuery(
+                    "SELECT b FROM Booking b JOIN FETCH b.user JOIN FETCH b.room" +
+                            (afterId != null ? " WHERE b.bookingId " + direction.cursorOperator() + " :afterId" : "") +
+                            " ORDER BY b.bookingId " + direction.name(), Booking.class);
+            if (afterId != null) {
+                query.setParameter("afterId", afterId);
+            }
+            query.setMaxResults(limit + 1); // Uma linha a mais para saber se há página seguinte
+            return Page.of(query.getResultList(), limit);
+        });
+    }
+
+    /**
+     * Lista as reservas de um usuário, com o quarto de cada uma carregado na mesma consulta
+     * (grafo {@link Booking#GRAPH_WITH_ROOM}).
+     */
     public List<Booking> findBookingsByUserId(Long userId) {
-        TypedQuery<Booking> query = entityManager.createQuery(
-                "SELECT b FROM Booking b WHERE b.user.userId = :userId", Booking.class);
-        query.setParameter("userId", userId);
-        return query.getResultList();
+        return LATENCIES.time("BookingDAO.findBookingsByUserId", () -> {
+            TypedQuery<Booking> query = entityManager.createQuery(
+                    "SELECT b FROM Booking b WHERE b.user.userId = :userId", Booking.class);
+            query.setParameter("userId", userId);
+            query.setHint(SpecHints.HINT_SPEC_FETCH_GRAPH, entityManager.getEntityGraph(Booking.GRAPH_WITH_ROOM));
+            return query.getResultList();
+        });
+    }
+
+    /**
+     * Histórico de reservas de um usuário, das mais recentes para as mais antigas, como projeção só de leitura
+     * com o número do quarto (uma única consulta, sem entidades geridas).
+     *
+     * @param userId O ID do usuário.
+     * @return As linhas do histórico.
+     */
+    public List<BookingHistoryRow> findHistoryByUserId(Integer userId) {
+        return LATENCIES.time("BookingDAO.findHistoryByUserId", () -> entityManager.createQuery(
+                        "SELECT new com.hotel.app.dto.BookingHistoryRow(b.bookingId, r.roomNumber, b.checkInDate, b.checkOutDate," +
+                                " b.bookingDate, b.status, b.totalPrice)" +
+                                " FROM Booking b JOIN b.room r WHERE b.user.userId = :userId ORDER BY b.checkInDate DESC",
+                        BookingHistoryRow.class)
+                .setParameter("userId", userId)
+                .getResultList());
     }
 
     // Você pode adicionar outros métodos de busca conforme a necessidade, por exemplo:
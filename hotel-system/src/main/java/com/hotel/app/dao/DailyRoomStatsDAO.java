@@ -0,0 +1,150 @@
+package com.hotel.app.dao;
+
+import com.hotel.app.model.Booking;
+import com.hotel.app.model.BookingStatus;
+import com.hotel.app.model.RoomType;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.Query;
+import org.hibernate.query.NativeQuery;
+
+import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * Acesso ao resumo diário de vendas por tipo de quarto (tabela daily_room_stats, migração V4).
+ * A transação é gerenciada externamente: as alterações ao resumo fazem parte da mesma transação que
+ * altera a reserva, pelo que um rollback desfaz as duas.
+ *
+ * As reservas gravadas sem passar pelo BookingService (ex.: BookingDAO.saveAll) não atualizam o resumo;
+ * nesse caso deve ser executado {@link #rebuild()}.
+ *
+ * As noites ficam no tipo que o quarto tinha quando a reserva entrou nele. Para o resumo não divergir de
+ * {@link #rebuild()}, que usa o tipo atual, o RoomService não deixa mudar o tipo de um quarto com reservas,
+ * e o BookingService lê o tipo com a linha do quarto bloqueada sempre que uma reserva entra num quarto.
+ */
+public class DailyRoomStatsDAO {
+
+    // Estados em que as noites da reserva contam como vendidas
+    public static final List<BookingStatus> SOLD_STATUSES = List.of(BookingStatus.CONFIRMED, BookingStatus.COMPLETED);
+
+    private static final String TABLE = "daily_room_stats";
+
+    // A parte de cada noite usa a mesma expressão que rebuild(), para que os valores coincidam exatamente
+    private static final String APPLY_SQL = """
+            INSERT INTO daily_room_stats (stat_date, room_type, rooms_sold, revenue)
+            SELECT CAST(:checkIn AS date) + n.night, :roomType, :sign, :sign * (CAST(:totalPrice AS numeric) / :nights)
+            FROM generate_series(0, :nights - 1) AS n(night)
+            ORDER BY n.night
+            ON CONFLICT (stat_date, room_type) DO UPDATE
+            SET rooms_sold = daily_room_stats.rooms_sold + EXCLUDED.rooms_sold,
+                revenue = daily_room_stats.revenue + EXCLUDED.revenue
+            """;
+
+    private static final String REBUILD_SQL = """
+            INSERT INTO daily_room_stats (stat_date, room_type, rooms_sold, revenue)
+            SELECT b.check_in_date + n.night, r.room_type, COUNT(*),
+                   SUM(CAST(b.total_price AS numeric) / (b.check_out_date - b.check_in_date))
+            FROM bookings b
+            JOIN rooms r ON r.room_id = b.room_id
+            CROSS JOIN LATERAL generate_series(0, b.check_out_date - b.check_in_date - 1) AS n(night)
+            WHERE b.status IN (:soldStatuses)
+            GROUP BY b.check_in_date + n.night, r.room_type
+            """;
+
+    /**
+     * As noites vendidas de uma reserva, tal como contam para o resumo.
+     *
+     * @param roomType O tipo do quarto reservado.
+     * @param checkIn A primeira noite.
+     * @param checkOut O dia de saída (não inclusivo).
+     * @param totalPrice O preço total da reserva, repartido igualmente pelas noites.
+     */
+    public record SoldNights(RoomType roomType, LocalDate checkIn, LocalDate checkOut, double totalPrice) {
+
+        /**
+         * @param booking A reserva, com o quarto acessível (dentro da transação ou já carregado).
+         * @return As noites vendidas da reserva, ou null se ela não contar como vendida.
+         */
+        public static SoldNights of(Booking booking) {
+            if (booking == null || !SOLD_STATUSES.contains(booking.getStatus())) {
+                return null;
+            }
+            return new SoldNights(booking.getRoom().getRoomType(), booking.getCheckInDate(), booking.getCheckOutDate(),
+                    booking.getTotalPrice());
+        }
+    }
+
+    private final EntityManager entityManager;
+
+    public DailyRoomStatsDAO(EntityManager entityManager) {
+        this.entityManager = entityManager;
+    }
+
+    // Ordem global das linhas do resumo, (tipo, dia): cada aplicação percorre as noites por ordem de data,
+    // pelo que basta aplicar primeiro a que começa mais cedo nesta ordem
+    private static final Comparator<SoldNights> LOCK_ORDER = Comparator
+            .comparing((SoldNights nights) -> nights.roomType().name())
+            .thenComparing(SoldNights::checkIn);
+
+    /**
+     * Substitui a contribuição de uma reserva: retira as noites que contavam antes da alteração e soma as de agora.
+     * As duas alterações são aplicadas pela ordem (tipo de quarto, data), para que transações concorrentes bloqueiem
+     * as linhas do resumo pela mesma ordem, também quando a reserva muda para um quarto de outro tipo.
+     *
+     * @param previous As noites vendidas antes da alteração, ou null (reserva nova ou que não contava).
+     * @param current As noites vendidas depois da alteração, ou null (reserva apagada ou que deixou de contar).
+     */
+    public void replace(SoldNights previous, SoldNights current) {
+        if (previous != null && previous.equals(current)) {
+            return;
+        }
+        if (previous != null && current != null && LOCK_ORDER.compare(current, previous) < 0) {
+            apply(current, 1);
+            apply(previous, -1);
+            return;
+        }
+        if (previous != null) {
+            apply(previous, -1);
+        }
+        if (current != null) {
+            apply(current, 1);
+        }
+    }
+
+    private void apply(SoldNights nights, int sign) {
+        int count = (int) ChronoUnit.DAYS.between(nights.checkIn(), nights.checkOut());
+        if (count <= 0) {
+            return;
+        }
+        nativeUpdate(APPLY_SQL)
+                .setParameter("checkIn", nights.checkIn())
+                .setParameter("roomType", nights.roomType().name())
+                .setParameter("sign", sign)
+                .setParameter("totalPrice", nights.totalPrice())
+                .setParameter("nights", count)
+                .executeUpdate();
+    }
+
+    /**
+     * Recalcula o resumo inteiro a partir das reservas. A tabela fica bloqueada para escrita até ao commit:
+     * as reservas alteradas entretanto esperam e são somadas ao resumo novo, sem se perderem nem contarem duas vezes.
+     *
+     * @return O número de linhas (dia, tipo) do resumo.
+     */
+    public int rebuild() {
+        nativeUpdate("LOCK TABLE daily_room_stats IN EXCLUSIVE MODE").executeUpdate();
+        nativeUpdate("DELETE FROM daily_room_stats").executeUpdate();
+        return nativeUpdate(REBUILD_SQL)
+                .setParameter("soldStatuses", SOLD_STATUSES.stream().map(Enum::name).toList())
+                .executeUpdate();
+    }
+
+    // Declara a tabela afetada: sem isso o Hibernate invalidaria todo o cache de segundo nível a cada reserva
+    private Query nativeUpdate(String sql) {
+        Query query = entityManager.createNativeQuery(sql);
+        query.unwrap(NativeQuery.class).addSynchronizedQuerySpace(TABLE);
+        return query;
+    }
+}
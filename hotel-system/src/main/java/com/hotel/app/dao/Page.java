@@ -0,0 +1,48 @@
+package com.hotel.app.dao;
+
+import java.util.List;
+
+/**
+ * Uma página de uma listagem paginada por cursor (keyset).
+ * A página seguinte é pedida com o ID do último elemento desta página como cursor,
+ * o que mantém o custo de cada página constante, seja qual for o tamanho da tabela
+ * (ao contrário de OFFSET, que obriga a base de dados a percorrer todas as linhas anteriores).
+ *
+ * @param items Os elementos da página, pela ordem pedida.
+ * @param hasMore true se existirem mais elementos depois desta página.
+ */
+public record Page<T>(List<T> items, boolean hasMore) {
+
+    /**
+     * Constrói a página a partir de uma consulta que pediu {@code limit + 1} linhas:
+     * a linha a mais só serve para saber se existe uma página seguinte.
+     *
+     * @param fetched As linhas devolvidas pela consulta (no máximo limit + 1).
+     * @param limit O tamanho da página.
+     * @return A página com no máximo {@code limit} elementos.
+     */
+    static <T> Page<T> of(List<T> fetched, int limit) {
+        boolean hasMore = fetched.size() > limit;
+        return new Page<>(hasMore ? List.copyOf(fetched.subList(0, limit)) : fetched, hasMore);
+    }
+
+    /**
+     * Valida o tamanho de página pedido.
+     */
+    static void checkLimit(int limit) {
+        if (limit <= 0) {
+            throw new IllegalArgumentException("O tamanho da página deve ser maior que zero.");
+        }
+    }
+
+    public boolean isEmpty() {
+        return items.isEmpty();
+    }
+
+    /**
+     * @return O último elemento da página (cujo ID é o cursor da página seguinte), ou null se a página estiver vazia.
+     */
+    public T last() {
+        return items.isEmpty() ? null : items.get(items.size() - 1);
+    }
+}
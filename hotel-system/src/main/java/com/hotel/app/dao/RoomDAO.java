@@ -1,92 +1,197 @@
 package com.hotel.app.dao;
 
 import com.hotel.app.model.Room;
+import com.hotel.app.model.RoomType;
+import com.hotel.app.metrics.LatencyRecorder;
 import jakarta.persistence.EntityManager;
+import jakarta.persistence.LockModeType;
 import jakarta.persistence.NoResultException;
 import jakarta.persistence.TypedQuery;
+import org.hibernate.jpa.HibernateHints;
 
 import java.util.List;
+import java.util.function.Consumer;
 
+/**
+ * Acesso aos quartos. Room está no cache de segundo nível: getRoomById não vai à base de dados
+ * se o quarto estiver em cache, e as consultas de leitura usam o cache de consultas
+ * (invalidado automaticamente sempre que a tabela de quartos é alterada).
+ */
 public class RoomDAO {
 
+    private static final LatencyRecorder LATENCIES = LatencyRecorder.getDefault();
+
+    // Deve acompanhar hibernate.jdbc.batch_size no persistence.xml
+    private static final int BATCH_SIZE = 50;
+
     private EntityManager entityManager;
 
     public RoomDAO(EntityManager entityManager) {
         this.entityManager = entityManager;
     }
 
+    /**
+     * Adiciona um quarto. A transação é gerenciada externamente.
+     */
     public Room addRoom(Room room) {
-        try {
-            entityManager.getTransaction().begin();
+        return LATENCIES.time("RoomDAO.addRoom", () -> {
             entityManager.persist(room);
-            entityManager.getTransaction().commit();
             return room;
-        } catch (Exception e) {
-            if (entityManager.getTransaction().isActive()) {
-                entityManager.getTransaction().rollback();
+        });
+    }
+
+    /**
+     * Adiciona vários quartos na transação da unidade de trabalho.
+     * Os INSERTs são enviados em lotes JDBC e o contexto de persistência é esvaziado a cada lote,
+     * para que a memória não cresça com o número de quartos.
+     *
+     * @param rooms Os quartos a adicionar.
+     * @return O número de quartos adicionados.
+     */
+    public int addRooms(List<Room> rooms) {
+        return LATENCIES.time("RoomDAO.addRooms", () -> {
+            for (int i = 0; i < rooms.size(); i++) {
+                entityManager.persist(rooms.get(i));
+                if ((i + 1) % BATCH_SIZE == 0) {
+                    entityManager.flush();
+                    entityManager.clear();
+                }
             }
-            System.err.println("Erro ao adicionar quarto no DAO: " + e.getMessage());
-            e.printStackTrace();
-            return null;
-        }
+            entityManager.flush();
+            return rooms.size();
+        });
     }
 
     public Room getRoomById(Integer id) {
-        return entityManager.find(Room.class, id);
+        return LATENCIES.time("RoomDAO.getRoomById", () -> entityManager.find(Room.class, id));
     }
 
     public Room getRoomByNumber(String roomNumber) {
-        try {
-            TypedQuery<Room> query = entityManager.createQuery("SELECT r FROM Room r WHERE r.roomNumber = :roomNumber", Room.class);
-            query.setParameter("roomNumber", roomNumber);
-            return query.getSingleResult();
-        } catch (NoResultException e) {
-            return null; // Nenhum quarto encontrado com este número
-        } catch (Exception e) {
-            System.err.println("Erro ao buscar quarto por número no DAO: " + e.getMessage());
-            e.printStackTrace();
-            return null;
-        }
+        return LATENCIES.time("RoomDAO.getRoomByNumber", () -> {
+            try {
+                TypedQuery<Room> query = entityManager.createQuery("SELECT r FROM Room r WHERE r.roomNumber = :roomNumber", Room.class);
+                query.setParameter("roomNumber", roomNumber);
+                cacheable(query);
+                return query.getSingleResult();
+            } catch (NoResultException e) {
+                return null; // Nenhum quarto encontrado com este número
+            }
+        });
     }
 
     public List<Room> getAllRooms() {
-        TypedQuery<Room> query = entityManager.createQuery("SELECT r FROM Room r ORDER BY r.roomNumber", Room.class);
-        return query.getResultList();
+        return LATENCIES.time("RoomDAO.getAllRooms", () -> {
+            TypedQuery<Room> query = entityManager.createQuery("SELECT r FROM Room r ORDER BY r.roomNumber", Room.class);
+            cacheable(query);
+            return query.getResultList();
+        });
+    }
+
+    /**
+     * Marca uma consulta sobre a tabela de quartos como cacheável, na região de consultas de quartos.
+     * Só deve ser usado em consultas que não dependem de outras tabelas.
+     */
+    public static <T> TypedQuery<T> cacheable(TypedQuery<T> query) {
+        query.setHint(HibernateHints.HINT_CACHEABLE, true);
+        query.setHint(HibernateHints.HINT_CACHE_REGION, Room.QUERY_CACHE_REGION);
+        return query;
+    }
+
+    /**
+     * Lista uma página de quartos ordenada pelo ID, a partir de um cursor (paginação keyset).
+     *
+     * @param afterId O ID do último quarto da página anterior, ou null para a primeira página.
+     * @param limit O número máximo de quartos da página.
+     * @param direction O sentido da ordenação pelo ID.
+     * @return A página de quartos.
+     */
+    public Page<Room> findPage(Integer afterId, int limit, SortDirection direction) {
+        return LATENCIES.time("RoomDAO.findPage", () -> {
+            Page.checkLimit(limit);
+            TypedQuery<Room> query = entityManager.createQuery(
+                    "SELECT r FROM Room r" +
+                            (afterId != null ? " WHERE r.roomId " + direction.cursorOperator() + " :afterId" : "") +
+                            " ORDER BY r.roomId " + direction.name(), Room.class);
+            if (afterId != null) {
+                query.setParameter("afterId", afterId);
+            }
+            query.setMaxResults(limit + 1); // Uma linha a mais para saber se há página seguinte
+            cacheable(query);
+            return Page.of(query.getResultList(), limit);
+        });
     }
 
+    /**
+     * Grava o estado completo de um quarto. A transação é gerenciada externamente;
+     * um conflito de versão é detetado no commit.
+     *
+     * @throws IllegalStateException Se o tipo mudar num quarto com reservas.
+     */
     public Room updateRoom(Room room) {
-        try {
-            entityManager.getTransaction().begin();
-            Room updatedRoom = entityManager.merge(room);
-            entityManager.getTransaction().commit();
-            return updatedRoom;
-        } catch (Exception e) {
-            if (entityManager.getTransaction().isActive()) {
-                entityManager.getTransaction().rollback();
+        return LATENCIES.time("RoomDAO.updateRoom", () -> {
+            if (room.getRoomId() != null) {
+                Room stored = entityManager.find(Room.class, room.getRoomId());
+                if (stored != null) {
+                    checkRoomTypeChange(stored, stored.getRoomType(), room.getRoomType());
+                }
+            }
+            return entityManager.merge(room);
+        });
+    }
+
+    /**
+     * Lê o estado atual de um quarto e aplica-lhe uma alteração, gravada no commit da unidade de trabalho.
+     *
+     * @param roomId O ID do quarto.
+     * @param changes A alteração a aplicar.
+     * @return O quarto alterado.
+     * @throws IllegalArgumentException Se o quarto não existir.
+     * @throws IllegalStateException Se a alteração mudar o tipo de um quarto com reservas.
+     */
+    public Room applyChanges(Integer roomId, Consumer<Room> changes) {
+        return LATENCIES.time("RoomDAO.applyChanges", () -> {
+            Room current = entityManager.find(Room.class, roomId);
+            if (current == null) {
+                throw new IllegalArgumentException("Quarto com ID " + roomId + " não encontrado.");
             }
-            System.err.println("Erro ao atualizar quarto no DAO: " + e.getMessage());
-            e.printStackTrace();
-            return null;
+            RoomType previousType = current.getRoomType();
+            changes.accept(current);
+            checkRoomTypeChange(current, previousType, current.getRoomType());
+            return current;
+        });
+    }
+
+    // As noites vendidas ficam no resumo diário (daily_room_stats) com o tipo que o quarto tinha quando foram
+    // reservadas; mudar o tipo de um quarto com reservas faria o resumo divergir da reconstrução.
+    // A linha do quarto fica bloqueada até ao commit: uma reserva que entre no quarto entretanto (que bloqueia
+    // a mesma linha) espera e lê já o tipo novo.
+    private void checkRoomTypeChange(Room room, RoomType previousType, RoomType newType) {
+        if (previousType == newType) {
+            return;
+        }
+        entityManager.lock(room, LockModeType.PESSIMISTIC_WRITE);
+        long bookings = entityManager.createQuery("SELECT COUNT(b) FROM Booking b WHERE b.room.roomId = :roomId", Long.class)
+                .setParameter("roomId", room.getRoomId())
+                .getSingleResult();
+        if (bookings > 0) {
+            throw new IllegalStateException("O tipo do quarto " + room.getRoomNumber() + " não pode ser alterado: o quarto tem "
+                    + bookings + " reserva(s).");
         }
     }
 
-    public void deleteRoom(Integer roomId) {
-        try {
-            entityManager.getTransaction().begin();
+    /**
+     * Remove um quarto. A transação é gerenciada externamente.
+     *
+     * @return true se o quarto foi removido, false se não existir.
+     */
+    public boolean deleteRoom(Integer roomId) {
+        return LATENCIES.time("RoomDAO.deleteRoom", () -> {
             Room room = entityManager.find(Room.class, roomId);
-            if (room != null) {
-                entityManager.remove(room);
-                System.out.println("Quarto com ID " + roomId + " removido do banco de dados.");
-            } else {
-                System.out.println("Quarto com ID " + roomId + " não encontrado para remoção.");
+            if (room == null) {
+                return false;
             }
-            entityManager.getTransaction().commit();
-        } catch (Exception e) {
-            if (entityManager.getTransaction().isActive()) {
-                entityManager.getTransaction().rollback();
-            }
-            System.err.println("Erro ao deletar quarto no DAO: " + e.getMessage());
-            e.printStackTrace();
-        }
+            entityManager.remove(room);
+            return true;
+        });
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,16 @@
+package com.hotel.app.dao;
+
+/**
+ * Sentido da ordenação das listagens paginadas (pelo ID).
+ */
+public enum SortDirection {
+    ASC,
+    DESC;
+
+    /**
+     * @return O operador de comparação do cursor: as linhas "depois" do cursor têm ID maior (ASC) ou menor (DESC).
+     */
+    String cursorOperator() {
+        return this == ASC ? ">" : "<";
+    }
+}
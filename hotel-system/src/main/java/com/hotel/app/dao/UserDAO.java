@@ -1,16 +1,23 @@
 package com.hotel.app.dao;
 
+import com.hotel.app.dto.UserSummary;
+import com.hotel.app.metrics.LatencyRecorder;
 import com.hotel.app.model.User;
 
 import jakarta.persistence.EntityManager;
 import jakarta.persistence.NoResultException;
 import jakarta.persistence.TypedQuery;
-import jakarta.persistence.EntityTransaction; // Importe EntityTransaction se for gerenciar transações aqui
 
 import java.util.List;
 
+/**
+ * Acesso aos utilizadores. Um UserDAO é criado por unidade de trabalho (ver UnitOfWork),
+ * que gere a transação e o ciclo de vida do EntityManager.
+ */
 public class UserDAO {
 
+    private static final LatencyRecorder LATENCIES = LatencyRecorder.getDefault();
+
     private EntityManager entityManager;
 
     public UserDAO(EntityManager entityManager) {
@@ -20,30 +27,17 @@ public class UserDAO {
     /**
      * Adiciona um novo usuário ao banco de dados.
      * O ID do usuário será gerado pelo banco de dados e atualizado no objeto User após a persistência.
+     * A transação é gerenciada externamente.
      *
      * @param user O objeto User a ser adicionado.
-     * @return O objeto User persistido, com o ID gerado pelo banco de dados. Retorna null em caso de erro.
+     * @return O objeto User persistido, com o ID gerado pelo banco de dados.
      */
     public User addUser(User user) {
-        EntityTransaction transaction = null;
-        try {
-            transaction = entityManager.getTransaction();
-            transaction.begin();
-
+        return LATENCIES.time("UserDAO.addUser", () -> {
             entityManager.persist(user);
             entityManager.flush();
-
-            transaction.commit();
-            System.out.println("Usuário adicionado com sucesso! ID: " + user.getUserId());
             return user;
-        } catch (Exception e) {
-            if (transaction != null && transaction.isActive()) {
-                transaction.rollback();
-            }
-            System.err.println("Erro ao adicionar usuário ao banco de dados: " + e.getMessage());
-            e.printStackTrace();
-            return null;
-        }
+        });
     }
 
     /**
@@ -54,13 +48,15 @@ public class UserDAO {
      * @return O objeto User correspondente ao email, ou null se não for encontrado.
      */
     public User getUserByEmail(String email) {
-        try {
-            TypedQuery<User> query = entityManager.createQuery("SELECT u FROM User u WHERE u.email = :email", User.class);
-            query.setParameter("email", email);
-            return query.getSingleResult();
-        } catch (NoResultException e) {
-            return null; // Retorna null se nenhum usuário for encontrado com o email
-        }
+        return LATENCIES.time("UserDAO.getUserByEmail", () -> {
+            try {
+                TypedQuery<User> query = entityManager.createQuery("SELECT u FROM User u WHERE u.email = :email", User.class);
+                query.setParameter("email", email);
+                return query.getSingleResult();
+            } catch (NoResultException e) {
+                return null; // Retorna null se nenhum usuário for encontrado com o email
+            }
+        });
     }
 
     /**
@@ -70,34 +66,69 @@ public class UserDAO {
      * @return Uma {@link List} de objetos {@link User}. Pode ser vazia se não houver usuários.
      */
     public List<User> getAllUsers() {
-        // Para operações de leitura, geralmente não é necessário uma transação explícita
-        // a menos que você precise de um nível específico de isolamento ou controle transacional.
-        // Se o EntityManager estiver gerenciado no contexto da sessão, pode funcionar sem begin/commit.
-        return entityManager.createQuery("SELECT u FROM User u", User.class).getResultList();
+        return LATENCIES.time("UserDAO.getAllUsers", () -> entityManager.createQuery("SELECT u FROM User u", User.class).getResultList());
+    }
+
+    /**
+     * Lista uma página de usuários ordenada pelo ID, a partir de um cursor (paginação keyset).
+     * A transação é gerenciada externamente.
+     *
+     * @param afterId O ID do último usuário da página anterior, ou null para a primeira página.
+     * @param limit O número máximo de usuários da página.
+     * @param direction O sentido da ordenação pelo ID.
+     * @return A página de usuários.
+     */
+    public Page<User> findPage(Integer afterId, int limit, SortDirection direction) {
+        return LATENCIES.time("UserDAO.findPage", () -> {
+            Page.checkLimit(limit);
+            TypedQuery<User> query = entityManager.createQuery(
+                    "SELECT u FROM User u" +
+                            (afterId != null ? " WHERE u.userId " + direction.cursorOperator() + " :afterId" : "") +
+                            " ORDER BY u.userId " + direction.name(), User.class);
+            if (afterId != null) {
+                query.setParameter("afterId", afterId);
+            }
+            query.setMaxResults(limit + 1); // Uma linha a mais para saber se há página seguinte
+            return Page.of(query.getResultList(), limit);
+        });
+    }
+
+    /**
+     * Como {@link #findPage(Integer, int, SortDirection)}, mas devolve apenas as colunas da listagem
+     * (sem a palavra-passe) como projeção só de leitura, sem entidades geridas.
+     *
+     * @param afterId O ID do último usuário da página anterior, ou null para a primeira página.
+     * @param limit O número máximo de usuários da página.
+     * @param direction O sentido da ordenação pelo ID.
+     * @return A página de resumos de usuários.
+     */
+    public Page<UserSummary> findSummaryPage(Integer afterId, int limit, SortDirection direction) {
+        return LATENCIES.time("UserDAO.findSummaryPage", () -> {
+            Page.checkLimit(limit);
+            TypedQuery<UserSummary> query = entityManager.createQuery(
+                    "SELECT new com.hotel.app.dto.UserSummary(u.userId, u.fullName, u.email, u.phone, u.role, u.birthday)" +
+                            " FROM User u" +
+                            (afterId != null ? " WHERE u.userId " + direction.cursorOperator() + " :afterId" : "") +
+                            " ORDER BY u.userId " + direction.name(), UserSummary.class);
+            if (afterId != null) {
+                query.setParameter("afterId", afterId);
+            }
+            query.setMaxResults(limit + 1); // Uma linha a mais para saber se há página seguinte
+            return Page.of(query.getResultList(), limit);
+        });
     }
 
     /**
      * Atualiza as informações de um utilizador existente no banco de dados.
+     * A transação é gerenciada externamente; um conflito de versão é detetado no commit.
      *
      * @param user O objeto {@link User} com as informações atualizadas.
-     * @return O objeto User atualizado, ou null em caso de falha.
+     * @return O objeto User atualizado (gerenciado pela unidade de trabalho).
      */
-    public User updateUser(User user) { // ALTERADO: Retorna User
-        EntityTransaction transaction = null;
-        try {
-            transaction = entityManager.getTransaction();
-            transaction.begin();
-            User mergedUser = entityManager.merge(user); // O método merge retorna a entidade gerenciada
-            transaction.commit();
-            return mergedUser; // Retorna o objeto User atualizado
-        } catch (Exception e) {
-            if (transaction != null && transaction.isActive()) {
-                transaction.rollback();
-            }
-            System.err.println("Erro ao atualizar usuário no banco de dados: " + e.getMessage());
-            e.printStackTrace();
-            return null; // Retorna null em caso de falha
-        }
+    public User updateUser(User user) {
+        return LATENCIES.time("UserDAO.updateUser", () -> {
+            return entityManager.merge(user); // O método merge retorna a entidade gerenciada
+        });
     }
 
 
@@ -107,43 +138,33 @@ public class UserDAO {
      * @return O User encontrado, ou null.
      */
     public User getUserByPhone(String phone) {
-        try {
-            TypedQuery<User> query = entityManager.createQuery("SELECT u FROM User u WHERE u.phone = :phone", User.class);
-            query.setParameter("phone", phone);
-            return query.getSingleResult();
-        } catch (NoResultException e) {
-            return null;
-        }
+        return LATENCIES.time("UserDAO.getUserByPhone", () -> {
+            try {
+                TypedQuery<User> query = entityManager.createQuery("SELECT u FROM User u WHERE u.phone = :phone", User.class);
+                query.setParameter("phone", phone);
+                return query.getSingleResult();
+            } catch (NoResultException e) {
+                return null;
+            }
+        });
     }
 
 
     /**
      * Deleta um usuário do banco de dados pelo seu ID.
+     * A transação é gerenciada externamente.
      *
      * @param userId O ID do usuário a ser deletado.
-     * @return true se o usuário foi deletado, false caso contrário.
+     * @return true se o usuário foi deletado, false se não existir.
      */
     public boolean deleteUser(Integer userId) {
-        EntityTransaction transaction = null;
-        try {
-            transaction = entityManager.getTransaction();
-            transaction.begin();
+        return LATENCIES.time("UserDAO.deleteUser", () -> {
             User user = entityManager.find(User.class, userId);
-            if (user != null) {
-                entityManager.remove(user);
-                transaction.commit();
-                return true;
-            } else {
-                transaction.rollback(); // Nao encontrou, nao faz sentido commitar
+            if (user == null) {
                 return false;
             }
-        } catch (Exception e) {
-            if (transaction != null && transaction.isActive()) {
-                transaction.rollback();
-            }
-            System.err.println("Erro ao deletar usuário do banco de dados: " + e.getMessage());
-            e.printStackTrace();
-            return false;
-        }
+            entityManager.remove(user);
+            return true;
+        });
     }
 }
\ No newline at end of file
@@ -0,0 +1,21 @@
+package com.hotel.app.dto;
+
+import com.hotel.app.model.BookingStatus;
+
+import java.time.LocalDate;
+
+/**
+ * Linha do histórico de reservas de um cliente.
+ * Projeção só de leitura, com o número do quarto em vez da entidade Room.
+ *
+ * @param bookingId O ID da reserva.
+ * @param roomNumber O número do quarto reservado.
+ * @param checkInDate A data de check-in.
+ * @param checkOutDate A data de check-out.
+ * @param bookingDate A data em que a reserva foi feita.
+ * @param status O estado da reserva.
+ * @param totalPrice O preço total.
+ */
+public record BookingHistoryRow(Long bookingId, String roomNumber, LocalDate checkInDate, LocalDate checkOutDate,
+                                LocalDate bookingDate, BookingStatus status, Double totalPrice) {
+}
@@ -0,0 +1,19 @@
+package com.hotel.app.dto;
+
+import com.hotel.app.model.Role;
+
+import java.time.LocalDate;
+
+/**
+ * Linha da listagem de usuários do painel de administração.
+ * Projeção só de leitura: não inclui a palavra-passe e não é gerida pelo contexto de persistência.
+ *
+ * @param userId O ID do usuário.
+ * @param fullName O nome completo.
+ * @param email O email.
+ * @param phone O telefone.
+ * @param role O cargo.
+ * @param birthday A data de nascimento.
+ */
+public record UserSummary(Integer userId, String fullName, String email, String phone, Role role, LocalDate birthday) {
+}
@@ -0,0 +1,228 @@
+package com.hotel.app.export;
+
+import com.hotel.app.model.Booking;
+import com.hotel.app.util.UnitOfWork;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.TypedQuery;
+import org.hibernate.CacheMode;
+import org.hibernate.Session;
+import org.hibernate.jpa.HibernateHints;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.math.BigDecimal;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.util.Iterator;
+import java.util.function.LongConsumer;
+import java.util.stream.Stream;
+
+/**
+ * Exporta todas as reservas (com o hóspede e o quarto) para CSV ou JSON, para a contabilidade.
+ *
+ * As reservas são lidas em fluxo ({@code getResultStream}) com um cursor do lado do servidor:
+ * a base de dados envia {@code fetchSize} linhas de cada vez e o contexto de persistência é esvaziado
+ * a cada {@code clearInterval} reservas. O ficheiro é escrito através de um FileChannel com buffer.
+ * Assim a memória usada não depende do número de reservas exportadas.
+ */
+public class BookingExporter {
+
+    private static final String EXPORT_QUERY =
+            "SELECT b FROM Booking b JOIN FETCH b.user JOIN FETCH b.room ORDER BY b.bookingId";
+
+    private static final String CSV_HEADER =
+            "booking_id,user_id,user_name,user_email,room_id,room_number,check_in_date,check_out_date,booking_date,status,total_price";
+
+    private static final int WRITE_BUFFER_SIZE = 64 * 1024;
+
+    private final int fetchSize;
+    private final int clearInterval;
+
+    /**
+     * Exportador configurado pelas propriedades de sistema {@code hotel.export.fetchSize}
+     * e {@code hotel.export.clearInterval} (ambas 1000 por omissão).
+     */
+    public BookingExporter() {
+        this(Integer.getInteger("hotel.export.fetchSize", 1000), Integer.getInteger("hotel.export.clearInterval", 1000));
+    }
+
+    /**
+     * @param fetchSize O número de linhas pedidas à base de dados de cada vez.
+     * @param clearInterval De quantas em quantas reservas o contexto de persistência é esvaziado.
+     */
+    public BookingExporter(int fetchSize, int clearInterval) {
+        if (fetchSize <= 0 || clearInterval <= 0) {
+            throw new IllegalArgumentException("fetchSize e clearInterval devem ser maiores que zero.");
+        }
+        this.fetchSize = fetchSize;
+        this.clearInterval = clearInterval;
+    }
+
+    /**
+     * Exporta todas as reservas para um ficheiro (substituído se já existir).
+     *
+     * @param target O ficheiro de destino.
+     * @param format O formato do ficheiro.
+     * @return O resumo da exportação (linhas, tamanho, tempo e débito).
+     * @throws IOException Se não for possível escrever o ficheiro.
+     */
+    public ExportResult export(Path target, ExportFormat format) throws IOException {
+        return export(target, format, rows -> {});
+    }
+
+    /**
+     * Exporta todas as reservas para um ficheiro (substituído se já existir).
+     *
+     * @param target O ficheiro de destino.
+     * @param format O formato do ficheiro.
+     * @param progress Recebe o número de reservas já exportadas, a cada {@code clearInterval} reservas.
+     * @return O resumo da exportação (linhas, tamanho, tempo e débito).
+     * @throws IOException Se não for possível escrever o ficheiro.
+     */
+    public ExportResult export(Path target, ExportFormat format, LongConsumer progress) throws IOException {
+        long start = System.nanoTime();
+        long rows;
+        try (FileChannel channel = FileChannel.open(target, StandardOpenOption.CREATE,
+                StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE);
+             Writer writer = new BufferedWriter(Channels.newWriter(channel, StandardCharsets.UTF_8), WRITE_BUFFER_SIZE)) {
+            // O cursor do servidor (PostgreSQL) só é usado dentro de uma transação
+            rows = UnitOfWork.inTransaction(entityManager -> streamBookings(entityManager, writer, format, progress));
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+        return new ExportResult(target, format, rows, Files.size(target), Duration.ofNanos(System.nanoTime() - start));
+    }
+
+    private long streamBookings(EntityManager entityManager, Writer writer, ExportFormat format, LongConsumer progress) {
+        Session session = entityManager.unwrap(Session.class);
+        session.setDefaultReadOnly(true);        // Sem cópias para dirty checking
+        session.setCacheMode(CacheMode.IGNORE);  // Não enche o cache de segundo nível com quartos da exportação
+
+        TypedQuery<Booking> query = entityManager.createQuery(EXPORT_QUERY, Booking.class)
+                .setHint(HibernateHints.HINT_FETCH_SIZE, fetchSize)
+                .setHint(HibernateHints.HINT_READ_ONLY, true);
+
+        long rows = 0;
+        try (Stream<Booking> bookings = query.getResultStream()) {
+            writeHeader(writer, format);
+            Iterator<Booking> iterator = bookings.iterator();
+            while (iterator.hasNext()) {
+                writeRow(writer, format, iterator.next(), rows == 0);
+                rows++;
+                if (rows % clearInterval == 0) {
+                    // As reservas já escritas deixam de ser referenciadas pelo contexto de persistência
+                    entityManager.clear();
+                    progress.accept(rows);
+                }
+            }
+            writeFooter(writer, format, rows);
+            return rows;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static void writeHeader(Writer writer, ExportFormat format) throws IOException {
+        if (format == ExportFormat.CSV) {
+            writer.write(CSV_HEADER);
+            writer.write('\n');
+        } else {
+            writer.write('[');
+        }
+    }
+
+    private static void writeFooter(Writer writer, ExportFormat format, long rows) throws IOException {
+        if (format == ExportFormat.JSON) {
+            writer.write(rows == 0 ? "]\n" : "\n]\n");
+        }
+    }
+
+    private static void writeRow(Writer writer, ExportFormat format, Booking booking, boolean first) throws IOException {
+        if (format == ExportFormat.CSV) {
+            writer.write(String.valueOf(booking.getBookingId()));
+            writer.write(',');
+            writer.write(String.valueOf(booking.getUser().getUserId()));
+            writer.write(',');
+            writer.write(csv(booking.getUser().getFullName()));
+            writer.write(',');
+            writer.write(csv(booking.getUser().getEmail()));
+            writer.write(',');
+            writer.write(String.valueOf(booking.getRoom().getRoomId()));
+            writer.write(',');
+            writer.write(csv(booking.getRoom().getRoomNumber()));
+            writer.write(',');
+            writer.write(String.valueOf(booking.getCheckInDate()));
+            writer.write(',');
+            writer.write(String.valueOf(booking.getCheckOutDate()));
+            writer.write(',');
+            writer.write(String.valueOf(booking.getBookingDate()));
+            writer.write(',');
+            writer.write(String.valueOf(booking.getStatus()));
+            writer.write(',');
+            writer.write(price(booking.getTotalPrice(), ""));
+            writer.write('\n');
+        } else {
+            writer.write(first ? "\n  {" : ",\n  {");
+            writer.write("\"bookingId\":" + booking.getBookingId());
+            writer.write(",\"userId\":" + booking.getUser().getUserId());
+            writer.write(",\"userName\":" + json(booking.getUser().getFullName()));
+            writer.write(",\"userEmail\":" + json(booking.getUser().getEmail()));
+            writer.write(",\"roomId\":" + booking.getRoom().getRoomId());
+            writer.write(",\"roomNumber\":" + json(booking.getRoom().getRoomNumber()));
+            writer.write(",\"checkInDate\":" + json(String.valueOf(booking.getCheckInDate())));
+            writer.write(",\"checkOutDate\":" + json(String.valueOf(booking.getCheckOutDate())));
+            writer.write(",\"bookingDate\":" + json(String.valueOf(booking.getBookingDate())));
+            writer.write(",\"status\":" + json(String.valueOf(booking.getStatus())));
+            writer.write(",\"totalPrice\":" + price(booking.getTotalPrice(), "null"));
+            writer.write('}');
+        }
+    }
+
+    // Sem notação científica (ex.: 1.0E7), que as folhas de cálculo da contabilidade não interpretam bem
+    private static String price(Double value, String nullValue) {
+        return value == null ? nullValue : BigDecimal.valueOf(value).toPlainString();
+    }
+
+    // Campo CSV (RFC 4180): entre aspas se tiver vírgulas, aspas ou quebras de linha
+    static String csv(String value) {
+        if (value == null) {
+            return "";
+        }
+        if (value.indexOf(',') >= 0 || value.indexOf('"') >= 0 || value.indexOf('\n') >= 0 || value.indexOf('\r') >= 0) {
+            return '"' + value.replace("\"", "\"\"") + '"';
+        }
+        return value;
+    }
+
+    static String json(String value) {
+        if (value == null) {
+            return "null";
+        }
+        StringBuilder escaped = new StringBuilder(value.length() + 2).append('"');
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            switch (c) {
+                case '"' -> escaped.append("\\\"");
+                case '\\' -> escaped.append("\\\\");
+                case '\n' -> escaped.append("\\n");
+                case '\r' -> escaped.append("\\r");
+                case '\t' -> escaped.append("\\t");
+                default -> {
+                    if (c < 0x20) {
+                        escaped.append(String.format("\\u%04x", (int) c));
+                    } else {
+                        escaped.append(c);
+                    }
+                }
+            }
+        }
+        return escaped.append('"').toString();
+    }
+}
@@ -0,0 +1,19 @@
+package com.hotel.app.export;
+
+/**
+ * Formatos suportados pela exportação de reservas.
+ */
+public enum ExportFormat {
+    CSV("csv"),
+    JSON("json");
+
+    private final String fileExtension;
+
+    ExportFormat(String fileExtension) {
+        this.fileExtension = fileExtension;
+    }
+
+    public String getFileExtension() {
+        return fileExtension;
+    }
+}
@@ -0,0 +1,24 @@
+package com.hotel.app.export;
+
+import java.nio.file.Path;
+import java.time.Duration;
+
+/**
+ * Resumo de uma exportação concluída.
+ *
+ * @param file O ficheiro gerado.
+ * @param format O formato do ficheiro.
+ * @param rows O número de reservas exportadas.
+ * @param bytes O tamanho do ficheiro gerado.
+ * @param elapsed O tempo total da exportação.
+ */
+public record ExportResult(Path file, ExportFormat format, long rows, long bytes, Duration elapsed) {
+
+    /**
+     * @return O débito médio da exportação, em reservas por segundo.
+     */
+    public double rowsPerSecond() {
+        long millis = Math.max(1, elapsed.toMillis());
+        return rows * 1000.0 / millis;
+    }
+}
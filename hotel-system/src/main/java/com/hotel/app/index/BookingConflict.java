@@ -0,0 +1,14 @@
+package com.hotel.app.index;
+
+/**
+ * Par de reservas ativas do mesmo quarto cujos períodos se sobrepõem.
+ *
+ * @param first A reserva que começa primeiro.
+ * @param second A reserva que começa depois (ou no mesmo dia) e se sobrepõe à primeira.
+ */
+public record BookingConflict(BookingStay first, BookingStay second) {
+
+    public Integer roomId() {
+        return first.roomId();
+    }
+}
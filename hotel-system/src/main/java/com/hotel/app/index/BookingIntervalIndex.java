@@ -0,0 +1,167 @@
+package com.hotel.app.index;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Índice de intervalos por quarto sobre as reservas ativas (PENDING/CONFIRMED).
+ * Responde a "que reservas se sobrepõem a este período", "qual a próxima vaga de N noites"
+ * e produz o relatório de conflitos (reservas sobrepostas) numa única passagem.
+ * Só está completo depois da primeira reconstrução ({@link #isLoaded()}); até lá o chamador deve usar a base de dados.
+ */
+public class BookingIntervalIndex {
+
+    private final Map<Integer, BookingIntervalTree> trees = new ConcurrentHashMap<>();
+    private final Map<Long, BookingStay> staysByBooking = new ConcurrentHashMap<>();
+    private final RebuildJournal journal = new RebuildJournal();
+    private volatile boolean loaded;
+
+    /**
+     * Marca o início de uma reconstrução, antes de ler as reservas ativas da base de dados:
+     * até {@link #rebuild(Collection)} o índice não está carregado e as alterações recebidas ficam guardadas.
+     */
+    public void beginRebuild() {
+        loaded = false;
+        journal.begin();
+    }
+
+    /**
+     * Substitui o conteúdo do índice pelas estadias fornecidas e aplica por cima as alterações
+     * recebidas desde {@link #beginRebuild()}.
+     */
+    public void rebuild(Collection<BookingStay> activeStays) {
+        loaded = false;
+        journal.complete(() -> {
+            trees.clear();
+            staysByBooking.clear();
+            activeStays.forEach(this::index);
+        }, this::index, this::unindex);
+        loaded = true;
+    }
+
+    /**
+     * Abandona uma reconstrução que falhou, aplicando as alterações guardadas; o índice continua por carregar.
+     */
+    public void cancelRebuild() {
+        journal.complete(() -> {}, this::index, this::unindex);
+    }
+
+    /**
+     * @return true se o índice tem todas as reservas ativas (a última reconstrução terminou).
+     */
+    public boolean isLoaded() {
+        return loaded;
+    }
+
+    /**
+     * Adiciona ou substitui a estadia de uma reserva.
+     */
+    public void put(BookingStay stay) {
+        journal.put(stay, this::index);
+    }
+
+    /**
+     * Adiciona ou substitui a estadia de uma reserva numa dada versão, ignorando-a se for anterior à última recebida.
+     *
+     * @see OccupancyIndex#put(BookingStay, long)
+     */
+    public void put(BookingStay stay, long version) {
+        journal.put(stay, version, this::index);
+    }
+
+    /**
+     * Remove a estadia de uma reserva, se estiver indexada.
+     */
+    public void remove(Long bookingId) {
+        journal.remove(bookingId, this::unindex);
+    }
+
+    /**
+     * Remove a estadia de uma reserva numa dada versão, ignorando-a se for anterior à última recebida.
+     *
+     * @see OccupancyIndex#remove(Long, long)
+     */
+    public void remove(Long bookingId, long version) {
+        journal.remove(bookingId, version, this::unindex);
+    }
+
+    // A troca da estadia anterior pela nova é feita dentro do compute: duas alterações da mesma reserva
+    // em simultâneo não podem deixar as duas estadias (ou nenhuma) nas árvores
+    private void index(BookingStay stay) {
+        staysByBooking.compute(stay.bookingId(), (bookingId, previous) -> {
+            if (previous != null) {
+                removeFromTree(previous);
+            }
+            BookingIntervalTree tree = trees.computeIfAbsent(stay.roomId(), id -> new BookingIntervalTree());
+            synchronized (tree) {
+                tree.insert(stay);
+            }
+            return stay;
+        });
+    }
+
+    private void unindex(Long bookingId) {
+        staysByBooking.computeIfPresent(bookingId, (id, previous) -> {
+            removeFromTree(previous);
+            return null;
+        });
+    }
+
+    private void removeFromTree(BookingStay stay) {
+        BookingIntervalTree tree = trees.get(stay.roomId());
+        if (tree != null) {
+            synchronized (tree) {
+                tree.remove(stay);
+            }
+        }
+    }
+
+    /**
+     * @return As reservas ativas do quarto que se sobrepõem a [checkIn, checkOut).
+     */
+    public List<BookingStay> overlapping(Integer roomId, LocalDate checkIn, LocalDate checkOut) {
+        BookingIntervalTree tree = trees.get(roomId);
+        if (tree == null) {
+            return List.of();
+        }
+        synchronized (tree) {
+            return tree.overlapping(checkIn, checkOut);
+        }
+    }
+
+    /**
+     * @return A primeira data, a partir de {@code from}, com {@code nights} noites livres seguidas no quarto.
+     */
+    public LocalDate nextFreeGap(Integer roomId, LocalDate from, int nights) {
+        BookingIntervalTree tree = trees.get(roomId);
+        if (tree == null) {
+            return from;
+        }
+        synchronized (tree) {
+            return tree.nextFreeGap(from, nights);
+        }
+    }
+
+    /**
+     * Lista todos os pares de reservas ativas sobrepostas, quarto a quarto.
+     *
+     * @return Os conflitos encontrados (vazio se não houver reservas duplicadas).
+     */
+    public List<BookingConflict> conflicts() {
+        List<BookingConflict> result = new ArrayList<>();
+        for (BookingIntervalTree tree : trees.values()) {
+            synchronized (tree) {
+                tree.forEachConflict(result::add);
+            }
+        }
+        return result;
+    }
+
+    public int size() {
+        return staysByBooking.size();
+    }
+}
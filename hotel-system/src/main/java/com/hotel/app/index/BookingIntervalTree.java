@@ -0,0 +1,267 @@
+package com.hotel.app.index;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * Árvore de intervalos aumentada (AVL) com as estadias de um quarto.
+ * Os nós são ordenados pela data de check-in e cada nó guarda o maior check-out da sua subárvore,
+ * o que permite descartar ramos inteiros nas procuras por sobreposição: O(log n + k).
+ *
+ * Não é thread-safe; a sincronização fica a cargo de {@link BookingIntervalIndex}.
+ */
+public class BookingIntervalTree {
+
+    private Node root;
+    private int size;
+
+    private static final class Node {
+        final BookingStay stay;
+        final long start;
+        final long end;
+        long maxEnd;
+        int height = 1;
+        Node left;
+        Node right;
+
+        Node(BookingStay stay) {
+            this.stay = stay;
+            this.start = stay.checkInDate().toEpochDay();
+            this.end = stay.checkOutDate().toEpochDay();
+            this.maxEnd = end;
+        }
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    /**
+     * Insere uma estadia. Estadias com o mesmo check-in são desempatadas pelo ID da reserva.
+     */
+    public void insert(BookingStay stay) {
+        root = insert(root, new Node(stay));
+        size++;
+    }
+
+    /**
+     * Remove uma estadia previamente inserida.
+     *
+     * @return true se a estadia existia na árvore.
+     */
+    public boolean remove(BookingStay stay) {
+        int before = size;
+        root = remove(root, stay.checkInDate().toEpochDay(), stay.bookingId());
+        return size < before;
+    }
+
+    /**
+     * Devolve as estadias que se sobrepõem a [checkIn, checkOut), por ordem de check-in.
+     */
+    public List<BookingStay> overlapping(LocalDate checkIn, LocalDate checkOut) {
+        List<BookingStay> result = new ArrayList<>();
+        collectOverlapping(root, checkIn.toEpochDay(), checkOut.toEpochDay(), result);
+        return result;
+    }
+
+    /**
+     * Procura a primeira data, a partir de {@code from}, em que o quarto fica livre durante {@code nights} noites seguidas.
+     * Cada iteração salta para o fim da última estadia que bloqueia o período candidato.
+     *
+     * @param from A data mínima de check-in.
+     * @param nights O número de noites pretendido (maior que zero).
+     * @return A data de check-in da primeira vaga com esse tamanho.
+     */
+    public LocalDate nextFreeGap(LocalDate from, int nights) {
+        if (nights <= 0) {
+            throw new IllegalArgumentException("O número de noites deve ser maior que zero.");
+        }
+        long candidate = from.toEpochDay();
+        while (true) {
+            long blockedUntil = maxEndOverlapping(root, candidate, candidate + nights);
+            if (blockedUntil <= candidate) {
+                return LocalDate.ofEpochDay(candidate);
+            }
+            candidate = blockedUntil;
+        }
+    }
+
+    /**
+     * Percorre as estadias por ordem de check-in e reporta cada par sobreposto numa única passagem.
+     *
+     * @param sink Recebe cada conflito encontrado.
+     */
+    public void forEachConflict(Consumer<BookingConflict> sink) {
+        List<Node> active = new ArrayList<>();
+        inOrder(root, node -> {
+            // Descarta as estadias que terminam antes (ou no dia) do check-in atual
+            active.removeIf(open -> open.end <= node.start);
+            for (Node open : active) {
+                sink.accept(new BookingConflict(open.stay, node.stay));
+            }
+            active.add(node);
+        });
+    }
+
+    /**
+     * @return Todas as estadias por ordem de check-in.
+     */
+    public List<BookingStay> toList() {
+        List<BookingStay> result = new ArrayList<>(size);
+        inOrder(root, node -> result.add(node.stay));
+        return result;
+    }
+
+    // --- Procuras ---
+
+    private static void collectOverlapping(Node node, long from, long to, List<BookingStay> result) {
+        if (node == null || node.maxEnd <= from) {
+            return; // Nada nesta subárvore termina depois do início do período
+        }
+        collectOverlapping(node.left, from, to, result);
+        if (node.start < to && node.end > from) {
+            result.add(node.stay);
+        }
+        if (node.start < to) {
+            collectOverlapping(node.right, from, to, result);
+        }
+    }
+
+    // Maior check-out entre as estadias que se sobrepõem a [from, to), ou Long.MIN_VALUE se nenhuma
+    private static long maxEndOverlapping(Node node, long from, long to) {
+        if (node == null || node.maxEnd <= from) {
+            return Long.MIN_VALUE;
+        }
+        long best = maxEndOverlapping(node.left, from, to);
+        if (node.start < to && node.end > from) {
+            best = Math.max(best, node.end);
+        }
+        if (node.start < to) {
+            best = Math.max(best, maxEndOverlapping(node.right, from, to));
+        }
+        return best;
+    }
+
+    private static void inOrder(Node node, Consumer<Node> visitor) {
+        if (node == null) {
+            return;
+        }
+        inOrder(node.left, visitor);
+        visitor.accept(node);
+        inOrder(node.right, visitor);
+    }
+
+    // --- Inserção, remoção e balanceamento AVL ---
+
+    private static int compare(long start, Long bookingId, Node node) {
+        int byStart = Long.compare(start, node.start);
+        return byStart != 0 ? byStart : bookingId.compareTo(node.stay.bookingId());
+    }
+
+    private Node insert(Node node, Node fresh) {
+        if (node == null) {
+            return fresh;
+        }
+        if (compare(fresh.start, fresh.stay.bookingId(), node) < 0) {
+            node.left = insert(node.left, fresh);
+        } else {
+            node.right = insert(node.right, fresh);
+        }
+        return rebalance(node);
+    }
+
+    private Node remove(Node node, long start, Long bookingId) {
+        if (node == null) {
+            return null;
+        }
+        int cmp = compare(start, bookingId, node);
+        if (cmp < 0) {
+            node.left = remove(node.left, start, bookingId);
+        } else if (cmp > 0) {
+            node.right = remove(node.right, start, bookingId);
+        } else {
+            size--;
+            if (node.left == null) {
+                return node.right;
+            }
+            if (node.right == null) {
+                return node.left;
+            }
+            Node successor = node.right;
+            while (successor.left != null) {
+                successor = successor.left;
+            }
+            Node rightWithoutSuccessor = removeMin(node.right);
+            successor.left = node.left;
+            successor.right = rightWithoutSuccessor;
+            return rebalance(successor);
+        }
+        return rebalance(node);
+    }
+
+    private Node removeMin(Node node) {
+        if (node.left == null) {
+            return node.right;
+        }
+        node.left = removeMin(node.left);
+        return rebalance(node);
+    }
+
+    private static int height(Node node) {
+        return node == null ? 0 : node.height;
+    }
+
+    private static void update(Node node) {
+        node.height = 1 + Math.max(height(node.left), height(node.right));
+        long max = node.end;
+        if (node.left != null) {
+            max = Math.max(max, node.left.maxEnd);
+        }
+        if (node.right != null) {
+            max = Math.max(max, node.right.maxEnd);
+        }
+        node.maxEnd = max;
+    }
+
+    private static Node rebalance(Node node) {
+        update(node);
+        int balance = height(node.left) - height(node.right);
+        if (balance > 1) {
+            if (height(node.left.left) < height(node.left.right)) {
+                node.left = rotateLeft(node.left);
+            }
+            return rotateRight(node);
+        }
+        if (balance < -1) {
+            if (height(node.right.right) < height(node.right.left)) {
+                node.right = rotateRight(node.right);
+            }
+            return rotateLeft(node);
+        }
+        return node;
+    }
+
+    private static Node rotateRight(Node node) {
+        Node pivot = node.left;
+        node.left = pivot.right;
+        pivot.right = node;
+        update(node);
+        update(pivot);
+        return pivot;
+    }
+
+    private static Node rotateLeft(Node node) {
+        Node pivot = node.right;
+        node.right = pivot.left;
+        pivot.left = node;
+        update(node);
+        update(pivot);
+        return pivot;
+    }
+}
@@ -0,0 +1,31 @@
+package com.hotel.app.index;
+
+import java.time.LocalDate;
+
+/**
+ * Vista compacta de uma reserva ativa, usada pelos índices em memória.
+ * Guarda apenas o necessário para responder a perguntas de ocupação, sem carregar a entidade completa.
+ *
+ * @param bookingId O ID da reserva.
+ * @param roomId O ID do quarto reservado.
+ * @param checkInDate A data de check-in (primeira noite ocupada).
+ * @param checkOutDate A data de check-out (não inclusiva: o quarto fica livre nessa noite).
+ */
+public record BookingStay(Long bookingId, Integer roomId, LocalDate checkInDate, LocalDate checkOutDate) {
+
+    public BookingStay {
+        if (bookingId == null || roomId == null || checkInDate == null || checkOutDate == null) {
+            throw new IllegalArgumentException("Reserva incompleta para indexação.");
+        }
+        if (!checkOutDate.isAfter(checkInDate)) {
+            throw new IllegalArgumentException("O check-out deve ser posterior ao check-in.");
+        }
+    }
+
+    /**
+     * Verifica se esta estadia se sobrepõe a um período [checkIn, checkOut).
+     */
+    public boolean overlaps(LocalDate checkIn, LocalDate checkOut) {
+        return checkInDate.isBefore(checkOut) && checkOutDate.isAfter(checkIn);
+    }
+}
@@ -0,0 +1,288 @@
+package com.hotel.app.index;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Índice de ocupação em memória: para cada quarto, um {@link BitSet} com as noites reservadas.
+ * O bit {@code n} representa a noite do dia {@code origem + n} (em dias desde a época), pelo que
+ * verificar a disponibilidade de um período é uma procura de bits, sem acesso à base de dados.
+ *
+ * Noites anteriores à data de origem não são indexadas; para esses períodos {@link #covers(LocalDate)}
+ * devolve false e o chamador deve consultar a base de dados. O mesmo acontece até a primeira reconstrução
+ * terminar e durante cada reconstrução seguinte.
+ */
+public class OccupancyIndex {
+
+    // Por omissão guarda um ano de histórico antes de hoje
+    private static final int DEFAULT_LOOKBACK_DAYS = 365;
+
+    // Estimativas (JVM 64 bits com compressed oops) usadas no cálculo da memória ocupada
+    private static final int ROOM_OVERHEAD_BYTES = 96;
+    private static final int STAY_OVERHEAD_BYTES = 120;
+
+    /**
+     * Versão a indicar em {@link #remove(Long, long)} quando a reserva foi apagada: nenhuma alteração posterior a volta a indexar.
+     */
+    public static final long DELETED = Long.MAX_VALUE;
+
+    private final long originEpochDay;
+    private final Map<Integer, RoomOccupancy> rooms = new ConcurrentHashMap<>();
+    private final Map<Long, BookingStay> staysByBooking = new ConcurrentHashMap<>();
+    private final RebuildJournal journal = new RebuildJournal();
+    private volatile boolean loaded;
+
+    public OccupancyIndex() {
+        this(LocalDate.now().minusDays(DEFAULT_LOOKBACK_DAYS));
+    }
+
+    /**
+     * @param origin A primeira noite representada no índice.
+     */
+    public OccupancyIndex(LocalDate origin) {
+        this.originEpochDay = origin.toEpochDay();
+    }
+
+    /**
+     * Marca o início de uma reconstrução, antes de ler as reservas ativas da base de dados.
+     * Até {@link #rebuild(Collection)} o índice deixa de responder ({@link #covers(LocalDate)} devolve false)
+     * e as alterações recebidas são guardadas para serem aplicadas depois das estadias lidas.
+     */
+    public void beginRebuild() {
+        loaded = false;
+        journal.begin();
+    }
+
+    /**
+     * Substitui todo o conteúdo do índice pelas estadias fornecidas e aplica por cima as alterações
+     * recebidas desde {@link #beginRebuild()}. Deve ser chamado no arranque com as reservas ativas lidas da base de dados.
+     *
+     * @param activeStays As estadias ativas (PENDING/CONFIRMED).
+     */
+    public void rebuild(Collection<BookingStay> activeStays) {
+        loaded = false;
+        journal.complete(() -> {
+            rooms.clear();
+            staysByBooking.clear();
+            activeStays.forEach(this::index);
+        }, this::index, this::unindex);
+        loaded = true;
+    }
+
+    /**
+     * Abandona uma reconstrução que falhou: as alterações guardadas são aplicadas ao conteúdo atual,
+     * mas o índice continua sem responder até uma reconstrução terminar.
+     */
+    public void cancelRebuild() {
+        journal.complete(() -> {}, this::index, this::unindex);
+    }
+
+    /**
+     * Adiciona ou substitui a estadia de uma reserva.
+     * Se a reserva já estava indexada (por exemplo, mudou de datas ou de quarto), a estadia anterior é removida.
+     *
+     * @param stay A estadia a indexar.
+     */
+    public void put(BookingStay stay) {
+        journal.put(stay, this::index);
+    }
+
+    /**
+     * Adiciona ou substitui a estadia de uma reserva numa dada versão. As alterações chegam depois do commit
+     * e podem chegar fora de ordem: uma versão anterior à última recebida para a reserva é ignorada.
+     *
+     * @param stay A estadia a indexar.
+     * @param version A versão da reserva ({@code Booking.getVersion()}) depois do commit.
+     */
+    public void put(BookingStay stay, long version) {
+        journal.put(stay, version, this::index);
+    }
+
+    /**
+     * Remove a estadia de uma reserva (cancelada, concluída ou apagada).
+     *
+     * @param bookingId O ID da reserva.
+     */
+    public void remove(Long bookingId) {
+        journal.remove(bookingId, this::unindex);
+    }
+
+    /**
+     * Remove a estadia de uma reserva a partir de uma dada versão; como em {@link #put(BookingStay, long)},
+     * uma versão anterior à última recebida é ignorada.
+     *
+     * @param bookingId O ID da reserva.
+     * @param version A versão da reserva depois do commit ({@link #DELETED} se foi apagada).
+     */
+    public void remove(Long bookingId, long version) {
+        journal.remove(bookingId, version, this::unindex);
+    }
+
+    // A troca da estadia anterior pela nova é feita dentro do compute: duas alterações da mesma reserva
+    // em simultâneo não podem deixar noites marcadas por uma estadia que já não está no índice
+    private void index(BookingStay stay) {
+        staysByBooking.compute(stay.bookingId(), (bookingId, previous) -> {
+            if (previous != null) {
+                removeFromRoom(previous);
+            }
+            rooms.computeIfAbsent(stay.roomId(), id -> new RoomOccupancy()).add(stay);
+            return stay;
+        });
+    }
+
+    private void unindex(Long bookingId) {
+        staysByBooking.computeIfPresent(bookingId, (id, previous) -> {
+            removeFromRoom(previous);
+            return null;
+        });
+    }
+
+    private void removeFromRoom(BookingStay stay) {
+        RoomOccupancy occupancy = rooms.get(stay.roomId());
+        if (occupancy != null) {
+            occupancy.remove(stay);
+        }
+    }
+
+    /**
+     * Indica se o índice foi carregado e consegue responder por um período que começa em {@code checkIn}.
+     *
+     * @param checkIn A data de início do período.
+     * @return true se o índice pode ser usado em vez da base de dados.
+     */
+    public boolean covers(LocalDate checkIn) {
+        return loaded && checkIn.toEpochDay() >= originEpochDay;
+    }
+
+    /**
+     * Verifica se um quarto está livre em todas as noites de [checkIn, checkOut).
+     *
+     * @param roomId O ID do quarto.
+     * @param checkIn A data de check-in.
+     * @param checkOut A data de check-out (não inclusiva).
+     * @return true se nenhuma noite do período estiver reservada.
+     */
+    public boolean isFree(Integer roomId, LocalDate checkIn, LocalDate checkOut) {
+        RoomOccupancy occupancy = rooms.get(roomId);
+        return occupancy == null || occupancy.isFree(toBit(checkIn), toBit(checkOut));
+    }
+
+    /**
+     * Filtra, de entre os quartos indicados, os que estão livres no período.
+     *
+     * @param roomIds Os IDs dos quartos candidatos.
+     * @param checkIn A data de check-in.
+     * @param checkOut A data de check-out (não inclusiva).
+     * @return Os IDs dos quartos livres, pela ordem recebida.
+     */
+    public List<Integer> freeRooms(Collection<Integer> roomIds, LocalDate checkIn, LocalDate checkOut) {
+        List<Integer> free = new ArrayList<>();
+        for (Integer roomId : roomIds) {
+            if (isFree(roomId, checkIn, checkOut)) {
+                free.add(roomId);
+            }
+        }
+        return free;
+    }
+
+    /**
+     * @return O número de reservas atualmente indexadas.
+     */
+    public int size() {
+        return staysByBooking.size();
+    }
+
+    /**
+     * Estimativa da memória ocupada pelo índice (bitsets, estadias e estruturas auxiliares), em bytes.
+     *
+     * @return O número aproximado de bytes.
+     */
+    public long memoryFootprintBytes() {
+        long bytes = 0;
+        for (RoomOccupancy occupancy : rooms.values()) {
+            bytes += ROOM_OVERHEAD_BYTES + occupancy.bitsetBytes();
+        }
+        // Cada estadia aparece no mapa global e no mapa do quarto
+        bytes += (long) staysByBooking.size() * STAY_OVERHEAD_BYTES * 2;
+        return bytes;
+    }
+
+    /**
+     * Estima a memória necessária para um determinado número de quartos e horizonte de reservas,
+     * útil para dimensionar o índice antes de o carregar.
+     *
+     * @param roomCount O número de quartos.
+     * @param horizonDays O número de noites entre a origem e a última data reservável.
+     * @param bookingCount O número de reservas ativas esperadas.
+     * @return O número aproximado de bytes.
+     */
+    public static long estimateFootprintBytes(int roomCount, int horizonDays, long bookingCount) {
+        long bitsetBytes = ((horizonDays + 63L) / 64) * Long.BYTES;
+        return roomCount * (ROOM_OVERHEAD_BYTES + bitsetBytes) + bookingCount * STAY_OVERHEAD_BYTES * 2;
+    }
+
+    private int toBit(LocalDate date) {
+        long offset = date.toEpochDay() - originEpochDay;
+        if (offset < 0) {
+            return 0; // Noites anteriores à origem não estão no índice
+        }
+        if (offset > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("Data fora do intervalo do índice: " + date);
+        }
+        return (int) offset;
+    }
+
+    /**
+     * Ocupação de um quarto. As estadias são mantidas para poder recalcular os bits
+     * quando uma reserva é removida e outra ainda cobre as mesmas noites.
+     */
+    private final class RoomOccupancy {
+        private final BitSet nights = new BitSet();
+        private final Map<Long, BookingStay> stays = new HashMap<>();
+
+        synchronized void add(BookingStay stay) {
+            stays.put(stay.bookingId(), stay);
+            mark(stay);
+        }
+
+        synchronized void remove(BookingStay stay) {
+            if (stays.remove(stay.bookingId()) == null) {
+                return;
+            }
+            int from = toBit(stay.checkInDate());
+            int to = toBit(stay.checkOutDate());
+            nights.clear(from, to);
+            for (BookingStay other : stays.values()) {
+                if (other.overlaps(stay.checkInDate(), stay.checkOutDate())) {
+                    mark(other);
+                }
+            }
+        }
+
+        synchronized boolean isFree(int from, int to) {
+            if (from >= to) {
+                return true;
+            }
+            int next = nights.nextSetBit(from);
+            return next < 0 || next >= to;
+        }
+
+        synchronized long bitsetBytes() {
+            return nights.size() / Byte.SIZE;
+        }
+
+        private void mark(BookingStay stay) {
+            int from = toBit(stay.checkInDate());
+            int to = toBit(stay.checkOutDate());
+            if (from < to) {
+                nights.set(from, to);
+            }
+        }
+    }
+}
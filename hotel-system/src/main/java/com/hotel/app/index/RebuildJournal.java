@@ -0,0 +1,147 @@
+package com.hotel.app.index;
+
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Consumer;
+
+/**
+ * Coordena a reconstrução de um índice com as alterações que chegam entretanto.
+ *
+ * A leitura das reservas ativas demora e vê a base de dados num instante anterior ao fim da reconstrução:
+ * uma reserva criada ou cancelada depois desse instante não está na leitura, e aplicá-la logo ao índice seria
+ * inútil, porque a reconstrução apaga tudo. Entre {@link #begin()} e {@link #complete} as alterações são guardadas
+ * por ordem e reaplicadas sobre o estado lido, sob o mesmo lock que impede novas alterações durante a troca.
+ *
+ * As alterações com versão são ainda filtradas por reserva: como são enviadas depois do commit, fora de qualquer lock,
+ * duas alterações da mesma reserva podem chegar pela ordem inversa à dos commits, e a mais antiga é descartada.
+ * A última versão de cada reserva fica guardada entre reconstruções, para que uma alteração atrasada
+ * não reponha uma reserva entretanto cancelada ou apagada.
+ */
+final class RebuildJournal {
+
+    // Uma alteração pendente: a estadia a indexar, ou só o ID da reserva a remover
+    private record Change(Long bookingId, BookingStay stay) {}
+
+    // Lock de leitura para as alterações (que podem correr em paralelo), de escrita para começar e terminar a reconstrução
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private Queue<Change> pending;
+    // Última versão recebida de cada reserva; o compute serializa as alterações da mesma reserva
+    private final ConcurrentMap<Long, Long> versions = new ConcurrentHashMap<>();
+
+    /**
+     * Passa a guardar as alterações em vez de as aplicar. Deve ser chamado antes de ler as reservas da base de dados.
+     */
+    void begin() {
+        lock.writeLock().lock();
+        try {
+            pending = new ConcurrentLinkedQueue<>();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Aplica a indexação de uma estadia, ou guarda-a se houver uma reconstrução em curso.
+     */
+    void put(BookingStay stay, Consumer<BookingStay> apply) {
+        lock.readLock().lock();
+        try {
+            putUnlocked(stay, apply);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Como {@link #put(BookingStay, Consumer)}, mas ignora a estadia se já tiver sido recebida uma versão mais recente da reserva.
+     */
+    void put(BookingStay stay, long version, Consumer<BookingStay> apply) {
+        lock.readLock().lock();
+        try {
+            versions.compute(stay.bookingId(), (bookingId, latest) -> {
+                if (latest != null && latest > version) {
+                    return latest;
+                }
+                putUnlocked(stay, apply);
+                return version;
+            });
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private void putUnlocked(BookingStay stay, Consumer<BookingStay> apply) {
+        if (pending != null) {
+            pending.add(new Change(stay.bookingId(), stay));
+        } else {
+            apply.accept(stay);
+        }
+    }
+
+    /**
+     * Aplica a remoção de uma reserva, ou guarda-a se houver uma reconstrução em curso.
+     */
+    void remove(Long bookingId, Consumer<Long> apply) {
+        lock.readLock().lock();
+        try {
+            removeUnlocked(bookingId, apply);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Como {@link #remove(Long, Consumer)}, mas ignora a remoção se já tiver sido recebida uma versão mais recente da reserva.
+     */
+    void remove(Long bookingId, long version, Consumer<Long> apply) {
+        lock.readLock().lock();
+        try {
+            versions.compute(bookingId, (id, latest) -> {
+                if (latest != null && latest > version) {
+                    return latest;
+                }
+                removeUnlocked(bookingId, apply);
+                return version;
+            });
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private void removeUnlocked(Long bookingId, Consumer<Long> apply) {
+        if (pending != null) {
+            pending.add(new Change(bookingId, null));
+        } else {
+            apply.accept(bookingId);
+        }
+    }
+
+    /**
+     * Carrega o novo estado e reaplica, por ordem, as alterações guardadas desde {@link #begin()};
+     * as alterações seguintes voltam a ser aplicadas diretamente.
+     *
+     * @param load Substitui o conteúdo do índice (vazio para abandonar a reconstrução e manter o conteúdo atual).
+     */
+    void complete(Runnable load, Consumer<BookingStay> put, Consumer<Long> remove) {
+        lock.writeLock().lock();
+        try {
+            load.run();
+            if (pending != null) {
+                for (Change change : pending) {
+                    if (change.stay() != null) {
+                        put.accept(change.stay());
+                    } else {
+                        remove.accept(change.bookingId());
+                    }
+                }
+                pending = null;
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+}
@@ -0,0 +1,185 @@
+package com.hotel.app.metrics;
+
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+
+import javax.management.JMException;
+import javax.management.ObjectName;
+import java.lang.management.ManagementFactory;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+/**
+ * Regista a latência de operações por nome, num histograma HdrHistogram por operação, e o número de erros.
+ * Pode ser usado por várias threads em simultâneo; o custo de registar é constante e a memória
+ * não cresce com o número de amostras.
+ *
+ * A instância partilhada ({@link #getDefault()}) mede os DAOs e os serviços, com nomes "Classe.método",
+ * e publica cada operação em JMX como {@code com.hotel.app:type=Latency,name=<operação>}
+ * (desligável com {@code -Dhotel.metrics.jmx=false}).
+ */
+public class LatencyRecorder {
+
+    // Três algarismos significativos: erro máximo de 0,1% em cada percentil
+    private static final int SIGNIFICANT_DIGITS = 3;
+
+    private static final String JMX_DOMAIN = "com.hotel.app";
+
+    private static final LatencyRecorder DEFAULT = new LatencyRecorder(
+            Boolean.parseBoolean(System.getProperty("hotel.metrics.jmx", "true")));
+
+    private final ConcurrentMap<String, Histogram> histograms = new ConcurrentHashMap<>();
+    private final ConcurrentMap<String, LongAdder> errors = new ConcurrentHashMap<>();
+    private final boolean publishToJmx;
+
+    public LatencyRecorder() {
+        this(false);
+    }
+
+    private LatencyRecorder(boolean publishToJmx) {
+        this.publishToJmx = publishToJmx;
+    }
+
+    /**
+     * Instância partilhada, usada pelos DAOs e pelos serviços.
+     */
+    public static LatencyRecorder getDefault() {
+        return DEFAULT;
+    }
+
+    /**
+     * Regista uma amostra.
+     *
+     * @param operation O nome da operação.
+     * @param elapsedNanos A duração, em nanossegundos.
+     */
+    public void record(String operation, long elapsedNanos) {
+        Histogram histogram = histograms.get(operation);
+        if (histogram == null) {
+            histogram = histograms.computeIfAbsent(operation, this::newHistogram);
+        }
+        histogram.recordValue(Math.max(0, elapsedNanos));
+    }
+
+    /**
+     * Conta um erro da operação: uma exceção que não saiu do método (por exemplo, tratada com uma mensagem
+     * em System.err e um resultado null). As exceções lançadas por {@link #time} já são contadas.
+     *
+     * @param operation O nome da operação.
+     */
+    public void recordError(String operation) {
+        errors.computeIfAbsent(operation, name -> new LongAdder()).increment();
+    }
+
+    /**
+     * Executa uma ação e regista a sua duração, mesmo que lance uma exceção (contada como erro).
+     *
+     * @param operation O nome da operação.
+     * @param action A ação a medir.
+     * @return O resultado da ação.
+     */
+    public <T> T time(String operation, Supplier<T> action) {
+        long start = System.nanoTime();
+        try {
+            return action.get();
+        } catch (RuntimeException | Error e) {
+            recordError(operation);
+            throw e;
+        } finally {
+            record(operation, System.nanoTime() - start);
+        }
+    }
+
+    /**
+     * Como {@link #time(String, Supplier)}, para ações sem resultado.
+     *
+     * @param operation O nome da operação.
+     * @param action A ação a medir.
+     */
+    public void time(String operation, Runnable action) {
+        time(operation, () -> {
+            action.run();
+            return null;
+        });
+    }
+
+    /**
+     * Resumo da latência de uma operação, em microssegundos.
+     *
+     * @param count O número de amostras (chamadas).
+     * @param errors O número de erros.
+     * @param mean A média.
+     * @param p50 A mediana.
+     * @param p90 O percentil 90.
+     * @param p99 O percentil 99.
+     * @param p999 O percentil 99,9.
+     * @param max O máximo.
+     */
+    public record Snapshot(long count, long errors, double mean, long p50, long p90, long p99, long p999, long max) {}
+
+    /**
+     * @return O resumo de cada operação registada, por ordem alfabética do nome.
+     */
+    public Map<String, Snapshot> snapshot() {
+        Map<String, Snapshot> snapshot = new TreeMap<>();
+        histograms.keySet().forEach(operation -> snapshot.put(operation, snapshot(operation)));
+        return snapshot;
+    }
+
+    /**
+     * @param operation O nome da operação.
+     * @return O resumo da operação (com zero amostras se ainda não foi registada).
+     */
+    public Snapshot snapshot(String operation) {
+        Histogram histogram = histograms.get(operation);
+        Histogram copy = histogram != null ? histogram.copy() : new Histogram(SIGNIFICANT_DIGITS);
+        LongAdder errorCount = errors.get(operation);
+        return new Snapshot(
+                copy.getTotalCount(),
+                errorCount != null ? errorCount.sum() : 0,
+                copy.getMean() / 1_000.0,
+                micros(copy.getValueAtPercentile(50)),
+                micros(copy.getValueAtPercentile(90)),
+                micros(copy.getValueAtPercentile(99)),
+                micros(copy.getValueAtPercentile(99.9)),
+                micros(copy.getMaxValue()));
+    }
+
+    /**
+     * Descarta todas as amostras e erros. As operações continuam publicadas em JMX, com zero amostras.
+     */
+    public void reset() {
+        histograms.values().forEach(Histogram::reset);
+        errors.values().forEach(LongAdder::reset);
+    }
+
+    private static long micros(long nanos) {
+        return TimeUnit.NANOSECONDS.toMicros(nanos);
+    }
+
+    private Histogram newHistogram(String operation) {
+        // Começa com um alcance de 1 minuto e cresce se aparecer uma amostra maior
+        ConcurrentHistogram histogram = new ConcurrentHistogram(TimeUnit.MINUTES.toNanos(1), SIGNIFICANT_DIGITS);
+        histogram.setAutoResize(true);
+        if (publishToJmx) {
+            register(operation);
+        }
+        return histogram;
+    }
+
+    private void register(String operation) {
+        try {
+            ObjectName name = new ObjectName(JMX_DOMAIN + ":type=Latency,name=" + operation);
+            if (!ManagementFactory.getPlatformMBeanServer().isRegistered(name)) {
+                ManagementFactory.getPlatformMBeanServer().registerMBean(new OperationLatency(this, operation), name);
+            }
+        } catch (JMException e) {
+            System.err.println("Erro ao publicar a métrica " + operation + " em JMX: " + e.getMessage());
+        }
+    }
+}
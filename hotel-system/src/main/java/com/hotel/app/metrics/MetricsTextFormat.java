@@ -0,0 +1,56 @@
+package com.hotel.app.metrics;
+
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Escreve as métricas de um {@link LatencyRecorder} no formato de texto do Prometheus, para o endpoint /metrics:
+ * <pre>
+ * hotel_operation_calls_total{operation="UserService.authenticateUser"} 1520
+ * hotel_operation_errors_total{operation="UserService.authenticateUser"} 0
+ * hotel_operation_latency_seconds{operation="UserService.authenticateUser",quantile="0.99"} 0.004100
+ * </pre>
+ */
+public final class MetricsTextFormat {
+
+    public static final String CONTENT_TYPE = "text/plain; version=0.0.4; charset=utf-8";
+
+    private MetricsTextFormat() {}
+
+    public static String format(Map<String, LatencyRecorder.Snapshot> snapshot) {
+        StringBuilder text = new StringBuilder();
+        text.append("# HELP hotel_operation_calls_total Chamadas de cada operação dos DAOs e serviços.\n");
+        text.append("# TYPE hotel_operation_calls_total counter\n");
+        snapshot.forEach((operation, stats) -> line(text, "hotel_operation_calls_total", operation, null, Long.toString(stats.count())));
+
+        text.append("# HELP hotel_operation_errors_total Chamadas que terminaram em erro.\n");
+        text.append("# TYPE hotel_operation_errors_total counter\n");
+        snapshot.forEach((operation, stats) -> line(text, "hotel_operation_errors_total", operation, null, Long.toString(stats.errors())));
+
+        text.append("# HELP hotel_operation_latency_seconds Latência de cada operação.\n");
+        text.append("# TYPE hotel_operation_latency_seconds summary\n");
+        snapshot.forEach((operation, stats) -> {
+            line(text, "hotel_operation_latency_seconds", operation, "0.5", seconds(stats.p50()));
+            line(text, "hotel_operation_latency_seconds", operation, "0.9", seconds(stats.p90()));
+            line(text, "hotel_operation_latency_seconds", operation, "0.99", seconds(stats.p99()));
+            line(text, "hotel_operation_latency_seconds", operation, "0.999", seconds(stats.p999()));
+            line(text, "hotel_operation_latency_seconds", operation, "1", seconds(stats.max()));
+            line(text, "hotel_operation_latency_seconds_count", operation, null, Long.toString(stats.count()));
+            line(text, "hotel_operation_latency_seconds_sum", operation, null,
+                    String.format(Locale.ROOT, "%.6f", stats.mean() * stats.count() / 1_000_000.0));
+        });
+        return text.toString();
+    }
+
+    private static void line(StringBuilder text, String metric, String operation, String quantile, String value) {
+        text.append(metric).append("{operation=\"").append(operation).append('"');
+        if (quantile != null) {
+            text.append(",quantile=\"").append(quantile).append('"');
+        }
+        text.append("} ").append(value).append('\n');
+    }
+
+    private static String seconds(long micros) {
+        return String.format(Locale.ROOT, "%.6f", micros / 1_000_000.0);
+    }
+}
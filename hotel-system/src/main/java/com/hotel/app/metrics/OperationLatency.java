@@ -0,0 +1,74 @@
+package com.hotel.app.metrics;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Vista JMX de uma operação de um {@link LatencyRecorder}. Um coletor lê os oito atributos seguidos: o resumo
+ * do histograma (que copia o histograma) é calculado uma vez e reutilizado durante um segundo, pelo que os
+ * atributos de uma mesma leitura são coerentes entre si e o histograma é copiado uma vez por leitura.
+ */
+public class OperationLatency implements OperationLatencyMBean {
+
+    private static final long MAX_AGE_NANOS = TimeUnit.SECONDS.toNanos(1);
+
+    private final LatencyRecorder recorder;
+    private final String operation;
+    private volatile CachedSnapshot cached;
+
+    private record CachedSnapshot(LatencyRecorder.Snapshot snapshot, long takenAtNanos) {}
+
+    OperationLatency(LatencyRecorder recorder, String operation) {
+        this.recorder = recorder;
+        this.operation = operation;
+    }
+
+    private LatencyRecorder.Snapshot current() {
+        CachedSnapshot current = cached;
+        long now = System.nanoTime();
+        if (current == null || now - current.takenAtNanos() >= MAX_AGE_NANOS) {
+            current = new CachedSnapshot(recorder.snapshot(operation), now);
+            cached = current;
+        }
+        return current.snapshot();
+    }
+
+    @Override
+    public long getCount() {
+        return current().count();
+    }
+
+    @Override
+    public long getErrors() {
+        return current().errors();
+    }
+
+    @Override
+    public double getMeanMicros() {
+        return current().mean();
+    }
+
+    @Override
+    public long getP50Micros() {
+        return current().p50();
+    }
+
+    @Override
+    public long getP90Micros() {
+        return current().p90();
+    }
+
+    @Override
+    public long getP99Micros() {
+        return current().p99();
+    }
+
+    @Override
+    public long getP999Micros() {
+        return current().p999();
+    }
+
+    @Override
+    public long getMaxMicros() {
+        return current().max();
+    }
+}
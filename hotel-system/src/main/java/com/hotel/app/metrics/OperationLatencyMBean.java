@@ -0,0 +1,23 @@
+package com.hotel.app.metrics;
+
+/**
+ * Métricas de uma operação publicadas em JMX (latências em microssegundos), atualizadas no máximo uma vez por segundo.
+ */
+public interface OperationLatencyMBean {
+
+    long getCount();
+
+    long getErrors();
+
+    double getMeanMicros();
+
+    long getP50Micros();
+
+    long getP90Micros();
+
+    long getP99Micros();
+
+    long getP999Micros();
+
+    long getMaxMicros();
+}
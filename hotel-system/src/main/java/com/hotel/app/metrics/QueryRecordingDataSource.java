@@ -0,0 +1,213 @@
+package com.hotel.app.metrics;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.CallableStatement;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Envolve um DataSource (o pool HikariCP) para recolher as {@link QueryStats} de cada instrução SQL,
+ * com proxies JDK das interfaces JDBC: as conexões, statements e resultados continuam a ser os do pool,
+ * e cada execução é medida e contabilizada pelo texto da instrução.
+ *
+ * O tempo medido é o da execução (execute*), sem a leitura dos resultados; as linhas são contadas à medida que
+ * o resultado é percorrido (ou, numa alteração, pelo número devolvido pela base de dados).
+ * Os parâmetros de um PreparedStatement são guardados por posição para o registo de consultas lentas.
+ */
+public final class QueryRecordingDataSource {
+
+    private static final Set<String> EXECUTE_METHODS = Set.of(
+            "execute", "executeQuery", "executeUpdate", "executeLargeUpdate", "executeBatch", "executeLargeBatch");
+
+    private QueryRecordingDataSource() {}
+
+    /**
+     * @param dataSource O DataSource a envolver.
+     * @param stats Onde registar as execuções.
+     * @return Um DataSource cujas conexões registam cada instrução executada.
+     */
+    public static DataSource wrap(DataSource dataSource, QueryStats stats) {
+        return proxy(DataSource.class, (proxy, method, args) -> {
+            Object result = invoke(dataSource, method, args);
+            return result instanceof Connection connection ? wrapConnection(connection, stats) : result;
+        });
+    }
+
+    private static Connection wrapConnection(Connection connection, QueryStats stats) {
+        return proxy(Connection.class, new InvocationHandler() {
+            @Override
+            public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+                if (method.getName().equals("equals")) {
+                    return proxy == args[0];
+                }
+                Object result = QueryRecordingDataSource.invoke(connection, method, args);
+                Connection owner = (Connection) proxy;
+                return switch (method.getName()) {
+                    case "prepareStatement" -> proxy(PreparedStatement.class,
+                            new StatementHandler((Statement) result, owner, (String) args[0], stats));
+                    case "prepareCall" -> proxy(CallableStatement.class,
+                            new StatementHandler((Statement) result, owner, (String) args[0], stats));
+                    case "createStatement" -> proxy(Statement.class, new StatementHandler((Statement) result, owner, null, stats));
+                    default -> result;
+                };
+            }
+        });
+    }
+
+    // Um statement: guarda os parâmetros e mede cada execução. Um statement só é usado por uma thread de cada vez.
+    private static final class StatementHandler implements InvocationHandler {
+
+        private final Statement statement;
+        private final Connection connection;
+        private final String preparedSql;
+        private final QueryStats stats;
+        private final QueryStats.Entry preparedEntry;
+        private final List<Object> parameters = new ArrayList<>();
+        // Num lote guarda-se o número de execuções e os parâmetros da primeira, para o registo
+        private int batchSize;
+        private List<Object> firstBatchParameters;
+        private String batchSql;
+        private QueryStats.Entry lastEntry;
+
+        StatementHandler(Statement statement, Connection connection, String preparedSql, QueryStats stats) {
+            this.statement = statement;
+            this.connection = connection;
+            this.preparedSql = preparedSql;
+            this.stats = stats;
+            this.preparedEntry = preparedSql != null ? stats.entry(preparedSql) : null;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            String name = method.getName();
+            if (EXECUTE_METHODS.contains(name)) {
+                return execute(proxy, method, args);
+            }
+            if (name.startsWith("set") && args != null && args.length >= 2 && args[0] instanceof Integer index) {
+                setParameter(index, name.equals("setNull") ? null : args[1]);
+            } else if (name.equals("clearParameters")) {
+                parameters.clear();
+            } else if (name.equals("addBatch")) {
+                if (batchSize++ == 0) {
+                    firstBatchParameters = new ArrayList<>(parameters);
+                    // Statement.addBatch(sql): o lote é contabilizado pela primeira instrução
+                    batchSql = args != null && args.length > 0 ? (String) args[0] : null;
+                }
+            } else if (name.equals("clearBatch")) {
+                batchSize = 0;
+                firstBatchParameters = null;
+                batchSql = null;
+            } else if (name.equals("equals")) {
+                return proxy == args[0];
+            }
+
+            Object result = QueryRecordingDataSource.invoke(statement, method, args);
+            return switch (name) {
+                case "getResultSet", "getGeneratedKeys" -> wrapResultSet((ResultSet) result, (Statement) proxy, lastEntry);
+                case "getConnection" -> connection;
+                default -> result;
+            };
+        }
+
+        private Object execute(Object proxy, Method method, Object[] args) throws Throwable {
+            // Num Statement simples o texto vem na execução; num PreparedStatement foi dado ao preparar
+            boolean withSql = args != null && args.length > 0 && args[0] instanceof String;
+            boolean batch = method.getName().endsWith("Batch");
+            String sql = withSql ? (String) args[0] : preparedSql != null ? preparedSql : batch ? batchSql : null;
+            if (sql == null) {
+                return QueryRecordingDataSource.invoke(statement, method, args);
+            }
+            QueryStats.Entry entry = withSql || preparedSql == null ? stats.entry(sql) : preparedEntry;
+            List<Object> executed = batch && firstBatchParameters != null ? firstBatchParameters : parameters;
+            int executions = batchSize;
+
+            long start = System.nanoTime();
+            boolean failed = true;
+            try {
+                Object result = QueryRecordingDataSource.invoke(statement, method, args);
+                failed = false;
+                lastEntry = entry;
+                if (entry != null) {
+                    entry.addRows(affectedRows(result));
+                }
+                return result instanceof ResultSet resultSet ? wrapResultSet(resultSet, (Statement) proxy, entry) : result;
+            } finally {
+                long elapsed = System.nanoTime() - start;
+                stats.recordExecution(entry, sql, elapsed, failed, () -> batch
+                        ? "lote de " + executions + ", o primeiro com " + QueryStats.formatParameters(executed)
+                        : QueryStats.formatParameters(executed));
+                if (batch) {
+                    batchSize = 0;
+                    firstBatchParameters = null;
+                    batchSql = null;
+                }
+            }
+        }
+
+        private void setParameter(int index, Object value) {
+            while (parameters.size() < index) {
+                parameters.add(null);
+            }
+            parameters.set(index - 1, value);
+        }
+    }
+
+    // Linhas alteradas por um executeUpdate ou por um lote (os valores negativos são códigos sem contagem)
+    private static long affectedRows(Object result) {
+        if (result instanceof Number count) {
+            return Math.max(0, count.longValue());
+        }
+        long total = 0;
+        if (result instanceof int[] counts) {
+            for (int count : counts) {
+                total += Math.max(0, count);
+            }
+        } else if (result instanceof long[] counts) {
+            for (long count : counts) {
+                total += Math.max(0, count);
+            }
+        }
+        return total;
+    }
+
+    private static ResultSet wrapResultSet(ResultSet resultSet, Statement owner, QueryStats.Entry entry) {
+        if (resultSet == null || entry == null) {
+            return resultSet;
+        }
+        return proxy(ResultSet.class, (proxy, method, args) -> switch (method.getName()) {
+            case "equals" -> proxy == args[0];
+            case "getStatement" -> owner;
+            case "next" -> {
+                Object hasRow = invoke(resultSet, method, args);
+                if (hasRow == Boolean.TRUE) {
+                    entry.addRows(1);
+                }
+                yield hasRow;
+            }
+            default -> invoke(resultSet, method, args);
+        });
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <T> T proxy(Class<T> type, InvocationHandler handler) {
+        return (T) Proxy.newProxyInstance(QueryRecordingDataSource.class.getClassLoader(), new Class<?>[] {type}, handler);
+    }
+
+    // Chama o método no objeto real, relançando a exceção original (SQLException) em vez da InvocationTargetException
+    private static Object invoke(Object target, Method method, Object[] args) throws Throwable {
+        try {
+            return method.invoke(target, args);
+        } catch (InvocationTargetException e) {
+            throw e.getCause();
+        }
+    }
+}
@@ -0,0 +1,227 @@
+package com.hotel.app.metrics;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+import java.util.regex.Pattern;
+
+/**
+ * Estatísticas das instruções SQL enviadas à base de dados, por texto da instrução (com os parâmetros como '?'):
+ * número de execuções, erros, tempo médio e máximo de execução e linhas devolvidas (ou alteradas).
+ * As instruções mais lentas do que o limite configurado são escritas em System.err com os parâmetros.
+ *
+ * Os valores são recolhidos por {@link QueryRecordingDataSource}, que envolve o DataSource entregue ao Hibernate.
+ * Configuração por propriedades de sistema:
+ * <pre>
+ * hotel.queries.slowMs=500            # limite para o registo de consultas lentas (0 regista todas, -1 desliga)
+ * hotel.queries.logParameters=false   # incluir os parâmetros no registo (dados pessoais; nunca os de instruções com a palavra-passe)
+ * hotel.queries.maxDistinct=5000      # máximo de instruções diferentes guardadas
+ * </pre>
+ */
+public class QueryStats {
+
+    // Os parâmetros muito longos são cortados no registo de consultas lentas
+    private static final int MAX_PARAMETER_LENGTH = 100;
+
+    // As palavras-passe são guardadas em claro: os parâmetros de instruções que usam a coluna nunca são escritos
+    private static final Pattern SENSITIVE_COLUMNS = Pattern.compile("\\bpassword\\b", Pattern.CASE_INSENSITIVE);
+
+    private static final QueryStats DEFAULT = new QueryStats(
+            Long.getLong("hotel.queries.slowMs", 500),
+            Boolean.parseBoolean(System.getProperty("hotel.queries.logParameters", "false")),
+            Integer.getInteger("hotel.queries.maxDistinct", 5_000));
+
+    private final long slowThresholdNanos;
+    private final long slowThresholdMs;
+    private final boolean logParameters;
+    private final int maxDistinct;
+    private final ConcurrentMap<String, Entry> entries = new ConcurrentHashMap<>();
+    // Execuções de instruções que já não couberam no registo (maxDistinct atingido)
+    private final LongAdder untracked = new LongAdder();
+
+    /**
+     * @param slowThresholdMs O tempo a partir do qual uma execução é registada como lenta; negativo desliga o registo.
+     * @param logParameters Se o registo de consultas lentas inclui os parâmetros (exceto os de instruções com a palavra-passe).
+     * @param maxDistinct O número máximo de instruções diferentes guardadas.
+     */
+    public QueryStats(long slowThresholdMs, boolean logParameters, int maxDistinct) {
+        this.slowThresholdMs = slowThresholdMs;
+        this.slowThresholdNanos = slowThresholdMs < 0 ? Long.MAX_VALUE : TimeUnit.MILLISECONDS.toNanos(slowThresholdMs);
+        this.logParameters = logParameters;
+        this.maxDistinct = maxDistinct;
+    }
+
+    /**
+     * Instância partilhada, alimentada pelo DataSource do JPA.
+     */
+    public static QueryStats getDefault() {
+        return DEFAULT;
+    }
+
+    // Contadores de uma instrução; obtidos uma vez por statement e atualizados sem lock
+    static final class Entry {
+        private final LongAdder executions = new LongAdder();
+        private final LongAdder errors = new LongAdder();
+        private final LongAdder totalNanos = new LongAdder();
+        private final LongAccumulator maxNanos = new LongAccumulator(Long::max, 0);
+        private final LongAdder rows = new LongAdder();
+
+        void addRows(long count) {
+            if (count > 0) {
+                rows.add(count);
+            }
+        }
+    }
+
+    /**
+     * Resumo de uma instrução.
+     *
+     * @param sql O texto da instrução.
+     * @param executions O número de execuções.
+     * @param errors As execuções que falharam.
+     * @param meanMicros O tempo médio de execução, em microssegundos.
+     * @param maxMicros O tempo máximo de execução, em microssegundos.
+     * @param totalMillis O tempo total de execução, em milissegundos.
+     * @param rows As linhas lidas dos resultados ou alteradas.
+     */
+    public record QueryStat(String sql, long executions, long errors, double meanMicros, long maxMicros, long totalMillis, long rows) {
+
+        /**
+         * @return A média de linhas por execução.
+         */
+        public double rowsPerExecution() {
+            return executions == 0 ? 0.0 : (double) rows / executions;
+        }
+    }
+
+    /**
+     * @param sql O texto da instrução.
+     * @return Os contadores da instrução, ou null se o registo estiver cheio e a instrução ainda não constar dele.
+     */
+    Entry entry(String sql) {
+        Entry entry = entries.get(sql);
+        if (entry == null && entries.size() < maxDistinct) {
+            entry = entries.computeIfAbsent(sql, key -> new Entry());
+        }
+        return entry;
+    }
+
+    /**
+     * Regista uma execução e, se passar o limite, escreve-a no registo de consultas lentas.
+     *
+     * @param entry Os contadores da instrução (null se não for guardada).
+     * @param sql O texto da instrução.
+     * @param elapsedNanos O tempo de execução.
+     * @param failed Se a execução lançou uma exceção.
+     * @param parameters Os parâmetros da execução, formatados só se a execução for lenta.
+     */
+    void recordExecution(Entry entry, String sql, long elapsedNanos, boolean failed, Supplier<String> parameters) {
+        if (entry == null) {
+            untracked.increment();
+        } else {
+            entry.executions.increment();
+            entry.totalNanos.add(elapsedNanos);
+            entry.maxNanos.accumulate(elapsedNanos);
+            if (failed) {
+                entry.errors.increment();
+            }
+        }
+        if (elapsedNanos >= slowThresholdNanos) {
+            System.err.println("Consulta lenta (" + TimeUnit.NANOSECONDS.toMillis(elapsedNanos) + " ms" + (failed ? ", falhou" : "")
+                    + "): " + sql + (logParameters(sql) ? " | parâmetros: " + parameters.get() : ""));
+        }
+    }
+
+    private boolean logParameters(String sql) {
+        return logParameters && !SENSITIVE_COLUMNS.matcher(sql).find();
+    }
+
+    /**
+     * @param n O número máximo de instruções.
+     * @return As instruções com maior tempo total de execução, da maior para a menor.
+     */
+    public List<QueryStat> top(int n) {
+        return top(n, Comparator.comparingLong(QueryStat::totalMillis).thenComparingDouble(QueryStat::meanMicros));
+    }
+
+    /**
+     * @param n O número máximo de instruções.
+     * @param order A ordem pretendida (do maior para o menor valor do critério).
+     * @return As primeiras instruções segundo o critério.
+     */
+    public List<QueryStat> top(int n, Comparator<QueryStat> order) {
+        List<QueryStat> stats = new ArrayList<>(entries.size());
+        entries.forEach((sql, entry) -> {
+            long executions = entry.executions.sum();
+            long totalNanos = entry.totalNanos.sum();
+            stats.add(new QueryStat(sql, executions, entry.errors.sum(),
+                    executions == 0 ? 0.0 : totalNanos / 1_000.0 / executions,
+                    TimeUnit.NANOSECONDS.toMicros(entry.maxNanos.get()),
+                    TimeUnit.NANOSECONDS.toMillis(totalNanos),
+                    entry.rows.sum()));
+        });
+        stats.sort(order.reversed());
+        return stats.subList(0, Math.min(n, stats.size()));
+    }
+
+    /**
+     * @return O número de instruções diferentes registadas.
+     */
+    public int distinctQueries() {
+        return entries.size();
+    }
+
+    /**
+     * @return As execuções não contabilizadas por o registo ter atingido hotel.queries.maxDistinct.
+     */
+    public long untrackedExecutions() {
+        return untracked.sum();
+    }
+
+    /**
+     * @return O limite do registo de consultas lentas, em milissegundos (negativo se estiver desligado).
+     */
+    public long getSlowThresholdMs() {
+        return slowThresholdMs;
+    }
+
+    /**
+     * Descarta todas as estatísticas.
+     */
+    public void reset() {
+        entries.clear();
+        untracked.reset();
+    }
+
+    // Formata os parâmetros de uma execução para o registo, por ordem de posição
+    static String formatParameters(List<Object> parameters) {
+        StringBuilder text = new StringBuilder("[");
+        for (int i = 0; i < parameters.size(); i++) {
+            if (i > 0) {
+                text.append(", ");
+            }
+            text.append(formatParameter(parameters.get(i)));
+        }
+        return text.append(']').toString();
+    }
+
+    private static String formatParameter(Object value) {
+        if (value == null) {
+            return "null";
+        }
+        if (value instanceof byte[] bytes) {
+            return "<" + bytes.length + " bytes>";
+        }
+        String text = value.toString();
+        if (text.length() > MAX_PARAMETER_LENGTH) {
+            text = text.substring(0, MAX_PARAMETER_LENGTH) + "...";
+        }
+        return value instanceof CharSequence ? "'" + text + "'" : text;
+    }
+}
@@ -1,23 +1,38 @@
 package com.hotel.app.model;
 
 import jakarta.persistence.*;
+import org.hibernate.Hibernate;
+import org.hibernate.annotations.ColumnDefault;
 import java.io.Serializable;
 import java.time.LocalDate;
 
 @Entity
 @Table(name = "bookings")
+// O usuário e o quarto são carregados só quando pedidos; cada ecrã escolhe o que precisa com um destes grafos
+@NamedEntityGraph(name = Booking.GRAPH_WITH_ROOM, attributeNodes = @NamedAttributeNode("room"))
+@NamedEntityGraph(name = Booking.GRAPH_WITH_USER_AND_ROOM, attributeNodes = {
+        @NamedAttributeNode("user"),
+        @NamedAttributeNode("room")
+})
 public class Booking implements Serializable {
 
+    // Reserva com o quarto (histórico do cliente, que já conhece o usuário)
+    public static final String GRAPH_WITH_ROOM = "Booking.withRoom";
+    // Reserva com o usuário e o quarto (listagens de administração e detalhe de uma reserva)
+    public static final String GRAPH_WITH_USER_AND_ROOM = "Booking.withUserAndRoom";
+
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    // Sequência com otimizador "pooled": um nextval reserva 50 IDs, o que permite agrupar os INSERTs em lotes JDBC
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "bookings_seq")
+    @SequenceGenerator(name = "bookings_seq", sequenceName = "bookings_seq", allocationSize = 50)
     @Column(name = "booking_id")
     private Long bookingId;
 
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "user_id", nullable = false) // Coluna de chave estrangeira para User
     private User user;
 
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "room_id", nullable = false) // Coluna de chave estrangeira para Room
     private Room room;
 
@@ -37,6 +52,11 @@ public class Booking implements Serializable {
     @Column(name = "total_price", nullable = false)
     private Double totalPrice;
 
+    @Version // Controlo de concorrência otimista: incrementada a cada atualização
+    @ColumnDefault("0")
+    @Column(name = "version", nullable = false)
+    private long version;
+
     // Construtor padrão.
     public Booking() {}
 
@@ -77,12 +97,15 @@ public class Booking implements Serializable {
 
     public void setTotalPrice(Double totalPrice) {this.totalPrice = totalPrice;}
 
+    public long getVersion() {return version;}
+
+    // Não força o carregamento do usuário nem do quarto: se não foram carregados mostra apenas o ID
     @Override
     public String toString() {
         return "Booking{" +
                 "Id da reserva=" + bookingId +
-                ", Hóspede=" + (user != null ? user.getFullName() : "N/A") +
-                ", Quarto=" + (room != null ? room.getRoomNumber() : "N/A") +
+                ", Hóspede=" + (user == null ? "N/A" : Hibernate.isInitialized(user) ? user.getFullName() : "#" + user.getUserId()) +
+                ", Quarto=" + (room == null ? "N/A" : Hibernate.isInitialized(room) ? room.getRoomNumber() : "#" + room.getRoomId()) +
                 ", Data de check-in=" + checkInDate +
                 ", Data de check-out=" + checkOutDate +
                 ", Data da reserva=" + bookingDate +
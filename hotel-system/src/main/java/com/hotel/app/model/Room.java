@@ -1,13 +1,26 @@
 package com.hotel.app.model;
 
 import jakarta.persistence.*;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+import org.hibernate.annotations.ColumnDefault;
 
 @Entity
 @Table(name = "rooms") // Nome da tabela no banco de dados
+// Os quartos mudam raramente: ficam no cache de segundo nível (região "rooms", ver application.conf).
+// READ_WRITE mantém o cache coerente quando um quarto é alterado por esta aplicação.
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = Room.CACHE_REGION)
 public class Room {
 
+    public static final String CACHE_REGION = "rooms";
+    // Região do cache de consultas usada pelas consultas que só leem a tabela de quartos
+    public static final String QUERY_CACHE_REGION = "room-queries";
+
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    // Sequência com otimizador "pooled": um nextval reserva 50 IDs, o que permite agrupar os INSERTs em lotes JDBC
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "rooms_seq")
+    @SequenceGenerator(name = "rooms_seq", sequenceName = "rooms_seq", allocationSize = 50)
     @Column(name = "room_id")
     private Integer roomId;
 
@@ -30,6 +43,11 @@ public class Room {
     @Column(name = "is_available", nullable = false)
     private boolean isAvailable;
 
+    @Version // Controlo de concorrência otimista: incrementada a cada atualização
+    @ColumnDefault("0")
+    @Column(name = "version", nullable = false)
+    private long version;
+
     // Construtor padrão exigido pelo JPA
     public Room() {
     }
@@ -102,6 +120,10 @@ public class Room {
         isAvailable = available;
     }
 
+    public long getVersion() {
+        return version;
+    }
+
     @Override
     public String toString() {
         return "Room{" +
@@ -1,6 +1,7 @@
 package com.hotel.app.model;
 
 import jakarta.persistence.*;
+import org.hibernate.annotations.ColumnDefault;
 
 
 import java.time.LocalDate;
@@ -14,7 +15,9 @@ import java.time.LocalDate;
 public class User {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    // Sequência com otimizador "pooled": um nextval reserva 50 IDs, o que permite agrupar os INSERTs em lotes JDBC
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "users_seq")
+    @SequenceGenerator(name = "users_seq", sequenceName = "users_seq", allocationSize = 50)
     @Column(name = "user_id")
     private Integer userId;
 
@@ -37,6 +40,11 @@ public class User {
     @Column(name = "password", nullable = false)
     private String password;
 
+    @Version // Controlo de concorrência otimista: incrementada a cada atualização
+    @ColumnDefault("0")
+    @Column(name = "version", nullable = false)
+    private long version;
+
     public User() {}
 
     /**
@@ -79,6 +87,17 @@ public class User {
         this.password = password;
     }
 
+    /**
+     * Cria uma cópia desligada de outro usuário, incluindo o ID e a versão.
+     * Usado pelo cache de usuários, para que quem altera o objeto recebido não altere a cópia em cache.
+     *
+     * @param other O usuário a copiar.
+     */
+    public User(User other) {
+        this(other.userId, other.fullName, other.email, other.phone, other.birthday, other.role, other.password);
+        this.version = other.version;
+    }
+
     // --- Getters ---
     public Integer getUserId() {return userId;}
     public String getFullName() {return fullName;}
@@ -87,6 +106,7 @@ public class User {
     public LocalDate getBirthday() {return birthday;}
     public Role getRole() {return role;}
     public String getPassword() {return password;}
+    public long getVersion() {return version;}
 
     // --- Setters ---
     public void setUserId(Integer userId) {this.userId = userId;}
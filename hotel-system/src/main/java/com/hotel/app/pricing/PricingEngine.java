@@ -0,0 +1,152 @@
+package com.hotel.app.pricing;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import com.hotel.app.model.Room;
+import com.hotel.app.model.RoomType;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Calcula o preço de uma estadia a partir do calendário de tarifas ({@link RateCalendar}) e guarda as cotações
+ * num cache Caffeine, com a chave (tipo de quarto, entrada, saída). Os quartos do mesmo tipo partilham a cotação,
+ * pelo que uma pesquisa com muitos quartos calcula cada período uma só vez.
+ *
+ * Os tipos sem tarifa própria usam o preço por noite do quarto, que passa também a fazer parte da chave.
+ * O cache tem tamanho limitado e as cotações expiram ao fim de um tempo fixo; depois de alterar o ficheiro
+ * de tarifas é preciso {@link #reload()}.
+ */
+public class PricingEngine {
+
+    private static final BigDecimal HUNDRED = BigDecimal.valueOf(100);
+
+    private static final PricingEngine DEFAULT = new PricingEngine(RateCalendar.load(),
+            Long.getLong("hotel.pricing.cacheMaxEntries", 100_000),
+            Duration.ofMinutes(Long.getLong("hotel.pricing.cacheTtlMinutes", 60)));
+
+    // roomRate é null quando o tipo tem tarifa própria: o preço depende só do tipo e das datas.
+    // generation separa as cotações de cada calendário: uma cotação calculada com o calendário anterior
+    // e guardada depois do reload() fica com a geração antiga e nunca é devolvida
+    private record QuoteKey(long generation, RoomType roomType, BigDecimal roomRate, LocalDate checkIn, LocalDate checkOut) {}
+
+    private record Generation(long number, RateCalendar calendar) {}
+
+    private volatile Generation generation;
+    private final Cache<QuoteKey, Quote> quotes;
+
+    /**
+     * @param calendar O calendário de tarifas.
+     * @param maxEntries O número máximo de cotações em cache.
+     * @param timeToLive O tempo máximo que uma cotação fica em cache.
+     */
+    public PricingEngine(RateCalendar calendar, long maxEntries, Duration timeToLive) {
+        this.generation = new Generation(0, calendar);
+        this.quotes = Caffeine.newBuilder()
+                .maximumSize(maxEntries)
+                .expireAfterWrite(timeToLive)
+                .recordStats()
+                .build();
+    }
+
+    /**
+     * Instância partilhada, com o calendário do pricing.properties e o cache configurável pelas propriedades
+     * de sistema {@code hotel.pricing.cacheMaxEntries} e {@code hotel.pricing.cacheTtlMinutes}.
+     */
+    public static PricingEngine getDefault() {
+        return DEFAULT;
+    }
+
+    /**
+     * Cota uma estadia num quarto.
+     *
+     * @param room O quarto (o tipo e, se o tipo não tiver tarifa própria, o preço por noite).
+     * @param checkIn A data de entrada.
+     * @param checkOut A data de saída (posterior à entrada).
+     * @return A cotação, possivelmente partilhada com outras chamadas (é imutável).
+     */
+    public Quote quote(Room room, LocalDate checkIn, LocalDate checkOut) {
+        return quote(room.getRoomType(), BigDecimal.valueOf(room.getPricePerNight()), checkIn, checkOut);
+    }
+
+    /**
+     * Cota uma estadia para um tipo de quarto.
+     *
+     * @param roomType O tipo de quarto.
+     * @param roomRate O preço por noite a usar se o tipo não tiver tarifa própria.
+     * @param checkIn A data de entrada.
+     * @param checkOut A data de saída (posterior à entrada).
+     * @return A cotação.
+     */
+    public Quote quote(RoomType roomType, BigDecimal roomRate, LocalDate checkIn, LocalDate checkOut) {
+        if (!checkOut.isAfter(checkIn)) {
+            throw new IllegalArgumentException("A data de saída deve ser posterior à data de entrada.");
+        }
+        Generation current = generation;
+        RateCalendar calendar = current.calendar();
+        QuoteKey key = new QuoteKey(current.number(), roomType, calendar.hasRatesFor(roomType) ? null : roomRate, checkIn, checkOut);
+        return quotes.get(key, k -> compute(calendar, roomType, roomRate, checkIn, checkOut));
+    }
+
+    /**
+     * Volta a ler o calendário de tarifas e descarta as cotações em cache.
+     */
+    public void reload() {
+        reload(RateCalendar.load());
+    }
+
+    /**
+     * Passa a cotar com outro calendário e descarta as cotações em cache.
+     *
+     * @param calendar O novo calendário de tarifas.
+     */
+    public synchronized void reload(RateCalendar calendar) {
+        generation = new Generation(generation.number() + 1, calendar);
+        quotes.invalidateAll();
+    }
+
+    private static Quote compute(RateCalendar calendar, RoomType roomType, BigDecimal roomRate, LocalDate checkIn, LocalDate checkOut) {
+        int nights = (int) ChronoUnit.DAYS.between(checkIn, checkOut);
+        List<BigDecimal> rates = new ArrayList<>(nights);
+        BigDecimal subtotal = BigDecimal.ZERO;
+        for (LocalDate night = checkIn; night.isBefore(checkOut); night = night.plusDays(1)) {
+            BigDecimal rate = calendar.nightlyRate(roomType, roomRate, night);
+            rates.add(rate);
+            subtotal = subtotal.add(rate);
+        }
+        BigDecimal discountPercent = calendar.discountPercentFor(nights);
+        BigDecimal discount = subtotal.multiply(discountPercent).divide(HUNDRED, 2, RoundingMode.HALF_UP);
+        return new Quote(roomType, checkIn, checkOut, List.copyOf(rates), subtotal, discountPercent, discount,
+                subtotal.subtract(discount));
+    }
+
+    /**
+     * Métricas do cache de cotações.
+     *
+     * @param hits Cotações devolvidas pelo cache.
+     * @param misses Cotações calculadas.
+     * @param evictions Cotações removidas por falta de espaço ou por expirarem.
+     * @param size Número aproximado de cotações em cache.
+     */
+    public record Stats(long hits, long misses, long evictions, long size) {
+
+        /**
+         * @return A fração de cotações devolvidas pelo cache (0 a 1), ou 0 se ainda não houve cotações.
+         */
+        public double hitRate() {
+            long lookups = hits + misses;
+            return lookups == 0 ? 0.0 : (double) hits / lookups;
+        }
+    }
+
+    public Stats stats() {
+        CacheStats stats = quotes.stats();
+        return new Stats(stats.hitCount(), stats.missCount(), stats.evictionCount(), quotes.estimatedSize());
+    }
+}
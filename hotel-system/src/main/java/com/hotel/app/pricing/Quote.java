@@ -0,0 +1,27 @@
+package com.hotel.app.pricing;
+
+import com.hotel.app.model.RoomType;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * Preço de uma estadia, noite a noite.
+ *
+ * @param roomType O tipo de quarto.
+ * @param checkIn A data de entrada.
+ * @param checkOut A data de saída (não inclusiva).
+ * @param nightlyRates A tarifa de cada noite, pela ordem das noites.
+ * @param subtotal A soma das tarifas.
+ * @param discountPercent A percentagem de desconto por duração aplicada.
+ * @param discount O valor do desconto.
+ * @param total O preço final (subtotal - desconto).
+ */
+public record Quote(RoomType roomType, LocalDate checkIn, LocalDate checkOut, List<BigDecimal> nightlyRates,
+                    BigDecimal subtotal, BigDecimal discountPercent, BigDecimal discount, BigDecimal total) {
+
+    public int nights() {
+        return nightlyRates.size();
+    }
+}
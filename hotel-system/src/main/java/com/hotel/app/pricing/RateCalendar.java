@@ -0,0 +1,223 @@
+package com.hotel.app.pricing;
+
+import com.hotel.app.model.RoomType;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.MonthDay;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Properties;
+import java.util.Set;
+import java.util.TreeMap;
+
+/**
+ * Calendário de tarifas por noite: tarifa de semana e de fim de semana por tipo de quarto, épocas com um
+ * multiplicador e descontos por duração da estadia. Toda a aritmética usa BigDecimal; as tarifas de cada noite
+ * são arredondadas ao cêntimo.
+ *
+ * É lido do ficheiro pricing.properties do classpath (ou do indicado em {@code -Dhotel.pricing.file}):
+ * <pre>
+ * weekend.days=FRIDAY,SATURDAY       # noites de fim de semana
+ * weekend.multiplier=1.20            # tarifa de fim de semana de quem não tem uma própria
+ * SUITE.weekday=250.00               # tarifas próprias de um tipo (RoomType.name())
+ * SUITE.weekend=320.00
+ * season.verao=07-01..08-31:1.25     # época: de MM-dd a MM-dd (inclusive), multiplicador
+ * los.7=5                            # a partir de 7 noites, 5% de desconto
+ * </pre>
+ * Um tipo sem tarifas próprias usa o preço por noite do quarto como tarifa de semana.
+ * Se várias épocas incluírem a mesma noite, aplica-se o maior multiplicador.
+ */
+public class RateCalendar {
+
+    private static final String DEFAULT_RESOURCE = "pricing.properties";
+    private static final BigDecimal HUNDRED = BigDecimal.valueOf(100);
+
+    private final Map<RoomType, BigDecimal> weekdayRates;
+    private final Map<RoomType, BigDecimal> weekendRates;
+    private final Set<DayOfWeek> weekendDays;
+    private final BigDecimal weekendMultiplier;
+    private final List<Season> seasons;
+    private final NavigableMap<Integer, BigDecimal> lengthOfStayDiscounts;
+
+    /**
+     * Época do ano com um multiplicador sobre a tarifa. Pode atravessar o fim do ano (ex.: 12-20..01-05).
+     *
+     * @param name O nome da época.
+     * @param start O primeiro dia.
+     * @param end O último dia (inclusive).
+     * @param multiplier O multiplicador da tarifa.
+     */
+    public record Season(String name, MonthDay start, MonthDay end, BigDecimal multiplier) {
+
+        boolean includes(LocalDate night) {
+            MonthDay day = MonthDay.from(night);
+            if (start.isAfter(end)) {
+                return !day.isBefore(start) || !day.isAfter(end);
+            }
+            return !day.isBefore(start) && !day.isAfter(end);
+        }
+    }
+
+    private RateCalendar(Map<RoomType, BigDecimal> weekdayRates, Map<RoomType, BigDecimal> weekendRates, Set<DayOfWeek> weekendDays,
+                         BigDecimal weekendMultiplier, List<Season> seasons, NavigableMap<Integer, BigDecimal> lengthOfStayDiscounts) {
+        this.weekdayRates = weekdayRates;
+        this.weekendRates = weekendRates;
+        this.weekendDays = weekendDays;
+        this.weekendMultiplier = weekendMultiplier;
+        this.seasons = seasons;
+        this.lengthOfStayDiscounts = lengthOfStayDiscounts;
+    }
+
+    /**
+     * Lê o calendário do ficheiro indicado em {@code hotel.pricing.file} ou, sem essa propriedade,
+     * do pricing.properties do classpath. Sem ficheiro, todas as noites custam o preço do quarto.
+     */
+    public static RateCalendar load() {
+        Properties properties = new Properties();
+        String file = System.getProperty("hotel.pricing.file");
+        try {
+            if (file != null) {
+                try (Reader reader = Files.newBufferedReader(Path.of(file), StandardCharsets.UTF_8)) {
+                    properties.load(reader);
+                }
+            } else {
+                try (InputStream in = RateCalendar.class.getClassLoader().getResourceAsStream(DEFAULT_RESOURCE)) {
+                    if (in != null) {
+                        properties.load(new InputStreamReader(in, StandardCharsets.UTF_8));
+                    }
+                }
+            }
+        } catch (IOException e) {
+            System.err.println("Erro ao ler as tarifas (" + (file != null ? file : DEFAULT_RESOURCE) + "): " + e.getMessage()
+                    + ". A usar o preço por noite de cada quarto.");
+        }
+        return fromProperties(properties);
+    }
+
+    /**
+     * Cria o calendário a partir das propriedades (formato descrito na classe).
+     * As entradas inválidas são ignoradas e indicadas em System.err.
+     */
+    public static RateCalendar fromProperties(Properties properties) {
+        Map<RoomType, BigDecimal> weekdayRates = new EnumMap<>(RoomType.class);
+        Map<RoomType, BigDecimal> weekendRates = new EnumMap<>(RoomType.class);
+        Set<DayOfWeek> weekendDays = EnumSet.of(DayOfWeek.FRIDAY, DayOfWeek.SATURDAY);
+        BigDecimal weekendMultiplier = BigDecimal.ONE;
+        List<Season> seasons = new ArrayList<>();
+        NavigableMap<Integer, BigDecimal> discounts = new TreeMap<>();
+
+        for (String key : properties.stringPropertyNames()) {
+            String value = properties.getProperty(key).trim();
+            try {
+                if (key.equals("weekend.days")) {
+                    weekendDays = EnumSet.noneOf(DayOfWeek.class);
+                    for (String day : value.split(",")) {
+                        weekendDays.add(DayOfWeek.valueOf(day.trim().toUpperCase()));
+                    }
+                } else if (key.equals("weekend.multiplier")) {
+                    weekendMultiplier = positive(value);
+                } else if (key.startsWith("season.")) {
+                    seasons.add(parseSeason(key.substring("season.".length()), value));
+                } else if (key.startsWith("los.")) {
+                    BigDecimal percent = new BigDecimal(value);
+                    if (percent.signum() < 0 || percent.compareTo(HUNDRED) > 0) {
+                        throw new IllegalArgumentException("a percentagem deve estar entre 0 e 100");
+                    }
+                    discounts.put(Integer.parseInt(key.substring("los.".length())), percent);
+                } else if (key.endsWith(".weekday")) {
+                    weekdayRates.put(roomType(key.substring(0, key.length() - ".weekday".length())), positive(value));
+                } else if (key.endsWith(".weekend")) {
+                    weekendRates.put(roomType(key.substring(0, key.length() - ".weekend".length())), positive(value));
+                } else {
+                    throw new IllegalArgumentException("chave desconhecida");
+                }
+            } catch (RuntimeException e) {
+                System.err.println("Tarifa ignorada '" + key + "=" + value + "': " + e.getMessage());
+            }
+        }
+        return new RateCalendar(weekdayRates, weekendRates, weekendDays, weekendMultiplier, List.copyOf(seasons), discounts);
+    }
+
+    /**
+     * @return true se o tipo tiver tarifa de semana própria, caso em que o preço não depende do quarto.
+     */
+    public boolean hasRatesFor(RoomType roomType) {
+        return weekdayRates.containsKey(roomType);
+    }
+
+    /**
+     * Tarifa de uma noite, com a época aplicada.
+     *
+     * @param roomType O tipo de quarto.
+     * @param roomRate O preço por noite do quarto, usado se o tipo não tiver tarifas próprias.
+     * @param night A noite (data de entrada dessa noite).
+     * @return A tarifa arredondada ao cêntimo.
+     */
+    public BigDecimal nightlyRate(RoomType roomType, BigDecimal roomRate, LocalDate night) {
+        BigDecimal weekday = weekdayRates.getOrDefault(roomType, roomRate);
+        BigDecimal rate = weekendDays.contains(night.getDayOfWeek())
+                ? weekendRates.getOrDefault(roomType, weekday.multiply(weekendMultiplier))
+                : weekday;
+
+        BigDecimal seasonMultiplier = null;
+        for (Season season : seasons) {
+            if (season.includes(night) && (seasonMultiplier == null || season.multiplier().compareTo(seasonMultiplier) > 0)) {
+                seasonMultiplier = season.multiplier();
+            }
+        }
+        if (seasonMultiplier != null) {
+            rate = rate.multiply(seasonMultiplier);
+        }
+        return rate.setScale(2, RoundingMode.HALF_UP);
+    }
+
+    /**
+     * @param nights O número de noites da estadia.
+     * @return A percentagem de desconto por duração (0 se nenhuma regra se aplicar).
+     */
+    public BigDecimal discountPercentFor(int nights) {
+        Map.Entry<Integer, BigDecimal> rule = lengthOfStayDiscounts.floorEntry(nights);
+        return rule != null ? rule.getValue() : BigDecimal.ZERO;
+    }
+
+    private static Season parseSeason(String name, String value) {
+        // MM-dd..MM-dd:multiplicador
+        String[] parts = value.split(":");
+        String[] range = parts[0].split("\\.\\.");
+        if (parts.length != 2 || range.length != 2) {
+            throw new IllegalArgumentException("use MM-dd..MM-dd:multiplicador");
+        }
+        return new Season(name, MonthDay.parse("--" + range[0].trim()), MonthDay.parse("--" + range[1].trim()), positive(parts[1]));
+    }
+
+    private static RoomType roomType(String name) {
+        for (RoomType roomType : RoomType.values()) {
+            if (roomType.name().equals(name)) {
+                return roomType;
+            }
+        }
+        throw new IllegalArgumentException("tipo de quarto desconhecido '" + name + "'");
+    }
+
+    private static BigDecimal positive(String value) {
+        BigDecimal number = new BigDecimal(value.trim());
+        if (number.signum() <= 0) {
+            throw new IllegalArgumentException("o valor deve ser positivo");
+        }
+        return number;
+    }
+}
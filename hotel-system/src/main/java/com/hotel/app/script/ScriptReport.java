@@ -0,0 +1,49 @@
+package com.hotel.app.script;
+
+import com.hotel.app.metrics.LatencyRecorder;
+
+import java.io.PrintStream;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.Map;
+
+/**
+ * Resultado da execução de um script de operações.
+ *
+ * @param script O ficheiro executado.
+ * @param workers O número de threads de execução.
+ * @param executed O número de operações executadas (com ou sem sucesso).
+ * @param invalid O número de linhas ignoradas por não serem operações válidas.
+ * @param failures O número de operações falhadas, por operação.
+ * @param latencies A latência de cada operação (sucessos e falhas).
+ * @param elapsed O tempo total da execução.
+ */
+public record ScriptReport(Path script, int workers, long executed, long invalid, Map<String, Long> failures,
+                           Map<String, LatencyRecorder.Snapshot> latencies, Duration elapsed) {
+
+    /**
+     * @return O débito médio, em operações por segundo.
+     */
+    public double operationsPerSecond() {
+        long millis = Math.max(1, elapsed.toMillis());
+        return executed * 1000.0 / millis;
+    }
+
+    /**
+     * Escreve o relatório em formato de tabela (latências em microssegundos).
+     *
+     * @param out O destino.
+     */
+    public void print(PrintStream out) {
+        out.println("\n--- RELATÓRIO DO SCRIPT " + script + " ---");
+        out.printf("%d operações em %d ms com %d threads (%.0f operações/s); %d linhas inválidas.%n",
+                executed, elapsed.toMillis(), workers, operationsPerSecond(), invalid);
+        out.println("-----------------------------------------------------------------------------------------");
+        out.printf("%-10s %9s %8s %10s %10s %10s %10s %10s%n", "Operação", "Total", "Falhas", "p50 (µs)", "p90 (µs)", "p99 (µs)", "p99.9 (µs)", "Máx (µs)");
+        out.println("-----------------------------------------------------------------------------------------");
+        latencies.forEach((operation, latency) -> out.printf("%-10s %9d %8d %10d %10d %10d %10d %10d%n",
+                operation, latency.count(), failures.getOrDefault(operation, 0L),
+                latency.p50(), latency.p90(), latency.p99(), latency.p999(), latency.max()));
+        out.println("-----------------------------------------------------------------------------------------");
+    }
+}
@@ -0,0 +1,287 @@
+package com.hotel.app.script;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.hotel.app.dto.BookingHistoryRow;
+import com.hotel.app.metrics.LatencyRecorder;
+import com.hotel.app.model.Booking;
+import com.hotel.app.model.BookingStatus;
+import com.hotel.app.model.Room;
+import com.hotel.app.model.User;
+import com.hotel.app.pricing.PricingEngine;
+import com.hotel.app.service.BookingService;
+import com.hotel.app.service.RoomSearchCriteria;
+import com.hotel.app.service.RoomService;
+import com.hotel.app.service.UserService;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Executa operações da receção lidas de um ficheiro JSON Lines, sem menus, através dos mesmos serviços
+ * usados pela aplicação interativa. Serve para processamento noturno em lote e para testes de capacidade.
+ *
+ * Cada linha é um objeto com o campo {@code op} e os dados da operação (datas no formato AAAA-MM-DD):
+ * <pre>
+ * {"op":"register","fullName":"Ana Silva","email":"ana@hotel.ao","phone":"923000001","birthday":"1990-05-01","password":"Senha@123"}
+ * {"op":"login","email":"ana@hotel.ao","password":"Senha@123"}
+ * {"op":"search","checkIn":"2025-08-01","checkOut":"2025-08-04","minCapacity":2,"floor":1,"maxPrice":150}
+ * {"op":"book","email":"ana@hotel.ao","roomNumber":"101","checkIn":"2025-08-01","checkOut":"2025-08-04"}
+ * {"op":"cancel","bookingId":42,"email":"ana@hotel.ao"}
+ * {"op":"cancel","bookingId":42}
+ * {"op":"cancel","email":"ana@hotel.ao","roomNumber":"101","checkIn":"2025-08-01"}
+ * {"op":"list","email":"ana@hotel.ao"}
+ * </pre>
+ *
+ * As operações são distribuídas por várias threads. As linhas com o mesmo {@code email} vão sempre para a
+ * mesma thread, pela ordem do ficheiro, para que o registo, a reserva e o cancelamento de um hóspede
+ * aconteçam pela ordem escrita. As linhas sem {@code email} (pesquisas e cancelamentos só pelo
+ * {@code bookingId}) não têm ordem garantida em relação às restantes: um cancelamento só pelo ID pode
+ * correr antes de uma linha anterior do mesmo hóspede. Para o cancelamento seguir a ordem do hóspede,
+ * indique também o {@code email}, que é então verificado contra a reserva.
+ * O ficheiro é lido à medida que as threads avançam, sem ser carregado inteiro.
+ */
+public class ScriptRunner {
+
+    private static final Set<String> OPERATIONS = Set.of("register", "login", "search", "book", "cancel", "list");
+    private static final int QUEUE_CAPACITY = 1024;
+    private static final Runnable END_OF_SCRIPT = () -> {};
+    private static final ObjectMapper JSON = new ObjectMapper();
+
+    private final UserService userService;
+    private final RoomService roomService;
+    private final BookingService bookingService;
+    private final int workers;
+
+    private final LatencyRecorder latencies = new LatencyRecorder();
+    private final ConcurrentMap<String, LongAdder> failures = new ConcurrentHashMap<>();
+
+    /**
+     * @param workers O número de threads que executam as operações.
+     */
+    public ScriptRunner(UserService userService, RoomService roomService, BookingService bookingService, int workers) {
+        if (workers <= 0) {
+            throw new IllegalArgumentException("O número de threads deve ser maior que zero.");
+        }
+        this.userService = userService;
+        this.roomService = roomService;
+        this.bookingService = bookingService;
+        this.workers = workers;
+    }
+
+    /**
+     * Executa todas as operações do ficheiro e espera que terminem.
+     * As linhas inválidas e as operações falhadas são indicadas em System.err com o número da linha.
+     *
+     * @param script O ficheiro JSON Lines.
+     * @return O relatório com as falhas e a latência de cada operação.
+     * @throws IOException Se não for possível ler o ficheiro.
+     * @throws InterruptedException Se a thread for interrompida à espera das operações.
+     */
+    public ScriptReport run(Path script) throws IOException, InterruptedException {
+        long start = System.nanoTime();
+        List<BlockingQueue<Runnable>> queues = new ArrayList<>();
+        List<Thread> threads = new ArrayList<>();
+        for (int i = 0; i < workers; i++) {
+            BlockingQueue<Runnable> queue = new ArrayBlockingQueue<>(QUEUE_CAPACITY);
+            Thread thread = new Thread(() -> drain(queue), "script-worker-" + i);
+            thread.start();
+            queues.add(queue);
+            threads.add(thread);
+        }
+
+        long executed = 0;
+        long invalid = 0;
+        try (BufferedReader reader = Files.newBufferedReader(script)) {
+            String line;
+            long lineNumber = 0;
+            while ((line = reader.readLine()) != null) {
+                lineNumber++;
+                if (line.isBlank()) {
+                    continue;
+                }
+                JsonNode command;
+                try {
+                    command = JSON.readTree(line);
+                } catch (JsonProcessingException e) {
+                    System.err.println("Linha " + lineNumber + ": JSON inválido (" + e.getOriginalMessage() + ").");
+                    invalid++;
+                    continue;
+                }
+                String operation = command.path("op").asText("");
+                if (!OPERATIONS.contains(operation)) {
+                    System.err.println("Linha " + lineNumber + ": operação desconhecida '" + operation + "'.");
+                    invalid++;
+                    continue;
+                }
+                long currentLine = lineNumber;
+                // Espera se a thread estiver atrasada: o ficheiro nunca é lido muito à frente da execução
+                queues.get(workerFor(command, currentLine)).put(() -> execute(currentLine, operation, command));
+                executed++;
+            }
+        } finally {
+            for (BlockingQueue<Runnable> queue : queues) {
+                queue.put(END_OF_SCRIPT);
+            }
+            for (Thread thread : threads) {
+                thread.join();
+            }
+        }
+
+        Map<String, Long> failed = new TreeMap<>();
+        failures.forEach((operation, count) -> failed.put(operation, count.sum()));
+        return new ScriptReport(script, workers, executed, invalid, failed, latencies.snapshot(),
+                Duration.ofNanos(System.nanoTime() - start));
+    }
+
+    // As operações de um mesmo hóspede vão sempre para a mesma thread; as restantes (sem email) são
+    // repartidas pela linha e não têm ordem em relação às do hóspede
+    private int workerFor(JsonNode command, long lineNumber) {
+        String email = command.path("email").asText(null);
+        return email != null ? Math.floorMod(email.hashCode(), workers) : (int) (lineNumber % workers);
+    }
+
+    private static void drain(BlockingQueue<Runnable> queue) {
+        try {
+            for (Runnable task = queue.take(); task != END_OF_SCRIPT; task = queue.take()) {
+                task.run();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void execute(long lineNumber, String operation, JsonNode command) {
+        boolean succeeded;
+        try {
+            succeeded = latencies.time(operation, () -> switch (operation) {
+                case "register" -> register(command);
+                case "login" -> login(command);
+                case "search" -> search(command);
+                case "book" -> book(command);
+                case "cancel" -> cancel(command);
+                case "list" -> list(command);
+                default -> throw new IllegalArgumentException("Operação desconhecida: " + operation);
+            });
+        } catch (RuntimeException e) {
+            System.err.println("Linha " + lineNumber + " (" + operation + "): " + e.getMessage());
+            succeeded = false;
+        }
+        if (!succeeded) {
+            failures.computeIfAbsent(operation, name -> new LongAdder()).increment();
+        }
+    }
+
+    private boolean register(JsonNode command) {
+        return userService.registerUser(text(command, "fullName"), text(command, "email"), text(command, "phone"),
+                date(command, "birthday"), text(command, "password")) != null;
+    }
+
+    private boolean login(JsonNode command) {
+        return userService.authenticateUser(text(command, "email"), text(command, "password")) != null;
+    }
+
+    private boolean search(JsonNode command) {
+        RoomSearchCriteria criteria = RoomSearchCriteria.any();
+        if (command.hasNonNull("minCapacity")) {
+            criteria.setMinCapacity(command.get("minCapacity").asInt());
+        }
+        if (command.hasNonNull("floor")) {
+            criteria.setFloor(command.get("floor").asInt());
+        }
+        if (command.hasNonNull("maxPrice")) {
+            criteria.setMaxPricePerNight(command.get("maxPrice").asDouble());
+        }
+        bookingService.findAvailableRooms(date(command, "checkIn"), date(command, "checkOut"), criteria);
+        return true;
+    }
+
+    private boolean book(JsonNode command) {
+        User user = user(command);
+        String roomNumber = text(command, "roomNumber");
+        Room room = roomService.getRoomByNumber(roomNumber);
+        if (room == null) {
+            throw new IllegalArgumentException("Quarto '" + roomNumber + "' não encontrado.");
+        }
+        LocalDate checkIn = date(command, "checkIn");
+        LocalDate checkOut = date(command, "checkOut");
+        if (!checkOut.isAfter(checkIn)) {
+            throw new IllegalArgumentException("O check-out deve ser posterior ao check-in.");
+        }
+        // Mesmas tarifas do menu do cliente
+        BigDecimal totalPrice = PricingEngine.getDefault().quote(room, checkIn, checkOut).total();
+        bookingService.createBooking(new Booking(user, room, checkIn, checkOut, LocalDate.now(), BookingStatus.PENDING, totalPrice.doubleValue()));
+        return true;
+    }
+
+    private boolean cancel(JsonNode command) {
+        if (command.hasNonNull("bookingId")) {
+            long bookingId = command.get("bookingId").asLong();
+            if (command.hasNonNull("email")) {
+                // Com email a linha segue a ordem do hóspede; a reserva tem de ser dele
+                User user = user(command);
+                boolean own = bookingService.listClientBookingHistory(user).stream()
+                        .anyMatch(row -> row.bookingId() == bookingId);
+                if (!own) {
+                    throw new IllegalArgumentException("A reserva " + bookingId + " não pertence a " + user.getEmail() + ".");
+                }
+            }
+            bookingService.cancelBooking(bookingId);
+            return true;
+        }
+        // Sem ID: a reserva ativa do hóspede para o quarto e a data de entrada indicados
+        User user = user(command);
+        String roomNumber = text(command, "roomNumber");
+        LocalDate checkIn = date(command, "checkIn");
+        BookingHistoryRow booking = bookingService.listClientBookingHistory(user).stream()
+                .filter(row -> row.roomNumber().equals(roomNumber) && row.checkInDate().equals(checkIn))
+                .filter(row -> row.status() == BookingStatus.PENDING || row.status() == BookingStatus.CONFIRMED)
+                .findFirst()
+                .orElseThrow(() -> new IllegalArgumentException("Nenhuma reserva ativa de " + user.getEmail()
+                        + " no quarto " + roomNumber + " com entrada em " + checkIn + "."));
+        bookingService.cancelBooking(booking.bookingId());
+        return true;
+    }
+
+    private boolean list(JsonNode command) {
+        bookingService.listClientBookingHistory(user(command));
+        return true;
+    }
+
+    private User user(JsonNode command) {
+        String email = text(command, "email");
+        User user = userService.getUserByEmail(email);
+        if (user == null) {
+            throw new IllegalArgumentException("Usuário '" + email + "' não encontrado.");
+        }
+        return user;
+    }
+
+    private static String text(JsonNode command, String field) {
+        JsonNode value = command.get(field);
+        if (value == null || value.isNull() || value.asText().isBlank()) {
+            throw new IllegalArgumentException("Campo '" + field + "' em falta.");
+        }
+        return value.asText();
+    }
+
+    private static LocalDate date(JsonNode command, String field) {
+        return LocalDate.parse(text(command, field));
+    }
+}
@@ -0,0 +1,243 @@
+package com.hotel.app.service;
+
+import com.hotel.app.dto.BookingHistoryRow;
+import com.hotel.app.model.Booking;
+import com.hotel.app.model.Room;
+import com.hotel.app.model.RoomType;
+import com.hotel.app.model.User;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Supplier;
+
+/**
+ * Fachada assíncrona sobre os serviços de reservas, quartos e usuários: cada operação devolve um
+ * {@link CompletableFuture} e corre numa thread virtual, para que um ecrã possa lançar várias consultas
+ * em paralelo (ex.: a pesquisa de quartos e o histórico do cliente) e juntar os resultados.
+ *
+ * O número de operações em execução simultânea é limitado (por omissão ao tamanho do pool de conexões,
+ * {@code hotel.async.maxConcurrent}); as restantes esperam numa thread virtual, sem bloquear quem as pediu.
+ * Cada operação tem um tempo limite ({@code hotel.async.timeoutMs}); ao expirar, o future termina com
+ * {@link TimeoutException}. Numa consulta o limite conta até ao resultado: uma consulta que ainda esperava por vez
+ * é descartada, uma que já estava na base de dados termina normalmente e o seu resultado é ignorado.
+ * Numa alteração (criar ou cancelar uma reserva) o limite só conta enquanto espera por vez: depois de começar,
+ * o future termina com o resultado real, para que quem pediu nunca julgue falhada uma reserva que foi gravada.
+ */
+public class AsyncBookingService implements AutoCloseable {
+
+    private final UserService userService;
+    private final RoomService roomService;
+    private final BookingService bookingService;
+    private final ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+    private final Semaphore permits;
+    private final Duration timeout;
+
+    public AsyncBookingService(UserService userService, RoomService roomService, BookingService bookingService) {
+        this(userService, roomService, bookingService,
+                Integer.getInteger("hotel.async.maxConcurrent", Integer.getInteger("pool.maximumPoolSize", 10)),
+                Duration.ofMillis(Long.getLong("hotel.async.timeoutMs", 5_000)));
+    }
+
+    /**
+     * @param maxConcurrent O número máximo de operações em execução ao mesmo tempo.
+     * @param timeout O tempo limite por omissão de cada operação.
+     */
+    public AsyncBookingService(UserService userService, RoomService roomService, BookingService bookingService,
+                               int maxConcurrent, Duration timeout) {
+        if (maxConcurrent <= 0) {
+            throw new IllegalArgumentException("O número de operações simultâneas deve ser maior que zero.");
+        }
+        this.userService = userService;
+        this.roomService = roomService;
+        this.bookingService = bookingService;
+        this.permits = new Semaphore(maxConcurrent);
+        this.timeout = timeout;
+    }
+
+    // --- Quartos e disponibilidade ---
+
+    public CompletableFuture<List<Room>> findAvailableRooms(LocalDate checkIn, LocalDate checkOut, RoomSearchCriteria criteria) {
+        return supply(() -> bookingService.findAvailableRooms(checkIn, checkOut, criteria));
+    }
+
+    /**
+     * Pesquisa os quartos livres de vários tipos em paralelo, uma consulta por tipo.
+     *
+     * @param criteria Os filtros comuns a todos os tipos. Pode ser null.
+     * @return Os quartos livres de cada tipo (um tipo sem quartos livres fica com uma lista vazia).
+     */
+    public CompletableFuture<Map<RoomType, List<Room>>> findAvailableRoomsByType(LocalDate checkIn, LocalDate checkOut,
+                                                                                  Collection<RoomType> roomTypes,
+                                                                                  RoomSearchCriteria criteria) {
+        RoomSearchCriteria base = criteria != null ? criteria : RoomSearchCriteria.any();
+        Map<RoomType, CompletableFuture<List<Room>>> searches = new EnumMap<>(RoomType.class);
+        for (RoomType roomType : roomTypes) {
+            searches.put(roomType, findAvailableRooms(checkIn, checkOut, base.withRoomType(roomType)));
+        }
+        return CompletableFuture.allOf(searches.values().toArray(CompletableFuture[]::new))
+                .thenApply(ignored -> {
+                    Map<RoomType, List<Room>> rooms = new EnumMap<>(RoomType.class);
+                    searches.forEach((roomType, search) -> rooms.put(roomType, search.join()));
+                    return rooms;
+                });
+    }
+
+    public CompletableFuture<Boolean> isRoomAvailable(Integer roomId, LocalDate checkIn, LocalDate checkOut) {
+        return supply(() -> bookingService.isRoomAvailable(roomId, checkIn, checkOut));
+    }
+
+    public CompletableFuture<Room> getRoomByNumber(String roomNumber) {
+        return supply(() -> roomService.getRoomByNumber(roomNumber));
+    }
+
+    // --- Reservas ---
+
+    public CompletableFuture<Booking> createBooking(Booking booking) {
+        return supplyWrite(() -> bookingService.createBooking(booking));
+    }
+
+    public CompletableFuture<Optional<Booking>> findBookingById(Long bookingId) {
+        return supply(() -> bookingService.findBookingById(bookingId));
+    }
+
+    public CompletableFuture<Booking> cancelBooking(Long bookingId) {
+        return supplyWrite(() -> bookingService.cancelBooking(bookingId));
+    }
+
+    public CompletableFuture<List<BookingHistoryRow>> listClientBookingHistory(User user) {
+        return supply(() -> bookingService.listClientBookingHistory(user));
+    }
+
+    // --- Usuários ---
+
+    public CompletableFuture<User> getUserByEmail(String email) {
+        return supply(() -> userService.getUserByEmail(email));
+    }
+
+    // --- Composição ---
+
+    /**
+     * Dados do ecrã de reserva, obtidos em paralelo.
+     *
+     * @param availableRooms Os quartos livres no período.
+     * @param history O histórico de reservas do cliente.
+     */
+    public record ReservationScreen(List<Room> availableRooms, List<BookingHistoryRow> history) {}
+
+    /**
+     * Pesquisa os quartos livres e lê o histórico do cliente ao mesmo tempo: o ecrã fica pronto no tempo
+     * da consulta mais lenta em vez da soma das duas.
+     */
+    public CompletableFuture<ReservationScreen> loadReservationScreen(User user, LocalDate checkIn, LocalDate checkOut,
+                                                                      RoomSearchCriteria criteria) {
+        return findAvailableRooms(checkIn, checkOut, criteria)
+                .thenCombine(listClientBookingHistory(user), ReservationScreen::new);
+    }
+
+    /**
+     * Executa uma consulta síncrona qualquer na fachada, com o tempo limite por omissão.
+     */
+    public <T> CompletableFuture<T> supply(Supplier<T> operation) {
+        return supply(operation, timeout);
+    }
+
+    /**
+     * Executa uma consulta síncrona qualquer na fachada. Não deve ser usado para alterações: se o tempo limite
+     * expirar com a operação já na base de dados, o future falha mesmo que a operação venha a ser gravada.
+     *
+     * @param operation A operação (normalmente uma chamada a um dos serviços).
+     * @param timeout O tempo limite desta operação, contado a partir do pedido (inclui a espera por vez).
+     * @return O future com o resultado, ou terminado com a exceção lançada pela operação.
+     */
+    public <T> CompletableFuture<T> supply(Supplier<T> operation, Duration timeout) {
+        CompletableFuture<T> result = new CompletableFuture<>();
+        executor.execute(() -> {
+            try {
+                permits.acquire();
+            } catch (InterruptedException e) {
+                result.completeExceptionally(new CompletionException(e));
+                return;
+            }
+            // Expirou enquanto esperava por vez: não vale a pena ir à base de dados
+            if (result.isDone()) {
+                permits.release();
+            } else {
+                runWithPermit(operation, result);
+            }
+        });
+        return result.orTimeout(timeout.toMillis(), TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Executa uma alteração síncrona qualquer na fachada, com o tempo limite por omissão.
+     */
+    public <T> CompletableFuture<T> supplyWrite(Supplier<T> operation) {
+        return supplyWrite(operation, timeout);
+    }
+
+    /**
+     * Executa uma alteração síncrona qualquer na fachada. O tempo limite só se aplica à espera por vez:
+     * uma alteração que não começou a tempo não é executada; uma que começou termina sempre com o seu resultado
+     * ou com a exceção que lançou.
+     *
+     * @param operation A operação (normalmente uma chamada a um dos serviços).
+     * @param timeout O tempo máximo à espera de vez, contado a partir do pedido.
+     * @return O future com o resultado, ou terminado com a exceção lançada pela operação
+     *         ou com {@link TimeoutException} se não chegou a ser executada.
+     */
+    public <T> CompletableFuture<T> supplyWrite(Supplier<T> operation, Duration timeout) {
+        CompletableFuture<T> result = new CompletableFuture<>();
+        long deadline = System.nanoTime() + timeout.toNanos();
+        executor.execute(() -> {
+            try {
+                if (!permits.tryAcquire(deadline - System.nanoTime(), TimeUnit.NANOSECONDS)) {
+                    result.completeExceptionally(new TimeoutException("A operação não começou em " + timeout.toMillis() + " ms."));
+                    return;
+                }
+            } catch (InterruptedException e) {
+                result.completeExceptionally(new CompletionException(e));
+                return;
+            }
+            runWithPermit(operation, result);
+        });
+        return result;
+    }
+
+    // Executa a operação com uma vez já obtida e liberta-a no fim
+    private <T> void runWithPermit(Supplier<T> operation, CompletableFuture<T> result) {
+        try {
+            result.complete(operation.get());
+        } catch (Throwable e) {
+            result.completeExceptionally(e);
+        } finally {
+            permits.release();
+        }
+    }
+
+    /**
+     * @return O número de operações à espera de vez.
+     */
+    public int getQueueLength() {
+        return permits.getQueueLength();
+    }
+
+    /**
+     * Deixa de aceitar operações; as que estão em curso terminam normalmente.
+     */
+    @Override
+    public void close() {
+        executor.shutdown();
+    }
+}
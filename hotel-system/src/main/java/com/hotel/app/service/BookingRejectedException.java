@@ -0,0 +1,13 @@
+package com.hotel.app.service;
+
+/**
+ * Uma reserva recusada pelo estado atual das reservas, e não por um erro: o quarto já está reservado
+ * para as datas pedidas, ou a reserva já foi concluída e não pode ser cancelada.
+ * Repetir o mesmo pedido volta a falhar enquanto esse estado não mudar.
+ */
+public class BookingRejectedException extends RuntimeException {
+
+    public BookingRejectedException(String message) {
+        super(message);
+    }
+}
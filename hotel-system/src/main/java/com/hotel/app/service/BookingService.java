@@ -1,95 +1,349 @@
 package com.hotel.app.service;
 
+import com.hotel.app.concurrency.OptimisticRetryExecutor;
+import com.hotel.app.concurrency.RoomLockStripes;
+import com.hotel.app.dao.BookingDAO;
+import com.hotel.app.dao.DailyRoomStatsDAO;
+import com.hotel.app.dao.DailyRoomStatsDAO.SoldNights;
+import com.hotel.app.dao.Page;
+import com.hotel.app.dao.RoomDAO;
+import com.hotel.app.dao.SortDirection;
+import com.hotel.app.dto.BookingHistoryRow;
+import com.hotel.app.index.BookingConflict;
+import com.hotel.app.index.BookingIntervalIndex;
+import com.hotel.app.index.BookingStay;
+import com.hotel.app.index.OccupancyIndex;
+import com.hotel.app.metrics.LatencyRecorder;
 import com.hotel.app.model.Booking;
 import com.hotel.app.model.BookingStatus;
 import com.hotel.app.model.Room;
 import com.hotel.app.model.User;
+import com.hotel.app.util.UnitOfWork;
 import jakarta.persistence.EntityManager;
+import jakarta.persistence.LockModeType;
 import jakarta.persistence.NoResultException;
 import jakarta.persistence.TypedQuery;
+import org.hibernate.jpa.SpecHints;
 
 import java.time.LocalDate;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional; // Importe Optional
+import java.util.concurrent.locks.Lock;
+import java.util.function.Consumer;
 
+/**
+ * Serviço de reservas. Não guarda nenhum EntityManager: cada operação abre a sua própria unidade de trabalho.
+ * O único estado partilhado são os índices em memória e os locks por quarto, ambos thread-safe,
+ * pelo que a mesma instância pode servir várias sessões ao mesmo tempo.
+ * Criar, alterar ou apagar uma reserva atualiza também o resumo diário de vendas (daily_room_stats),
+ * na mesma transação.
+ */
 public class BookingService {
 
-    private EntityManager entityManager;
+    private static final LatencyRecorder LATENCIES = LatencyRecorder.getDefault();
 
-    public BookingService(EntityManager entityManager) {
-        this.entityManager = entityManager;
+    // Estados de reserva que ocupam o quarto no período reservado
+    private static final List<BookingStatus> ACTIVE_STATUSES = List.of(BookingStatus.PENDING, BookingStatus.CONFIRMED);
+
+    private final OccupancyIndex occupancyIndex;
+    private final BookingIntervalIndex intervalIndex;
+    private final RoomLockStripes roomLocks;
+    private final OptimisticRetryExecutor retryExecutor = OptimisticRetryExecutor.getDefault();
+
+    public BookingService() {
+        this(new OccupancyIndex(), new BookingIntervalIndex(), new RoomLockStripes());
     }
 
-    public Booking createBooking(Booking booking) {
-        try {
-            entityManager.getTransaction().begin();
-            // Verifica se o quarto está disponível para o período selecionado
-            if (!isRoomAvailable(booking.getRoom().getRoomId(), booking.getCheckInDate(), booking.getCheckOutDate())) {
-                throw new RuntimeException("O quarto " + booking.getRoom().getRoomNumber() + " não está disponível para as datas selecionadas.");
-            }
+    public BookingService(OccupancyIndex occupancyIndex, BookingIntervalIndex intervalIndex, RoomLockStripes roomLocks) {
+        this.occupancyIndex = occupancyIndex;
+        this.intervalIndex = intervalIndex;
+        this.roomLocks = roomLocks;
+    }
 
-            // Define o quarto como indisponível (se a reserva for confirmada imediatamente)
-            // Ou você pode ter um status BOOKING_CONFIRMED que muda a disponibilidade
-            // Por enquanto, vamos marcar o quarto como indisponível ao criar a reserva PENDING
-            // booking.getRoom().setAvailable(false); // Esta linha pode ser removida se você gerenciar disponibilidade apenas por reservas
-            // O método isRoomAvailable já faz essa verificação.
+    /**
+     * (Re)constrói os índices em memória (ocupação e intervalos) a partir das reservas ativas na base de dados.
+     * Deve ser chamado no arranque da aplicação; até terminar, as verificações de disponibilidade e as consultas
+     * de vagas e conflitos vão à base de dados. As reservas criadas ou alteradas durante a leitura são aplicadas
+     * aos índices depois dela, pelo que podem correr em paralelo com a reconstrução.
+     */
+    public void rebuildOccupancyIndex() {
+        LATENCIES.time("BookingService.rebuildOccupancyIndex", () -> {
+            occupancyIndex.beginRebuild();
+            intervalIndex.beginRebuild();
+            try {
+                List<BookingStay> activeStays = loadActiveStays(null, null);
+                occupancyIndex.rebuild(activeStays);
+                intervalIndex.rebuild(activeStays);
+            } catch (RuntimeException e) {
+                occupancyIndex.cancelRebuild();
+                intervalIndex.cancelRebuild();
+                throw e;
+            }
+        });
+    }
 
-            entityManager.persist(booking);
-            entityManager.getTransaction().commit();
-            return booking;
-        } catch (Exception e) {
-            if (entityManager.getTransaction().isActive()) {
-                entityManager.getTransaction().rollback();
+    // Estadias ativas lidas da base de dados: todas, ou só as de um quarto que terminam depois de uma data
+    private List<BookingStay> loadActiveStays(Integer roomId, LocalDate endingAfter) {
+        return UnitOfWork.read(entityManager -> {
+            TypedQuery<BookingStay> query = entityManager.createQuery(
+                    "SELECT new com.hotel.app.index.BookingStay(b.bookingId, b.room.roomId, b.checkInDate, b.checkOutDate) " +
+                            "FROM Booking b WHERE b.status IN :activeStatuses" +
+                            (roomId != null ? " AND b.room.roomId = :roomId AND b.checkOutDate > :endingAfter" : ""), BookingStay.class)
+                    .setParameter("activeStatuses", ACTIVE_STATUSES);
+            if (roomId != null) {
+                query.setParameter("roomId", roomId).setParameter("endingAfter", endingAfter);
             }
-            throw new RuntimeException("Erro ao criar a reserva: " + e.getMessage(), e);
+            return query.getResultList();
+        });
+    }
+
+    // Enquanto o índice de intervalos não está carregado, as consultas usam um índice temporário com as estadias da base de dados
+    private BookingIntervalIndex loadedIntervalIndex(Integer roomId, LocalDate endingAfter) {
+        if (intervalIndex.isLoaded()) {
+            return intervalIndex;
         }
+        BookingIntervalIndex fromDatabase = new BookingIntervalIndex();
+        fromDatabase.rebuild(loadActiveStays(roomId, endingAfter));
+        return fromDatabase;
     }
 
-    public Optional<Booking> findBookingById(Integer bookingId) {
+    /**
+     * @return O índice de ocupação usado por este serviço (por exemplo, para consultar a memória ocupada).
+     */
+    public OccupancyIndex getOccupancyIndex() {
+        return occupancyIndex;
+    }
+
+    /**
+     * Cria uma reserva garantindo que o quarto não fica reservado duas vezes para as mesmas noites.
+     * Dentro da JVM, reservas para o mesmo quarto são serializadas por um lock da faixa do quarto;
+     * entre processos, a linha do quarto é bloqueada com SELECT ... FOR UPDATE antes de verificar
+     * a sobreposição diretamente na base de dados e inserir a reserva.
+     *
+     * @param booking A reserva a criar.
+     * @return A reserva persistida.
+     * @throws BookingRejectedException Se o quarto já estiver reservado para alguma das noites.
+     * @throws IllegalArgumentException Se o quarto não existir.
+     */
+    public Booking createBooking(Booking booking) {
+        return LATENCIES.time("BookingService.createBooking", () -> {
+            Integer roomId = booking.getRoom().getRoomId();
+            Lock roomLock = roomLocks.lockFor(roomId);
+            roomLock.lock();
+            try {
+                UnitOfWork.runInTransaction(entityManager -> {
+                    // Bloqueia a linha do quarto até ao commit: outra transação que tente reservar o mesmo quarto espera aqui
+                    Room lockedRoom = entityManager.find(Room.class, roomId, LockModeType.PESSIMISTIC_WRITE);
+                    if (lockedRoom == null) {
+                        throw new IllegalArgumentException("O quarto com ID " + roomId + " não existe.");
+                    }
+                    // Verifica se o quarto está disponível para o período selecionado.
+                    // Com o lock adquirido a verificação é feita na base de dados, que é a fonte de verdade entre processos.
+                    if (countOverlappingBookings(entityManager, roomId, booking.getCheckInDate(), booking.getCheckOutDate(), null) > 0) {
+                        throw new BookingRejectedException("O quarto " + lockedRoom.getRoomNumber() + " não está disponível para as datas selecionadas.");
+                    }
+                    // O tipo usado no resumo diário é o lido sob o lock, não o da cópia recebida, que pode estar desatualizada
+                    booking.setRoom(lockedRoom);
+
+                    // Define o quarto como indisponível (se a reserva for confirmada imediatamente)
+                    // Ou você pode ter um status BOOKING_CONFIRMED que muda a disponibilidade
+                    // Por enquanto, vamos marcar o quarto como indisponível ao criar a reserva PENDING
+                    // booking.getRoom().setAvailable(false); // Esta linha pode ser removida se você gerenciar disponibilidade apenas por reservas
+                    // O método isRoomAvailable já faz essa verificação.
+
+                    entityManager.persist(booking);
+                    new DailyRoomStatsDAO(entityManager).replace(null, SoldNights.of(booking));
+                });
+                indexBooking(booking);
+                return booking;
+            } catch (BookingRejectedException | IllegalArgumentException e) {
+                throw e;
+            } catch (Exception e) {
+                throw new RuntimeException("Erro ao criar a reserva: " + e.getMessage(), e);
+            } finally {
+                roomLock.unlock();
+            }
+        });
+    }
+
+    public Optional<Booking> findBookingById(Long bookingId) {
         try {
-            return Optional.ofNullable(entityManager.find(Booking.class, bookingId));
+            return Optional.ofNullable(LATENCIES.time("BookingService.findBookingById",
+                    () -> UnitOfWork.read(entityManager -> entityManager.find(Booking.class, bookingId,
+                            Map.of(SpecHints.HINT_SPEC_FETCH_GRAPH, entityManager.getEntityGraph(Booking.GRAPH_WITH_USER_AND_ROOM))))));
         } catch (NoResultException e) {
             return Optional.empty();
         }
     }
 
+    /**
+     * Carrega todas as reservas, com o usuário e o quarto de cada uma. Para listagens prefira {@link #getBookingsPage(Long, int, SortDirection)},
+     * cujo custo não cresce com o tamanho da tabela.
+     */
     public List<Booking> getAllBookings() {
-        return entityManager.createQuery("SELECT b FROM Booking b", Booking.class).getResultList();
+        return LATENCIES.time("BookingService.getAllBookings", () -> UnitOfWork.read(entityManager -> entityManager.createQuery("SELECT b FROM Booking b", Booking.class)
+                .setHint(SpecHints.HINT_SPEC_FETCH_GRAPH, entityManager.getEntityGraph(Booking.GRAPH_WITH_USER_AND_ROOM))
+                .getResultList()));
     }
 
+    /**
+     * Obtém uma página de reservas ordenada pelo ID (paginação por cursor), com o usuário e o quarto de cada uma.
+     *
+     * @param afterId O ID da última reserva da página anterior, ou null para a primeira página.
+     * @param limit O tamanho da página.
+     * @param direction O sentido da ordenação.
+     * @return A página de reservas.
+     */
+    public Page<Booking> getBookingsPage(Long afterId, int limit, SortDirection direction) {
+        return LATENCIES.time("BookingService.getBookingsPage", () -> UnitOfWork.read(entityManager -> new BookingDAO(entityManager).findPage(afterId, limit, direction)));
+    }
+
+    /**
+     * Grava o estado completo de uma reserva.
+     * A coluna de versão impede que uma cópia desatualizada sobrescreva silenciosamente
+     * uma alteração mais recente: nesse caso a gravação falha e deve ser refeita sobre dados atuais.
+     * Para alterações pontuais prefira {@link #updateBooking(Long, Consumer)}, que repete automaticamente.
+     *
+     * @param booking A reserva com os dados atualizados.
+     */
     public void updateBooking(Booking booking) {
         try {
-            entityManager.getTransaction().begin();
-            entityManager.merge(booking);
-            entityManager.getTransaction().commit();
+            Booking merged = LATENCIES.time("BookingService.updateBooking", () -> UnitOfWork.inTransaction(entityManager -> {
+                SoldNights previous = SoldNights.of(entityManager.find(Booking.class, booking.getBookingId()));
+                Booking updated = entityManager.merge(booking);
+                new DailyRoomStatsDAO(entityManager).replace(previous, SoldNights.of(updated));
+                return updated;
+            }));
+            indexBooking(merged);
         } catch (Exception e) {
-            if (entityManager.getTransaction().isActive()) {
-                entityManager.getTransaction().rollback();
+            if (OptimisticRetryExecutor.isOptimisticLockFailure(e)) {
+                retryExecutor.recordConflict("Booking");
+                throw new RuntimeException("A reserva " + booking.getBookingId() + " foi alterada por outro utilizador. Recarregue-a e tente novamente.", e);
             }
             throw new RuntimeException("Erro ao atualizar reserva: " + e.getMessage(), e);
         }
     }
 
-    public void deleteBooking(Integer bookingId) {
+    /**
+     * Atualiza uma reserva aplicando uma alteração sobre o estado atual na base de dados.
+     * Se outra transação alterar a mesma reserva entretanto, a reserva é relida e a alteração
+     * reaplicada, com espera crescente entre tentativas, sem perder nenhuma das atualizações.
+     * Cada tentativa corre numa unidade de trabalho nova, que relê a reserva.
+     * Se a alteração mudar o quarto ou as datas de uma reserva ativa, ou reativar uma reserva cancelada ou concluída,
+     * a disponibilidade é verificada de novo.
+     *
+     * @param bookingId O ID da reserva.
+     * @param changes A alteração a aplicar (pode ser executada mais de uma vez).
+     * @return A reserva atualizada.
+     * @throws BookingRejectedException Se o quarto não estiver livre nas noites que a reserva passa a ocupar.
+     * @throws IllegalArgumentException Se a reserva não existir.
+     */
+    public Booking updateBooking(Long bookingId, Consumer<Booking> changes) {
+        try {
+            Booking updated = LATENCIES.time("BookingService.updateBookingWithRetry", () -> retryExecutor.execute("Booking",
+                    () -> UnitOfWork.inTransaction(entityManager -> applyBookingChanges(entityManager, bookingId, changes))));
+            indexBooking(updated);
+            return updated;
+        } catch (BookingRejectedException | IllegalArgumentException e) {
+            throw e;
+        } catch (RuntimeException e) {
+            throw new RuntimeException("Erro ao atualizar reserva: " + e.getMessage(), e);
+        }
+    }
+
+    // Uma tentativa de updateBooking(Long, Consumer): lê, aplica e valida; o commit é feito pela unidade de trabalho.
+    // O lock da faixa é libertado antes do commit, mas a linha do quarto (FOR UPDATE) e a alteração já enviada
+    // pelo flush ficam bloqueadas na base de dados até lá, pelo que outra reserva do mesmo quarto continua a esperar.
+    private Booking applyBookingChanges(EntityManager entityManager, Long bookingId, Consumer<Booking> changes) {
+        Lock roomLock = null;
         try {
-            entityManager.getTransaction().begin();
-            Booking booking = entityManager.find(Booking.class, bookingId);
-            if (booking != null) {
-                entityManager.remove(booking);
+            Booking current = entityManager.find(Booking.class, bookingId);
+            if (current == null) {
+                throw new IllegalArgumentException("Reserva com ID " + bookingId + " não encontrada.");
             }
-            entityManager.getTransaction().commit();
-        } catch (Exception e) {
-            if (entityManager.getTransaction().isActive()) {
-                entityManager.getTransaction().rollback();
+
+            Integer previousRoomId = current.getRoom().getRoomId();
+            LocalDate previousCheckIn = current.getCheckInDate();
+            LocalDate previousCheckOut = current.getCheckOutDate();
+            boolean wasActive = ACTIVE_STATUSES.contains(current.getStatus());
+            SoldNights previousNights = SoldNights.of(current);
+            changes.accept(current);
+
+            boolean roomChanged = !previousRoomId.equals(current.getRoom().getRoomId());
+            boolean moved = roomChanged
+                    || !previousCheckIn.equals(current.getCheckInDate())
+                    || !previousCheckOut.equals(current.getCheckOutDate());
+            // Uma reserva que passa a ocupar noites novas (mudou de datas ou de quarto, ou foi reativada) tem de as encontrar livres
+            boolean checkAvailability = ACTIVE_STATUSES.contains(current.getStatus()) && (moved || !wasActive);
+            // Ao entrar noutro quarto, o tipo usado no resumo diário é lido com a linha bloqueada, como em createBooking
+            if (checkAvailability || roomChanged) {
+                Integer roomId = current.getRoom().getRoomId();
+                if (checkAvailability) {
+                    roomLock = roomLocks.lockFor(roomId);
+                    roomLock.lock();
+                }
+                Room lockedRoom = entityManager.find(Room.class, roomId, LockModeType.PESSIMISTIC_WRITE);
+                if (lockedRoom == null) {
+                    throw new IllegalArgumentException("O quarto com ID " + roomId + " não existe.");
+                }
+                current.setRoom(lockedRoom);
+                if (checkAvailability && countOverlappingBookings(entityManager, roomId, current.getCheckInDate(), current.getCheckOutDate(), bookingId) > 0) {
+                    throw new BookingRejectedException("O quarto " + lockedRoom.getRoomNumber() + " não está disponível para as datas da reserva.");
+                }
             }
+
+            new DailyRoomStatsDAO(entityManager).replace(previousNights, SoldNights.of(current));
+            entityManager.flush();
+            return current;
+        } finally {
+            if (roomLock != null) {
+                roomLock.unlock();
+            }
+        }
+    }
+
+    /**
+     * Cancela uma reserva, libertando o quarto para as suas noites. Uma reserva já concluída não pode ser cancelada.
+     * Como {@link #updateBooking(Long, Consumer)}, repete a alteração se a reserva for alterada em simultâneo.
+     *
+     * @param bookingId O ID da reserva.
+     * @return A reserva cancelada.
+     * @throws BookingRejectedException Se a reserva já tiver sido concluída.
+     * @throws IllegalArgumentException Se a reserva não existir.
+     */
+    public Booking cancelBooking(Long bookingId) {
+        return LATENCIES.time("BookingService.cancelBooking", () -> {
+            return updateBooking(bookingId, booking -> {
+                if (booking.getStatus() == BookingStatus.COMPLETED) {
+                    throw new BookingRejectedException("A reserva " + bookingId + " já foi concluída e não pode ser cancelada.");
+                }
+                booking.setStatus(BookingStatus.CANCELLED);
+            });
+        });
+    }
+
+    public void deleteBooking(Long bookingId) {
+        try {
+            LATENCIES.time("BookingService.deleteBooking", () -> UnitOfWork.runInTransaction(entityManager -> {
+                Booking booking = entityManager.find(Booking.class, bookingId);
+                if (booking != null) {
+                    new DailyRoomStatsDAO(entityManager).replace(SoldNights.of(booking), null);
+                    entityManager.remove(booking);
+                }
+            }));
+            occupancyIndex.remove(bookingId, OccupancyIndex.DELETED);
+            intervalIndex.remove(bookingId, OccupancyIndex.DELETED);
+        } catch (Exception e) {
             throw new RuntimeException("Erro ao deletar reserva: " + e.getMessage(), e);
         }
     }
 
     /**
      * Verifica se um quarto está disponível para um determinado período.
-     * Um quarto está disponível se não houver reservas CONCLUIDAS ou PENDENTES
+     * Um quarto está disponível se não houver reservas CONFIRMADAS ou PENDENTES
      * que se sobreponham ao período desejado.
+     * Quando o índice de ocupação cobre o período, a resposta vem da memória, sem consultar a base de dados.
      *
      * @param roomId O ID do quarto a ser verificado.
      * @param desiredCheckIn A data de check-in desejada.
@@ -97,51 +351,212 @@ public class BookingService {
      * @return true se o quarto estiver disponível, false caso contrário.
      */
     public boolean isRoomAvailable(Integer roomId, LocalDate desiredCheckIn, LocalDate desiredCheckOut) {
-        // Ajuste para garantir que desiredCheckOut não seja inclusivo no cálculo de sobreposição,
-        // pois a saída de um hóspede no dia X libera o quarto para entrada no mesmo dia X.
-        // No entanto, para evitar confusão, é comum que a "disponibilidade" para o check-out
-        // signifique que o quarto está livre APÓS a data de check-out.
+        return LATENCIES.time("BookingService.isRoomAvailable", () -> {
+            // Ajuste para garantir que desiredCheckOut não seja inclusivo no cálculo de sobreposição,
+            // pois a saída de um hóspede no dia X libera o quarto para entrada no mesmo dia X.
+            // No entanto, para evitar confusão, é comum que a "disponibilidade" para o check-out
+            // signifique que o quarto está livre APÓS a data de check-out.
+
+            // Uma reserva se sobrepõe se:
+            // (start1 < end2) AND (end1 > start2)
+            // Onde:
+            // start1 = desiredCheckIn, end1 = desiredCheckOut
+            // start2 = existingBooking.checkInDate, end2 = existingBooking.checkOutDate
 
-        // Uma reserva se sobrepõe se:
-        // (start1 < end2) AND (end1 > start2)
-        // Onde:
-        // start1 = desiredCheckIn, end1 = desiredCheckOut
-        // start2 = existingBooking.checkInDate, end2 = existingBooking.checkOutDate
+            if (occupancyIndex.covers(desiredCheckIn)) {
+                return occupancyIndex.isFree(roomId, desiredCheckIn, desiredCheckOut);
+            }
+
+            return UnitOfWork.read(entityManager ->
+                    countOverlappingBookings(entityManager, roomId, desiredCheckIn, desiredCheckOut, null)) == 0; // Se o count for 0, não há sobreposição, então o quarto está disponível
+        });
+    }
 
+    // Conta na base de dados as reservas ativas do quarto que se sobrepõem ao período,
+    // ignorando opcionalmente uma reserva (a que está a ser alterada)
+    private long countOverlappingBookings(EntityManager entityManager, Integer roomId, LocalDate desiredCheckIn, LocalDate desiredCheckOut, Long ignoredBookingId) {
         TypedQuery<Long> query = entityManager.createQuery(
                 "SELECT COUNT(b) FROM Booking b " +
                         "WHERE b.room.roomId = :roomId " +
-                        "AND (b.status = 'PENDING' OR b.status = 'CONFIRMED' OR b.status = 'CHECKED_IN') " +
-                        "AND (b.checkInDate < :desiredCheckOut AND b.checkOutDate > :desiredCheckIn)",
+                        "AND b.status IN :activeStatuses " +
+                        "AND (b.checkInDate < :desiredCheckOut AND b.checkOutDate > :desiredCheckIn)" +
+                        (ignoredBookingId != null ? " AND b.bookingId <> :ignoredBookingId" : ""),
                 Long.class);
 
         query.setParameter("roomId", roomId);
+        query.setParameter("activeStatuses", ACTIVE_STATUSES);
         query.setParameter("desiredCheckIn", desiredCheckIn);
         query.setParameter("desiredCheckOut", desiredCheckOut);
+        if (ignoredBookingId != null) {
+            query.setParameter("ignoredBookingId", ignoredBookingId);
+        }
 
-        Long count = query.getSingleResult();
-        return count == 0; // Se o count for 0, não há sobreposição, então o quarto está disponível
+        return query.getSingleResult();
+    }
+
+    /**
+     * Pesquisa os quartos livres para um período numa única consulta.
+     * Em vez de verificar cada quarto com {@link #isRoomAvailable}, a disponibilidade é resolvida
+     * por um anti-join (NOT EXISTS) contra as reservas ativas que se sobrepõem ao período.
+     * Se o índice de ocupação cobrir o período, a consulta traz apenas os quartos que satisfazem
+     * os filtros e a disponibilidade é resolvida em memória.
+     *
+     * @param checkIn A data de check-in desejada.
+     * @param checkOut A data de check-out desejada.
+     * @param criteria Filtros opcionais (capacidade, andar, preço). Pode ser null.
+     * @return Os quartos livres no período, ordenados pelo número do quarto.
+     */
+    public List<Room> findAvailableRooms(LocalDate checkIn, LocalDate checkOut, RoomSearchCriteria criteria) {
+        RoomSearchCriteria filters = criteria != null ? criteria : RoomSearchCriteria.any();
+        return LATENCIES.time("BookingService.findAvailableRooms", () -> {
+            boolean useIndex = occupancyIndex.covers(checkIn);
+
+            StringBuilder jpql = new StringBuilder("SELECT r FROM Room r WHERE r.isAvailable = true");
+            if (!useIndex) {
+                jpql.append(" AND NOT EXISTS (" +
+                        "SELECT b.bookingId FROM Booking b " +
+                        "WHERE b.room = r " +
+                        "AND b.status IN :activeStatuses " +
+                        "AND b.checkInDate < :checkOut AND b.checkOutDate > :checkIn)");
+            }
+            if (filters.getRoomType() != null) {
+                jpql.append(" AND r.roomType = :roomType");
+            }
+            if (filters.getMinCapacity() != null) {
+                jpql.append(" AND r.capacity >= :minCapacity");
+            }
+            if (filters.getFloor() != null) {
+                jpql.append(" AND r.floor = :floor");
+            }
+            if (filters.getMinPricePerNight() != null) {
+                jpql.append(" AND r.pricePerNight >= :minPrice");
+            }
+            if (filters.getMaxPricePerNight() != null) {
+                jpql.append(" AND r.pricePerNight <= :maxPrice");
+            }
+            jpql.append(" ORDER BY r.roomNumber");
+
+            List<Room> rooms = UnitOfWork.read(entityManager -> {
+                TypedQuery<Room> query = entityManager.createQuery(jpql.toString(), Room.class);
+                if (!useIndex) {
+                    query.setParameter("activeStatuses", ACTIVE_STATUSES);
+                    query.setParameter("checkIn", checkIn);
+                    query.setParameter("checkOut", checkOut);
+                } else {
+                    // Sem o anti-join a consulta só lê quartos, e o resultado pode vir do cache de consultas
+                    RoomDAO.cacheable(query);
+                }
+                if (filters.getRoomType() != null) {
+                    query.setParameter("roomType", filters.getRoomType());
+                }
+                if (filters.getMinCapacity() != null) {
+                    query.setParameter("minCapacity", filters.getMinCapacity());
+                }
+                if (filters.getFloor() != null) {
+                    query.setParameter("floor", filters.getFloor());
+                }
+                if (filters.getMinPricePerNight() != null) {
+                    query.setParameter("minPrice", filters.getMinPricePerNight());
+                }
+                if (filters.getMaxPricePerNight() != null) {
+                    query.setParameter("maxPrice", filters.getMaxPricePerNight());
+                }
+                return query.getResultList();
+            });
+            if (!useIndex) {
+                return rooms;
+            }
+            return rooms.stream()
+                    .filter(room -> occupancyIndex.isFree(room.getRoomId(), checkIn, checkOut))
+                    .toList();
+        });
+    }
+
+    /**
+     * Lista as reservas ativas de um quarto que se sobrepõem a um período, a partir do índice de intervalos.
+     *
+     * @param roomId O ID do quarto.
+     * @param checkIn O início do período.
+     * @param checkOut O fim do período (não inclusivo).
+     * @return As estadias sobrepostas, por ordem de check-in.
+     */
+    public List<BookingStay> findOverlappingBookings(Integer roomId, LocalDate checkIn, LocalDate checkOut) {
+        return LATENCIES.time("BookingService.findOverlappingBookings",
+                () -> loadedIntervalIndex(roomId, checkIn).overlapping(roomId, checkIn, checkOut));
+    }
+
+    /**
+     * Procura a próxima data em que um quarto tem {@code nights} noites livres seguidas.
+     *
+     * @param roomId O ID do quarto.
+     * @param from A data mínima de check-in.
+     * @param nights O número de noites pretendido.
+     * @return A data de check-in da primeira vaga encontrada.
+     */
+    public LocalDate findNextFreeGap(Integer roomId, LocalDate from, int nights) {
+        return LATENCIES.time("BookingService.findNextFreeGap",
+                () -> loadedIntervalIndex(roomId, from).nextFreeGap(roomId, from, nights));
+    }
+
+    /**
+     * Relatório de conflitos para administradores: todos os pares de reservas PENDING/CONFIRMED
+     * do mesmo quarto cujos períodos se sobrepõem, calculado numa única passagem pelo índice.
+     *
+     * @return Os conflitos encontrados.
+     */
+    public List<BookingConflict> findBookingConflicts() {
+        return LATENCIES.time("BookingService.findBookingConflicts", () -> loadedIntervalIndex(null, null).conflicts());
+    }
+
+    // Mantém os índices em memória alinhados com o estado da reserva depois de um commit.
+    // Corre fora do lock da faixa, pelo que duas alterações da mesma reserva podem chegar pela ordem inversa:
+    // os índices comparam a versão e descartam a mais antiga
+    private void indexBooking(Booking booking) {
+        if (booking.getBookingId() == null) {
+            return;
+        }
+        if (ACTIVE_STATUSES.contains(booking.getStatus())) {
+            BookingStay stay = new BookingStay(booking.getBookingId(), booking.getRoom().getRoomId(),
+                    booking.getCheckInDate(), booking.getCheckOutDate());
+            occupancyIndex.put(stay, booking.getVersion());
+            intervalIndex.put(stay, booking.getVersion());
+        } else {
+            occupancyIndex.remove(booking.getBookingId(), booking.getVersion());
+            intervalIndex.remove(booking.getBookingId(), booking.getVersion());
+        }
     }
 
     // NOVO MÉTODO: Listar histórico de reservas de um cliente específico
     public List<Booking> listClientBookings(User user) {
         try {
-            // Certifique-se de que o objeto 'user' esteja em um estado gerenciado, se vier de fora do contexto do EM
-            // Ou você pode buscar o user novamente pelo ID, se houver problemas de estado detached
-            // User managedUser = entityManager.find(User.class, user.getUserId());
-            // if (managedUser == null) {
-            //    return new java.util.ArrayList<>(); // Usuário não encontrado no contexto do EM
-            // }
-
-            // Query para buscar todas as reservas associadas a um usuário
-            return entityManager.createQuery(
+            // Query para buscar todas as reservas associadas a um usuário.
+            // O 'user' pode vir desligado de outra unidade de trabalho: a comparação usa apenas o seu ID.
+            // O quarto vem na mesma consulta (o histórico mostra o número do quarto); o usuário já é conhecido.
+            return LATENCIES.time("BookingService.listClientBookings", () -> UnitOfWork.read(entityManager -> entityManager.createQuery(
                             "SELECT b FROM Booking b WHERE b.user = :user ORDER BY b.checkInDate DESC", Booking.class)
                     .setParameter("user", user)
-                    .getResultList();
+                    .setHint(SpecHints.HINT_SPEC_FETCH_GRAPH, entityManager.getEntityGraph(Booking.GRAPH_WITH_ROOM))
+                    .getResultList()));
         } catch (Exception e) {
             System.err.println("Erro ao listar reservas do cliente " + user.getFullName() + ": " + e.getMessage());
             // e.printStackTrace(); // Para depuração
             return new java.util.ArrayList<>(); // Retorna uma lista vazia em caso de erro
         }
     }
+
+    /**
+     * Histórico de reservas de um cliente para apresentação: só as colunas mostradas, sem entidades geridas.
+     *
+     * @param user O cliente.
+     * @return As linhas do histórico, das mais recentes para as mais antigas (lista vazia em caso de erro).
+     */
+    public List<BookingHistoryRow> listClientBookingHistory(User user) {
+        try {
+            return LATENCIES.time("BookingService.listClientBookingHistory",
+                    () -> UnitOfWork.read(entityManager -> new BookingDAO(entityManager).findHistoryByUserId(user.getUserId())));
+        } catch (Exception e) {
+            System.err.println("Erro ao listar reservas do cliente " + user.getFullName() + ": " + e.getMessage());
+            return new java.util.ArrayList<>();
+        }
+    }
 }
\ No newline at end of file
@@ -0,0 +1,70 @@
+package com.hotel.app.service;
+
+import com.hotel.app.model.RoomType;
+
+/**
+ * Filtros opcionais para a pesquisa de quartos disponíveis.
+ * Um campo a null significa que o filtro correspondente não é aplicado.
+ */
+public class RoomSearchCriteria {
+
+    private RoomType roomType;
+    private Integer minCapacity;
+    private Integer floor;
+    private Double minPricePerNight;
+    private Double maxPricePerNight;
+
+    public RoomSearchCriteria() {}
+
+    /**
+     * Cria um critério sem nenhum filtro (todos os quartos livres nas datas).
+     *
+     * @return Um critério vazio.
+     */
+    public static RoomSearchCriteria any() {
+        return new RoomSearchCriteria();
+    }
+
+    /**
+     * Cria uma cópia destes critérios restrita a um tipo de quarto.
+     *
+     * @param roomType O tipo de quarto.
+     * @return Os novos critérios (estes ficam inalterados).
+     */
+    public RoomSearchCriteria withRoomType(RoomType roomType) {
+        RoomSearchCriteria copy = new RoomSearchCriteria();
+        copy.setRoomType(roomType);
+        copy.setMinCapacity(minCapacity);
+        copy.setFloor(floor);
+        copy.setMinPricePerNight(minPricePerNight);
+        copy.setMaxPricePerNight(maxPricePerNight);
+        return copy;
+    }
+
+    // --- Getters e Setters ---
+    public RoomType getRoomType() {return roomType;}
+    public void setRoomType(RoomType roomType) {this.roomType = roomType;}
+
+    public Integer getMinCapacity() {return minCapacity;}
+    public void setMinCapacity(Integer minCapacity) {this.minCapacity = minCapacity;}
+
+    public Integer getFloor() {return floor;}
+    public void setFloor(Integer floor) {this.floor = floor;}
+
+    public Double getMinPricePerNight() {return minPricePerNight;}
+    public void setMinPricePerNight(Double minPricePerNight) {this.minPricePerNight = minPricePerNight;}
+
+    public Double getMaxPricePerNight() {return maxPricePerNight;}
+    public void setMaxPricePerNight(Double maxPricePerNight) {this.maxPricePerNight = maxPricePerNight;}
+
+    @Override
+    public String toString() {
+        return "RoomSearchCriteria{" +
+                "tipo=" + roomType +
+                ", capacidade mínima=" + minCapacity +
+                ", andar=" + floor +
+                ", preço mínimo=" + minPricePerNight +
+                ", preço máximo=" + maxPricePerNight +
+                '}';
+    }
+}
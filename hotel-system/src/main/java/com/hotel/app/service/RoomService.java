@@ -1,19 +1,28 @@
 package com.hotel.app.service;
 
+import com.hotel.app.concurrency.OptimisticRetryExecutor;
+import com.hotel.app.dao.Page;
 import com.hotel.app.dao.RoomDAO; // Certifique-se de ter essa classe no pacote 'dao'
+import com.hotel.app.dao.SortDirection;
+import com.hotel.app.metrics.LatencyRecorder;
 import com.hotel.app.model.Room;
 import com.hotel.app.model.RoomType;
-import jakarta.persistence.EntityManager;
+import com.hotel.app.util.UnitOfWork;
 
 import java.util.List;
+import java.util.function.Consumer;
 
+/**
+ * Serviço de quartos. Não guarda estado: cada operação abre a sua própria unidade de trabalho,
+ * pelo que a mesma instância pode ser usada por várias sessões ao mesmo tempo.
+ */
 public class RoomService {
 
-    private RoomDAO roomDAO;
+    private static final LatencyRecorder LATENCIES = LatencyRecorder.getDefault();
 
-    public RoomService(EntityManager entityManager) {
-        this.roomDAO = new RoomDAO(entityManager);
-    }
+    private final OptimisticRetryExecutor retryExecutor = OptimisticRetryExecutor.getDefault();
+
+    public RoomService() {}
 
     /**
      * Adiciona um novo quarto ao sistema.
@@ -26,15 +35,17 @@ public class RoomService {
      * @return O objeto Room persistido, ou null se já existir um quarto com o mesmo número.
      */
     public Room addRoom(String roomNumber, RoomType roomType, double pricePerNight, int capacity, int floor, boolean isAvailable) {
-        // Opcional: Verifique se já existe um quarto com o mesmo número antes de adicionar
-        if (roomDAO.getRoomByNumber(roomNumber) != null) {
-            System.out.println("Erro: Já existe um quarto com o número " + roomNumber + ".");
-            return null;
-        }
-
         Room newRoom = new Room(roomNumber, roomType, pricePerNight, capacity, floor, isAvailable);
         try {
-            return roomDAO.addRoom(newRoom);
+            return LATENCIES.time("RoomService.addRoom", () -> UnitOfWork.inTransaction(entityManager -> {
+                RoomDAO roomDAO = new RoomDAO(entityManager);
+                // Opcional: Verifique se já existe um quarto com o mesmo número antes de adicionar
+                if (roomDAO.getRoomByNumber(roomNumber) != null) {
+                    System.out.println("Erro: Já existe um quarto com o número " + roomNumber + ".");
+                    return null;
+                }
+                return roomDAO.addRoom(newRoom);
+            }));
         } catch (Exception e) {
             System.err.println("Erro ao adicionar quarto: " + e.getMessage());
             e.printStackTrace();
@@ -42,13 +53,30 @@ public class RoomService {
         }
     }
 
+    /**
+     * Adiciona vários quartos de uma só vez (por exemplo, ao carregar um novo andar),
+     * com os INSERTs agrupados em lotes, numa única transação.
+     * @param rooms Os quartos a adicionar.
+     * @return O número de quartos adicionados, ou 0 em caso de erro (nenhum é gravado).
+     */
+    public int addRooms(List<Room> rooms) {
+        try {
+            return LATENCIES.time("RoomService.addRooms",
+                    () -> UnitOfWork.inTransaction(entityManager -> new RoomDAO(entityManager).addRooms(rooms)));
+        } catch (Exception e) {
+            System.err.println("Erro ao adicionar quartos em lote: " + e.getMessage());
+            e.printStackTrace();
+            return 0;
+        }
+    }
+
     /**
      * Obtém um quarto pelo seu ID.
      * @param id O ID do quarto.
      * @return O objeto Room, ou null se não encontrado.
      */
     public Room getRoomById(Integer id) {
-        return roomDAO.getRoomById(id);
+        return LATENCIES.time("RoomService.getRoomById", () -> UnitOfWork.read(entityManager -> new RoomDAO(entityManager).getRoomById(id)));
     }
 
     /**
@@ -57,24 +85,79 @@ public class RoomService {
      * @return O objeto Room, ou null se não encontrado.
      */
     public Room getRoomByNumber(String roomNumber) {
-        return roomDAO.getRoomByNumber(roomNumber);
+        return LATENCIES.time("RoomService.getRoomByNumber", () -> UnitOfWork.read(entityManager -> new RoomDAO(entityManager).getRoomByNumber(roomNumber)));
     }
 
 
     /**
      * Obtém uma lista de todos os quartos.
+     * Carrega a tabela inteira: para listagens prefira {@link #getRoomsPage(Integer, int, SortDirection)}.
      * @return Lista de todos os quartos.
      */
     public List<Room> getAllRooms() {
-        return roomDAO.getAllRooms();
+        return LATENCIES.time("RoomService.getAllRooms", () -> UnitOfWork.read(entityManager -> new RoomDAO(entityManager).getAllRooms()));
     }
 
-    // Métodos para atualizar e deletar (serão implementados depois)
+    /**
+     * Obtém uma página de quartos ordenada pelo ID (paginação por cursor).
+     * @param afterId O ID do último quarto da página anterior, ou null para a primeira página.
+     * @param limit O tamanho da página.
+     * @param direction O sentido da ordenação.
+     * @return A página de quartos.
+     */
+    public Page<Room> getRoomsPage(Integer afterId, int limit, SortDirection direction) {
+        return LATENCIES.time("RoomService.getRoomsPage", () -> UnitOfWork.read(entityManager -> new RoomDAO(entityManager).findPage(afterId, limit, direction)));
+    }
+
+    /**
+     * Grava o estado completo de um quarto. Falha (devolve null) se outro utilizador
+     * tiver alterado o quarto depois de ele ter sido lido, ou se mudar o tipo de um quarto que já tem reservas
+     * (as noites vendidas ficam no resumo diário com o tipo da altura da reserva).
+     * @param room O quarto com os dados atualizados.
+     * @return O quarto atualizado, ou null em caso de falha.
+     */
     public Room updateRoom(Room room) {
-        // Implementação em breve
-        return null;
+        try {
+            return LATENCIES.time("RoomService.updateRoom",
+                    () -> UnitOfWork.inTransaction(entityManager -> new RoomDAO(entityManager).updateRoom(room)));
+        } catch (IllegalStateException e) {
+            System.err.println(e.getMessage());
+            return null;
+        } catch (Exception e) {
+            if (OptimisticRetryExecutor.isOptimisticLockFailure(e)) {
+                retryExecutor.recordConflict("Room");
+                System.err.println("O quarto " + room.getRoomNumber() + " foi alterado por outro utilizador. Recarregue-o e tente novamente.");
+                return null;
+            }
+            System.err.println("Erro ao atualizar quarto: " + e.getMessage());
+            e.printStackTrace();
+            return null;
+        }
+    }
+
+    /**
+     * Atualiza um quarto aplicando uma alteração sobre o estado atual, repetindo em caso de conflito.
+     * Cada tentativa corre numa unidade de trabalho nova, que relê o quarto antes de reaplicar a alteração.
+     * @param roomId O ID do quarto.
+     * @param changes A alteração a aplicar (pode ser executada mais de uma vez).
+     * @return O quarto atualizado, ou null em caso de falha (incluindo mudar o tipo de um quarto com reservas).
+     */
+    public Room updateRoom(Integer roomId, Consumer<Room> changes) {
+        try {
+            return LATENCIES.time("RoomService.updateRoomWithRetry", () -> retryExecutor.execute("Room",
+                    () -> UnitOfWork.inTransaction(entityManager -> new RoomDAO(entityManager).applyChanges(roomId, changes))));
+        } catch (IllegalStateException e) {
+            System.err.println(e.getMessage());
+            return null;
+        } catch (Exception e) {
+            System.err.println("Erro ao atualizar quarto: " + e.getMessage());
+            e.printStackTrace();
+            return null;
+        }
     }
 
+    // Método para deletar (será implementado depois)
+
     public void deleteRoom(Integer roomId) {
         // Implementação em breve
     }
@@ -1,19 +1,36 @@
 package com.hotel.app.service;
 
+import com.hotel.app.cache.UserCache;
+import com.hotel.app.concurrency.OptimisticRetryExecutor;
+import com.hotel.app.dao.Page;
+import com.hotel.app.dao.SortDirection;
 import com.hotel.app.dao.UserDAO; // Certifique-se de ter essa classe no pacote 'dao'
+import com.hotel.app.dto.UserSummary;
+import com.hotel.app.metrics.LatencyRecorder;
 import com.hotel.app.model.User;
 import com.hotel.app.model.Role;
-import jakarta.persistence.EntityManager; // Importe EntityManager
+import com.hotel.app.util.UnitOfWork;
 
 import java.time.LocalDate;
 import java.util.List;
+import java.util.concurrent.atomic.AtomicReference;
 
+/**
+ * Serviço de utilizadores. Não guarda estado além do cache de usuários (thread-safe): cada operação abre
+ * a sua própria unidade de trabalho, pelo que a mesma instância pode ser usada por várias sessões ao mesmo tempo.
+ */
 public class UserService {
 
-    private UserDAO userDAO;
+    private static final LatencyRecorder LATENCIES = LatencyRecorder.getDefault();
 
-    public UserService(EntityManager entityManager) {
-        this.userDAO = new UserDAO(entityManager);
+    private final UserCache userCache;
+
+    public UserService() {
+        this(UserCache.getDefault());
+    }
+
+    public UserService(UserCache userCache) {
+        this.userCache = userCache;
     }
 
     /**
@@ -28,23 +45,22 @@ public class UserService {
      * @return O objeto User persistido (com o ID gerado), ou null se o cadastro falhar.
      */
     public User registerUser(String fullName, String email, String phone, LocalDate birthday, String password, Role role) {
-        // Verifica se já existe um usuário com o mesmo e-mail ou telefone
-        if (userDAO.getUserByEmail(email) != null) {
-            System.out.println("Erro: Já existe um usuário cadastrado com este e-mail.");
-            return null;
-        }
-        //  adicionar uma verificação de telefone aqui também
-         //if (userDAO.getUserByPhone(phone) != null) { ... }
-
         User newUser = new User(fullName, email, phone, birthday, role, password);
 
         try {
-
-            User persistedUser = userDAO.addUser(newUser);
+            User persistedUser = LATENCIES.time("UserService.registerUser", () -> UnitOfWork.inTransaction(entityManager -> {
+                UserDAO userDAO = new UserDAO(entityManager);
+                // Verifica se já existe um usuário com o mesmo e-mail ou telefone
+                if (userDAO.getUserByEmail(email) != null) {
+                    System.out.println("Erro: Já existe um usuário cadastrado com este e-mail.");
+                    return null;
+                }
+                //  adicionar uma verificação de telefone aqui também
+                //if (userDAO.getUserByPhone(phone) != null) { ... }
+                return userDAO.addUser(newUser);
+            }));
             if (persistedUser != null) {
                 System.out.println("Usuário " + persistedUser.getFullName() + " cadastrado com sucesso! ID: " + persistedUser.getUserId());
-            } else {
-                System.out.println("Falha ao cadastrar usuário. O DAO retornou nulo após a tentativa de adição.");
             }
             return persistedUser;
         } catch (Exception e) {
@@ -78,35 +94,66 @@ public class UserService {
      * @return O objeto User se a autenticação for bem-sucedida, ou null caso contrário.
      */
     public User authenticateUser(String email, String password) {
-        User user = userDAO.getUserByEmail(email);
-        // ATENÇÃO: Em um sistema real, a senha NUNCA deve ser armazenada como texto puro.
-        // Use uma função de hash (ex: BCrypt) para comparar senhas.
-        if (user != null && user.getPassword().equals(password)) {
-            return user;
-        }
-        return null;
+        return LATENCIES.time("UserService.authenticateUser", () -> {
+            User user = getUserByEmail(email);
+            // ATENÇÃO: Em um sistema real, a senha NUNCA deve ser armazenada como texto puro.
+            // Use uma função de hash (ex: BCrypt) para comparar senhas.
+            if (user != null && user.getPassword().equals(password)) {
+                return user;
+            }
+            return null;
+        });
     }
 
     /**
-     * Busca um usuário pelo email.
+     * Busca um usuário pelo email. A resposta vem do cache de usuários quando possível.
      * @param email O email do usuário a ser buscado.
      * @return O objeto User encontrado, ou null se não for encontrado.
      */
     public User getUserByEmail(String email) {
-        return userDAO.getUserByEmail(email);
+        return LATENCIES.time("UserService.getUserByEmail", () -> userCache.getByEmail(email,
+                key -> UnitOfWork.read(entityManager -> new UserDAO(entityManager).getUserByEmail(key))));
+    }
+
+    /**
+     * Busca um usuário pelo telefone. A resposta vem do cache de usuários quando possível.
+     * @param phone O telefone do usuário a ser buscado.
+     * @return O objeto User encontrado, ou null se não for encontrado.
+     */
+    public User getUserByPhone(String phone) {
+        return LATENCIES.time("UserService.getUserByPhone", () -> userCache.getByPhone(phone,
+                key -> UnitOfWork.read(entityManager -> new UserDAO(entityManager).getUserByPhone(key))));
     }
 
     /**
      * Atualiza os dados de um usuário existente.
+     * Falha (devolve null) se outro utilizador tiver alterado o registo depois de ele ter sido lido.
      * @param user O objeto User com os dados atualizados.
      * @return O objeto User atualizado, ou null em caso de falha.
     */
     public User updateUser(User user) {
+        // Email e telefone antes da alteração: são chaves do cache que deixam de corresponder ao usuário
+        AtomicReference<User> previous = new AtomicReference<>();
         try {
-            return userDAO.updateUser(user);
+            return LATENCIES.time("UserService.updateUser", () -> UnitOfWork.inTransaction(entityManager -> {
+                User stored = entityManager.find(User.class, user.getUserId());
+                if (stored != null) {
+                    previous.set(new User(stored));
+                }
+                return new UserDAO(entityManager).updateUser(user);
+            }));
         } catch (Exception e) {
+            if (OptimisticRetryExecutor.isOptimisticLockFailure(e)) {
+                OptimisticRetryExecutor.getDefault().recordConflict("User");
+                System.err.println("O usuário " + user.getEmail() + " foi alterado por outro utilizador. Recarregue-o e tente novamente.");
+                return null;
+            }
             System.err.println("Erro ao atualizar usuário: " + e.getMessage());
             return null;
+        } finally {
+            // Também em caso de falha: um conflito significa que a cópia em cache pode estar desatualizada
+            userCache.invalidate(user);
+            userCache.invalidate(previous.get());
         }
     }
 
@@ -116,8 +163,20 @@ public class UserService {
      */
     public void deleteUser(Integer userId) {
         try {
-            userDAO.deleteUser(userId);
-            System.out.println("Usuário com ID " + userId + " deletado com sucesso.");
+            AtomicReference<User> removed = new AtomicReference<>();
+            boolean deleted = LATENCIES.time("UserService.deleteUser", () -> UnitOfWork.inTransaction(entityManager -> {
+                User stored = entityManager.find(User.class, userId);
+                if (stored != null) {
+                    removed.set(new User(stored));
+                }
+                return new UserDAO(entityManager).deleteUser(userId);
+            }));
+            userCache.invalidate(removed.get());
+            if (deleted) {
+                System.out.println("Usuário com ID " + userId + " deletado com sucesso.");
+            } else {
+                System.out.println("Usuário com ID " + userId + " não encontrado.");
+            }
         } catch (Exception e) {
             System.err.println("Erro ao deletar usuário: " + e.getMessage());
             e.printStackTrace(); // Para depuração
@@ -126,9 +185,32 @@ public class UserService {
 
     /**
      * Obtém uma lista de todos os usuários cadastrados.
+     * Carrega a tabela inteira: para listagens prefira {@link #getUsersPage(Integer, int, SortDirection)}.
      * @return Uma lista de objetos User.
      */
     public List<User> getAllUsers() {
-        return userDAO.getAllUsers();
+        return LATENCIES.time("UserService.getAllUsers", () -> UnitOfWork.read(entityManager -> new UserDAO(entityManager).getAllUsers()));
+    }
+
+    /**
+     * Obtém uma página de usuários ordenada pelo ID (paginação por cursor).
+     * @param afterId O ID do último usuário da página anterior, ou null para a primeira página.
+     * @param limit O tamanho da página.
+     * @param direction O sentido da ordenação.
+     * @return A página de usuários.
+     */
+    public Page<User> getUsersPage(Integer afterId, int limit, SortDirection direction) {
+        return LATENCIES.time("UserService.getUsersPage", () -> UnitOfWork.read(entityManager -> new UserDAO(entityManager).findPage(afterId, limit, direction)));
+    }
+
+    /**
+     * Obtém uma página da listagem de usuários, só com as colunas mostradas (sem a palavra-passe).
+     * @param afterId O ID do último usuário da página anterior, ou null para a primeira página.
+     * @param limit O tamanho da página.
+     * @param direction O sentido da ordenação.
+     * @return A página de resumos de usuários.
+     */
+    public Page<UserSummary> getUserSummariesPage(Integer afterId, int limit, SortDirection direction) {
+        return LATENCIES.time("UserService.getUserSummariesPage", () -> UnitOfWork.read(entityManager -> new UserDAO(entityManager).findSummaryPage(afterId, limit, direction)));
     }
-}
\ No newline at end of file
+}
@@ -1,8 +1,20 @@
 package com.hotel.app.util;
 
+import com.hotel.app.config.ConnectionPool;
+import com.hotel.app.config.SchemaMigrator;
+import com.hotel.app.metrics.QueryRecordingDataSource;
+import com.hotel.app.metrics.QueryStats;
 import jakarta.persistence.EntityManager;
 import jakarta.persistence.EntityManagerFactory;
 import jakarta.persistence.Persistence;
+import org.hibernate.SessionFactory;
+import org.hibernate.cfg.AvailableSettings;
+import org.hibernate.stat.Statistics;
+
+import javax.sql.DataSource;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
 
 /**
  * Classe utilitária para gerenciar o ciclo de vida do EntityManagerFactory e EntityManager.
@@ -10,17 +22,29 @@ import jakarta.persistence.Persistence;
  */
 public class JpaUtil {
 
-    // O EntityManagerFactory é um recurso pesado e deve ser criado apenas uma vez
-    private static EntityManagerFactory entityManagerFactory;
+    // O EntityManagerFactory é um recurso pesado e deve ser criado apenas uma vez.
+    // É thread-safe e lido por todas as threads que abrem unidades de trabalho (volatile).
+    private static volatile EntityManagerFactory entityManagerFactory;
+    // Arranque em segundo plano iniciado por initAsync(), ou null
+    private static volatile CompletableFuture<Void> bootstrap;
 
     /**
      * Inicializa o EntityManagerFactory.
      * Deve ser chamado uma única vez no início da aplicação.
+     * As conexões são fornecidas pelo pool do ConnectionPool, e não pelo provider interno do Hibernate.
+     * As migrações pendentes do esquema são aplicadas antes, para que a validação do Hibernate as encontre.
+     * As instruções SQL do Hibernate são contabilizadas em {@link QueryStats} (desligável com -Dhotel.queries.stats=false).
      */
-    public static void init() {
+    public static synchronized void init() {
         if (entityManagerFactory == null) {
             try {
-                entityManagerFactory = Persistence.createEntityManagerFactory("hotel_management_unit");
+                DataSource dataSource = ConnectionPool.getDataSource();
+                SchemaMigrator.migrate(dataSource);
+                DataSource jpaDataSource = Boolean.parseBoolean(System.getProperty("hotel.queries.stats", "true"))
+                        ? QueryRecordingDataSource.wrap(dataSource, QueryStats.getDefault())
+                        : dataSource;
+                entityManagerFactory = Persistence.createEntityManagerFactory("hotel_management_unit",
+                        Map.of(AvailableSettings.JAKARTA_NON_JTA_DATASOURCE, jpaDataSource));
                 System.out.println("EntityManagerFactory inicializado com sucesso.");
             } catch (Exception e) {
                 System.err.println("Erro ao inicializar o EntityManagerFactory: " + e.getMessage());
@@ -30,27 +54,90 @@ public class JpaUtil {
         }
     }
 
+    /**
+     * Inicia {@link #init()} numa thread em segundo plano e regressa de imediato, para que a aplicação
+     * possa mostrar o menu enquanto o pool, as migrações e o Hibernate arrancam.
+     * A primeira operação que precise da base de dados espera pelo fim do arranque (ver {@link #getEntityManager()}).
+     *
+     * @return Um future concluído quando o EntityManagerFactory estiver pronto (ou com a falha do arranque).
+     */
+    public static synchronized CompletableFuture<Void> initAsync() {
+        if (bootstrap == null) {
+            bootstrap = entityManagerFactory != null
+                    ? CompletableFuture.completedFuture(null)
+                    : CompletableFuture.runAsync(JpaUtil::init, runnable -> {
+                        Thread thread = new Thread(runnable, "jpa-bootstrap");
+                        thread.setDaemon(true);
+                        thread.start();
+                    });
+        }
+        return bootstrap;
+    }
+
     /**
      * Retorna uma nova instância de EntityManager.
      * EntityManager é leve e deve ser obtido e fechado para cada operação de banco de dados ou transação.
+     * Se o arranque em segundo plano ainda estiver a decorrer, espera que termine.
      *
      * @return Uma instância de EntityManager.
      */
     public static EntityManager getEntityManager() {
-        if (entityManagerFactory == null) {
+        EntityManagerFactory factory = entityManagerFactory;
+        if (factory == null) {
+            awaitBootstrap();
+            factory = entityManagerFactory;
+        }
+        if (factory == null) {
             throw new IllegalStateException("EntityManagerFactory não foi inicializado. Chame JpaUtil.init() primeiro.");
         }
-        return entityManagerFactory.createEntityManager();
+        return factory.createEntityManager();
+    }
+
+    // Espera pelo arranque iniciado por initAsync(), se houver um; uma falha do arranque é relançada
+    private static void awaitBootstrap() {
+        CompletableFuture<Void> pending = bootstrap;
+        if (pending == null) {
+            return;
+        }
+        try {
+            pending.join();
+        } catch (CompletionException e) {
+            throw new IllegalStateException("Falha na inicialização do JPA: " + e.getCause().getMessage(), e.getCause());
+        }
+    }
+
+    /**
+     * Estatísticas do Hibernate (acertos e falhas do cache de segundo nível e do cache de consultas, etc.).
+     *
+     * @return As estatísticas, ou null se o EntityManagerFactory ainda não foi inicializado.
+     */
+    public static Statistics getStatistics() {
+        EntityManagerFactory factory = entityManagerFactory;
+        if (factory == null || !factory.isOpen()) {
+            return null;
+        }
+        return factory.unwrap(SessionFactory.class).getStatistics();
     }
 
     /**
-     * Fecha o EntityManagerFactory quando a aplicação é encerrada.
+     * Fecha o EntityManagerFactory e o pool de conexões quando a aplicação é encerrada.
      * Libera todos os recursos.
      */
     public static void close() {
-        if (entityManagerFactory != null && entityManagerFactory.isOpen()) {
-            entityManagerFactory.close();
-            System.out.println("EntityManagerFactory fechado.");
+        // Um arranque em curso terminaria depois do fecho e deixaria o pool aberto: espera por ele (fora do lock,
+        // que a thread de arranque também usa)
+        CompletableFuture<Void> pending = bootstrap;
+        if (pending != null) {
+            pending.exceptionally(e -> null).join();
+        }
+        synchronized (JpaUtil.class) {
+            if (entityManagerFactory != null && entityManagerFactory.isOpen()) {
+                entityManagerFactory.close();
+                System.out.println("EntityManagerFactory fechado.");
+            }
+            entityManagerFactory = null;
+            bootstrap = null;
+            ConnectionPool.close();
         }
     }
 }
\ No newline at end of file
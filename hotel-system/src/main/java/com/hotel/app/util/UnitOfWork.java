@@ -0,0 +1,114 @@
+package com.hotel.app.util;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityTransaction;
+
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * Unidade de trabalho: cada operação recebe o seu próprio EntityManager, de vida curta,
+ * obtido de {@link JpaUtil#getEntityManager()} e fechado no fim da operação.
+ *
+ * O EntityManager não é thread-safe e o seu contexto de persistência cresce com cada entidade carregada;
+ * por isso nunca é partilhado entre operações nem entre threads. Os serviços limitam-se a abrir uma
+ * unidade de trabalho por chamada e podem ser usados em simultâneo por várias sessões.
+ *
+ * Uma unidade de trabalho aberta dentro de outra, na mesma thread, participa na exterior
+ * (mesmo EntityManager e mesma transação).
+ */
+public final class UnitOfWork {
+
+    // EntityManager da unidade de trabalho em curso nesta thread
+    private static final ThreadLocal<EntityManager> CURRENT = new ThreadLocal<>();
+
+    private static volatile Supplier<EntityManager> entityManagerSupplier = JpaUtil::getEntityManager;
+
+    private UnitOfWork() {}
+
+    /**
+     * Substitui a origem dos EntityManagers (por exemplo, para apontar para outra base de dados em benchmarks).
+     *
+     * @param supplier A função que cria um novo EntityManager.
+     */
+    public static void setEntityManagerSupplier(Supplier<EntityManager> supplier) {
+        entityManagerSupplier = supplier != null ? supplier : JpaUtil::getEntityManager;
+    }
+
+    /**
+     * Executa um trabalho numa transação: commit se terminar normalmente, rollback se lançar uma exceção
+     * (que é propagada ao chamador).
+     *
+     * @param work O trabalho a executar com o EntityManager da unidade.
+     * @return O resultado do trabalho.
+     */
+    public static <T> T inTransaction(Function<EntityManager, T> work) {
+        return execute(work, true);
+    }
+
+    /**
+     * Igual a {@link #inTransaction(Function)}, para trabalhos sem resultado.
+     *
+     * @param work O trabalho a executar com o EntityManager da unidade.
+     */
+    public static void runInTransaction(Consumer<EntityManager> work) {
+        execute(entityManager -> {
+            work.accept(entityManager);
+            return null;
+        }, true);
+    }
+
+    /**
+     * Executa um trabalho só de leitura, sem abrir uma transação.
+     * As entidades devolvidas ficam desligadas (detached) quando o método retorna.
+     *
+     * @param work A consulta a executar com o EntityManager da unidade.
+     * @return O resultado da consulta.
+     */
+    public static <T> T read(Function<EntityManager, T> work) {
+        return execute(work, false);
+    }
+
+    /**
+     * @return true se a thread atual estiver dentro de uma unidade de trabalho.
+     */
+    public static boolean isActive() {
+        return CURRENT.get() != null;
+    }
+
+    private static <T> T execute(Function<EntityManager, T> work, boolean transactional) {
+        EntityManager current = CURRENT.get();
+        if (current != null) {
+            // Participa na unidade de trabalho já aberta nesta thread
+            if (!transactional || current.getTransaction().isActive()) {
+                return work.apply(current);
+            }
+            return applyInTransaction(current, work);
+        }
+
+        EntityManager entityManager = entityManagerSupplier.get();
+        CURRENT.set(entityManager);
+        try {
+            return transactional ? applyInTransaction(entityManager, work) : work.apply(entityManager);
+        } finally {
+            CURRENT.remove();
+            entityManager.close();
+        }
+    }
+
+    private static <T> T applyInTransaction(EntityManager entityManager, Function<EntityManager, T> work) {
+        EntityTransaction transaction = entityManager.getTransaction();
+        transaction.begin();
+        try {
+            T result = work.apply(entityManager);
+            transaction.commit();
+            return result;
+        } catch (RuntimeException | Error e) {
+            if (transaction.isActive()) {
+                transaction.rollback();
+            }
+            throw e;
+        }
+    }
+}
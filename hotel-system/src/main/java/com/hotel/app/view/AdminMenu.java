@@ -1,11 +1,11 @@
 package com.hotel.app.view;
 
+import com.hotel.app.analytics.OccupancyAnalyticsService;
 import com.hotel.app.model.User;
 import com.hotel.app.service.BookingService;
 import com.hotel.app.service.RoomService;
 import com.hotel.app.service.UserService;
 import com.hotel.app.util.Utilities;
-import jakarta.persistence.EntityManager;
 
 import java.util.Scanner;
 
@@ -17,17 +17,21 @@ public class AdminMenu {
     private final Scanner scanner = new Scanner(System.in);
     private UserManagementMenu userManagementMenu;
     private RoomManagementMenu roomManagementMenu;
-    private EntityManager sharedEntityManager;
+    private BookingManagementMenu bookingManagementMenu;
+    private MonitoringMenu monitoringMenu;
+    private AnalyticsMenu analyticsMenu;
 
-    // Construtor para injetar os serviços e o EntityManager
-    public AdminMenu(UserService userService, RoomService roomService, BookingService bookingService, EntityManager sharedEntityManager) {
+    // Construtor para injetar os serviços
+    public AdminMenu(UserService userService, RoomService roomService, BookingService bookingService) {
         this.userService = userService;
         this.roomService = roomService;
         this.bookingService = bookingService;
-        this.sharedEntityManager = sharedEntityManager;
 
-        this.userManagementMenu = new UserManagementMenu(userService, roomService, bookingService, sharedEntityManager);
+        this.userManagementMenu = new UserManagementMenu(userService, roomService, bookingService);
         this.roomManagementMenu = new RoomManagementMenu(roomService);
+        this.bookingManagementMenu = new BookingManagementMenu(roomService, bookingService);
+        this.monitoringMenu = new MonitoringMenu();
+        this.analyticsMenu = new AnalyticsMenu(new OccupancyAnalyticsService());
     }
     // Método para iniciar o menu do administrador (removido 'static')
     public void startAdminMenu(User adminUser) {
@@ -40,6 +44,8 @@ public class AdminMenu {
             System.out.println("1. Gerenciar Quartos");
             System.out.println("2. Gerenciar Usuários");
             System.out.println("3. Gerenciar Reservas");
+            System.out.println("4. Monitoramento do Sistema");
+            System.out.println("5. Relatórios de Ocupação e Receita");
             System.out.println("8. Voltar ao Menu Principal");
 
             choice = Utilities.readIntInput("Sua Escolha: ");
@@ -52,8 +58,13 @@ public class AdminMenu {
                     userManagementMenu.startUserManagementMenu();
                     break;
                 case 3:
-                    System.out.println("\nGerenciar Reservas: Funcionalidade em desenvolvimento!");
-                    Utilities.readNonEmptyString("Pressione Enter para continuar...");
+                    bookingManagementMenu.startBookingManagementMenu();
+                    break;
+                case 4:
+                    monitoringMenu.startMonitoringMenu();
+                    break;
+                case 5:
+                    analyticsMenu.startAnalyticsMenu();
                     break;
                 case 8:
                     System.out.println("Voltando ao menu principal. Até logo!");
@@ -0,0 +1,130 @@
+package com.hotel.app.view;
+
+import com.hotel.app.analytics.AnalyticsDimension;
+import com.hotel.app.analytics.OccupancyAnalyticsService;
+import com.hotel.app.analytics.OccupancyStats;
+import com.hotel.app.util.Utilities;
+
+import java.time.LocalDate;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.List;
+
+public class AnalyticsMenu {
+
+    private static final DateTimeFormatter DATE_FORMAT = DateTimeFormatter.ofPattern("dd/MM/yyyy");
+
+    private final OccupancyAnalyticsService analyticsService;
+
+    public AnalyticsMenu(OccupancyAnalyticsService analyticsService) {
+        this.analyticsService = analyticsService;
+    }
+
+    public void startAnalyticsMenu() {
+        boolean running = true;
+        while (running) {
+            System.out.println("\n--- RELATÓRIOS DE OCUPAÇÃO E RECEITA ---");
+            System.out.println("1. Ocupação por Tipo de Quarto");
+            System.out.println("2. Ocupação por Andar");
+            System.out.println("3. Ocupação Diária (todos os quartos)");
+            System.out.println("4. Reconstruir Resumo Diário de Vendas");
+            System.out.println("8. Voltar ao Painel do Administrador");
+
+            int option = Utilities.readIntInput("Sua Escolha: ");
+
+            switch (option) {
+                case 1:
+                    showSummary(AnalyticsDimension.ROOM_TYPE);
+                    break;
+                case 2:
+                    showSummary(AnalyticsDimension.FLOOR);
+                    break;
+                case 3:
+                    showDaily();
+                    break;
+                case 4:
+                    rebuildDailySummary();
+                    break;
+                case 8:
+                    running = false;
+                    System.out.println("Voltando ao Painel do Administrador...");
+                    break;
+                default:
+                    System.out.println("Opção inválida. Por favor, tente novamente.");
+                    Utilities.readNonEmptyString("Pressione Enter para continuar...");
+            }
+        }
+    }
+
+    private void showSummary(AnalyticsDimension dimension) {
+        LocalDate[] period = readPeriod();
+        long start = System.nanoTime();
+        List<OccupancyStats> daily = analyticsService.dailyStats(period[0], period[1], dimension);
+        List<OccupancyStats> summary = analyticsService.summarizeByGroup(daily);
+        long elapsedMs = (System.nanoTime() - start) / 1_000_000;
+
+        System.out.println("\n--- OCUPAÇÃO POR " + dimension.getLabel().toUpperCase() + " DE " + period[0].format(DATE_FORMAT)
+                + " A " + period[1].minusDays(1).format(DATE_FORMAT) + " ---");
+        System.out.println("----------------------------------------------------------------------------------------");
+        System.out.printf("%-10s %12s %12s %10s %16s %12s %12s%n", dimension.getLabel(), "Noites disp.", "Vendidas", "Ocupação", "Receita (Kz)", "ADR (Kz)", "RevPAR (Kz)");
+        System.out.println("----------------------------------------------------------------------------------------");
+        for (OccupancyStats stats : summary) {
+            if (stats.group() == null) {
+                System.out.println("----------------------------------------------------------------------------------------");
+            }
+            printRow(stats.group() != null ? stats.group() : "TOTAL", stats);
+        }
+        System.out.println("----------------------------------------------------------------------------------------");
+        System.out.println("Relatório calculado em " + elapsedMs + " ms.");
+        Utilities.readNonEmptyString("Pressione Enter para continuar...");
+    }
+
+    private void showDaily() {
+        LocalDate[] period = readPeriod();
+        List<OccupancyStats> days = analyticsService.summarizeByDay(
+                analyticsService.dailyStats(period[0], period[1], AnalyticsDimension.ROOM_TYPE));
+
+        System.out.println("\n--- OCUPAÇÃO DIÁRIA ---");
+        System.out.println("----------------------------------------------------------------------------------------");
+        System.out.printf("%-10s %12s %12s %10s %16s %12s %12s%n", "Dia", "Noites disp.", "Vendidas", "Ocupação", "Receita (Kz)", "ADR (Kz)", "RevPAR (Kz)");
+        System.out.println("----------------------------------------------------------------------------------------");
+        days.forEach(stats -> printRow(stats.day().format(DATE_FORMAT), stats));
+        System.out.println("----------------------------------------------------------------------------------------");
+        Utilities.readNonEmptyString("Pressione Enter para continuar...");
+    }
+
+    private void rebuildDailySummary() {
+        System.out.println("\nA recalcular o resumo diário a partir de todas as reservas...");
+        try {
+            long start = System.nanoTime();
+            int rows = analyticsService.rebuildDailySummary();
+            System.out.println("Resumo reconstruído: " + rows + " linhas (dia, tipo de quarto) em "
+                    + (System.nanoTime() - start) / 1_000_000 + " ms.");
+        } catch (RuntimeException e) {
+            System.out.println("Erro ao reconstruir o resumo: " + e.getMessage());
+        }
+        Utilities.readNonEmptyString("Pressione Enter para continuar...");
+    }
+
+    private static void printRow(String label, OccupancyStats stats) {
+        System.out.printf("%-10s %12d %12d %9.1f%% %16.2f %12.2f %12.2f%n", label, stats.roomNights(), stats.soldNights(),
+                stats.occupancyRate() * 100, stats.revenue(), stats.adr(), stats.revPar());
+    }
+
+    // Lê o período do relatório: o dia final é incluído (devolve o dia seguinte como fim não inclusivo)
+    private static LocalDate[] readPeriod() {
+        while (true) {
+            try {
+                LocalDate from = LocalDate.parse(Utilities.readNonEmptyString("Data inicial (DD/MM/AAAA): "), DATE_FORMAT);
+                LocalDate to = LocalDate.parse(Utilities.readNonEmptyString("Data final (DD/MM/AAAA): "), DATE_FORMAT);
+                if (to.isBefore(from)) {
+                    System.out.println("A data final não pode ser anterior à data inicial.");
+                    continue;
+                }
+                return new LocalDate[] {from, to.plusDays(1)};
+            } catch (DateTimeParseException e) {
+                System.out.println("Formato de data inválido. Por favor, use DD/MM/AAAA.");
+            }
+        }
+    }
+}
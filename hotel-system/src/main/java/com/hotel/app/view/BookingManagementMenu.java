@@ -0,0 +1,187 @@
+package com.hotel.app.view;
+
+import com.hotel.app.dao.SortDirection;
+import com.hotel.app.export.BookingExporter;
+import com.hotel.app.export.ExportFormat;
+import com.hotel.app.export.ExportResult;
+import com.hotel.app.index.BookingConflict;
+import com.hotel.app.model.Booking;
+import com.hotel.app.model.Room;
+import com.hotel.app.service.BookingService;
+import com.hotel.app.service.RoomService;
+import com.hotel.app.util.Utilities;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.time.format.ResolverStyle;
+import java.util.List;
+
+public class BookingManagementMenu {
+
+    private static final DateTimeFormatter DATE_FORMAT = DateTimeFormatter.ofPattern("dd/MM/yyyy");
+
+    private RoomService roomService;
+    private BookingService bookingService;
+
+    public BookingManagementMenu(RoomService rService, BookingService bService) {
+        this.roomService = rService;
+        this.bookingService = bService;
+    }
+
+    public void startBookingManagementMenu() {
+        boolean managing = true;
+        while (managing) {
+            System.out.println("\n--- GERENCIAMENTO DE RESERVAS ---");
+            System.out.println("1. Relatório de Conflitos de Reservas");
+            System.out.println("2. Próxima Vaga Livre de um Quarto");
+            System.out.println("3. Listar Reservas (mais recentes primeiro)");
+            System.out.println("4. Exportar Reservas (CSV/JSON)");
+            System.out.println("8. Voltar ao Painel do Administrador");
+
+            int option = Utilities.readIntInput("Sua Escolha: ");
+
+            switch (option) {
+                case 1:
+                    showConflictReport();
+                    break;
+                case 2:
+                    findNextFreeGap();
+                    break;
+                case 3:
+                    listBookings();
+                    break;
+                case 4:
+                    exportBookings();
+                    break;
+                case 8:
+                    managing = false;
+                    System.out.println("Voltando ao Painel do Administrador...");
+                    break;
+                default:
+                    System.out.println("Opção inválida. Por favor, tente novamente.");
+                    Utilities.readNonEmptyString("Pressione Enter para continuar...");
+            }
+        }
+    }
+
+    private void showConflictReport() {
+        System.out.println("\n--- RELATÓRIO DE CONFLITOS (PENDING/CONFIRMED) ---");
+        List<BookingConflict> conflicts = bookingService.findBookingConflicts();
+
+        if (conflicts.isEmpty()) {
+            System.out.println("Nenhuma reserva sobreposta encontrada.");
+        } else {
+            System.out.println("--------------------------------------------------------------------------");
+            System.out.printf("%-8s %-10s %-25s %-10s %-25s\n", "Quarto", "Reserva", "Período", "Reserva", "Período");
+            System.out.println("--------------------------------------------------------------------------");
+            for (BookingConflict conflict : conflicts) {
+                Room room = roomService.getRoomById(conflict.roomId());
+                System.out.printf("%-8s %-10d %-25s %-10d %-25s\n",
+                        room != null ? room.getRoomNumber() : "#" + conflict.roomId(),
+                        conflict.first().bookingId(),
+                        conflict.first().checkInDate().format(DATE_FORMAT) + " - " + conflict.first().checkOutDate().format(DATE_FORMAT),
+                        conflict.second().bookingId(),
+                        conflict.second().checkInDate().format(DATE_FORMAT) + " - " + conflict.second().checkOutDate().format(DATE_FORMAT));
+            }
+            System.out.println("--------------------------------------------------------------------------");
+            System.out.println("Total de conflitos: " + conflicts.size());
+        }
+        Utilities.readNonEmptyString("Pressione Enter para continuar...");
+    }
+
+    private void findNextFreeGap() {
+        System.out.println("\n--- PRÓXIMA VAGA LIVRE ---");
+        String roomNumber = Utilities.readNonEmptyString("Número do quarto: ");
+        Room room = roomService.getRoomByNumber(roomNumber);
+
+        if (room == null) {
+            System.out.println("Quarto '" + roomNumber + "' não encontrado.");
+            Utilities.readNonEmptyString("Pressione Enter para continuar...");
+            return;
+        }
+
+        LocalDate from = readDate("A partir de (DD/MM/AAAA): ");
+        int nights = Utilities.readIntInput("Número de noites: ");
+        while (nights <= 0) {
+            System.out.println("O número de noites deve ser maior que zero.");
+            nights = Utilities.readIntInput("Número de noites: ");
+        }
+
+        LocalDate gap = bookingService.findNextFreeGap(room.getRoomId(), from, nights);
+        System.out.println("\nO quarto " + room.getRoomNumber() + " está livre de " + gap.format(DATE_FORMAT)
+                + " a " + gap.plusDays(nights).format(DATE_FORMAT) + " (" + nights + " noites).");
+        Utilities.readNonEmptyString("Pressione Enter para continuar...");
+    }
+
+    private void listBookings() {
+        System.out.println("\n--- LISTAR RESERVAS ---");
+        PageNavigator.browse(
+                (afterId, limit) -> bookingService.getBookingsPage(afterId, limit, SortDirection.DESC),
+                Booking::getBookingId,
+                this::printBookings,
+                "Nenhuma reserva encontrada.");
+    }
+
+    private void exportBookings() {
+        System.out.println("\n--- EXPORTAR RESERVAS ---");
+        System.out.println("1. CSV");
+        System.out.println("2. JSON");
+        int formatOption = Utilities.readIntInput("Formato: ");
+        while (formatOption != 1 && formatOption != 2) {
+            System.out.println("Opção inválida. Escolha 1 (CSV) ou 2 (JSON).");
+            formatOption = Utilities.readIntInput("Formato: ");
+        }
+        ExportFormat format = formatOption == 1 ? ExportFormat.CSV : ExportFormat.JSON;
+
+        String example = "reservas-" + LocalDate.now() + "." + format.getFileExtension();
+        Path target = Path.of(Utilities.readNonEmptyString("Ficheiro de destino (ex.: " + example + "): ").trim());
+
+        System.out.println("A exportar reservas para " + target.toAbsolutePath() + "...");
+        try {
+            ExportResult result = new BookingExporter().export(target, format,
+                    rows -> {
+                        if (rows % 100_000 == 0) {
+                            System.out.println("  " + rows + " reservas exportadas...");
+                        }
+                    });
+            System.out.println("Exportação concluída: " + result.rows() + " reservas, " + result.bytes() + " bytes em "
+                    + result.elapsed().toMillis() + " ms (" + String.format("%.0f", result.rowsPerSecond()) + " reservas/s).");
+        } catch (IOException e) {
+            System.out.println("Erro ao escrever o ficheiro " + target + ": " + e.getMessage());
+        } catch (RuntimeException e) {
+            System.err.println("Erro ao exportar as reservas: " + e.getMessage());
+        }
+        Utilities.readNonEmptyString("Pressione Enter para continuar...");
+    }
+
+    private void printBookings(List<Booking> bookings) {
+        System.out.println("------------------------------------------------------------------------------------------------");
+        System.out.printf("%-8s %-25s %-8s %-25s %-10s %-12s\n", "Reserva", "Hóspede", "Quarto", "Período", "Estado", "Total");
+        System.out.println("------------------------------------------------------------------------------------------------");
+        for (Booking booking : bookings) {
+            System.out.printf("%-8d %-25s %-8s %-25s %-10s %-12.2f\n",
+                    booking.getBookingId(),
+                    booking.getUser().getFullName(),
+                    booking.getRoom().getRoomNumber(),
+                    booking.getCheckInDate().format(DATE_FORMAT) + " - " + booking.getCheckOutDate().format(DATE_FORMAT),
+                    booking.getStatus(),
+                    booking.getTotalPrice());
+        }
+        System.out.println("------------------------------------------------------------------------------------------------");
+    }
+
+    private LocalDate readDate(String prompt) {
+        DateTimeFormatter formatter = DATE_FORMAT.withResolverStyle(ResolverStyle.STRICT);
+        while (true) {
+            String input = Utilities.readNonEmptyString(prompt);
+            try {
+                return LocalDate.parse(input.trim(), formatter);
+            } catch (DateTimeParseException e) {
+                System.out.println("Formato de data inválido. Por favor, use DD/MM/AAAA.");
+            }
+        }
+    }
+}
@@ -1,22 +1,26 @@
 package com.hotel.app.view;
 
+import com.hotel.app.dto.BookingHistoryRow;
 import com.hotel.app.model.Booking;
 import com.hotel.app.model.BookingStatus;
 import com.hotel.app.model.Room;
 import com.hotel.app.model.User;
+import com.hotel.app.pricing.PricingEngine;
+import com.hotel.app.pricing.Quote;
+import com.hotel.app.service.AsyncBookingService;
 import com.hotel.app.service.BookingService;
+import com.hotel.app.service.RoomSearchCriteria;
 import com.hotel.app.service.RoomService;
 import com.hotel.app.service.UserService;
 import com.hotel.app.util.Utilities;
-import jakarta.persistence.EntityManager;
 
-import java.math.BigDecimal; // Importar BigDecimal
 import java.time.LocalDate;
 import java.time.format.DateTimeFormatter;
 import java.time.format.DateTimeParseException;
-import java.time.temporal.ChronoUnit;
 import java.util.List;
 import java.util.Scanner;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.TimeoutException;
 
 public class ClientMenu {
 
@@ -24,14 +28,21 @@ public class ClientMenu {
     private static UserService userService;
     private static RoomService roomService;
     private static BookingService bookingService;
-    private static EntityManager sharedEntityManager;
+    private static AsyncBookingService asyncBookingService;
 
-    // Construtor para injetar os serviços e o EntityManager
-    public ClientMenu(UserService userService, RoomService roomService, BookingService bookingService, EntityManager sharedEntityManager) {
+    // Construtor para injetar os serviços
+    public ClientMenu(UserService userService, RoomService roomService, BookingService bookingService) {
         ClientMenu.userService = userService;
         ClientMenu.roomService = roomService;
         ClientMenu.bookingService = bookingService;
-        ClientMenu.sharedEntityManager = sharedEntityManager;
+        ClientMenu.asyncBookingService = new AsyncBookingService(userService, roomService, bookingService);
+    }
+
+    /**
+     * Encerra a fachada assíncrona usada pelo menu. Deve ser chamado à saída da aplicação.
+     */
+    public void close() {
+        asyncBookingService.close();
     }
 
     public void startClientMenu(User currentUser) {
@@ -64,10 +75,7 @@ public class ClientMenu {
     private boolean handleClientMenuOption(int choice, User currentUser) {
         switch (choice) {
             case 1:
-               // makeReservation(currentUser);
-
-                System.out.println("\nFazer reservas: Funcionalidade em desenvolvimento!");
-                Utilities.readNonEmptyString("Pressione Enter para continuar...");
+                makeReservation(currentUser);
                 return true;
             case 2:
                 viewProfile(currentUser);
@@ -104,15 +112,12 @@ public class ClientMenu {
     // --- MÉTODOS DE OPERAÇÕES DO CLIENTE ---
 
     private void makeReservation(User currentUser) {
-
-        /*Utilities.cls();
         System.out.println("\n--- Sua Próxima Estadia Começa Aqui! ---");
         System.out.println("Por favor, informe as datas desejadas para sua reserva.");
         DateTimeFormatter formato = DateTimeFormatter.ofPattern("dd/MM/yyyy");
 
-        // Declare as variáveis 'final' fora do loop para garantir o 'effectively final'
-        final LocalDate checkInDate;
-        final LocalDate checkOutDate;
+        LocalDate checkInDate;
+        LocalDate checkOutDate;
 
         while (true) {
             String dateInStr = Utilities.readNonEmptyString("Data de check-in (DD/MM/AAAA): ");
@@ -133,11 +138,28 @@ public class ClientMenu {
             }
         }
 
+        RoomSearchCriteria criteria = readSearchCriteria();
+
         System.out.println("\n--- Quartos Disponíveis para as Suas Datas ---");
-        List<Room> allRooms = roomService.getAllAvailableRooms();
-        List<Room> availableRooms = allRooms.stream()
-                .filter(room -> bookingService.isRoomAvailable(room.getRoomId(), checkInDate, checkOutDate))
-                .toList();
+        // A pesquisa (uma única consulta, sem verificar quarto a quarto) e o histórico do cliente correm em paralelo
+        AsyncBookingService.ReservationScreen screen;
+        try {
+            screen = asyncBookingService.loadReservationScreen(currentUser, checkInDate, checkOutDate, criteria).join();
+        } catch (CompletionException e) {
+            String reason = e.getCause() instanceof TimeoutException ? "o tempo limite foi excedido." : e.getCause().getMessage();
+            System.out.println("Não foi possível pesquisar os quartos agora: " + reason);
+            Utilities.readNonEmptyString("Pressione Enter para voltar...");
+            return;
+        }
+        List<Room> availableRooms = screen.availableRooms();
+
+        LocalDate desiredCheckIn = checkInDate;
+        LocalDate desiredCheckOut = checkOutDate;
+        screen.history().stream()
+                .filter(booking -> booking.status() == BookingStatus.PENDING || booking.status() == BookingStatus.CONFIRMED)
+                .filter(booking -> booking.checkInDate().isBefore(desiredCheckOut) && booking.checkOutDate().isAfter(desiredCheckIn))
+                .forEach(booking -> System.out.println("Atenção: já tem a reserva " + booking.bookingId() + " (quarto "
+                        + booking.roomNumber() + ") neste período."));
 
         if (availableRooms.isEmpty()) {
             System.out.println("Lamentamos, mas não há quartos disponíveis para o período selecionado.");
@@ -145,24 +167,26 @@ public class ClientMenu {
             Utilities.readNonEmptyString("Pressione Enter para voltar...");
             return;
         } else {
-            System.out.println("ID | Número | Tipo       | Preço por Noite | Status");
-            System.out.println("---------------------------------------------------");
+            // As cotações ficam em cache por tipo e datas: quartos do mesmo tipo não repetem o cálculo
+            System.out.println("ID | Número | Tipo       | Capacidade | Andar | Preço por Noite | Total da Estadia");
+            System.out.println("-----------------------------------------------------------------------------------");
             availableRooms.forEach(room ->
-                    System.out.printf("%-2d | %-6s | %-10s | %-15.2f Kz | %s%n",
+                    System.out.printf("%-2d | %-6s | %-10s | %-10d | %-5d | %-15.2f | %.2f Kz%n",
                             room.getRoomId(),
                             room.getRoomNumber(),
-                            room.getType(),
-                            room.getPrice().doubleValue(),
-                            room.isAvailable() ? "Disponível" : "Ocupado")
+                            room.getRoomType(),
+                            room.getCapacity(),
+                            room.getFloor(),
+                            room.getPricePerNight(),
+                            PricingEngine.getDefault().quote(room, desiredCheckIn, desiredCheckOut).total())
             );
         }
 
         Room selectedRoom = null;
-        Integer roomId = null;
         while (selectedRoom == null) {
             System.out.print("\nDigite o ID do quarto que você deseja reservar: ");
             try {
-                roomId = Integer.parseInt(scanner.nextLine());
+                Integer roomId = Integer.parseInt(scanner.nextLine());
                 selectedRoom = availableRooms.stream()
                         .filter(r -> r.getRoomId().equals(roomId))
                         .findFirst()
@@ -176,23 +200,25 @@ public class ClientMenu {
             }
         }
 
-        long numberOfNights = ChronoUnit.DAYS.between(checkInDate, checkOutDate);
-        BigDecimal totalPrice = selectedRoom.getPrice().multiply(BigDecimal.valueOf(numberOfNights));
+        Quote quote = PricingEngine.getDefault().quote(selectedRoom, checkInDate, checkOutDate);
 
         System.out.println("\n--- Detalhes da Sua Reserva ---");
         System.out.println("Hóspede: " + currentUser.getFullName());
-        System.out.println("Quarto Escolhido: #" + selectedRoom.getRoomNumber() + " (" + selectedRoom.getType() + ")");
+        System.out.println("Quarto Escolhido: #" + selectedRoom.getRoomNumber() + " (" + selectedRoom.getRoomType() + ")");
         System.out.println("Entrada: " + checkInDate.format(formato));
         System.out.println("Saída: " + checkOutDate.format(formato));
-        System.out.println("Total de Noites: " + numberOfNights);
-        System.out.printf("Preço por Noite: %.2f Kz%n", selectedRoom.getPrice().doubleValue());
-        System.out.printf("VALOR TOTAL: %.2f Kz%n", totalPrice.doubleValue());
+        System.out.println("Total de Noites: " + quote.nights());
+        System.out.printf("Subtotal (tarifas de cada noite): %.2f Kz%n", quote.subtotal());
+        if (quote.discount().signum() > 0) {
+            System.out.printf("Desconto de estadia longa (%s%%): -%.2f Kz%n", quote.discountPercent().stripTrailingZeros().toPlainString(), quote.discount());
+        }
+        System.out.printf("VALOR TOTAL: %.2f Kz%n", quote.total());
 
         System.out.print("\nTudo certo? Confirmar esta reserva? (sim/não): ");
         String confirm = scanner.nextLine();
 
         if (confirm.equalsIgnoreCase("sim")) {
-            Booking newBooking = new Booking(currentUser, selectedRoom, checkInDate, checkOutDate, LocalDate.now(), BookingStatus.PENDING, totalPrice.doubleValue());
+            Booking newBooking = new Booking(currentUser, selectedRoom, checkInDate, checkOutDate, LocalDate.now(), BookingStatus.PENDING, quote.total().doubleValue());
 
             try {
                 Booking savedBooking = bookingService.createBooking(newBooking);
@@ -208,7 +234,32 @@ public class ClientMenu {
         }
         Utilities.readNonEmptyString("Pressione Enter para voltar ao Menu do Cliente...");
     }
-        * */
+
+    /**
+     * Pergunta ao cliente se deseja refinar a pesquisa por capacidade, andar ou preço máximo.
+     *
+     * @return Os critérios escolhidos (vazios se o cliente não quiser filtrar).
+     */
+    private RoomSearchCriteria readSearchCriteria() {
+        RoomSearchCriteria criteria = RoomSearchCriteria.any();
+        System.out.print("\nDeseja filtrar por capacidade, andar ou preço? (sim/não): ");
+        if (!scanner.nextLine().trim().equalsIgnoreCase("sim")) {
+            return criteria;
+        }
+
+        int guests = Utilities.readIntInput("Número de hóspedes (0 para ignorar): ");
+        if (guests > 0) {
+            criteria.setMinCapacity(guests);
+        }
+        int floor = Utilities.readIntInput("Andar desejado (-1 para ignorar): ");
+        if (floor >= 0) {
+            criteria.setFloor(floor);
+        }
+        double maxPrice = Utilities.readDoubleInput("Preço máximo por noite (0 para ignorar): ");
+        if (maxPrice > 0) {
+            criteria.setMaxPricePerNight(maxPrice);
+        }
+        return criteria;
     }
 
     private void viewProfile(User user) {
@@ -227,7 +278,7 @@ public class ClientMenu {
     private void listClientBookings(User currentUser) {
         System.out.println("\n--- Seu Histórico de Reservas ---");
         System.out.println("Verifique suas reservas passadas e futuras aqui.");
-        List<Booking> clientBookings = bookingService.listClientBookings(currentUser);
+        List<BookingHistoryRow> clientBookings = bookingService.listClientBookingHistory(currentUser);
 
         if (clientBookings.isEmpty()) {
             System.out.println("\nVocê ainda não possui nenhuma reserva registrada conosco.");
@@ -236,15 +287,15 @@ public class ClientMenu {
             System.out.println("----------------------------------------------------------------------------------");
             System.out.println("ID | Quarto | Check-in    | Check-out    | Data da Reserva | Status   | Total Pago");
             System.out.println("----------------------------------------------------------------------------------");
-            for (Booking booking : clientBookings) {
+            for (BookingHistoryRow booking : clientBookings) {
                 System.out.printf("%-2d | %-6s | %-12s | %-12s | %-15s | %-9s | %.2f Kz%n",
-                        booking.getBookingId(),
-                        booking.getRoom().getRoomNumber(),
-                        booking.getCheckInDate().format(DateTimeFormatter.ofPattern("dd/MM/yyyy")),
-                        booking.getCheckOutDate().format(DateTimeFormatter.ofPattern("dd/MM/yyyy")),
-                        booking.getBookingDate().format(DateTimeFormatter.ofPattern("dd/MM/yyyy")), // Nova coluna
-                        booking.getStatus(),
-                        booking.getTotalPrice());
+                        booking.bookingId(),
+                        booking.roomNumber(),
+                        booking.checkInDate().format(DateTimeFormatter.ofPattern("dd/MM/yyyy")),
+                        booking.checkOutDate().format(DateTimeFormatter.ofPattern("dd/MM/yyyy")),
+                        booking.bookingDate().format(DateTimeFormatter.ofPattern("dd/MM/yyyy")), // Nova coluna
+                        booking.status(),
+                        booking.totalPrice());
             }
             System.out.println("----------------------------------------------------------------------------------");
         }
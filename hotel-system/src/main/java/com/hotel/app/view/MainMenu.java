@@ -6,7 +6,6 @@ import com.hotel.app.service.BookingService;
 import com.hotel.app.service.RoomService;
 import com.hotel.app.service.UserService;
 import com.hotel.app.util.Utilities;
-import jakarta.persistence.EntityManager;
 
 import java.time.LocalDate;
 import java.time.format.DateTimeFormatter; // Esta importação pode ser removida se não for mais usada no MainMenu
@@ -18,20 +17,18 @@ public class MainMenu {
     private static UserService userService;
     private static RoomService roomService;
     private static BookingService bookingService;
-    private static EntityManager sharedEntityManager;
 
     private static ClientMenu clientMenu; // Instância para o menu do cliente
     private static AdminMenu adminMenu;   // Instância para o menu do administrador
 
-    public static void start(UserService uService, RoomService rService, BookingService bService, EntityManager entityManager) {
+    public static void start(UserService uService, RoomService rService, BookingService bService) {
         userService = uService;
         roomService = rService;
         bookingService = bService;
-        sharedEntityManager = entityManager;
 
         // Inicializa as instâncias dos menus específicos, passando as dependências
-        clientMenu = new ClientMenu(userService, roomService, bookingService, sharedEntityManager);
-        MainMenu.adminMenu = new AdminMenu(userService, roomService, bookingService, entityManager);
+        clientMenu = new ClientMenu(userService, roomService, bookingService);
+        MainMenu.adminMenu = new AdminMenu(userService, roomService, bookingService);
 
         boolean running = true;
         while (running) {
@@ -73,6 +70,7 @@ public class MainMenu {
                 Utilities.readNonEmptyString("Pressione Enter para tentar novamente...");
             }
         }
+        clientMenu.close();
         scanner.close();
     }
 
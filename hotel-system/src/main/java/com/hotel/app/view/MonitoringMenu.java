@@ -0,0 +1,231 @@
+package com.hotel.app.view;
+
+import com.hotel.app.cache.UserCache;
+import com.hotel.app.concurrency.OptimisticRetryExecutor;
+import com.hotel.app.config.ConnectionPool;
+import com.hotel.app.metrics.LatencyRecorder;
+import com.hotel.app.metrics.QueryStats;
+import com.hotel.app.model.Room;
+import com.hotel.app.pricing.PricingEngine;
+import com.hotel.app.util.JpaUtil;
+import com.hotel.app.util.Utilities;
+import org.hibernate.stat.CacheRegionStatistics;
+import org.hibernate.stat.Statistics;
+
+import java.util.List;
+import java.util.Map;
+
+public class MonitoringMenu {
+
+    public void startMonitoringMenu() {
+        boolean monitoring = true;
+        while (monitoring) {
+            System.out.println("\n--- MONITORAMENTO DO SISTEMA ---");
+            System.out.println("1. Estado do Pool de Conexões");
+            System.out.println("2. Conflitos de Concorrência");
+            System.out.println("3. Cache de Quartos");
+            System.out.println("4. Cache de Usuários");
+            System.out.println("5. Cache de Cotações (Tarifas)");
+            System.out.println("6. Latência das Operações");
+            System.out.println("7. Consultas SQL Mais Pesadas");
+            System.out.println("8. Voltar ao Painel do Administrador");
+
+            int option = Utilities.readIntInput("Sua Escolha: ");
+
+            switch (option) {
+                case 1:
+                    showConnectionPool();
+                    break;
+                case 2:
+                    showConcurrencyConflicts();
+                    break;
+                case 3:
+                    showRoomCache();
+                    break;
+                case 4:
+                    showUserCache();
+                    break;
+                case 5:
+                    showQuoteCache();
+                    break;
+                case 6:
+                    showLatencies();
+                    break;
+                case 7:
+                    showQueryStats();
+                    break;
+                case 8:
+                    monitoring = false;
+                    System.out.println("Voltando ao Painel do Administrador...");
+                    break;
+                default:
+                    System.out.println("Opção inválida. Por favor, tente novamente.");
+                    Utilities.readNonEmptyString("Pressione Enter para continuar...");
+            }
+        }
+    }
+
+    private void showConnectionPool() {
+        System.out.println("\n--- POOL DE CONEXÕES ---");
+        ConnectionPool.PoolStats stats = ConnectionPool.getStats();
+
+        if (stats == null) {
+            System.out.println("O pool de conexões ainda não foi iniciado.");
+        } else {
+            System.out.println("Conexões ativas:       " + stats.active());
+            System.out.println("Conexões livres:       " + stats.idle());
+            System.out.println("Total de conexões:     " + stats.total() + " (mín. " + stats.minimumIdle() + ", máx. " + stats.maximumPoolSize() + ")");
+            System.out.println("Threads à espera:      " + stats.waiting());
+            if (stats.waiting() > 0) {
+                System.out.println("Aviso: há pedidos à espera de conexão. Considere aumentar pool.maximumPoolSize.");
+            }
+        }
+        Utilities.readNonEmptyString("Pressione Enter para continuar...");
+    }
+
+    private void showConcurrencyConflicts() {
+        System.out.println("\n--- CONFLITOS DE CONCORRÊNCIA (BLOQUEIO OTIMISTA) ---");
+        Map<String, OptimisticRetryExecutor.EntityRetryStats> snapshot = OptimisticRetryExecutor.getDefault().snapshot();
+
+        if (snapshot.isEmpty()) {
+            System.out.println("Nenhum conflito de versão registado desde o arranque.");
+        } else {
+            System.out.println("------------------------------------------------------");
+            System.out.printf("%-12s %-12s %-12s %-12s\n", "Entidade", "Conflitos", "Repetições", "Esgotadas");
+            System.out.println("------------------------------------------------------");
+            for (Map.Entry<String, OptimisticRetryExecutor.EntityRetryStats> entry : snapshot.entrySet()) {
+                OptimisticRetryExecutor.EntityRetryStats stats = entry.getValue();
+                System.out.printf("%-12s %-12d %-12d %-12d\n", entry.getKey(), stats.conflicts(), stats.retries(), stats.exhausted());
+            }
+            System.out.println("------------------------------------------------------");
+        }
+        Utilities.readNonEmptyString("Pressione Enter para continuar...");
+    }
+
+    private void showRoomCache() {
+        System.out.println("\n--- CACHE DE QUARTOS (SEGUNDO NÍVEL) ---");
+        Statistics statistics = JpaUtil.getStatistics();
+
+        if (statistics == null) {
+            System.out.println("O JPA ainda não foi inicializado.");
+        } else if (!statistics.isStatisticsEnabled()) {
+            System.out.println("As estatísticas do Hibernate estão desligadas (hibernate.generate_statistics).");
+        } else {
+            printRegion("Entidade Room", statistics.getDomainDataRegionStatistics(Room.CACHE_REGION));
+            printRegion("Consultas de quartos", statistics.getQueryRegionStatistics(Room.QUERY_CACHE_REGION));
+        }
+        Utilities.readNonEmptyString("Pressione Enter para continuar...");
+    }
+
+    private void showUserCache() {
+        System.out.println("\n--- CACHE DE USUÁRIOS ---");
+        UserCache userCache = UserCache.getDefault();
+        printUserCacheStats("Por email (login)", userCache.emailStats());
+        printUserCacheStats("Por telefone", userCache.phoneStats());
+        Utilities.readNonEmptyString("Pressione Enter para continuar...");
+    }
+
+    private void showQuoteCache() {
+        System.out.println("\n--- CACHE DE COTAÇÕES ---");
+        PricingEngine.Stats stats = PricingEngine.getDefault().stats();
+        System.out.println("Cotações do cache:     " + stats.hits());
+        System.out.println("Cotações calculadas:   " + stats.misses());
+        System.out.println("Remoções:              " + stats.evictions());
+        System.out.println("Em memória:            " + stats.size());
+        System.out.printf("Taxa de acerto:        %s%n", stats.hits() + stats.misses() == 0 ? "-" : String.format("%.1f%%", 100.0 * stats.hitRate()));
+        if (Utilities.readNonEmptyString("Recarregar o ficheiro de tarifas? (sim/não): ").trim().equalsIgnoreCase("sim")) {
+            PricingEngine.getDefault().reload();
+            System.out.println("Tarifas recarregadas; as cotações em cache foram descartadas.");
+        }
+    }
+
+    private void showLatencies() {
+        System.out.println("\n--- LATÊNCIA DAS OPERAÇÕES (DAOs E SERVIÇOS) ---");
+        Map<String, LatencyRecorder.Snapshot> snapshot = LatencyRecorder.getDefault().snapshot();
+
+        if (snapshot.isEmpty()) {
+            System.out.println("Nenhuma operação registada desde o arranque.");
+            Utilities.readNonEmptyString("Pressione Enter para continuar...");
+            return;
+        }
+        System.out.println("---------------------------------------------------------------------------------------------------------------");
+        System.out.printf("%-42s %9s %7s %10s %10s %10s %10s %10s%n", "Operação", "Chamadas", "Erros", "Média (µs)", "p50 (µs)", "p99 (µs)", "p99.9 (µs)", "Máx (µs)");
+        System.out.println("---------------------------------------------------------------------------------------------------------------");
+        snapshot.forEach((operation, stats) -> System.out.printf("%-42s %9d %7d %10.0f %10d %10d %10d %10d%n",
+                operation, stats.count(), stats.errors(), stats.mean(), stats.p50(), stats.p99(), stats.p999(), stats.max()));
+        System.out.println("---------------------------------------------------------------------------------------------------------------");
+        System.out.println("As mesmas métricas estão em JMX (com.hotel.app:type=Latency) e em GET /metrics no modo --http.");
+        if (Utilities.readNonEmptyString("Zerar as métricas? (sim/não): ").trim().equalsIgnoreCase("sim")) {
+            LatencyRecorder.getDefault().reset();
+            System.out.println("Métricas zeradas.");
+        }
+    }
+
+    private void showQueryStats() {
+        System.out.println("\n--- CONSULTAS SQL (POR TEMPO TOTAL DE EXECUÇÃO) ---");
+        QueryStats queryStats = QueryStats.getDefault();
+        Statistics statistics = JpaUtil.getStatistics();
+        if (statistics != null && statistics.isStatisticsEnabled()) {
+            System.out.println("Hibernate: " + statistics.getPrepareStatementCount() + " instruções preparadas, "
+                    + statistics.getQueryExecutionCount() + " consultas JPQL/nativas; a mais lenta demorou "
+                    + statistics.getQueryExecutionMaxTime() + " ms.");
+        }
+        System.out.println("Registo de consultas lentas: " + (queryStats.getSlowThresholdMs() < 0
+                ? "desligado" : "acima de " + queryStats.getSlowThresholdMs() + " ms (hotel.queries.slowMs), em System.err"));
+
+        int limit = Utilities.readIntInput("Quantas consultas mostrar? ");
+        List<QueryStats.QueryStat> top = queryStats.top(Math.max(1, limit));
+        if (top.isEmpty()) {
+            System.out.println("Nenhuma consulta registada desde o arranque.");
+        } else {
+            System.out.println("--------------------------------------------------------------------------------------------");
+            System.out.printf("%-4s %10s %7s %12s %12s %12s %12s%n", "#", "Execuções", "Erros", "Total (ms)", "Média (µs)", "Máx (µs)", "Linhas/exec.");
+            System.out.println("--------------------------------------------------------------------------------------------");
+            for (int i = 0; i < top.size(); i++) {
+                QueryStats.QueryStat stat = top.get(i);
+                System.out.printf("%-4d %10d %7d %12d %12.0f %12d %12.1f%n", i + 1, stat.executions(), stat.errors(),
+                        stat.totalMillis(), stat.meanMicros(), stat.maxMicros(), stat.rowsPerExecution());
+                System.out.println("     " + abbreviate(stat.sql(), 300));
+            }
+            System.out.println("--------------------------------------------------------------------------------------------");
+            System.out.println(queryStats.distinctQueries() + " instruções diferentes registadas."
+                    + (queryStats.untrackedExecutions() > 0 ? " " + queryStats.untrackedExecutions()
+                    + " execuções ficaram de fora (hotel.queries.maxDistinct atingido)." : ""));
+        }
+        if (Utilities.readNonEmptyString("Zerar as estatísticas de consultas? (sim/não): ").trim().equalsIgnoreCase("sim")) {
+            queryStats.reset();
+            System.out.println("Estatísticas de consultas zeradas.");
+        }
+    }
+
+    private static String abbreviate(String text, int maxLength) {
+        return text.length() <= maxLength ? text : text.substring(0, maxLength) + "...";
+    }
+
+    private void printUserCacheStats(String title, UserCache.Stats stats) {
+        System.out.println(title + ":");
+        System.out.println("  Acertos:       " + stats.hits());
+        System.out.println("  Falhas:        " + stats.misses());
+        System.out.println("  Remoções:      " + stats.evictions());
+        System.out.println("  Em memória:    " + stats.size());
+        System.out.printf("  Taxa de acerto: %s%n", stats.hits() + stats.misses() == 0 ? "-" : String.format("%.1f%%", 100.0 * stats.hitRate()));
+    }
+
+    private void printRegion(String title, CacheRegionStatistics region) {
+        System.out.println(title + ":");
+        if (region == null) {
+            System.out.println("  (região ainda não utilizada)");
+            return;
+        }
+        long hits = region.getHitCount();
+        long misses = region.getMissCount();
+        long lookups = hits + misses;
+        System.out.println("  Acertos:       " + hits);
+        System.out.println("  Falhas:        " + misses);
+        System.out.println("  Inserções:     " + region.getPutCount());
+        if (region.getElementCountInMemory() != CacheRegionStatistics.NO_EXTENDED_STAT_SUPPORT_RETURN) {
+            System.out.println("  Em memória:    " + region.getElementCountInMemory());
+        }
+        System.out.printf("  Taxa de acerto: %s%n", lookups == 0 ? "-" : String.format("%.1f%%", 100.0 * hits / lookups));
+    }
+}
@@ -0,0 +1,83 @@
+package com.hotel.app.view;
+
+import com.hotel.app.dao.Page;
+import com.hotel.app.util.Utilities;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.BiFunction;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+/**
+ * Navegação página a página (seguinte/anterior) nas listagens dos menus de administração.
+ * Só uma página está em memória de cada vez; para voltar atrás guarda apenas os cursores
+ * das páginas já visitadas.
+ */
+final class PageNavigator {
+
+    static final int PAGE_SIZE = 20;
+
+    private PageNavigator() {}
+
+    /**
+     * Mostra a listagem página a página até o utilizador sair.
+     *
+     * @param fetchPage Obtém a página seguinte ao cursor indicado (null para a primeira), com o tamanho indicado.
+     * @param cursorOf Extrai o cursor (ID) de um elemento.
+     * @param printPage Imprime os elementos de uma página.
+     * @param emptyMessage A mensagem a mostrar se não houver nenhum elemento.
+     */
+    static <T, K> void browse(BiFunction<K, Integer, Page<T>> fetchPage, Function<T, K> cursorOf,
+                              Consumer<List<T>> printPage, String emptyMessage) {
+        List<K> previousCursors = new ArrayList<>(); // Cursor de início de cada página anterior
+        K cursor = null;
+        int pageNumber = 1;
+
+        while (true) {
+            Page<T> page = fetchPage.apply(cursor, PAGE_SIZE);
+            if (page.isEmpty() && pageNumber == 1) {
+                System.out.println(emptyMessage);
+                Utilities.readNonEmptyString("Pressione Enter para continuar...");
+                return;
+            }
+
+            printPage.accept(page.items());
+            System.out.println("Página " + pageNumber + (page.hasMore() ? "" : " (última)"));
+
+            StringBuilder options = new StringBuilder();
+            if (page.hasMore()) {
+                options.append("[P] Próxima  ");
+            }
+            if (pageNumber > 1) {
+                options.append("[A] Anterior  ");
+            }
+            options.append("[S] Sair");
+
+            String choice = Utilities.readNonEmptyString(options + ": ").trim().toUpperCase();
+            switch (choice) {
+                case "P":
+                    if (page.hasMore()) {
+                        previousCursors.add(cursor);
+                        cursor = cursorOf.apply(page.last());
+                        pageNumber++;
+                    } else {
+                        System.out.println("Esta é a última página.");
+                    }
+                    break;
+                case "A":
+                    if (pageNumber > 1) {
+                        cursor = previousCursors.remove(previousCursors.size() - 1);
+                        pageNumber--;
+                    } else {
+                        System.out.println("Esta é a primeira página.");
+                    }
+                    break;
+                case "S":
+                    return;
+                default:
+                    System.out.println("Opção inválida. Por favor, tente novamente.");
+            }
+        }
+    }
+}
@@ -1,12 +1,13 @@
 package com.hotel.app.view;
 
+import com.hotel.app.dao.SortDirection;
+import com.hotel.app.dto.UserSummary;
 import com.hotel.app.model.Role;
 import com.hotel.app.model.User;
 import com.hotel.app.service.BookingService; // Pode não ser necessário aqui, mas manter por consistência
 import com.hotel.app.service.RoomService;   // Pode não ser necessário aqui, mas manter por consistência
 import com.hotel.app.service.UserService;
 import com.hotel.app.util.Utilities;
-import jakarta.persistence.EntityManager;
 
 import java.time.LocalDate;
 import java.time.format.DateTimeFormatter;
@@ -17,14 +18,12 @@ public class UserManagementMenu {
     private UserService userService;
     private RoomService roomService;
     private BookingService bookingService;
-    private EntityManager sharedEntityManager;
 
 
-    public UserManagementMenu(UserService uService, RoomService rService, BookingService bService, EntityManager em) {
+    public UserManagementMenu(UserService uService, RoomService rService, BookingService bService) {
         this.userService = uService;
         this.roomService = rService;
         this.bookingService = bService;
-        this.sharedEntityManager = em;
     }
 
     public void startUserManagementMenu() {
@@ -71,26 +70,28 @@ public class UserManagementMenu {
 
     private void listAllUsers() {
         System.out.println("\n--- LISTAR TODOS OS USUÁRIOS ---");
-        List<User> users = userService.getAllUsers();
+        // Uma página de cada vez, para que a listagem não carregue a tabela inteira
+        PageNavigator.browse(
+                (afterId, limit) -> userService.getUserSummariesPage(afterId, limit, SortDirection.ASC),
+                UserSummary::userId,
+                this::printUsers,
+                "Nenhum usuário encontrado.");
+    }
 
-        if (users.isEmpty()) {
-            System.out.println("Nenhum usuário encontrado.");
-        } else {
-            System.out.println("--------------------------------------------------------------------------------------------------");
-            System.out.printf("%-5s %-25s %-25s %-15s %-15s %-12s\n", "ID", "Nome Completo", "Email", "Telefone", "Cargo", "Aniversário");
-            System.out.println("--------------------------------------------------------------------------------------------------");
-            for (User user : users) {
-                System.out.printf("%-5d %-25s %-25s %-15s %-15s %-12s\n",
-                        user.getUserId(),
-                        user.getFullName(),
-                        user.getEmail(),
-                        user.getPhone(),
-                        user.getRole(),
-                        user.getBirthday().format(DateTimeFormatter.ofPattern("dd/MM/yyyy")));
-            }
-            System.out.println("--------------------------------------------------------------------------------------------------");
+    private void printUsers(List<UserSummary> users) {
+        System.out.println("--------------------------------------------------------------------------------------------------");
+        System.out.printf("%-5s %-25s %-25s %-15s %-15s %-12s\n", "ID", "Nome Completo", "Email", "Telefone", "Cargo", "Aniversário");
+        System.out.println("--------------------------------------------------------------------------------------------------");
+        for (UserSummary user : users) {
+            System.out.printf("%-5d %-25s %-25s %-15s %-15s %-12s\n",
+                    user.userId(),
+                    user.fullName(),
+                    user.email(),
+                    user.phone(),
+                    user.role(),
+                    user.birthday().format(DateTimeFormatter.ofPattern("dd/MM/yyyy")));
         }
-        Utilities.readNonEmptyString("Pressione Enter para continuar...");
+        System.out.println("--------------------------------------------------------------------------------------------------");
     }
 
     private void searchUserByEmail() {
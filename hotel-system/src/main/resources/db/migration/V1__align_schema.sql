@@ -0,0 +1,128 @@
+-- Esquema base, alinhado com as entidades User, Room e Booking (o Hibernate só valida, não altera o esquema).
+--
+-- Serve três casos, por isso todas as instruções podem ser repetidas:
+--   * base vazia: cria as tabelas;
+--   * base criada pelo antigo hbm2ddl.auto=update: as tabelas já estão corretas e nada muda;
+--   * base criada pelo antigo init.sql do docker-compose: renomeia as colunas (full_name, password_hash,
+--     daily_price, booking_status, ...) para os nomes das entidades e converte os tipos e os valores dos enums.
+
+CREATE TABLE IF NOT EXISTS users (
+    user_id  INTEGER      NOT NULL PRIMARY KEY,
+    fullname VARCHAR(255) NOT NULL,
+    email    VARCHAR(255) NOT NULL UNIQUE,
+    phone    VARCHAR(255) NOT NULL UNIQUE,
+    birthday DATE         NOT NULL,
+    role     VARCHAR(255) NOT NULL,
+    password VARCHAR(255) NOT NULL,
+    version  BIGINT       NOT NULL DEFAULT 0
+);
+
+CREATE TABLE IF NOT EXISTS rooms (
+    room_id         INTEGER          NOT NULL PRIMARY KEY,
+    room_number     VARCHAR(255)     NOT NULL UNIQUE,
+    room_type       VARCHAR(255)     NOT NULL,
+    price_per_night DOUBLE PRECISION NOT NULL,
+    capacity        INTEGER          NOT NULL,
+    floor           INTEGER          NOT NULL,
+    is_available    BOOLEAN          NOT NULL,
+    version         BIGINT           NOT NULL DEFAULT 0
+);
+
+CREATE TABLE IF NOT EXISTS bookings (
+    booking_id     BIGINT           NOT NULL PRIMARY KEY,
+    user_id        INTEGER          NOT NULL REFERENCES users (user_id),
+    room_id        INTEGER          NOT NULL REFERENCES rooms (room_id),
+    check_in_date  DATE             NOT NULL,
+    check_out_date DATE             NOT NULL,
+    booking_date   DATE             NOT NULL,
+    status         VARCHAR(255)     NOT NULL,
+    total_price    DOUBLE PRECISION NOT NULL,
+    version        BIGINT           NOT NULL DEFAULT 0
+);
+
+-- Colunas do init.sql com outro nome: renomeia se a coluna da entidade ainda não existir; se as duas existirem
+-- (o hbm2ddl update acrescentou a nova ao lado da antiga), a antiga deixa de ser obrigatória para não bloquear os INSERTs.
+DO $$
+DECLARE
+    renamed RECORD;
+BEGIN
+    FOR renamed IN
+        SELECT * FROM (VALUES
+            ('users',    'full_name',      'fullname'),
+            ('users',    'date_of_birth',  'birthday'),
+            ('users',    'password_hash',  'password'),
+            ('rooms',    'daily_price',    'price_per_night'),
+            ('bookings', 'booking_status', 'status'),
+            ('bookings', 'total_amount',   'total_price')
+        ) AS legacy (table_name, old_column, new_column)
+    LOOP
+        IF EXISTS (SELECT 1 FROM information_schema.columns
+                   WHERE table_schema = current_schema() AND table_name = renamed.table_name AND column_name = renamed.old_column) THEN
+            IF EXISTS (SELECT 1 FROM information_schema.columns
+                       WHERE table_schema = current_schema() AND table_name = renamed.table_name AND column_name = renamed.new_column) THEN
+                EXECUTE format('ALTER TABLE %I ALTER COLUMN %I DROP NOT NULL', renamed.table_name, renamed.old_column);
+            ELSE
+                EXECUTE format('ALTER TABLE %I RENAME COLUMN %I TO %I', renamed.table_name, renamed.old_column, renamed.new_column);
+            END IF;
+        END IF;
+    END LOOP;
+
+    -- Colunas do init.sql sem correspondência nas entidades: ficam, mas deixam de ser obrigatórias
+    IF EXISTS (SELECT 1 FROM information_schema.columns
+               WHERE table_schema = current_schema() AND table_name = 'rooms' AND column_name = 'maintenance_status') THEN
+        ALTER TABLE rooms ALTER COLUMN maintenance_status DROP NOT NULL;
+    END IF;
+    IF EXISTS (SELECT 1 FROM information_schema.columns
+               WHERE table_schema = current_schema() AND table_name = 'bookings' AND column_name = 'payment_status') THEN
+        ALTER TABLE bookings ALTER COLUMN payment_status DROP NOT NULL;
+    END IF;
+
+    -- is_occupied (init.sql) é o inverso de is_available
+    IF EXISTS (SELECT 1 FROM information_schema.columns
+               WHERE table_schema = current_schema() AND table_name = 'rooms' AND column_name = 'is_occupied')
+       AND NOT EXISTS (SELECT 1 FROM information_schema.columns
+               WHERE table_schema = current_schema() AND table_name = 'rooms' AND column_name = 'is_available') THEN
+        ALTER TABLE rooms ADD COLUMN is_available BOOLEAN;
+        UPDATE rooms SET is_available = NOT is_occupied;
+        ALTER TABLE rooms ALTER COLUMN is_available SET NOT NULL;
+        ALTER TABLE rooms ALTER COLUMN is_occupied DROP NOT NULL;
+    END IF;
+END $$;
+
+-- Colunas das entidades que o init.sql não tinha
+ALTER TABLE users ADD COLUMN IF NOT EXISTS version BIGINT NOT NULL DEFAULT 0;
+ALTER TABLE rooms ADD COLUMN IF NOT EXISTS capacity INTEGER NOT NULL DEFAULT 1;
+ALTER TABLE rooms ADD COLUMN IF NOT EXISTS floor INTEGER NOT NULL DEFAULT 0;
+ALTER TABLE rooms ADD COLUMN IF NOT EXISTS version BIGINT NOT NULL DEFAULT 0;
+ALTER TABLE bookings ADD COLUMN IF NOT EXISTS version BIGINT NOT NULL DEFAULT 0;
+
+-- Tipos: NUMERIC(10,2) e TIMESTAMP do init.sql passam aos tipos mapeados pelas entidades (Double, LocalDate, Long).
+-- Numa base já alinhada estas instruções não reescrevem a tabela, porque o tipo não muda.
+ALTER TABLE rooms ALTER COLUMN price_per_night TYPE DOUBLE PRECISION;
+ALTER TABLE bookings ALTER COLUMN total_price TYPE DOUBLE PRECISION;
+ALTER TABLE bookings ALTER COLUMN booking_date TYPE DATE;
+UPDATE bookings SET booking_date = check_in_date WHERE booking_date IS NULL;
+ALTER TABLE bookings ALTER COLUMN booking_date SET NOT NULL;
+ALTER TABLE bookings ALTER COLUMN booking_id TYPE BIGINT;
+
+-- Valores dos enums: o init.sql usava 'Guest', 'Confirmed', 'Checked-out', ...; as entidades gravam o nome do enum
+DO $$
+BEGIN
+    -- Só a restrição do init.sql (valores 'Guest', ...); a do hbm2ddl, com os nomes do enum, mantém-se
+    IF EXISTS (SELECT 1 FROM pg_constraint
+               WHERE conname = 'users_role_check' AND pg_get_constraintdef(oid) LIKE '%''Guest''%') THEN
+        ALTER TABLE users DROP CONSTRAINT users_role_check;
+    END IF;
+END $$;
+ALTER TABLE rooms DROP CONSTRAINT IF EXISTS rooms_maintenance_status_check;
+ALTER TABLE bookings DROP CONSTRAINT IF EXISTS bookings_booking_status_check;
+UPDATE users SET role = upper(role) WHERE role <> upper(role);
+UPDATE bookings SET status = CASE status
+        WHEN 'Confirmed'   THEN 'CONFIRMED'
+        WHEN 'Pending'     THEN 'PENDING'
+        WHEN 'Cancelled'   THEN 'CANCELLED'
+        WHEN 'Checked-in'  THEN 'CONFIRMED'
+        WHEN 'Checked-out' THEN 'COMPLETED'
+        ELSE status
+    END
+WHERE status IN ('Confirmed', 'Pending', 'Cancelled', 'Checked-in', 'Checked-out');
@@ -0,0 +1,22 @@
+-- Passa a geração de IDs de IDENTITY/SERIAL para sequências com incremento 50 (otimizador "pooled" do Hibernate).
+-- Aplicado pelo Flyway no arranque (SchemaMigrator); pode ser repetido sem efeitos numa base onde já foi
+-- executado à mão, porque apenas reposiciona as sequências acima dos IDs existentes.
+--
+-- Com o otimizador pooled, um nextval que devolve N reserva os IDs N-49..N; por isso a sequência
+-- é posicionada em MAX(id) + 50.
+
+CREATE SEQUENCE IF NOT EXISTS users_seq START WITH 1 INCREMENT BY 50;
+CREATE SEQUENCE IF NOT EXISTS rooms_seq START WITH 1 INCREMENT BY 50;
+CREATE SEQUENCE IF NOT EXISTS bookings_seq START WITH 1 INCREMENT BY 50;
+
+SELECT setval('users_seq', COALESCE(MAX(user_id), 0) + 50, false) FROM users;
+SELECT setval('rooms_seq', COALESCE(MAX(room_id), 0) + 50, false) FROM rooms;
+SELECT setval('bookings_seq', COALESCE(MAX(booking_id), 0) + 50, false) FROM bookings;
+
+-- Remove a geração antiga para que a sequência seja a única fonte de IDs
+ALTER TABLE users ALTER COLUMN user_id DROP IDENTITY IF EXISTS;
+ALTER TABLE rooms ALTER COLUMN room_id DROP IDENTITY IF EXISTS;
+ALTER TABLE bookings ALTER COLUMN booking_id DROP IDENTITY IF EXISTS;
+ALTER TABLE users ALTER COLUMN user_id DROP DEFAULT;
+ALTER TABLE rooms ALTER COLUMN room_id DROP DEFAULT;
+ALTER TABLE bookings ALTER COLUMN booking_id DROP DEFAULT;
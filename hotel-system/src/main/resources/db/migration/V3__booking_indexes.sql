@@ -0,0 +1,14 @@
+-- Índices das consultas de reservas.
+--
+-- Sobreposição de períodos (countOverlappingBookings, isRoomAvailable, findAvailableRooms):
+--   WHERE room_id = ? AND check_in_date < ? AND check_out_date > ?
+-- A igualdade em room_id vem primeiro e as datas completam o índice, pelo que o PostgreSQL resolve o
+-- predicado só com o índice em vez de ler todas as reservas do quarto.
+CREATE INDEX IF NOT EXISTS idx_bookings_room_dates ON bookings (room_id, check_in_date, check_out_date);
+
+-- Histórico de reservas de um cliente (listClientBookings, listClientBookingHistory) e a chave estrangeira
+-- para users, que o PostgreSQL não indexa automaticamente (apagar um usuário percorria a tabela inteira).
+CREATE INDEX IF NOT EXISTS idx_bookings_user ON bookings (user_id);
+
+-- Filtros por estado (reservas ativas PENDING/CONFIRMED ao carregar os índices em memória)
+CREATE INDEX IF NOT EXISTS idx_bookings_status ON bookings (status);
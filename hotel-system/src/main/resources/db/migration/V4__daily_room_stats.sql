@@ -0,0 +1,28 @@
+-- Resumo diário de vendas por tipo de quarto, para os relatórios de ocupação lerem O(dias) linhas em vez de
+-- percorrerem as reservas.
+--
+-- Cada noite de uma reserva vendida (CONFIRMED ou COMPLETED) soma 1 a rooms_sold e a sua parte do preço total
+-- (total_price / noites) a revenue, na linha do dia e do tipo do quarto. O BookingService mantém a tabela na
+-- mesma transação que cria, altera ou apaga a reserva; DailyRoomStatsDAO.rebuild() recalcula-a de raiz.
+-- revenue é NUMERIC sem escala fixa: a parte de cada noite é somada e subtraída sem arredondamentos, pelo que
+-- a manutenção incremental e a reconstrução chegam exatamente ao mesmo valor.
+-- Os quartos disponíveis não são guardados: vêm do inventário atual da tabela rooms.
+
+CREATE TABLE IF NOT EXISTS daily_room_stats (
+    stat_date  DATE         NOT NULL,
+    room_type  VARCHAR(255) NOT NULL,
+    rooms_sold INTEGER      NOT NULL,
+    revenue    NUMERIC      NOT NULL,
+    PRIMARY KEY (stat_date, room_type)
+);
+
+-- Preenche o resumo com as reservas já existentes
+INSERT INTO daily_room_stats (stat_date, room_type, rooms_sold, revenue)
+SELECT b.check_in_date + n.night, r.room_type, COUNT(*),
+       SUM(CAST(b.total_price AS numeric) / (b.check_out_date - b.check_in_date))
+FROM bookings b
+JOIN rooms r ON r.room_id = b.room_id
+CROSS JOIN LATERAL generate_series(0, b.check_out_date - b.check_in_date - 1) AS n(night)
+WHERE b.status IN ('CONFIRMED', 'COMPLETED')
+GROUP BY b.check_in_date + n.night, r.room_type
+ON CONFLICT (stat_date, room_type) DO NOTHING;
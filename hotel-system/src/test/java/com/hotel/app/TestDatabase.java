@@ -0,0 +1,83 @@
+package com.hotel.app;
+
+import com.hotel.app.config.SchemaMigrator;
+import com.hotel.app.util.UnitOfWork;
+import io.zonky.test.db.postgres.embedded.EmbeddedPostgres;
+import jakarta.persistence.EntityManagerFactory;
+import jakarta.persistence.Persistence;
+import org.hibernate.cfg.AvailableSettings;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.Map;
+
+/**
+ * Base de dados para os testes que passam pelos serviços, com o persistence.xml da aplicação.
+ * {@link #open(String)} usa o H2 em memória (modo PostgreSQL) e cria o esquema a partir das entidades;
+ * {@link #openPostgres()} arranca um PostgreSQL local com as migrações Flyway, para o SQL nativo que o H2 não aceita.
+ * Enquanto estiver aberta, as unidades de trabalho (UnitOfWork) usam-na.
+ */
+public final class TestDatabase implements AutoCloseable {
+
+    private final EntityManagerFactory entityManagerFactory;
+    private final EmbeddedPostgres postgres;
+
+    private TestDatabase(EntityManagerFactory entityManagerFactory, EmbeddedPostgres postgres) {
+        this.entityManagerFactory = entityManagerFactory;
+        this.postgres = postgres;
+    }
+
+    /**
+     * @param name O nome da base de dados em memória (um por classe de teste).
+     */
+    public static TestDatabase open(String name) {
+        EntityManagerFactory factory = Persistence.createEntityManagerFactory("hotel_management_unit", Map.of(
+                "jakarta.persistence.jdbc.driver", "org.h2.Driver",
+                "jakarta.persistence.jdbc.url", "jdbc:h2:mem:" + name + ";MODE=PostgreSQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1;LOCK_TIMEOUT=30000",
+                "jakarta.persistence.jdbc.user", "sa",
+                "jakarta.persistence.jdbc.password", "",
+                "hibernate.dialect", "org.hibernate.dialect.H2Dialect",
+                "hibernate.hbm2ddl.auto", "create-drop"));
+        UnitOfWork.setEntityManagerSupplier(factory::createEntityManager);
+        return new TestDatabase(factory, null);
+    }
+
+    /**
+     * Arranca um PostgreSQL numa porta livre, só para este teste, e aplica-lhe as migrações (SchemaMigrator).
+     */
+    public static TestDatabase openPostgres() {
+        EmbeddedPostgres postgres;
+        try {
+            postgres = EmbeddedPostgres.start();
+        } catch (IOException e) {
+            throw new UncheckedIOException("Não foi possível arrancar o PostgreSQL de teste", e);
+        }
+        try {
+            SchemaMigrator.migrate(postgres.getPostgresDatabase());
+            EntityManagerFactory factory = Persistence.createEntityManagerFactory("hotel_management_unit",
+                    Map.of(AvailableSettings.JAKARTA_NON_JTA_DATASOURCE, postgres.getPostgresDatabase()));
+            UnitOfWork.setEntityManagerSupplier(factory::createEntityManager);
+            return new TestDatabase(factory, postgres);
+        } catch (RuntimeException e) {
+            closePostgres(postgres);
+            throw e;
+        }
+    }
+
+    @Override
+    public void close() {
+        UnitOfWork.setEntityManagerSupplier(null);
+        entityManagerFactory.close();
+        if (postgres != null) {
+            closePostgres(postgres);
+        }
+    }
+
+    private static void closePostgres(EmbeddedPostgres postgres) {
+        try {
+            postgres.close();
+        } catch (IOException e) {
+            System.err.println("Erro ao parar o PostgreSQL de teste: " + e.getMessage());
+        }
+    }
+}
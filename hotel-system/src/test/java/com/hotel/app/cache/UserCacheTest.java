@@ -0,0 +1,123 @@
+package com.hotel.app.cache;
+
+import com.hotel.app.TestDatabase;
+import com.hotel.app.model.Role;
+import com.hotel.app.model.User;
+import com.hotel.app.service.UserService;
+import junit.framework.TestCase;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Cache de usuários: o que fica guardado e a invalidação quando o UserService altera ou apaga um usuário
+ * (este último contra uma base de dados H2 em memória).
+ */
+public class UserCacheTest extends TestCase {
+
+    private final UserCache cache = new UserCache(100, Duration.ofMinutes(10));
+
+    public void testLoadsOnceAndReturnsCopies() {
+        AtomicInteger loads = new AtomicInteger();
+        User stored = user(1, "ana@hotel.ao", "923000001");
+
+        User first = cache.getByEmail("ana@hotel.ao", email -> {
+            loads.incrementAndGet();
+            return stored;
+        });
+        first.setFullName("Alterado fora do cache");
+        User second = cache.getByEmail("ana@hotel.ao", email -> {
+            loads.incrementAndGet();
+            return stored;
+        });
+
+        assertEquals(1, loads.get());
+        assertNotSame(first, second);
+        assertEquals("Ana", second.getFullName());
+    }
+
+    public void testMissingUsersAreNotCached() {
+        AtomicInteger loads = new AtomicInteger();
+
+        assertNull(cache.getByEmail("novo@hotel.ao", email -> {
+            loads.incrementAndGet();
+            return null;
+        }));
+        User registered = cache.getByEmail("novo@hotel.ao", email -> {
+            loads.incrementAndGet();
+            return user(2, email, "923000002");
+        });
+
+        assertEquals(2, loads.get());
+        assertEquals(Integer.valueOf(2), registered.getUserId());
+    }
+
+    public void testInvalidateRemovesUserFromBothIndexes() {
+        cache.getByEmail("ana@hotel.ao", email -> user(1, email, "923000001"));
+        cache.getByPhone("923000001", phone -> user(1, "ana@hotel.ao", phone));
+        cache.getByEmail("rui@hotel.ao", email -> user(2, email, "923000002"));
+
+        cache.invalidate(user(1, "ana@hotel.ao", "923000001"));
+
+        assertNull(cache.getByEmail("ana@hotel.ao", email -> null));
+        assertNull(cache.getByPhone("923000001", phone -> null));
+        assertNotNull("Os outros usuários continuam em cache", cache.getByEmail("rui@hotel.ao", email -> null));
+    }
+
+    public void testInvalidateWaitsForLoadInFlight() throws Exception {
+        CountDownLatch loading = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        // Leitura que começou antes do commit e devolve o usuário anterior à alteração
+        Thread reader = new Thread(() -> cache.getByEmail("ana@hotel.ao", email -> {
+            loading.countDown();
+            try {
+                release.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            return user(1, email, "923000001");
+        }));
+        reader.start();
+        assertTrue(loading.await(5, TimeUnit.SECONDS));
+
+        Thread invalidation = new Thread(() -> cache.invalidate(user(1, "ana@hotel.ao", "923000001")));
+        invalidation.start();
+        invalidation.join(200);
+        release.countDown();
+        invalidation.join();
+        reader.join();
+
+        assertNull("A leitura antiga não pode ficar em cache depois da invalidação", cache.getByEmail("ana@hotel.ao", email -> null));
+    }
+
+    public void testServiceInvalidatesOnUpdateAndDelete() {
+        try (TestDatabase database = TestDatabase.open("usercache")) {
+            UserService userService = new UserService(cache);
+            User registered = userService.registerUser("Ana", "ana@hotel.ao", "923000001", LocalDate.of(1990, 1, 1), "Senha@123");
+            // Lidos uma vez para ficarem em cache
+            assertNotNull(userService.getUserByEmail("ana@hotel.ao"));
+            assertNotNull(userService.getUserByPhone("923000001"));
+
+            User changes = userService.getUserByEmail("ana@hotel.ao");
+            changes.setEmail("ana.silva@hotel.ao");
+            changes.setPhone("923000009");
+            assertNotNull(userService.updateUser(changes));
+
+            assertNull("O email antigo não pode continuar a responder", userService.getUserByEmail("ana@hotel.ao"));
+            assertNull(userService.getUserByPhone("923000001"));
+            assertEquals(registered.getUserId(), userService.getUserByEmail("ana.silva@hotel.ao").getUserId());
+
+            userService.deleteUser(registered.getUserId());
+
+            assertNull("Um usuário apagado não pode continuar a entrar", userService.getUserByEmail("ana.silva@hotel.ao"));
+            assertNull(userService.authenticateUser("ana.silva@hotel.ao", "Senha@123"));
+        }
+    }
+
+    private static User user(int userId, String email, String phone) {
+        return new User(userId, "Ana", email, phone, LocalDate.of(1990, 1, 1), Role.GUEST, "Senha@123");
+    }
+}
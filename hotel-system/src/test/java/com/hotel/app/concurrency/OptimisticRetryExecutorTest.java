@@ -0,0 +1,86 @@
+package com.hotel.app.concurrency;
+
+import jakarta.persistence.OptimisticLockException;
+import junit.framework.TestCase;
+import org.hibernate.StaleStateException;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Repetição de alterações em conflito de versão: quando repete, quando desiste e o que não repete.
+ */
+public class OptimisticRetryExecutorTest extends TestCase {
+
+    // Sem espera entre tentativas, para o teste não depender do tempo
+    private final OptimisticRetryExecutor executor = new OptimisticRetryExecutor(3, Duration.ZERO, 2.0, Duration.ZERO);
+
+    public void testRetriesOnOptimisticLockFailure() {
+        AtomicInteger attempts = new AtomicInteger();
+
+        String result = executor.execute("Booking", () -> {
+            if (attempts.incrementAndGet() < 3) {
+                throw new OptimisticLockException("versão alterada");
+            }
+            return "ok";
+        });
+
+        assertEquals("ok", result);
+        assertEquals(3, attempts.get());
+        assertEquals(2, executor.getConflictCount("Booking"));
+        assertEquals(2, executor.getRetryCount("Booking"));
+        assertEquals(0, executor.getExhaustedCount("Booking"));
+    }
+
+    public void testRetriesWhenConflictIsWrapped() {
+        AtomicInteger attempts = new AtomicInteger();
+
+        executor.execute("Room", () -> {
+            if (attempts.incrementAndGet() == 1) {
+                // Como chega do commit: a exceção do Hibernate embrulhada noutra
+                throw new RuntimeException("Erro no commit", new StaleStateException("linha alterada"));
+            }
+            return null;
+        });
+
+        assertEquals(2, attempts.get());
+    }
+
+    public void testGivesUpAfterMaxAttempts() {
+        AtomicInteger attempts = new AtomicInteger();
+
+        try {
+            executor.execute("Booking", () -> {
+                attempts.incrementAndGet();
+                throw new OptimisticLockException("versão alterada");
+            });
+            fail("Esperava OptimisticLockException depois de esgotar as tentativas");
+        } catch (OptimisticLockException e) {
+            assertTrue(e.getCause() instanceof OptimisticLockException);
+        }
+
+        assertEquals(3, attempts.get());
+        assertEquals(3, executor.getConflictCount("Booking"));
+        assertEquals(2, executor.getRetryCount("Booking"));
+        assertEquals(1, executor.getExhaustedCount("Booking"));
+    }
+
+    public void testDoesNotRetryOtherFailures() {
+        AtomicInteger attempts = new AtomicInteger();
+        IllegalStateException failure = new IllegalStateException("quarto indisponível");
+
+        try {
+            executor.execute("Booking", () -> {
+                attempts.incrementAndGet();
+                throw failure;
+            });
+            fail("Esperava a exceção original");
+        } catch (IllegalStateException e) {
+            assertSame(failure, e);
+        }
+
+        assertEquals(1, attempts.get());
+        assertEquals(0, executor.getConflictCount("Booking"));
+        assertTrue(executor.snapshot().isEmpty());
+    }
+}
@@ -0,0 +1,128 @@
+package com.hotel.app.concurrency;
+
+import com.hotel.app.TestDatabase;
+import com.hotel.app.index.BookingIntervalIndex;
+import com.hotel.app.index.OccupancyIndex;
+import com.hotel.app.model.Booking;
+import com.hotel.app.model.BookingStatus;
+import com.hotel.app.model.Role;
+import com.hotel.app.model.Room;
+import com.hotel.app.model.RoomType;
+import com.hotel.app.model.User;
+import com.hotel.app.service.BookingRejectedException;
+import com.hotel.app.service.BookingService;
+import com.hotel.app.util.UnitOfWork;
+import junit.framework.TestCase;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Teste de carga de BookingService.createBooking contra uma base de dados H2 em memória (modo PostgreSQL):
+ * 64 threads tentam reservar períodos aleatórios num pequeno conjunto de quartos. As threads estão divididas por
+ * dois serviços com locks por quarto independentes, como dois processos da aplicação, pelo que entre eles só o
+ * lock da linha do quarto (SELECT ... FOR UPDATE) impede a reserva dupla. No fim a base de dados não pode ter
+ * nenhuma reserva ativa sobreposta. O débito (tentativas por segundo) é mostrado no fim.
+ */
+public class RoomLockStripesStressTest extends TestCase {
+
+    private static final int THREADS = 64;
+    private static final int ATTEMPTS_PER_THREAD = 15;
+    private static final int ROOMS = 4;
+    private static final LocalDate ORIGIN = LocalDate.of(2026, 1, 1);
+
+    private static final String OVERLAPPING_PAIRS_SQL = """
+            SELECT COUNT(*) FROM bookings a
+            JOIN bookings b ON b.room_id = a.room_id AND b.booking_id > a.booking_id
+                AND b.check_in_date < a.check_out_date AND b.check_out_date > a.check_in_date
+            WHERE a.status IN ('PENDING', 'CONFIRMED') AND b.status IN ('PENDING', 'CONFIRMED')
+            """;
+
+    private TestDatabase database;
+
+    @Override
+    protected void setUp() {
+        database = TestDatabase.open("stress");
+    }
+
+    @Override
+    protected void tearDown() {
+        database.close();
+    }
+
+    public void testNoDoubleBookingsUnderContention() throws Exception {
+        User guest = new User("Hospede de Teste", "stress@hotel.ao", "923000000", LocalDate.of(1990, 1, 1), Role.GUEST, "Senha@123");
+        List<Room> rooms = new ArrayList<>();
+        UnitOfWork.runInTransaction(entityManager -> {
+            entityManager.persist(guest);
+            for (int i = 0; i < ROOMS; i++) {
+                Room room = new Room("S" + i, RoomType.values()[0], 100.0, 2, 1, true);
+                entityManager.persist(room);
+                rooms.add(room);
+            }
+        });
+
+        // Dois "processos": cada serviço tem os seus índices e os seus locks por quarto
+        BookingService[] services = new BookingService[2];
+        for (int i = 0; i < services.length; i++) {
+            services[i] = new BookingService(new OccupancyIndex(ORIGIN), new BookingIntervalIndex(), new RoomLockStripes());
+            services[i].rebuildOccupancyIndex();
+        }
+
+        AtomicLong confirmed = new AtomicLong();
+        AtomicLong rejected = new AtomicLong();
+        Queue<Throwable> failures = new ConcurrentLinkedQueue<>();
+        CountDownLatch start = new CountDownLatch(1);
+        ExecutorService pool = Executors.newFixedThreadPool(THREADS);
+
+        for (int t = 0; t < THREADS; t++) {
+            BookingService bookingService = services[t % services.length];
+            pool.submit(() -> {
+                start.await();
+                ThreadLocalRandom random = ThreadLocalRandom.current();
+                for (int i = 0; i < ATTEMPTS_PER_THREAD; i++) {
+                    Room room = rooms.get(random.nextInt(ROOMS));
+                    LocalDate checkIn = ORIGIN.plusDays(random.nextInt(60));
+                    LocalDate checkOut = checkIn.plusDays(1 + random.nextInt(7));
+                    try {
+                        bookingService.createBooking(new Booking(guest, room, checkIn, checkOut, ORIGIN, BookingStatus.PENDING, 100.0));
+                        confirmed.incrementAndGet();
+                    } catch (BookingRejectedException e) {
+                        rejected.incrementAndGet();
+                    } catch (RuntimeException e) {
+                        failures.add(e);
+                    }
+                }
+                return null;
+            });
+        }
+
+        long began = System.nanoTime();
+        start.countDown();
+        pool.shutdown();
+        assertTrue("As threads não terminaram a tempo", pool.awaitTermination(5, TimeUnit.MINUTES));
+        double seconds = (System.nanoTime() - began) / 1_000_000_000.0;
+        System.out.printf("Reservas: %d confirmadas, %d rejeitadas, %.0f tentativas/s com %d threads e %d quartos%n",
+                confirmed.get(), rejected.get(), (confirmed.get() + rejected.get()) / seconds, THREADS, ROOMS);
+
+        assertTrue("Falhas inesperadas: " + failures, failures.isEmpty());
+        assertEquals((long) THREADS * ATTEMPTS_PER_THREAD, confirmed.get() + rejected.get());
+        assertTrue("Nenhuma reserva foi recusada: o teste não chegou a ter conflitos", rejected.get() > 0);
+
+        long stored = UnitOfWork.read(entityManager -> entityManager.createQuery("SELECT COUNT(b) FROM Booking b", Long.class)
+                .getSingleResult());
+        long overlappingPairs = UnitOfWork.read(entityManager -> ((Number) entityManager.createNativeQuery(OVERLAPPING_PAIRS_SQL)
+                .getSingleResult()).longValue());
+        assertEquals(confirmed.get(), stored);
+        assertEquals("Foram encontradas reservas duplicadas na base de dados", 0, overlappingPairs);
+    }
+}
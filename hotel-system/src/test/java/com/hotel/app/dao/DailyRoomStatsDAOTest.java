@@ -0,0 +1,140 @@
+package com.hotel.app.dao;
+
+import com.hotel.app.TestDatabase;
+import com.hotel.app.model.Booking;
+import com.hotel.app.model.BookingStatus;
+import com.hotel.app.model.Role;
+import com.hotel.app.model.Room;
+import com.hotel.app.model.RoomType;
+import com.hotel.app.model.User;
+import com.hotel.app.service.BookingService;
+import com.hotel.app.service.RoomService;
+import com.hotel.app.util.UnitOfWork;
+import junit.framework.TestCase;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * Resumo diário mantido pelo BookingService: depois de cada alteração tem de coincidir com o que
+ * {@link DailyRoomStatsDAO#rebuild()} calcula a partir das reservas. Corre num PostgreSQL local,
+ * porque o SQL do resumo (generate_series, ON CONFLICT) não corre no H2.
+ */
+public class DailyRoomStatsDAOTest extends TestCase {
+
+    private static final RoomType TYPE = RoomType.values()[0];
+    private static final RoomType OTHER_TYPE = RoomType.values()[1];
+    private static final LocalDate ORIGIN = LocalDate.of(2026, 5, 4);
+
+    private TestDatabase database;
+    private BookingService bookingService;
+    private RoomService roomService;
+    private User guest;
+
+    @Override
+    protected void setUp() {
+        database = TestDatabase.openPostgres();
+        bookingService = new BookingService();
+        roomService = new RoomService();
+        guest = UnitOfWork.inTransaction(entityManager -> {
+            User user = new User("Hóspede", "hospede@example.com", "910000000", LocalDate.of(1990, 1, 1),
+                    Role.values()[0], "segredo");
+            entityManager.persist(user);
+            return user;
+        });
+    }
+
+    @Override
+    protected void tearDown() {
+        database.close();
+    }
+
+    public void testIncrementalMaintenanceMatchesRebuild() {
+        Room first = room("101", TYPE);
+        Room second = room("201", OTHER_TYPE);
+
+        // Preço que não se divide exatamente pelas noites
+        Booking moved = create(first, 0, 3, BookingStatus.CONFIRMED, 301.0);
+        Booking cancelled = create(first, 5, 9, BookingStatus.CONFIRMED, 410.0);
+        Booking confirmedLater = create(second, 1, 4, BookingStatus.PENDING, 250.0);
+        Booking deleted = create(second, 6, 8, BookingStatus.COMPLETED, 180.0);
+        assertMatchesRebuild("Depois de criar");
+
+        bookingService.updateBooking(moved.getBookingId(), booking -> {
+            booking.setRoom(second);
+            booking.setCheckInDate(date(10));
+            booking.setCheckOutDate(date(13));
+        });
+        assertMatchesRebuild("Depois de mudar de quarto (e de tipo) e de datas");
+
+        bookingService.updateBooking(confirmedLater.getBookingId(), booking -> booking.setStatus(BookingStatus.CONFIRMED));
+        assertMatchesRebuild("Depois de confirmar");
+
+        bookingService.cancelBooking(cancelled.getBookingId());
+        assertMatchesRebuild("Depois de cancelar");
+
+        bookingService.deleteBooking(deleted.getBookingId());
+        assertMatchesRebuild("Depois de apagar");
+    }
+
+    public void testBookingUsesCurrentTypeOfRoomCopiedBeforeTypeChange() {
+        Room stale = room("301", TYPE);
+        assertNotNull(roomService.updateRoom(stale.getRoomId(), room -> room.setRoomType(OTHER_TYPE)));
+
+        // A cópia ainda tem o tipo antigo; as noites contam no tipo atual
+        create(stale, 0, 2, BookingStatus.CONFIRMED, 200.0);
+
+        assertMatchesRebuild("Reserva criada com uma cópia desatualizada do quarto");
+    }
+
+    public void testTypeOfRoomWithBookingsCannotChange() {
+        Room booked = room("401", TYPE);
+        Room free = room("402", TYPE);
+        create(booked, 0, 2, BookingStatus.CANCELLED, 100.0);
+
+        assertNull("Um quarto com reservas, mesmo canceladas, mantém o tipo",
+                roomService.updateRoom(booked.getRoomId(), room -> room.setRoomType(OTHER_TYPE)));
+        assertEquals(TYPE, roomService.getRoomById(booked.getRoomId()).getRoomType());
+
+        booked.setRoomType(OTHER_TYPE);
+        assertNull(roomService.updateRoom(booked));
+        assertEquals(TYPE, roomService.getRoomById(booked.getRoomId()).getRoomType());
+
+        Room changed = roomService.updateRoom(free.getRoomId(), room -> room.setRoomType(OTHER_TYPE));
+        assertNotNull("Um quarto sem reservas pode mudar de tipo", changed);
+        assertEquals(OTHER_TYPE, roomService.getRoomById(free.getRoomId()).getRoomType());
+    }
+
+    private void assertMatchesRebuild(String message) {
+        List<String> incremental = stats();
+        UnitOfWork.runInTransaction(entityManager -> new DailyRoomStatsDAO(entityManager).rebuild());
+        assertEquals(message, stats(), incremental);
+    }
+
+    // Uma linha por (dia, tipo) com noites vendidas. A manutenção incremental deixa a zero as linhas que
+    // deixaram de ter noites, que o rebuild() não cria; a receita é comparada sem os zeros à direita.
+    @SuppressWarnings("unchecked")
+    private static List<String> stats() {
+        return UnitOfWork.read(entityManager -> ((List<Object[]>) entityManager.createNativeQuery(
+                        "SELECT stat_date, room_type, rooms_sold, revenue FROM daily_room_stats "
+                                + "WHERE rooms_sold <> 0 ORDER BY stat_date, room_type")
+                .getResultList()).stream()
+                .map(row -> row[0] + " " + row[1] + " " + row[2] + " "
+                        + ((BigDecimal) row[3]).stripTrailingZeros().toPlainString())
+                .toList());
+    }
+
+    private Booking create(Room room, int checkInDay, int checkOutDay, BookingStatus status, double totalPrice) {
+        return bookingService.createBooking(new Booking(guest, room, date(checkInDay), date(checkOutDay),
+                ORIGIN, status, totalPrice));
+    }
+
+    private Room room(String number, RoomType type) {
+        return roomService.addRoom(number, type, 100.0, 2, 1, true);
+    }
+
+    private static LocalDate date(int day) {
+        return ORIGIN.plusDays(day);
+    }
+}
@@ -0,0 +1,82 @@
+package com.hotel.app.export;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.hotel.app.TestDatabase;
+import com.hotel.app.model.Booking;
+import com.hotel.app.model.BookingStatus;
+import com.hotel.app.model.Role;
+import com.hotel.app.model.Room;
+import com.hotel.app.model.RoomType;
+import com.hotel.app.model.User;
+import com.hotel.app.util.UnitOfWork;
+import junit.framework.TestCase;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+
+/**
+ * Escape dos campos de texto na exportação de reservas (CSV segundo a RFC 4180 e JSON).
+ */
+public class BookingExporterTest extends TestCase {
+
+    // Nome com tudo o que precisa de escape nos dois formatos
+    private static final String AWKWARD_NAME = "Silva, \"Ana\"\nBarra \\ e tab\t\u0001";
+
+    public void testCsvQuotesOnlyWhenNeeded() {
+        assertEquals("", BookingExporter.csv(null));
+        assertEquals("Ana Silva", BookingExporter.csv("Ana Silva"));
+        assertEquals("\"Silva, Ana\"", BookingExporter.csv("Silva, Ana"));
+        assertEquals("\"Ana \"\"Nita\"\" Silva\"", BookingExporter.csv("Ana \"Nita\" Silva"));
+        assertEquals("\"linha 1\nlinha 2\"", BookingExporter.csv("linha 1\nlinha 2"));
+        assertEquals("\"linha 1\r\n\"", BookingExporter.csv("linha 1\r\n"));
+    }
+
+    public void testJsonEscapesQuotesBackslashesAndControlCharacters() {
+        assertEquals("null", BookingExporter.json(null));
+        assertEquals("\"Ana\"", BookingExporter.json("Ana"));
+        assertEquals("\"diz \\\"ola\\\"\"", BookingExporter.json("diz \"ola\""));
+        assertEquals("\"C:\\\\quartos\"", BookingExporter.json("C:\\quartos"));
+        assertEquals("\"a\\nb\\rc\\td\"", BookingExporter.json("a\nb\rc\td"));
+        assertEquals("\"\\u0001\\u001f\"", BookingExporter.json("\u0001\u001f"));
+        assertEquals("Acentos não são escapados", "\"Conceição\"", BookingExporter.json("Conceição"));
+    }
+
+    public void testExportedFilesReadBackToTheOriginalValues() throws Exception {
+        try (TestDatabase database = TestDatabase.open("export")) {
+            UnitOfWork.runInTransaction(entityManager -> {
+                User user = new User(AWKWARD_NAME, "ana@hotel.ao", "923000001", LocalDate.of(1990, 1, 1), Role.GUEST, "Senha@123");
+                Room room = new Room("1,01", RoomType.values()[0], 100.0, 2, 1, true);
+                entityManager.persist(user);
+                entityManager.persist(room);
+                entityManager.persist(new Booking(user, room, LocalDate.of(2026, 3, 1), LocalDate.of(2026, 3, 3),
+                        LocalDate.of(2026, 2, 1), BookingStatus.CONFIRMED, 12_500_000.0));
+            });
+            BookingExporter exporter = new BookingExporter();
+
+            Path json = Files.createTempFile("reservas", ".json");
+            try {
+                assertEquals(1, exporter.export(json, ExportFormat.JSON).rows());
+                JsonNode rows = new ObjectMapper().readTree(json.toFile());
+                assertEquals(1, rows.size());
+                assertEquals(AWKWARD_NAME, rows.get(0).get("userName").asText());
+                assertEquals("1,01", rows.get(0).get("roomNumber").asText());
+                assertEquals("Sem notação científica", "12500000", rows.get(0).get("totalPrice").asText());
+            } finally {
+                Files.deleteIfExists(json);
+            }
+
+            Path csv = Files.createTempFile("reservas", ".csv");
+            try {
+                assertEquals(1, exporter.export(csv, ExportFormat.CSV).rows());
+                String content = Files.readString(csv, StandardCharsets.UTF_8);
+                assertTrue(content.contains(",\"Silva, \"\"Ana\"\"\nBarra \\ e tab\t\u0001\",ana@hotel.ao,"));
+                assertTrue(content.contains(",\"1,01\",2026-03-01,2026-03-03,2026-02-01,CONFIRMED,12500000\n"));
+            } finally {
+                Files.deleteIfExists(csv);
+            }
+        }
+    }
+}
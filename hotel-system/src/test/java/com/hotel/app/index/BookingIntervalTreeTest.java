@@ -0,0 +1,128 @@
+package com.hotel.app.index;
+
+import junit.framework.TestCase;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Árvore de intervalos de um quarto: limites das estadias, procura de vagas e remoção com rebalanceamento.
+ */
+public class BookingIntervalTreeTest extends TestCase {
+
+    private static final LocalDate ORIGIN = LocalDate.of(2026, 1, 1);
+
+    public void testTouchingStaysDoNotOverlap() {
+        BookingIntervalTree tree = new BookingIntervalTree();
+        BookingStay stay = stay(1, 10, 12);
+        tree.insert(stay);
+
+        // O check-out é exclusivo: quem sai no dia 12 não ocupa a noite de 12
+        assertTrue(tree.overlapping(date(12), date(14)).isEmpty());
+        assertTrue(tree.overlapping(date(8), date(10)).isEmpty());
+        assertEquals(List.of(stay), tree.overlapping(date(11), date(12)));
+        assertEquals(List.of(stay), tree.overlapping(date(9), date(11)));
+    }
+
+    public void testTouchingStaysAreNotConflicts() {
+        BookingIntervalTree tree = new BookingIntervalTree();
+        tree.insert(stay(1, 10, 12));
+        tree.insert(stay(2, 12, 15));
+
+        List<BookingConflict> conflicts = new ArrayList<>();
+        tree.forEachConflict(conflicts::add);
+        assertTrue(conflicts.isEmpty());
+    }
+
+    public void testNextFreeGapJumpsAcrossChainedStays() {
+        BookingIntervalTree tree = new BookingIntervalTree();
+        tree.insert(stay(1, 10, 12));
+        tree.insert(stay(2, 12, 15));
+        tree.insert(stay(3, 15, 16));
+        tree.insert(stay(4, 18, 20));
+
+        assertEquals(date(5), tree.nextFreeGap(date(5), 5));
+        assertEquals("A vaga termina no check-in seguinte", date(16), tree.nextFreeGap(date(10), 2));
+        assertEquals(date(20), tree.nextFreeGap(date(10), 3));
+        assertEquals(date(16), tree.nextFreeGap(date(13), 1));
+    }
+
+    public void testRemovingNodeWithTwoChildrenKeepsMaxEnd() {
+        BookingIntervalTree tree = new BookingIntervalTree();
+        // Check-ins seguidos: a estadia do dia 4 fica na raiz, com os dias 1-3 à esquerda e 5-7 à direita
+        List<BookingStay> stays = new ArrayList<>();
+        for (int day = 1; day <= 7; day++) {
+            int checkOut = switch (day) {
+                case 4 -> 100; // a estadia mais longa é a que é removida
+                case 6 -> 80;  // depois da remoção, o maior check-out passa a estar abaixo do sucessor
+                default -> day + 1;
+            };
+            BookingStay stay = stay(day, day, checkOut);
+            stays.add(stay);
+            tree.insert(stay);
+        }
+
+        assertTrue(tree.remove(stays.get(3)));
+        stays.remove(3);
+
+        assertEquals(6, tree.size());
+        assertTrue(tree.overlapping(date(85), date(90)).isEmpty());
+        assertEquals(List.of(stays.get(4)), tree.overlapping(date(70), date(75)));
+        assertEquals(date(80), tree.nextFreeGap(date(7), 5));
+        assertEquals(stays, tree.toList());
+    }
+
+    public void testStaysWithSameCheckInAreKeptApart() {
+        BookingIntervalTree tree = new BookingIntervalTree();
+        BookingStay first = stay(1, 10, 12);
+        BookingStay second = stay(2, 10, 14);
+        tree.insert(second);
+        tree.insert(first);
+
+        assertEquals(2, tree.size());
+        assertEquals("Mesmo check-in: ordenadas pelo ID da reserva", List.of(first, second), tree.overlapping(date(10), date(11)));
+
+        List<BookingConflict> conflicts = new ArrayList<>();
+        tree.forEachConflict(conflicts::add);
+        assertEquals(List.of(new BookingConflict(first, second)), conflicts);
+
+        assertTrue(tree.remove(first));
+        assertFalse(tree.remove(first));
+        assertEquals(List.of(second), tree.overlapping(date(10), date(11)));
+    }
+
+    public void testMatchesLinearScanAfterRandomInsertsAndRemoves() {
+        Random random = new Random(3);
+        BookingIntervalTree tree = new BookingIntervalTree();
+        List<BookingStay> expected = new ArrayList<>();
+        for (long id = 1; id <= 300; id++) {
+            int checkIn = random.nextInt(200);
+            BookingStay stay = stay(id, checkIn, checkIn + 1 + random.nextInt(10));
+            tree.insert(stay);
+            expected.add(stay);
+            if (random.nextInt(3) == 0) {
+                BookingStay removed = expected.remove(random.nextInt(expected.size()));
+                assertTrue(tree.remove(removed));
+            }
+        }
+
+        assertEquals(expected.size(), tree.size());
+        for (int from = 0; from < 210; from += 3) {
+            LocalDate checkIn = date(from);
+            LocalDate checkOut = date(from + 4);
+            List<BookingStay> scan = expected.stream().filter(stay -> stay.overlaps(checkIn, checkOut)).toList();
+            assertEquals(scan.size(), tree.overlapping(checkIn, checkOut).size());
+            assertTrue(tree.overlapping(checkIn, checkOut).containsAll(scan));
+        }
+    }
+
+    private static BookingStay stay(long bookingId, int checkInDay, int checkOutDay) {
+        return new BookingStay(bookingId, 1, date(checkInDay), date(checkOutDay));
+    }
+
+    private static LocalDate date(int day) {
+        return ORIGIN.plusDays(day);
+    }
+}
@@ -0,0 +1,81 @@
+package com.hotel.app.index;
+
+import junit.framework.TestCase;
+
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * Reconstrução dos índices com alterações a chegar durante a leitura da base de dados.
+ */
+public class IndexRebuildTest extends TestCase {
+
+    private static final LocalDate ORIGIN = LocalDate.of(2026, 1, 1);
+
+    public void testOccupancyIndexDoesNotAnswerUntilRebuildCompletes() {
+        OccupancyIndex index = new OccupancyIndex(ORIGIN);
+        assertFalse(index.covers(ORIGIN));
+
+        index.beginRebuild();
+        assertFalse(index.covers(ORIGIN));
+        index.rebuild(List.of());
+        assertTrue(index.covers(ORIGIN));
+
+        index.beginRebuild();
+        assertFalse("Durante uma nova reconstrução o índice volta à base de dados", index.covers(ORIGIN));
+    }
+
+    public void testChangesDuringRebuildAreAppliedOverTheSnapshot() {
+        OccupancyIndex occupancy = new OccupancyIndex(ORIGIN);
+        BookingIntervalIndex intervals = new BookingIntervalIndex();
+        BookingStay cancelled = stay(1, 1, 10, 12);
+        BookingStay created = stay(2, 1, 20, 22);
+        BookingStay moved = stay(3, 2, 5, 7);
+
+        occupancy.beginRebuild();
+        intervals.beginRebuild();
+        // Alterações feitas depois da leitura: não constam das estadias lidas
+        for (BookingStay stay : List.of(created, stay(3, 2, 8, 9))) {
+            occupancy.put(stay);
+            intervals.put(stay);
+        }
+        occupancy.remove(cancelled.bookingId());
+        intervals.remove(cancelled.bookingId());
+        assertEquals("As alterações ficam guardadas até ao fim da reconstrução", 0, occupancy.size());
+
+        List<BookingStay> snapshot = List.of(cancelled, moved);
+        occupancy.rebuild(snapshot);
+        intervals.rebuild(snapshot);
+
+        assertEquals(2, occupancy.size());
+        assertTrue(occupancy.isFree(1, date(10), date(12)));
+        assertFalse(occupancy.isFree(1, date(20), date(21)));
+        assertTrue("A estadia lida foi substituída pela alteração posterior", occupancy.isFree(2, date(5), date(7)));
+        assertFalse(occupancy.isFree(2, date(8), date(9)));
+
+        assertTrue(intervals.isLoaded());
+        assertEquals(List.of(created), intervals.overlapping(1, date(0), date(60)));
+        assertEquals(List.of(stay(3, 2, 8, 9)), intervals.overlapping(2, date(0), date(60)));
+    }
+
+    public void testCancelledRebuildKeepsChangesButLeavesIndexUnloaded() {
+        BookingIntervalIndex intervals = new BookingIntervalIndex();
+        intervals.beginRebuild();
+        intervals.put(stay(1, 1, 10, 12));
+        intervals.cancelRebuild();
+
+        assertFalse(intervals.isLoaded());
+        assertEquals(1, intervals.size());
+        // Depois de abandonada, as alterações voltam a ser aplicadas diretamente
+        intervals.put(stay(2, 1, 14, 15));
+        assertEquals(2, intervals.size());
+    }
+
+    private static BookingStay stay(long bookingId, int roomId, int checkInDay, int checkOutDay) {
+        return new BookingStay(bookingId, roomId, date(checkInDay), date(checkOutDay));
+    }
+
+    private static LocalDate date(int day) {
+        return ORIGIN.plusDays(day);
+    }
+}
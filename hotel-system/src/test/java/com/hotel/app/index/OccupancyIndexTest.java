@@ -0,0 +1,134 @@
+package com.hotel.app.index;
+
+import junit.framework.TestCase;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CyclicBarrier;
+
+/**
+ * Índice de ocupação por noites: quando pode responder, limites das estadias, substituição de uma estadia
+ * e alterações da mesma reserva em simultâneo ou fora de ordem.
+ */
+public class OccupancyIndexTest extends TestCase {
+
+    private static final LocalDate ORIGIN = LocalDate.of(2026, 1, 1);
+
+    public void testCoversOnlyLoadedIndexFromOrigin() {
+        OccupancyIndex index = new OccupancyIndex(ORIGIN);
+        assertFalse("Antes de carregado o índice não responde", index.covers(ORIGIN.plusDays(10)));
+
+        index.rebuild(List.of());
+        assertTrue(index.covers(ORIGIN));
+        assertTrue(index.covers(ORIGIN.plusYears(5)));
+        assertFalse("Noites antes da origem não estão no índice", index.covers(ORIGIN.minusDays(1)));
+    }
+
+    public void testCheckOutNightIsFree() {
+        OccupancyIndex index = loaded(stay(1, 1, 10, 12));
+
+        assertFalse(index.isFree(1, date(10), date(11)));
+        assertFalse(index.isFree(1, date(11), date(12)));
+        assertFalse(index.isFree(1, date(9), date(11)));
+        assertTrue("O dia de check-out fica livre para a reserva seguinte", index.isFree(1, date(12), date(14)));
+        assertTrue("A saída no dia do check-in não se sobrepõe", index.isFree(1, date(8), date(10)));
+        assertTrue("Outro quarto não é afetado", index.isFree(2, date(10), date(12)));
+    }
+
+    public void testPutReplacesMovedStay() {
+        OccupancyIndex index = loaded(stay(1, 1, 10, 12));
+
+        index.put(stay(1, 2, 20, 22));
+
+        assertEquals(1, index.size());
+        assertTrue("A estadia anterior deixa de ocupar o quarto", index.isFree(1, date(10), date(12)));
+        assertFalse(index.isFree(2, date(20), date(22)));
+    }
+
+    public void testMovingStayKeepsNightsOfOtherStays() {
+        OccupancyIndex index = loaded(stay(1, 1, 10, 14), stay(2, 1, 12, 16));
+
+        index.put(stay(2, 1, 30, 32));
+
+        assertFalse("As noites 12 e 13 continuam ocupadas pela reserva 1", index.isFree(1, date(12), date(14)));
+        assertTrue(index.isFree(1, date(14), date(16)));
+        assertFalse(index.isFree(1, date(30), date(31)));
+        assertEquals(List.of(2), index.freeRooms(List.of(1, 2), date(30), date(31)));
+    }
+
+    public void testRemoveFreesNights() {
+        OccupancyIndex index = loaded(stay(1, 1, 10, 12));
+
+        index.remove(1L);
+        index.remove(99L);
+
+        assertEquals(0, index.size());
+        assertTrue(index.isFree(1, date(10), date(12)));
+    }
+
+    public void testOlderVersionArrivingLateIsIgnored() {
+        OccupancyIndex index = loaded();
+
+        index.put(stay(1, 1, 20, 22), 2);
+        index.put(stay(1, 1, 10, 12), 1);
+
+        assertTrue("A versão 1 chegou depois da 2 e não pode repor as noites antigas", index.isFree(1, date(10), date(12)));
+        assertFalse(index.isFree(1, date(20), date(22)));
+
+        index.remove(1L, 3);
+        index.put(stay(1, 1, 20, 22), 2);
+        assertEquals("Uma alteração atrasada não reativa uma reserva cancelada", 0, index.size());
+
+        index.put(stay(2, 1, 30, 32), 0);
+        index.remove(2L, OccupancyIndex.DELETED);
+        index.put(stay(2, 1, 30, 32), 5);
+        assertTrue(index.isFree(1, date(30), date(32)));
+    }
+
+    public void testConcurrentPutsOfSameBookingLeaveNoPhantomNights() throws Exception {
+        OccupancyIndex index = loaded();
+        int threads = 8;
+        CyclicBarrier start = new CyclicBarrier(threads);
+        List<Thread> workers = new ArrayList<>();
+        for (int t = 0; t < threads; t++) {
+            int offset = t * 10;
+            Thread worker = new Thread(() -> {
+                try {
+                    start.await();
+                } catch (Exception e) {
+                    throw new IllegalStateException(e);
+                }
+                for (int i = 0; i < 2_000; i++) {
+                    index.put(stay(1, 1 + (i + offset) % 3, offset, offset + 2));
+                }
+            });
+            workers.add(worker);
+            worker.start();
+        }
+        for (Thread worker : workers) {
+            worker.join();
+        }
+
+        // Só a última estadia pode ocupar noites; todas as outras têm de estar livres
+        index.remove(1L);
+        assertEquals(0, index.size());
+        for (int room = 1; room <= 3; room++) {
+            assertTrue("Noites marcadas sem estadia no quarto " + room, index.isFree(room, date(0), date(threads * 10 + 2)));
+        }
+    }
+
+    private static OccupancyIndex loaded(BookingStay... stays) {
+        OccupancyIndex index = new OccupancyIndex(ORIGIN);
+        index.rebuild(List.of(stays));
+        return index;
+    }
+
+    private static BookingStay stay(long bookingId, int roomId, int checkInDay, int checkOutDay) {
+        return new BookingStay(bookingId, roomId, date(checkInDay), date(checkOutDay));
+    }
+
+    private static LocalDate date(int day) {
+        return ORIGIN.plusDays(day);
+    }
+}
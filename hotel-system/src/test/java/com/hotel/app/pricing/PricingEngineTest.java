@@ -0,0 +1,77 @@
+package com.hotel.app.pricing;
+
+import com.hotel.app.model.RoomType;
+import junit.framework.TestCase;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.LocalDate;
+
+/**
+ * Cotações do PricingEngine: chave do cache, desconto por duração e troca de calendário.
+ */
+public class PricingEngineTest extends TestCase {
+
+    // O primeiro tipo tem tarifa própria; o último usa o preço por noite do quarto
+    private static final RoomType OWN_RATES = RoomType.values()[0];
+    private static final RoomType ROOM_PRICED = RoomType.values()[RoomType.values().length - 1];
+    private static final LocalDate CHECK_IN = LocalDate.of(2026, 3, 2); // segunda-feira
+    private static final LocalDate CHECK_OUT = CHECK_IN.plusDays(2);
+
+    public void testTypeWithOwnRateSharesQuoteAcrossRoomPrices() {
+        PricingEngine engine = engine(RateCalendarTest.calendar(OWN_RATES.name() + ".weekday=250.00"));
+
+        Quote first = engine.quote(OWN_RATES, new BigDecimal("100.00"), CHECK_IN, CHECK_OUT);
+        Quote second = engine.quote(OWN_RATES, new BigDecimal("180.00"), CHECK_IN, CHECK_OUT);
+
+        assertSame(first, second);
+        assertEquals(new BigDecimal("500.00"), second.total());
+        assertEquals(1, engine.stats().hits());
+        assertEquals(1, engine.stats().misses());
+    }
+
+    public void testTypeWithoutOwnRateIsKeyedByRoomPrice() {
+        PricingEngine engine = engine(RateCalendarTest.calendar(OWN_RATES.name() + ".weekday=250.00"));
+
+        Quote cheap = engine.quote(ROOM_PRICED, new BigDecimal("100.00"), CHECK_IN, CHECK_OUT);
+        Quote expensive = engine.quote(ROOM_PRICED, new BigDecimal("180.00"), CHECK_IN, CHECK_OUT);
+
+        assertEquals(new BigDecimal("200.00"), cheap.total());
+        assertEquals("Quartos do mesmo tipo com preços diferentes não partilham a cotação",
+                new BigDecimal("360.00"), expensive.total());
+        assertSame(cheap, engine.quote(ROOM_PRICED, new BigDecimal("100.00"), CHECK_IN, CHECK_OUT));
+    }
+
+    public void testLengthOfStayDiscount() {
+        PricingEngine engine = engine(RateCalendarTest.calendar("los.7=10"));
+
+        Quote quote = engine.quote(ROOM_PRICED, new BigDecimal("100.00"), CHECK_IN, CHECK_IN.plusDays(7));
+
+        assertEquals(7, quote.nights());
+        assertEquals(new BigDecimal("700.00"), quote.subtotal());
+        assertEquals(new BigDecimal("70.00"), quote.discount());
+        assertEquals(new BigDecimal("630.00"), quote.total());
+    }
+
+    public void testReloadStopsReturningQuotesOfPreviousCalendar() {
+        PricingEngine engine = engine(RateCalendarTest.calendar());
+        assertEquals(new BigDecimal("200.00"), engine.quote(ROOM_PRICED, new BigDecimal("100.00"), CHECK_IN, CHECK_OUT).total());
+
+        engine.reload(RateCalendarTest.calendar("season.marco=03-01..03-31:1.50"));
+
+        assertEquals(new BigDecimal("300.00"), engine.quote(ROOM_PRICED, new BigDecimal("100.00"), CHECK_IN, CHECK_OUT).total());
+    }
+
+    public void testRejectsEmptyStay() {
+        PricingEngine engine = engine(RateCalendarTest.calendar());
+        try {
+            engine.quote(ROOM_PRICED, BigDecimal.TEN, CHECK_IN, CHECK_IN);
+            fail();
+        } catch (IllegalArgumentException expected) {
+        }
+    }
+
+    private static PricingEngine engine(RateCalendar calendar) {
+        return new PricingEngine(calendar, 1_000, Duration.ofMinutes(10));
+    }
+}
@@ -0,0 +1,89 @@
+package com.hotel.app.pricing;
+
+import com.hotel.app.model.RoomType;
+import junit.framework.TestCase;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.Properties;
+
+/**
+ * Calendário de tarifas: épocas (incluindo as que atravessam o fim do ano), tarifas de fim de semana
+ * e descontos por duração da estadia.
+ */
+public class RateCalendarTest extends TestCase {
+
+    private static final RoomType ROOM_TYPE = RoomType.values()[0];
+    private static final BigDecimal ROOM_RATE = new BigDecimal("100.00");
+
+    public void testSeasonAcrossYearEnd() {
+        RateCalendar calendar = calendar("season.festas=12-20..01-05:1.50", "season.verao=07-01..08-31:1.25");
+
+        assertEquals(new BigDecimal("100.00"), rate(calendar, LocalDate.of(2026, 12, 19)));
+        assertEquals(new BigDecimal("150.00"), rate(calendar, LocalDate.of(2026, 12, 20)));
+        assertEquals(new BigDecimal("150.00"), rate(calendar, LocalDate.of(2026, 12, 31)));
+        assertEquals("A época continua no ano seguinte", new BigDecimal("150.00"), rate(calendar, LocalDate.of(2027, 1, 1)));
+        assertEquals(new BigDecimal("150.00"), rate(calendar, LocalDate.of(2027, 1, 5)));
+        assertEquals(new BigDecimal("100.00"), rate(calendar, LocalDate.of(2027, 1, 6)));
+
+        assertEquals(new BigDecimal("100.00"), rate(calendar, LocalDate.of(2026, 6, 30)));
+        assertEquals(new BigDecimal("125.00"), rate(calendar, LocalDate.of(2026, 7, 1)));
+        assertEquals(new BigDecimal("125.00"), rate(calendar, LocalDate.of(2026, 8, 31)));
+        assertEquals(new BigDecimal("100.00"), rate(calendar, LocalDate.of(2026, 9, 1)));
+    }
+
+    public void testHighestMultiplierWinsWhenSeasonsOverlap() {
+        RateCalendar calendar = calendar("season.verao=07-01..08-31:1.25", "season.agosto=08-01..08-15:1.10",
+                "season.festival=08-10..08-20:1.40");
+
+        assertEquals(new BigDecimal("125.00"), rate(calendar, LocalDate.of(2026, 7, 15)));
+        assertEquals("1.25 ganha a 1.10", new BigDecimal("125.00"), rate(calendar, LocalDate.of(2026, 8, 5)));
+        assertEquals("As três épocas incluem o dia 12", new BigDecimal("140.00"), rate(calendar, LocalDate.of(2026, 8, 12)));
+        assertEquals(new BigDecimal("140.00"), rate(calendar, LocalDate.of(2026, 8, 18)));
+    }
+
+    public void testWeekendRates() {
+        RoomType ownRates = RoomType.values()[RoomType.values().length - 1]; // ROOM_TYPE fica sem tarifas próprias
+        RateCalendar calendar = calendar("weekend.days=FRIDAY,SATURDAY", "weekend.multiplier=1.20",
+                ownRates.name() + ".weekday=250.00", ownRates.name() + ".weekend=320.00");
+        LocalDate monday = LocalDate.of(2026, 3, 2);
+        LocalDate friday = LocalDate.of(2026, 3, 6);
+
+        assertEquals(new BigDecimal("250.00"), calendar.nightlyRate(ownRates, ROOM_RATE, monday));
+        assertEquals(new BigDecimal("320.00"), calendar.nightlyRate(ownRates, ROOM_RATE, friday));
+        assertEquals(new BigDecimal("99.99"), calendar.nightlyRate(ROOM_TYPE, new BigDecimal("99.99"), monday));
+        assertEquals("Arredondada ao cêntimo", new BigDecimal("119.99"), calendar.nightlyRate(ROOM_TYPE, new BigDecimal("99.99"), friday));
+    }
+
+    public void testLengthOfStayUsesLargestRuleNotAboveNights() {
+        RateCalendar calendar = calendar("los.7=5", "los.14=10");
+
+        assertEquals(BigDecimal.ZERO, calendar.discountPercentFor(1));
+        assertEquals(BigDecimal.ZERO, calendar.discountPercentFor(6));
+        assertEquals(new BigDecimal("5"), calendar.discountPercentFor(7));
+        assertEquals(new BigDecimal("5"), calendar.discountPercentFor(13));
+        assertEquals(new BigDecimal("10"), calendar.discountPercentFor(14));
+        assertEquals(new BigDecimal("10"), calendar.discountPercentFor(90));
+    }
+
+    public void testInvalidEntriesAreIgnored() {
+        RateCalendar calendar = calendar("los.3=150", "season.errada=07-01:1.25", "weekend.multiplier=-1", "outra.coisa=1");
+
+        assertEquals(BigDecimal.ZERO, calendar.discountPercentFor(3));
+        assertEquals(new BigDecimal("100.00"), rate(calendar, LocalDate.of(2026, 7, 1)));
+        assertEquals(new BigDecimal("100.00"), rate(calendar, LocalDate.of(2026, 3, 6)));
+    }
+
+    private static BigDecimal rate(RateCalendar calendar, LocalDate night) {
+        return calendar.nightlyRate(ROOM_TYPE, ROOM_RATE, night);
+    }
+
+    static RateCalendar calendar(String... entries) {
+        Properties properties = new Properties();
+        for (String entry : entries) {
+            int separator = entry.indexOf('=');
+            properties.setProperty(entry.substring(0, separator), entry.substring(separator + 1));
+        }
+        return RateCalendar.fromProperties(properties);
+    }
+}
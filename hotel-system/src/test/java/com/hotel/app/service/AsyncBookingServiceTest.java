@@ -0,0 +1,84 @@
+package com.hotel.app.service;
+
+import junit.framework.TestCase;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Tempo limite da fachada assíncrona: as consultas expiram, as alterações já iniciadas terminam com o resultado real.
+ */
+public class AsyncBookingServiceTest extends TestCase {
+
+    private static final Duration TIMEOUT = Duration.ofMillis(100);
+
+    private final AsyncBookingService async = new AsyncBookingService(null, null, null, 1, TIMEOUT);
+
+    @Override
+    protected void tearDown() {
+        async.close();
+    }
+
+    public void testSlowReadTimesOut() throws Exception {
+        CompletableFuture<String> read = async.supply(() -> sleepAndReturn(300, "tarde"));
+
+        assertTimedOut(read);
+    }
+
+    public void testSlowWriteCompletesWithItsResult() throws Exception {
+        CompletableFuture<String> write = async.supplyWrite(() -> sleepAndReturn(300, "gravada"));
+
+        assertEquals("Uma alteração já iniciada não pode ser dada como falhada", "gravada", write.get(5, TimeUnit.SECONDS));
+    }
+
+    public void testWriteThatNeverStartsTimesOutWithoutRunning() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        // Ocupa a única vez disponível
+        CompletableFuture<Void> blocker = async.supplyWrite(() -> {
+            await(release);
+            return null;
+        });
+        AtomicBoolean ran = new AtomicBoolean();
+
+        CompletableFuture<String> write = async.supplyWrite(() -> {
+            ran.set(true);
+            return "gravada";
+        });
+
+        assertTimedOut(write);
+        release.countDown();
+        blocker.get(5, TimeUnit.SECONDS);
+        assertFalse("Uma alteração que expirou à espera de vez não é executada", ran.get());
+    }
+
+    private static void assertTimedOut(CompletableFuture<?> future) throws Exception {
+        try {
+            future.get(5, TimeUnit.SECONDS);
+            fail("O future devia ter expirado");
+        } catch (ExecutionException e) {
+            assertTrue(e.getCause() instanceof TimeoutException);
+        }
+    }
+
+    private static String sleepAndReturn(long millis, String value) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        return value;
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}